@@ -23,7 +23,25 @@ repositories {
 	mavenCentral()
 }
 
+sourceSets {
+	create("bench")
+	create("jmh") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
+	}
+}
+
+configurations {
+	named("jmhImplementation") {
+		extendsFrom(configurations.implementation.get())
+	}
+	named("jmhRuntimeOnly") {
+		extendsFrom(configurations.runtimeOnly.get())
+	}
+}
+
 dependencies {
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-web")
@@ -32,8 +50,130 @@ dependencies {
 	annotationProcessor("org.projectlombok:lombok")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+	"jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+	"jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+/**
+ * 기동 시간 우선 빌드. -Paot 를 주면 fast-startup 프로파일로 AOT 처리한 빈 정의도 jar 에 넣는다.
+ * ./gradlew [-Paot] cdsArchive
+ * ./gradlew [-Paot] startupBenchmark -Pruns=10
+ */
+val aot = providers.gradleProperty("aot").isPresent
+if (aot) {
+	apply(plugin = "org.springframework.boot.aot")
+	tasks.withType<org.springframework.boot.gradle.tasks.aot.ProcessAot>().configureEach {
+		args("--spring.profiles.active=fast-startup")
+	}
+}
+
+val toolchainLauncher = javaToolchains.launcherFor(java.toolchain)
+val cdsDirectory = layout.buildDirectory.dir("cds")
+
+val extractBootJar by tasks.registering(Exec::class) {
+	group = "build"
+	description = "Extracts the boot jar into build/cds so that it can use a CDS archive."
+	dependsOn(tasks.bootJar)
+	doFirst {
+		executable(toolchainLauncher.get().executablePath.asFile)
+		args("-Djarmode=tools", "-jar", tasks.bootJar.get().archiveFile.get().asFile,
+			"extract", "--force", "--destination", cdsDirectory.get().asFile)
+	}
+}
+
+tasks.register<Exec>("cdsArchive") {
+	group = "build"
+	description = "Creates build/cds/finance.jsa from a training run of the fast-startup profile."
+	dependsOn(extractBootJar)
+	doFirst {
+		workingDir(cdsDirectory)
+		executable(toolchainLauncher.get().executablePath.asFile)
+		args(listOfNotNull(
+			"-XX:ArchiveClassesAtExit=finance.jsa",
+			"-Dspring.context.exit=onRefresh",
+			"-Dspring.profiles.active=fast-startup",
+			if (aot) "-Dspring.aot.enabled=true" else null,
+			"-jar", tasks.bootJar.get().archiveFileName.get()))
+	}
+}
+
+/**
+ * 기본 jar 와 fast-startup 빌드(CDS, 지연 초기화, -Paot 시 AOT)를 번갈아 띄워서 첫 요청 응답까지의 시간을 비교한다.
+ */
+tasks.register<JavaExec>("startupBenchmark") {
+	group = "verification"
+	description = "Compares time-to-first-request of the default jar and the fast-startup build."
+	dependsOn("cdsArchive")
+	classpath = sourceSets["bench"].runtimeClasspath
+	mainClass = "com.example.finance.bench.StartupBenchmark"
+	doFirst {
+		args(tasks.bootJar.get().archiveFile.get().asFile,
+			cdsDirectory.get().file(tasks.bootJar.get().archiveFileName.get()).asFile,
+			aot.toString(),
+			(findProperty("runs") ?: "5").toString())
+	}
+}
+
+/**
+ * 앱을 bench 프로파일로 띄우고 open-loop 부하를 걸어 엔드포인트별 처리량, 지연 시간 백분위수, 아웃박스 적체량을 본다.
+ * ./gradlew loadTest -Prate=500 -PdurationSeconds=60 [-PwarmupSeconds=10] [-Pmix=create=30,choreography=10,...] [-Pseed=42]
+ * ./gradlew loadTest -PappArgs="--finance.ingestion.group-commit.enabled=true"
+ * ./gradlew loadTest -Ptarget=http://localhost:8080
+ */
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Drives the REST API with an open-loop workload and reports throughput, latency percentiles and outbox backlog."
+	dependsOn(tasks.bootJar)
+	classpath = sourceSets["bench"].runtimeClasspath
+	mainClass = "com.example.finance.bench.LoadGenerator"
+	doFirst {
+		args(listOf(
+			(findProperty("target") ?: tasks.bootJar.get().archiveFile.get().asFile).toString(),
+			(findProperty("rate") ?: "200").toString(),
+			(findProperty("durationSeconds") ?: "60").toString(),
+			(findProperty("warmupSeconds") ?: "10").toString(),
+			(findProperty("mix") ?: "").toString(),
+			(findProperty("seed") ?: "42").toString()
+		) + (findProperty("appArgs") ?: "").toString().split(" ").filter { it.isNotBlank() })
+	}
+}
+
+/**
+ * JMH 결과는 커밋별로 build/reports/jmh/<commit>.json 에 남긴다.
+ * ./gradlew jmh [-Pjmh.include=Outbox]
+ * ./gradlew jmhCompare -Pbaseline=<commit|file> [-Pcandidate=<commit|file>] [-Pthreshold=0.10]
+ */
+val jmhReports = layout.buildDirectory.dir("reports/jmh")
+val commit = providers.exec {
+	commandLine("git", "rev-parse", "--short", "HEAD")
+	isIgnoreExitValue = true
+}.standardOutput.asText.map { it.trim().ifEmpty { "local" } }
+
+tasks.register<JavaExec>("jmh") {
+	group = "verification"
+	description = "Runs the JMH benchmarks and writes machine-readable results for the current commit."
+	classpath = sourceSets["jmh"].runtimeClasspath
+	mainClass = "org.openjdk.jmh.Main"
+	doFirst {
+		jmhReports.get().asFile.mkdirs()
+		args((findProperty("jmh.include") ?: ".*").toString(),
+			"-rf", "json", "-rff", jmhReports.get().file(commit.get() + ".json").asFile)
+	}
+}
+
+tasks.register<JavaExec>("jmhCompare") {
+	group = "verification"
+	description = "Compares two JMH result files and fails when a benchmark regressed beyond the threshold."
+	classpath = sourceSets["jmh"].runtimeClasspath
+	mainClass = "com.example.finance.jmh.JmhCompare"
+	doFirst {
+		args(jmhReports.get().asFile,
+			(findProperty("baseline") ?: throw GradleException("-Pbaseline=<commit|file> is required")).toString(),
+			(findProperty("candidate") ?: commit.get()).toString(),
+			(findProperty("threshold") ?: "0.10").toString())
+	}
+}
@@ -0,0 +1,58 @@
+plugins {
+	java
+	id("org.springframework.boot")
+	id("io.spring.dependency-management")
+}
+
+group = "com.example"
+version = "0.0.1-SNAPSHOT"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(21)
+	}
+}
+
+configurations {
+	compileOnly {
+		extendsFrom(configurations.annotationProcessor.get())
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+sourceSets {
+	create("bench")
+}
+
+dependencies {
+	implementation("org.springframework.boot:spring-boot-starter-data-r2dbc")
+	implementation("org.springframework.boot:spring-boot-starter-webflux")
+	compileOnly("org.projectlombok:lombok")
+	runtimeOnly("io.r2dbc:r2dbc-h2")
+	annotationProcessor("org.projectlombok:lombok")
+	testImplementation("org.springframework.boot:spring-boot-starter-test")
+	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.withType<Test> {
+	useJUnitPlatform()
+}
+
+/**
+ * 서블릿 앱과 리액티브 앱을 각각 bench 프로파일로 띄운 뒤 실행한다.
+ * ./gradlew :reactive:benchmark -Ptargets=servlet=http://localhost:8080,reactive=http://localhost:8081
+ */
+tasks.register<JavaExec>("benchmark") {
+	group = "verification"
+	description = "Compares servlet and reactive transaction endpoints (requests/sec, p99)."
+	classpath = sourceSets["bench"].runtimeClasspath
+	mainClass = "com.example.finance.reactive.bench.EndpointBenchmark"
+	args = listOf(
+		(findProperty("targets") ?: "servlet=http://localhost:8080,reactive=http://localhost:8081").toString(),
+		(findProperty("concurrency") ?: "256").toString(),
+		(findProperty("durationSeconds") ?: "30").toString()
+	)
+}
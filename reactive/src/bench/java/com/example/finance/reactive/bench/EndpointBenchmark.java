@@ -0,0 +1,203 @@
+package com.example.finance.reactive.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ *  서블릿 엔드포인트와 리액티브 엔드포인트를 같은 부하로 비교한다.
+ *
+ *  각 대상은 bench 프로파일(합성 사용자 1000명, 카테고리 20개)로 미리 띄워 두어야 한다.
+ *    ./gradlew bootRun --args='--spring.profiles.active=bench'
+ *    ./gradlew :reactive:bootRun
+ *    ./gradlew :reactive:benchmark -Ptargets=servlet=http://localhost:8080,reactive=http://localhost:8081
+ *
+ *  concurrency 개의 가상 스레드가 생성 20%, id 조회 40%, 사용자별 조회 40% 비율로 요청을 반복한다.
+ *  결과는 엔드포인트별 requests/sec 와 지연 시간 백분위수이며, 마지막에 CSV 로도 출력한다.
+ *  두 앱 모두 생성 요청마다 거래와 아웃박스 행을 한 트랜잭션으로 INSERT 하므로 생성 결과를 그대로 비교할 수 있다.
+ */
+public class EndpointBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int CATEGORIES = 20;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String[] ENDPOINTS = {"POST /api/transactions", "GET /api/transactions/{id}",
+            "GET /api/transactions/user/{userId}"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> targets = parseTargets(args.length > 0 ? args[0]
+                : "servlet=http://localhost:8080,reactive=http://localhost:8081");
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        List<String> csv = new ArrayList<>();
+        csv.add("target,endpoint,count,errors,rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            System.out.printf("%n== %s (%s), concurrency=%d, duration=%s%n",
+                    target.getKey(), target.getValue(), concurrency, duration);
+            run(target.getValue(), concurrency, WARMUP);
+            Result[] results = run(target.getValue(), concurrency, duration);
+            for (int i = 0; i < ENDPOINTS.length; i++) {
+                Result result = results[i];
+                double rps = result.count() / (double) duration.toSeconds();
+                System.out.printf("%-40s %10.1f req/s  p50=%7.2fms  p99=%7.2fms  p99.9=%7.2fms  errors=%d%n",
+                        ENDPOINTS[i], rps, result.percentile(0.50), result.percentile(0.99),
+                        result.percentile(0.999), result.errors());
+                csv.add(String.format("%s,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f", target.getKey(), ENDPOINTS[i],
+                        result.count(), result.errors(), rps, result.percentile(0.50), result.percentile(0.90),
+                        result.percentile(0.99), result.percentile(0.999), result.percentile(1.0)));
+            }
+        }
+
+        System.out.println();
+        csv.forEach(System.out::println);
+    }
+
+    private static Result[] run(String baseUrl, int concurrency, Duration duration) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AtomicLong maxCreatedId = new AtomicLong(0);
+        long deadline = System.nanoTime() + duration.toNanos();
+        Recorder[][] recorders = new Recorder[concurrency][];
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                Recorder[] own = {new Recorder(), new Recorder(), new Recorder()};
+                recorders[w] = own;
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        request(client, baseUrl, maxCreatedId, own);
+                    }
+                });
+            }
+        }
+
+        Result[] results = new Result[ENDPOINTS.length];
+        for (int i = 0; i < ENDPOINTS.length; i++) {
+            List<Recorder> perEndpoint = new ArrayList<>();
+            for (Recorder[] worker : recorders) {
+                perEndpoint.add(worker[i]);
+            }
+            results[i] = Result.merge(perEndpoint);
+        }
+        return results;
+    }
+
+    private static void request(HttpClient client, String baseUrl, AtomicLong maxCreatedId, Recorder[] recorders) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        long knownId = maxCreatedId.get();
+        int endpoint = roll < 20 || knownId == 0 ? 0 : roll < 60 ? 1 : 2;
+
+        HttpRequest request = switch (endpoint) {
+            case 0 -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions"
+                            + "?userId=" + (random.nextInt(USERS) + 1)
+                            + "&categoryId=" + (random.nextInt(CATEGORIES) + 1)
+                            + "&amount=" + random.nextInt(1, 100_000) / 100.0
+                            + "&description=bench"
+                            + "&type=" + (random.nextInt(10) == 0 ? "INCOME" : "EXPENSE")))
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case 1 -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/" + random.nextLong(1, knownId + 1)))
+                    .GET()
+                    .build();
+            default -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/user/" + (random.nextInt(USERS) + 1)))
+                    .GET()
+                    .build();
+        };
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() >= 400) {
+                recorders[endpoint].error();
+                return;
+            }
+            recorders[endpoint].record(elapsed);
+            if (endpoint == 0) {
+                Matcher matcher = ID.matcher(response.body());
+                if (matcher.find()) {
+                    maxCreatedId.accumulateAndGet(Long.parseLong(matcher.group(1)), Math::max);
+                }
+            }
+        } catch (Exception e) {
+            recorders[endpoint].error();
+        }
+    }
+
+    private static Map<String, String> parseTargets(String spec) {
+        Map<String, String> targets = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=", 2);
+            targets.put(parts[0].trim(), parts[1].trim());
+        }
+        return targets;
+    }
+
+    /**
+     * 워커 스레드 하나가 단독으로 쓰는 지연 시간 버퍼
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        void error() {
+            errors++;
+        }
+    }
+
+    private record Result(long[] sortedLatencies, long errors) {
+
+        static Result merge(List<Recorder> recorders) {
+            int total = recorders.stream().mapToInt(recorder -> recorder.count).sum();
+            long[] merged = new long[total];
+            int offset = 0;
+            long errors = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies, 0, merged, offset, recorder.count);
+                offset += recorder.count;
+                errors += recorder.errors;
+            }
+            Arrays.sort(merged);
+            return new Result(merged, errors);
+        }
+
+        long count() {
+            return sortedLatencies.length;
+        }
+
+        double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(p * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
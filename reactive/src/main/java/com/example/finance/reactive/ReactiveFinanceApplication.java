@@ -0,0 +1,17 @@
+package com.example.finance.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ *  거래 생성/조회 API 의 논블로킹 버전 (WebFlux + R2DBC)
+ *  서블릿 앱과 같은 엔드포인트와 테이블 구조를 사용하고, 별도 프로세스로 실행한다.
+ */
+@SpringBootApplication
+public class ReactiveFinanceApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveFinanceApplication.class, args);
+	}
+
+}
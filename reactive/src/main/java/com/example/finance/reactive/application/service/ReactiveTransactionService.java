@@ -0,0 +1,146 @@
+package com.example.finance.reactive.application.service;
+
+import com.example.finance.reactive.domain.event.EventIds;
+import com.example.finance.reactive.domain.model.OutboxEventRecord;
+import com.example.finance.reactive.domain.model.TransactionRecord;
+import com.example.finance.reactive.domain.repository.OutboxEventRecordRepository;
+import com.example.finance.reactive.domain.repository.TransactionRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ *  서블릿 앱의 TransactionService 처럼 거래와 TransactionCreatedEvent 아웃박스 행을 한 트랜잭션으로 저장하므로
+ *  생성 요청 하나가 하는 DB 작업이 서블릿 쪽과 같다. 릴레이는 서블릿 앱에만 있으므로 두 앱이 같은 DB 를 볼 때 전달된다.
+ */
+@Service
+@Slf4j
+public class ReactiveTransactionService {
+
+    /**
+     * 서블릿 앱의 아웃박스 릴레이가 그대로 역직렬화할 수 있도록 같은 이벤트 타입과 페이로드 구조를 사용한다.
+     */
+    static final String CREATED_EVENT_TYPE = "com.example.finance.domain.event.TransactionCreatedEvent";
+
+    private final TransactionRecordRepository transactionRecordRepository;
+    private final OutboxEventRecordRepository outboxEventRecordRepository;
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final String baseCurrency;
+
+    /**
+     * 리액티브 API 는 환율표를 두지 않고 기준 통화 금액만 받는다.
+     */
+    public ReactiveTransactionService(TransactionRecordRepository transactionRecordRepository,
+                                      OutboxEventRecordRepository outboxEventRecordRepository,
+                                      DatabaseClient databaseClient,
+                                      ObjectMapper objectMapper,
+                                      @Value("${finance.fx.base-currency:KRW}") String baseCurrency) {
+        this.transactionRecordRepository = transactionRecordRepository;
+        this.outboxEventRecordRepository = outboxEventRecordRepository;
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.baseCurrency = baseCurrency.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * 사용자와 카테고리를 검증하고, 거래와 아웃박스 이벤트를 하나의 리액티브 트랜잭션으로 저장한다.
+     */
+    @Transactional
+    public Mono<TransactionRecord> createTransaction(Long userId, Long categoryId, BigDecimal amount,
+                                                     String description, TransactionRecord.TransactionType type) {
+        LocalDateTime now = LocalDateTime.now();
+        TransactionRecord transaction = TransactionRecord.builder()
+                .userId(userId)
+                .categoryId(categoryId)
+                .amount(amount)
+                .currency(baseCurrency)
+                .baseAmount(amount)
+                .description(description)
+                .type(type)
+                .transactionDate(now)
+                .createdAt(now)
+                .build();
+
+        return requireExists("users", userId, "User")
+                .then(requireExists("categories", categoryId, "Category"))
+                .then(transactionRecordRepository.save(transaction))
+                .flatMap(saved -> outboxEventRecordRepository.save(createdEvent(saved)).thenReturn(saved));
+    }
+
+    public Mono<TransactionRecord> findById(Long id) {
+        return transactionRecordRepository.findById(id);
+    }
+
+    /**
+     * 사용자가 존재하지 않으면 비어있는 Mono 를 반환한다.
+     */
+    public Mono<List<TransactionRecord>> findByUser(Long userId) {
+        return count("users", userId)
+                .filter(count -> count > 0)
+                .flatMap(count -> transactionRecordRepository.findByUserIdOrderByIdAsc(userId).collectList());
+    }
+
+    private Mono<Void> requireExists(String table, Long id, String label) {
+        return count(table, id)
+                .filter(count -> count > 0)
+                .switchIfEmpty(Mono.error(new RuntimeException(label + " not found with Id: " + id)))
+                .then();
+    }
+
+    private Mono<Long> count(String table, Long id) {
+        return databaseClient.sql("SELECT COUNT(*) FROM " + table + " WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private OutboxEventRecord createdEvent(TransactionRecord transaction) {
+        UUID eventId = EventIds.next();
+        LocalDateTime occurredOn = LocalDateTime.now();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", transaction.getId());
+        body.put("description", transaction.getDescription());
+        body.put("amount", transaction.getAmount());
+        body.put("currency", transaction.getCurrency());
+        body.put("baseAmount", transaction.getBaseAmount());
+        body.put("type", transaction.getType());
+        body.put("transactionDate", transaction.getTransactionDate());
+        body.put("createdAt", transaction.getCreatedAt());
+        body.put("updatedAt", transaction.getUpdatedAt());
+        body.put("version", transaction.getVersion());
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("eventId", eventId);
+        event.put("occurredOn", occurredOn);
+        event.put("transaction", body);
+        event.put("userId", transaction.getUserId());
+        event.put("categoryId", transaction.getCategoryId());
+
+        try {
+            return OutboxEventRecord.builder()
+                    .eventId(eventId)
+                    .eventType(CREATED_EVENT_TYPE)
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(occurredOn)
+                    .processed(false)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to store event in outbox", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.finance.reactive.domain.event;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  시간 순서로 정렬되는 이벤트 id (UUIDv7 배치)
+ *  서블릿 앱의 EventIds 와 같은 배치라서 두 앱이 쓴 아웃박스 행을 릴레이가 같은 event_id 순서로 읽는다.
+ *  이 모듈은 서블릿 앱에 의존하지 않으므로 따로 둔다.
+ */
+public final class EventIds {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private EventIds() {
+    }
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long last;
+        long next;
+        do {
+            last = LAST.get();
+            next = Math.max(now, last + 1);
+        } while (!LAST.compareAndSet(last, next));
+
+        long mostSignificant = (next >>> SEQUENCE_BITS) << 16 | 0x7000L | (next & 0xfffL);
+        long leastSignificant = ThreadLocalRandom.current().nextLong() >>> 2 | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.finance.reactive.domain.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Table("outbox_events")
+@Getter @Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventRecord {
+
+    @Id
+    private Long id;
+
+    private UUID eventId;
+
+    private String eventType;
+
+    private String payload;
+
+    private LocalDateTime createdAt;
+
+    private boolean processed;
+
+    private LocalDateTime processedAt;
+}
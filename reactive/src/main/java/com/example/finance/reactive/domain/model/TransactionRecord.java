@@ -0,0 +1,52 @@
+package com.example.finance.reactive.domain.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ *  transactions 테이블의 R2DBC 매핑
+ *  연관 엔티티를 지연 로딩할 수 없으므로 사용자와 카테고리는 id 로만 가진다.
+ */
+@Table("transactions")
+@Getter @Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRecord {
+
+    @Id
+    private Long id;
+
+    private Long userId;
+
+    private Long categoryId;
+
+    private String description;
+
+    private BigDecimal amount;
+
+    private String currency;
+
+    private BigDecimal baseAmount;
+
+    private TransactionType type;
+
+    private LocalDateTime transactionDate;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    public enum TransactionType {
+        INCOME, EXPENSE
+    }
+}
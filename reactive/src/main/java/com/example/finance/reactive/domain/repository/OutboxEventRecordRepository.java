@@ -0,0 +1,7 @@
+package com.example.finance.reactive.domain.repository;
+
+import com.example.finance.reactive.domain.model.OutboxEventRecord;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface OutboxEventRecordRepository extends ReactiveCrudRepository<OutboxEventRecord, Long> {
+}
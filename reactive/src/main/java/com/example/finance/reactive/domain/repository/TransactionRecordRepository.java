@@ -0,0 +1,10 @@
+package com.example.finance.reactive.domain.repository;
+
+import com.example.finance.reactive.domain.model.TransactionRecord;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
+public interface TransactionRecordRepository extends ReactiveCrudRepository<TransactionRecord, Long> {
+
+    Flux<TransactionRecord> findByUserIdOrderByIdAsc(Long userId);
+}
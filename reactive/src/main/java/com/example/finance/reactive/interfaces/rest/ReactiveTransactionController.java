@@ -0,0 +1,51 @@
+package com.example.finance.reactive.interfaces.rest;
+
+import com.example.finance.reactive.application.service.ReactiveTransactionService;
+import com.example.finance.reactive.domain.model.TransactionRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ *  서블릿 앱의 TransactionController 와 같은 경로와 파라미터를 가진 논블로킹 엔드포인트
+ */
+@RestController
+@RequestMapping("/api/transactions")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveTransactionController {
+
+    private final ReactiveTransactionService transactionService;
+
+    @PostMapping
+    public Mono<ResponseEntity<TransactionRecord>> createTransaction(
+            @RequestParam Long userId,
+            @RequestParam Long categoryId,
+            @RequestParam BigDecimal amount,
+            @RequestParam String description,
+            @RequestParam TransactionRecord.TransactionType type) {
+
+        return transactionService.createTransaction(userId, categoryId, amount, description, type)
+                .map(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<TransactionRecord>> getTransactionById(@PathVariable Long id) {
+        return transactionService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<List<TransactionRecord>>> getTransactionsByUser(@PathVariable Long userId) {
+        return transactionService.findByUser(userId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -1 +1,3 @@
 rootProject.name = "finance"
+
+include("reactive")
@@ -0,0 +1,425 @@
+package com.example.finance.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ *  REST API 에 open-loop 부하를 걸고 엔드포인트별 처리량과 지연 시간 백분위수, 아웃박스 적체량을 보고한다.
+ *
+ *    ./gradlew loadTest -Prate=500 -PdurationSeconds=60
+ *    ./gradlew loadTest -Prate=500 -PappArgs=--finance.ingestion.group-commit.enabled=true
+ *    ./gradlew loadTest -Ptarget=http://localhost:8080 -Pmix=create=50,byId=50
+ *
+ *  target 이 jar 이면 bench 프로파일(합성 사용자 1000명, 카테고리 20개, H2)로 앱을 직접 띄우고, URL 이면 떠 있는 앱에 건다.
+ *  요청은 평균 rate 건/초의 포아송 도착으로 미리 정해진 시각에 보내고, 응답을 기다리지 않는다.
+ *  지연 시간은 실제로 보낸 시각이 아니라 보내기로 한 시각부터 재므로, 서버나 부하 생성기가 밀려도
+ *  그동안 보내지 못한 요청의 대기 시간이 빠지지 않는다 (coordinated omission 방지). 실제 전송 시각부터 잰 서비스 시간도 함께 보여 준다.
+ *  seed 가 같으면 같은 요청 순서와 도착 간격이 만들어진다.
+ *  결과는 엔드포인트별 요약과 초 단위 타임라인(처리량, p99, 진행 중 요청 수, finance.outbox.backlog)이며 마지막에 CSV 로도 출력한다.
+ */
+public class LoadGenerator {
+
+    // bench-data.sql 이 넣는 합성 데이터
+    private static final int USERS = 1000;
+    private static final int CATEGORIES = 20;
+    private static final int MAX_IN_FLIGHT = 10_000;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final String DEFAULT_MIX = "create=30,choreography=10,orchestration=10,byId=30,byUser=20";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern GAUGE_VALUE = Pattern.compile("\"value\"\\s*:\\s*([-\\d.Ee+]+)");
+
+    enum Endpoint {
+        CREATE("create", "POST /api/transactions"),
+        CHOREOGRAPHY("choreography", "POST /api/transactions/saga/choreography"),
+        ORCHESTRATION("orchestration", "POST /api/transactions/saga/orchestration"),
+        BY_ID("byId", "GET /api/transactions/{id}"),
+        BY_USER("byUser", "GET /api/transactions/user/{userId}"),
+        ALL("all", "GET /api/transactions");
+
+        final String key;
+        final String label;
+
+        Endpoint(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        boolean creates() {
+            return this == CREATE || this == CHOREOGRAPHY || this == ORCHESTRATION;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: LoadGenerator <boot jar|base url> [rate/s] [duration s] [warm-up s] [mix] [seed] [app args...]");
+            System.exit(1);
+        }
+        String target = args[0];
+        double rate = args.length > 1 ? Double.parseDouble(args[1]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 60);
+        Duration warmup = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 10);
+        Map<Endpoint, Integer> mix = parseMix(args.length > 4 && !args[4].isBlank() ? args[4] : DEFAULT_MIX);
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 42;
+        List<String> appArgs = args.length > 6 ? List.of(args).subList(6, args.length) : List.of();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        Process app = null;
+        String baseUrl = target;
+        if (!target.startsWith("http://") && !target.startsWith("https://")) {
+            int port = freePort();
+            app = start(new File(target), port, appArgs);
+            baseUrl = "http://localhost:" + port;
+        }
+        try {
+            awaitHealthy(client, baseUrl, app);
+            System.out.printf("open-loop load on %s: %.1f req/s, warm-up %ds, measure %ds, seed %d, mix %s%n",
+                    baseUrl, rate, warmup.toSeconds(), duration.toSeconds(), seed, mix);
+            new LoadGenerator(client, baseUrl, rate, warmup, duration, mix, seed).run();
+        } finally {
+            if (app != null) {
+                app.destroy();
+                if (!app.waitFor(10, TimeUnit.SECONDS)) {
+                    app.destroyForcibly().waitFor();
+                }
+            }
+        }
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Endpoint[] wheel;
+    private final Random random;
+
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong maxCreatedId = new AtomicLong();
+    private final List<Second> timeline = new ArrayList<>();
+
+    private LoadGenerator(HttpClient client, String baseUrl, double rate, Duration warmup, Duration duration,
+                          Map<Endpoint, Integer> mix, long seed) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.random = new Random(seed);
+        List<Endpoint> weighted = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        this.wheel = weighted.toArray(Endpoint[]::new);
+        for (Endpoint endpoint : mix.keySet()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    private void run() throws InterruptedException {
+        long started = System.nanoTime();
+        long measureFrom = started + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> sample(started, measureFrom, measureUntil), 1, 1, TimeUnit.SECONDS);
+        try {
+            dispatch(started, measureFrom, measureUntil);
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(10);
+            }
+            // 부하가 끝난 뒤 아웃박스가 비워질 때까지 타임라인을 계속 남긴다.
+            while (System.nanoTime() < drainDeadline) {
+                Long backlog = lastBacklog();
+                if (backlog != null && backlog == 0) {
+                    break;
+                }
+                Thread.sleep(200);
+            }
+        } finally {
+            sampler.shutdown();
+            sampler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        sample(started, measureFrom, measureUntil);
+        report();
+    }
+
+    /**
+     * 평균 rate 건/초의 포아송 도착 시각을 미리 정하고 그 시각에 요청을 보낸다. 밀렸으면 기다리지 않고 바로 보낸다.
+     */
+    private void dispatch(long started, long measureFrom, long measureUntil) {
+        long intended = started;
+        while (true) {
+            intended += (long) (-Math.log(1 - random.nextDouble()) / rate * 1_000_000_000L);
+            if (intended >= measureUntil) {
+                return;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = wheel[random.nextInt(wheel.length)];
+            if (endpoint == Endpoint.BY_ID && maxCreatedId.get() == 0 && stats.containsKey(Endpoint.CREATE)) {
+                // 아직 만들어진 거래 id 를 모르면 조회 대신 생성한다.
+                endpoint = Endpoint.CREATE;
+            }
+            send(endpoint, request(endpoint), intended, intended >= measureFrom);
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        String create = "?userId=" + (random.nextInt(USERS) + 1)
+                + "&categoryId=" + (random.nextInt(CATEGORIES) + 1)
+                + "&amount=" + random.nextInt(1, 100_000) / 100.0
+                + "&description=load"
+                + "&type=" + (random.nextInt(10) == 0 ? "INCOME" : "EXPENSE");
+        return switch (endpoint) {
+            case CREATE -> post("/api/transactions" + create);
+            case CHOREOGRAPHY -> post("/api/transactions/saga/choreography" + create);
+            case ORCHESTRATION -> post("/api/transactions/saga/orchestration" + create);
+            case BY_ID -> get("/api/transactions/" + random.nextLong(1, Math.max(1, maxCreatedId.get()) + 1));
+            case BY_USER -> get("/api/transactions/user/" + (random.nextInt(USERS) + 1));
+            case ALL -> get("/api/transactions");
+        };
+    }
+
+    private void send(Endpoint endpoint, HttpRequest request, long intended, boolean measured) {
+        Stats endpointStats = stats.get(endpoint);
+        if (inFlight.get() >= MAX_IN_FLIGHT) {
+            // 부하 생성기 자체를 보호한다. 보내지 못한 요청은 실패로 센다.
+            if (measured) {
+                endpointStats.dropped.incrementAndGet();
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            long completed = System.nanoTime();
+            inFlight.decrementAndGet();
+            boolean success = error == null && response.statusCode() < 400;
+            if (success && endpoint.creates()) {
+                Matcher matcher = ID.matcher(response.body());
+                if (matcher.find()) {
+                    maxCreatedId.accumulateAndGet(Long.parseLong(matcher.group(1)), Math::max);
+                }
+            }
+            if (!measured) {
+                return;
+            }
+            if (success) {
+                endpointStats.response.record((completed - intended) / 1000);
+                endpointStats.service.record((completed - sent) / 1000);
+            } else {
+                endpointStats.errors.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * 1초마다 지난 1초 동안 끝난 요청을 누적 히스토그램으로 옮기고 아웃박스 적체량을 읽는다.
+     */
+    private void sample(long started, long measureFrom, long measureUntil) {
+        LatencyHistogram second = new LatencyHistogram();
+        long errors = 0;
+        for (Stats endpointStats : stats.values()) {
+            LatencyHistogram interval = new LatencyHistogram();
+            endpointStats.response.drainTo(interval);
+            interval.addTo(second);
+            interval.addTo(endpointStats.total);
+            long seen = endpointStats.errors.get() + endpointStats.dropped.get();
+            errors += seen - endpointStats.errorsSeen;
+            endpointStats.errorsSeen = seen;
+        }
+        Long backlog = backlog();
+        long now = System.nanoTime();
+        String phase = now < measureFrom ? "warm-up" : now < measureUntil ? "measure" : "drain";
+        Second row = new Second(TimeUnit.NANOSECONDS.toSeconds(now - started), phase, second.count(), errors,
+                second.percentileMillis(99), inFlight.get(), backlog);
+        synchronized (timeline) {
+            timeline.add(row);
+        }
+        System.out.printf("%4ds %-8s completed %6d  errors %5d  p99 %8.2f ms  in-flight %5d  outbox backlog %s%n",
+                row.elapsedSeconds(), phase, row.completed(), row.errors(), row.p99Millis(),
+                row.inFlight(), backlog == null ? "-" : backlog);
+    }
+
+    private void report() {
+        List<String> csv = new ArrayList<>();
+        csv.add("endpoint,count,errors,dropped,rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,service_p99_ms");
+        System.out.println();
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            Stats endpointStats = entry.getValue();
+            LatencyHistogram total = endpointStats.total;
+            double rps = total.count() / (double) duration.toSeconds();
+            System.out.printf("%-42s %9.1f req/s  p50=%8.2fms  p99=%8.2fms  p99.9=%8.2fms  max=%8.2fms"
+                            + "  (service p99=%8.2fms)  errors=%d dropped=%d%n",
+                    entry.getKey().label, rps, total.percentileMillis(50), total.percentileMillis(99),
+                    total.percentileMillis(99.9), total.maxMillis(), endpointStats.service.percentileMillis(99),
+                    endpointStats.errors.get(), endpointStats.dropped.get());
+            csv.add(String.format("%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f", entry.getKey().label,
+                    total.count(), endpointStats.errors.get(), endpointStats.dropped.get(), rps,
+                    total.percentileMillis(50), total.percentileMillis(90), total.percentileMillis(99),
+                    total.percentileMillis(99.9), total.maxMillis(), endpointStats.service.percentileMillis(99)));
+        }
+
+        csv.add("");
+        csv.add("second,phase,completed,errors,p99_ms,in_flight,outbox_backlog");
+        synchronized (timeline) {
+            for (Second row : timeline) {
+                csv.add(String.format("%d,%s,%d,%d,%.3f,%d,%s", row.elapsedSeconds(),
+                        row.phase(), row.completed(), row.errors(), row.p99Millis(),
+                        row.inFlight(), row.backlog() == null ? "" : row.backlog()));
+            }
+        }
+        System.out.println();
+        csv.forEach(System.out::println);
+    }
+
+    private Long lastBacklog() {
+        synchronized (timeline) {
+            return timeline.isEmpty() ? null : timeline.get(timeline.size() - 1).backlog();
+        }
+    }
+
+    /**
+     * /actuator/metrics/finance.outbox.backlog 를 읽는다. 읽을 수 없으면 null.
+     */
+    private Long backlog() {
+        try {
+            HttpResponse<String> response = client.send(get("/actuator/metrics/finance.outbox.backlog"),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = GAUGE_VALUE.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? (long) Double.parseDouble(matcher.group(1)) : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static Process start(File bootJar, int port, List<String> appArgs) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>(List.of(java, "-jar", bootJar.getAbsolutePath(),
+                "--spring.profiles.active=bench", "--server.port=" + port));
+        command.addAll(appArgs);
+        File log = new File(bootJar.getAbsoluteFile().getParentFile(), "load-test-app.log");
+        System.out.printf("starting %s (log: %s)%n", String.join(" ", command), log);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    private static void awaitHealthy(HttpClient client, String baseUrl, Process app) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (app != null && !app.isAlive()) {
+                throw new IllegalStateException("Application exited with " + app.exitValue());
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 아직 포트가 열리지 않았다.
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException(baseUrl + " did not become healthy within " + STARTUP_TIMEOUT);
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String spec) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=", 2);
+            Endpoint endpoint = null;
+            for (Endpoint candidate : Endpoint.values()) {
+                if (candidate.key.equals(parts[0].trim())) {
+                    endpoint = candidate;
+                }
+            }
+            if (endpoint == null || parts.length != 2) {
+                throw new IllegalArgumentException("Unknown mix entry '" + entry + "', expected one of "
+                        + Stream.of(Endpoint.values()).map(e -> e.key + "=<weight>").toList());
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(endpoint, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no endpoint with a positive weight: " + spec);
+        }
+        return mix;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * 엔드포인트별 누적 결과. response 는 지난 샘플 이후에 끝난 요청이고, 샘플마다 total 로 옮겨진다.
+     */
+    private static final class Stats {
+        final LatencyHistogram response = new LatencyHistogram();
+        final LatencyHistogram total = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        long errorsSeen;
+    }
+
+    private record Second(long elapsedSeconds, String phase, long completed, long errors, double p99Millis,
+                          long inFlight, Long backlog) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.finance.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ *  기본 jar 와 fast-startup 빌드의 기동 시간을 비교한다.
+ *
+ *    ./gradlew [-Paot] startupBenchmark -Pruns=10
+ *
+ *  설정마다 프로세스를 새로 띄우고, 프로세스 시작부터 GET /api/transactions 가 처음 200 을 돌려줄 때까지를
+ *  time-to-first-request 로 잰다. 스프링이 로그로 남기는 기동 시간도 함께 모은다.
+ *  디스크 캐시 영향을 줄이기 위해 설정마다 한 번씩 버리는 실행을 하고, 이후에는 설정을 번갈아 실행한다.
+ *  결과는 설정별 최소/중앙값/최대이며, 마지막에 CSV 로도 출력한다.
+ */
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([\\d.]+) seconds");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: StartupBenchmark <boot jar> <extracted jar with finance.jsa> [aot] [runs]");
+            System.exit(1);
+        }
+        File bootJar = new File(args[0]);
+        File extractedJar = new File(args[1]);
+        boolean aot = args.length > 2 && Boolean.parseBoolean(args[2]);
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        String java = ProcessHandle.current().info().command().orElse("java");
+
+        Map<String, Launch> launches = new LinkedHashMap<>();
+        launches.put("default", new Launch(bootJar.getAbsoluteFile().getParentFile(),
+                List.of(java, "-jar", bootJar.getName())));
+        List<String> fast = new ArrayList<>(List.of(java, "-XX:SharedArchiveFile=finance.jsa",
+                "-Dspring.profiles.active=fast-startup"));
+        if (aot) {
+            fast.add("-Dspring.aot.enabled=true");
+        }
+        fast.addAll(List.of("-jar", extractedJar.getName()));
+        launches.put(aot ? "fast-startup+aot" : "fast-startup",
+                new Launch(extractedJar.getAbsoluteFile().getParentFile(), fast));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+
+        Map<String, List<Sample>> samples = new LinkedHashMap<>();
+        for (Map.Entry<String, Launch> launch : launches.entrySet()) {
+            System.out.printf("warm-up %s%n", launch.getKey());
+            measure(client, launch.getValue());
+            samples.put(launch.getKey(), new ArrayList<>());
+        }
+        for (int run = 1; run <= runs; run++) {
+            for (Map.Entry<String, Launch> launch : launches.entrySet()) {
+                Sample sample = measure(client, launch.getValue());
+                samples.get(launch.getKey()).add(sample);
+                System.out.printf("run %d %-18s first request %7.1f ms  spring %7.1f ms%n",
+                        run, launch.getKey(), sample.firstRequestMillis(), sample.springMillis());
+            }
+        }
+
+        List<String> csv = new ArrayList<>();
+        csv.add("config,runs,ttfr_min_ms,ttfr_p50_ms,ttfr_max_ms,spring_p50_ms");
+        System.out.println();
+        for (Map.Entry<String, List<Sample>> entry : samples.entrySet()) {
+            double[] firstRequest = entry.getValue().stream().mapToDouble(Sample::firstRequestMillis).sorted().toArray();
+            double[] spring = entry.getValue().stream().mapToDouble(Sample::springMillis).sorted().toArray();
+            System.out.printf("%-18s time-to-first-request min=%7.1fms  p50=%7.1fms  max=%7.1fms  (spring p50=%7.1fms)%n",
+                    entry.getKey(), firstRequest[0], median(firstRequest), firstRequest[firstRequest.length - 1],
+                    median(spring));
+            csv.add(String.format("%s,%d,%.1f,%.1f,%.1f,%.1f", entry.getKey(), firstRequest.length, firstRequest[0],
+                    median(firstRequest), firstRequest[firstRequest.length - 1], median(spring)));
+        }
+        System.out.println();
+        csv.forEach(System.out::println);
+    }
+
+    private static Sample measure(HttpClient client, Launch launch) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(launch.command());
+        command.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/transactions"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(launch.directory())
+                .redirectErrorStream(true)
+                .start();
+        CompletableFuture<Double> springMillis = springStartup(process);
+        try {
+            long deadline = started + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        double firstRequest = (System.nanoTime() - started) / 1_000_000.0;
+                        return new Sample(firstRequest, springMillis.get(5, TimeUnit.SECONDS));
+                    }
+                } catch (IOException e) {
+                    // 아직 포트가 열리지 않았다.
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("Application did not answer within " + STARTUP_TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * 로그에서 "Started FinanceApplication in X seconds" 를 찾는다. 출력 버퍼가 차서 앱이 멈추지 않도록 끝까지 읽는다.
+     */
+    private static CompletableFuture<Double> springStartup(Process process) {
+        CompletableFuture<Double> millis = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    Matcher matcher = STARTED.matcher(line);
+                    if (!millis.isDone() && matcher.find()) {
+                        millis.complete(Double.parseDouble(matcher.group(1)) * 1000);
+                    }
+                }
+            } catch (IOException e) {
+                // 프로세스가 종료되면서 스트림이 닫혔다.
+            }
+            millis.complete(Double.NaN);
+        }, "startup-log");
+        reader.setDaemon(true);
+        reader.start();
+        return millis;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static double median(double[] sorted) {
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private record Launch(File directory, List<String> command) {
+    }
+
+    private record Sample(double firstRequestMillis, double springMillis) {
+    }
+}
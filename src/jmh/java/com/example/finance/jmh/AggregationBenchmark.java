@@ -0,0 +1,82 @@
+package com.example.finance.jmh;
+
+import com.example.finance.domain.model.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ *  거래 목록의 유형별 금액 합계
+ *  스트림/반복문으로 BigDecimal 을 더하는 방식과, 금액이 소수 둘째 자리라는 점을 이용해 unscaled long 으로 더하는 방식을 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregationBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private List<Transaction> transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactions = Fixtures.transactions(size);
+    }
+
+    @Benchmark
+    public Map<Transaction.TransactionType, BigDecimal> groupingByReducing() {
+        return transactions.stream()
+                .collect(Collectors.groupingBy(Transaction::getType,
+                        Collectors.reducing(BigDecimal.ZERO, Transaction::getBaseAmount, BigDecimal::add)));
+    }
+
+    @Benchmark
+    public BigDecimal[] loop() {
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+        for (Transaction transaction : transactions) {
+            if (transaction.getType() == Transaction.TransactionType.INCOME) {
+                income = income.add(transaction.getBaseAmount());
+            } else {
+                expense = expense.add(transaction.getBaseAmount());
+            }
+        }
+        return new BigDecimal[]{income, expense};
+    }
+
+    @Benchmark
+    public Map<Transaction.TransactionType, BigDecimal> unscaledLong() {
+        long[] cents = new long[Transaction.TransactionType.values().length];
+        for (Transaction transaction : transactions) {
+            BigDecimal amount = transaction.getBaseAmount();
+            cents[transaction.getType().ordinal()] = Math.addExact(cents[transaction.getType().ordinal()],
+                    amount.scale() == 2 ? amount.unscaledValue().longValueExact()
+                            : amount.setScale(2).unscaledValue().longValueExact());
+        }
+        Map<Transaction.TransactionType, BigDecimal> totals = new EnumMap<>(Transaction.TransactionType.class);
+        for (Transaction.TransactionType type : Transaction.TransactionType.values()) {
+            totals.put(type, BigDecimal.valueOf(cents[type.ordinal()], 2));
+        }
+        return totals;
+    }
+}
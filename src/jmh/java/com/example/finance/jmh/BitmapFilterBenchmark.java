@@ -0,0 +1,77 @@
+package com.example.finance.jmh;
+
+import com.example.finance.infrastructure.index.CompressedBitmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  검색 조건 두 개(유형 절반, 카테고리 5%)의 교집합 비용
+ *
+ *  hashSet 한 조건의 id 집합을 돌면서 다른 조건의 HashSet 에 있는지 확인
+ *  bitmap  CompressedBitmap.and
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BitmapFilterBenchmark {
+
+    @Param({"1000000"})
+    int transactions;
+
+    private Set<Integer> typeSet;
+    private Set<Integer> categorySet;
+    private CompressedBitmap typeBitmap;
+    private CompressedBitmap categoryBitmap;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        typeSet = new HashSet<>();
+        categorySet = new HashSet<>();
+        typeBitmap = new CompressedBitmap();
+        categoryBitmap = new CompressedBitmap();
+        for (int ordinal = 0; ordinal < transactions; ordinal++) {
+            if (random.nextInt(2) == 0) {
+                typeSet.add(ordinal);
+                typeBitmap.add(ordinal);
+            }
+            if (random.nextInt(20) == 0) {
+                categorySet.add(ordinal);
+                categoryBitmap.add(ordinal);
+            }
+        }
+    }
+
+    @Benchmark
+    public int hashSet() {
+        int matched = 0;
+        for (int ordinal : categorySet) {
+            if (typeSet.contains(ordinal)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public long bitmap() {
+        return CompressedBitmap.and(categoryBitmap, typeBitmap).cardinality();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.finance.jmh;
+
+import com.example.finance.config.AsyncConfig;
+import com.example.finance.config.EventConfig;
+import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.service.DomainEventPublisher;
+import com.example.finance.infrastructure.metrics.ResourceMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  DomainEventPublisher 에서 리스너 실행 완료까지의 비용
+ *  sync 는 멀티캐스터가 호출 스레드에서 리스너를 실행하고, async 는 EventConfig 와 같이 taskExecutor 로 넘긴다.
+ *  async 는 리스너가 실제로 실행될 때까지 기다리므로 스레드 전환 비용이 포함된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    @Param({"sync", "async"})
+    public String dispatch;
+
+    private AnnotationConfigApplicationContext context;
+    private ThreadPoolTaskExecutor taskExecutor;
+    private DomainEventPublisher publisher;
+    private CountingListener listener;
+    private TransactionCreatedEvent event;
+    private long published;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ApplicationEventMulticaster multicaster;
+        if (dispatch.equals("async")) {
+            taskExecutor = (ThreadPoolTaskExecutor) new AsyncConfig().taskExecutor(
+                    new ResourceMetrics(new SimpleMeterRegistry(), true));
+            multicaster = new EventConfig(taskExecutor).applicationEventMulticaster();
+        } else {
+            multicaster = new SimpleApplicationEventMulticaster();
+        }
+        context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().registerSingleton(
+                AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME, multicaster);
+        context.register(CountingListener.class);
+        context.refresh();
+
+        listener = context.getBean(CountingListener.class);
+        publisher = new DomainEventPublisher(context);
+        event = new TransactionCreatedEvent(Fixtures.transaction(1, Fixtures.user(1), Fixtures.category(1),
+                new BigDecimal("12500.00"), Transaction.TransactionType.EXPENSE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        if (taskExecutor != null) {
+            taskExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long publish() {
+        long target = ++published;
+        publisher.publish(event);
+        while (listener.handled() < target) {
+            Thread.onSpinWait();
+        }
+        return target;
+    }
+
+    public static class CountingListener {
+
+        private final AtomicLong handled = new AtomicLong();
+
+        @EventListener
+        public void on(TransactionCreatedEvent event) {
+            handled.incrementAndGet();
+        }
+
+        long handled() {
+            return handled.get();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.finance.jmh;
+
+import com.example.finance.domain.event.EventIds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  이벤트 id 생성 비용. 요청 스레드들이 동시에 이벤트를 만드는 상황을 흉내 내도록 8 스레드로 돌린다.
+ *
+ *  random  이전 방식 (UUID.randomUUID, 공유 SecureRandom)
+ *  ordered EventIds.next (CAS 한 번 + ThreadLocalRandom)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class EventIdBenchmark {
+
+    @Benchmark
+    public UUID random() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID ordered() {
+        return EventIds.next();
+    }
+}
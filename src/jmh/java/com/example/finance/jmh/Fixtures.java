@@ -0,0 +1,78 @@
+package com.example.finance.jmh;
+
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ *  벤치마크 공용 데이터. 시드가 고정되어 있어서 실행마다 같은 입력을 만든다.
+ */
+final class Fixtures {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user" + id)
+                .fullName("User " + id)
+                .email("user" + id + "@example.com")
+                .password("secret")
+                .createdAt(BASE)
+                .build();
+    }
+
+    static Category category(long id) {
+        return Category.builder()
+                .id(id)
+                .name("category" + id)
+                .description("Category " + id)
+                .createdAt(BASE)
+                .build();
+    }
+
+    static Transaction transaction(long id, User user, Category category, BigDecimal amount,
+                                   Transaction.TransactionType type) {
+        return Transaction.builder()
+                .id(id)
+                .user(user)
+                .category(category)
+                .amount(amount)
+                .currency("KRW")
+                .baseAmount(amount)
+                .description("transaction " + id)
+                .type(type)
+                .transactionDate(BASE.plusMinutes(id))
+                .createdAt(BASE.plusMinutes(id))
+                .version(0L)
+                .build();
+    }
+
+    /**
+     * 사용자 하나의 거래 목록. 금액은 0.01 ~ 10000.00, 약 30% 가 수입이다.
+     */
+    static List<Transaction> transactions(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        User user = user(1);
+        List<Category> categories = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            categories.add(category(id));
+        }
+        List<Transaction> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transactions.add(transaction(i + 1, user, categories.get(random.nextInt(categories.size())),
+                    BigDecimal.valueOf(random.nextLong(1, 1_000_001), 2),
+                    random.nextInt(10) < 3 ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE));
+        }
+        return transactions;
+    }
+}
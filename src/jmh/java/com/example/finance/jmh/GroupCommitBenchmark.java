@@ -0,0 +1,86 @@
+package com.example.finance.jmh;
+
+import com.example.finance.FinanceApplication;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.interfaces.rest.TransactionController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  POST /api/transactions 의 생성 경로를 group-commit 을 끄고 켠 채로 비교한다.
+ *
+ *  bench 프로파일(합성 사용자 1000명, 카테고리 20개)로 앱을 웹 서버 없이 띄우고, 64 개 스레드가 컨트롤러를 직접 호출해서
+ *  응답이 나올 때까지 기다린다. 커밋마다 로그를 디스크에 쓰도록 H2 는 임시 디렉터리의 파일 DB 를 쓴다.
+ *  false  요청마다 DB 트랜잭션 하나로 커밋한다.
+ *  true   샤드별 writer 가 요청을 모아서 한 트랜잭션으로 커밋한다. (max-group-size 256, max-wait 5ms)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("12.50");
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private TransactionController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("group-commit-bench");
+        context = new SpringApplicationBuilder(FinanceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("bench")
+                .properties("spring.datasource.url=jdbc:h2:file:" + directory.resolve("finance").toAbsolutePath(),
+                        "spring.datasource.hikari.maximum-pool-size=32",
+                        "logging.level.root=WARN",
+                        "finance.ingestion.group-commit.enabled=" + groupCommit)
+                .run();
+        controller = context.getBean(TransactionController.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Transaction> create() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return controller.createTransaction(random.nextLong(1, 1001), random.nextLong(1, 21), AMOUNT,
+                "bench", Transaction.TransactionType.EXPENSE, null, null).join();
+    }
+}
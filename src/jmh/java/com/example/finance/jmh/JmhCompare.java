@@ -0,0 +1,82 @@
+package com.example.finance.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *  두 JMH JSON 결과를 벤치마크(+파라미터)별로 비교한다.
+ *
+ *    ./gradlew jmhCompare -Pbaseline=<commit|file> [-Pcandidate=<commit|file>] [-Pthreshold=0.10]
+ *
+ *  점수가 작을수록 좋은 모드(avgt, sample, ss)와 클수록 좋은 모드(thrpt)를 구분해서 변화율을 계산하고,
+ *  threshold 보다 나빠지면서 두 결과의 오차 범위가 겹치지 않는 항목이 있으면 종료 코드 1 로 끝난다.
+ */
+public class JmhCompare {
+
+    public static void main(String[] args) throws IOException {
+        File reports = new File(args[0]);
+        Map<String, Score> baseline = read(resolve(reports, args[1]));
+        Map<String, Score> candidate = read(resolve(reports, args[2]));
+        double threshold = args.length > 3 ? Double.parseDouble(args[3]) : 0.10;
+
+        int regressions = 0;
+        System.out.printf("%-80s %14s %14s %9s%n", "benchmark", "baseline", "candidate", "change");
+        for (Map.Entry<String, Score> entry : candidate.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-80s %14s %14.3f %9s%n", entry.getKey(), "-", after.score(), "new");
+                continue;
+            }
+            // 양수면 나빠진 것
+            double change = after.higherIsBetter()
+                    ? (before.score() - after.score()) / before.score()
+                    : (after.score() - before.score()) / before.score();
+            boolean significant = Math.abs(after.score() - before.score()) > before.error() + after.error();
+            boolean regressed = change > threshold && significant;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-80s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.score(), after.score(),
+                    change * 100, regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%n%d regression(s) beyond %.0f%%%n", regressions, threshold * 100);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static File resolve(File reports, String commitOrFile) {
+        File file = new File(commitOrFile);
+        return file.isFile() ? file : new File(reports, commitOrFile + ".json");
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            JsonNode metric = result.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble();
+            scores.put(key.toString(), new Score(metric.get("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, result.get("mode").asText().equals("thrpt")));
+        }
+        return scores;
+    }
+
+    private record Score(double score, double error, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.finance.jmh;
+
+import com.example.finance.config.JacksonConfig;
+import com.example.finance.domain.event.DomainEvent;
+import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.domain.event.TransactionUpdatedEvent;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.outbox.OutboxEvent;
+import com.example.finance.infrastructure.outbox.OutboxEventRepository;
+import com.example.finance.infrastructure.outbox.OutboxService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  아웃박스 저장(OutboxService.storedEvent 의 직렬화와 OutboxEvent 생성)과 릴레이의 역직렬화 비용
+ *  저장소는 save 인자를 그대로 돌려주는 프록시라서 DB 비용은 포함하지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutboxSerializationBenchmark {
+
+    @Param({"created", "updated"})
+    public String eventType;
+
+    private ObjectMapper objectMapper;
+    private OutboxService outboxService;
+    private DomainEvent event;
+    private OutboxEvent stored;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = new JacksonConfig().objectMapper();
+        OutboxEventRepository repository = (OutboxEventRepository) Proxy.newProxyInstance(
+                OutboxEventRepository.class.getClassLoader(), new Class<?>[]{OutboxEventRepository.class},
+                (proxy, method, args) -> method.getName().equals("save") ? args[0] : null);
+        outboxService = new OutboxService(repository, null, objectMapper, null,
+                new StageMetrics(new SimpleMeterRegistry()), Runnable::run);
+
+        Transaction transaction = Fixtures.transaction(1, Fixtures.user(1), Fixtures.category(1),
+                new BigDecimal("12500.00"), Transaction.TransactionType.EXPENSE);
+        event = switch (eventType) {
+            case "created" -> new TransactionCreatedEvent(transaction);
+            case "updated" -> new TransactionUpdatedEvent(transaction, Set.of(TransactionUpdatedEvent.AMOUNT),
+                    transaction.getCategory().getId(), new BigDecimal("9900.00"), new BigDecimal("9900.00"),
+                    transaction.getType());
+            default -> throw new IllegalArgumentException(eventType);
+        };
+        stored = OutboxEvent.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getClass().getName())
+                .payload(objectMapper.writeValueAsString(event))
+                .build();
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    /**
+     * storedEvent 전체 경로 (직렬화 + OutboxEvent 빌드 + 저장 호출)
+     */
+    @Benchmark
+    public void store() {
+        outboxService.storedEvent(event);
+    }
+
+    /**
+     * 릴레이가 하는 것과 같이 저장된 타입 이름으로 클래스를 찾아서 역직렬화한다.
+     */
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return objectMapper.readValue(stored.getPayload(), Class.forName(stored.getEventType()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.finance.jmh;
+
+import com.example.finance.infrastructure.ratelimit.TokenBucketTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  요청 하나가 토큰 버킷 표에서 쓰는 시간
+ *  서로 다른 사용자 수(keys)가 표 크기보다 훨씬 많은 경우와 적은 경우를 여러 스레드에서 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1000", "5000000"})
+    public int keys;
+
+    private TokenBucketTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = new TokenBucketTable(20, 40, 1 << 18, 64);
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return table.tryAcquire(ThreadLocalRandom.current().nextInt(keys)).allowed();
+    }
+
+    @Benchmark
+    public boolean tryAcquireClient() {
+        return table.tryAcquire(TokenBucketTable.keyOf("client-" + ThreadLocalRandom.current().nextInt(keys))).allowed();
+    }
+}
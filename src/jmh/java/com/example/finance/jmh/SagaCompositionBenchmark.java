@@ -0,0 +1,161 @@
+package com.example.finance.jmh;
+
+import com.example.finance.application.saga.SagaDefinition;
+import com.example.finance.application.saga.SagaEngine;
+import com.example.finance.config.AsyncConfig;
+import com.example.finance.infrastructure.metrics.ResourceMetrics;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.saga.SagaInstance;
+import com.example.finance.infrastructure.saga.SagaLog;
+import com.example.finance.infrastructure.saga.SagaStepLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  두 사가 구현의 CompletableFuture 조합 비용. 단계 작업과 사가 로그, DB 트랜잭션은 비어 있다.
+ *
+ *  orchestration  SagaOrchestrationService 와 같은 DAG (사용자/카테고리 검증 병렬 -> 생성(보상 기록) -> 처리)를
+ *                 실제 SagaEngine 으로 실행한다.
+ *  choreography   TransactionService.createTransactionWithSaga 와 같이 sagaExecutor 에 작업 하나를 넘기고
+ *                 그 안에서 단계를 순서대로 실행한다.
+ *  두 경우 모두 AsyncConfig 의 sagaExecutor 설정을 그대로 쓰고, 운영과 같이 자원 사용량 기록을 켠다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SagaCompositionBenchmark {
+
+    private static final String SAGA_NAME = "transaction-saga";
+
+    private ThreadPoolTaskExecutor sagaExecutor;
+    private SagaLog sagaLog;
+    private SagaEngine sagaEngine;
+    private SagaDefinition<Long> definition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ResourceMetrics resourceMetrics = new ResourceMetrics(registry, true);
+        sagaExecutor = (ThreadPoolTaskExecutor)
+                new AsyncConfig().sagaExecutor(8, 32, 500, resourceMetrics);
+        sagaLog = new NoopSagaLog();
+        sagaEngine = new SagaEngine(sagaExecutor, sagaLog, new TransactionTemplate(new NoopTransactionManager()),
+                new StageMetrics(registry), resourceMetrics, Duration.ofSeconds(5));
+        definition = SagaDefinition.builder(SAGA_NAME, Long.class)
+                .step("validateUser", context -> 1L)
+                .step("validateCategory", context -> 2L)
+                .recoverableStep("createTransaction", List.of("validateUser", "validateCategory"),
+                        context -> context.get("validateUser", Long.class) + context.get("validateCategory", Long.class),
+                        (context, id) -> {
+                        },
+                        String::valueOf)
+                .step("processTransaction", List.of("createTransaction"),
+                        context -> context.get("createTransaction", Long.class))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sagaExecutor.shutdown();
+    }
+
+    @Benchmark
+    public Long orchestration() {
+        return sagaEngine.execute(definition).join();
+    }
+
+    @Benchmark
+    public Long choreography() {
+        return CompletableFuture.supplyAsync(() -> {
+            UUID sagaId = sagaLog.start(SAGA_NAME);
+            long user = 1L;
+            long category = 2L;
+            long created = user + category;
+            sagaLog.recordStepInCurrentTransaction(sagaId, SAGA_NAME, "createTransaction", String.valueOf(created));
+            sagaLog.updateStatus(sagaId, SagaInstance.Status.COMPLETED);
+            return created;
+        }, sagaExecutor).join();
+    }
+
+    /**
+     * 기록하지 않는 사가 로그. writer 스레드도 띄우지 않는다.
+     */
+    static class NoopSagaLog extends SagaLog {
+
+        NoopSagaLog() {
+            super(null, null, null, 1, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        }
+
+        @Override
+        public UUID start(String sagaName) {
+            return UUID.randomUUID();
+        }
+
+        @Override
+        public CompletableFuture<Void> register(UUID sagaId, String sagaName) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> updateStatus(UUID sagaId, SagaInstance.Status status) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void recordStep(UUID sagaId, String sagaName, String stepName, SagaStepLog.Status status,
+                               String resultRef) {
+        }
+
+        @Override
+        public void recordStepInCurrentTransaction(UUID sagaId, String sagaName, String stepName, String resultRef) {
+        }
+    }
+
+    /**
+     * TransactionTemplate 의 경계 처리 비용만 남기는 트랜잭션 매니저
+     */
+    static class NoopTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
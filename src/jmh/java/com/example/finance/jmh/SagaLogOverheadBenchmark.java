@@ -0,0 +1,122 @@
+package com.example.finance.jmh;
+
+import com.example.finance.application.saga.SagaDefinition;
+import com.example.finance.application.saga.SagaEngine;
+import com.example.finance.config.AsyncConfig;
+import com.example.finance.infrastructure.metrics.ResourceMetrics;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.saga.SagaLog;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  사가 로그가 사가 처리량을 얼마나 줄이는지 잰다. (목표: jdbc 의 처리량이 noop 의 90% 이상)
+ *
+ *  SagaCompositionBenchmark 와 같은 DAG 를 H2 메모리 DB 위에서 8 개 스레드로 실행한다. 두 경우 모두 단계는 같은 H2
+ *  트랜잭션 안에서 실행되고, 사가 로그만 다르다.
+ *  noop  기록하지 않는다.
+ *  jdbc  운영 설정(batch-size 256, flush-interval 10ms)의 SagaLog 로 saga_instances / saga_steps 에 기록한다.
+ *        보상이 필요한 단계의 완료 기록은 단계 트랜잭션 안에서 바로 쓴다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class SagaLogOverheadBenchmark {
+
+    private static final String SAGA_NAME = "transaction-saga";
+
+    @Param({"noop", "jdbc"})
+    public String sagaLog;
+
+    private HikariDataSource dataSource;
+    private ThreadPoolTaskExecutor sagaExecutor;
+    private SagaLog log;
+    private SagaEngine sagaEngine;
+    private SagaDefinition<Long> definition;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:saga-log-bench;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(16);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE saga_instances (id UUID PRIMARY KEY, saga_name VARCHAR(255) NOT NULL, "
+                + "status VARCHAR(32) NOT NULL, created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE saga_steps (id BIGINT AUTO_INCREMENT PRIMARY KEY, saga_id UUID NOT NULL, "
+                + "saga_name VARCHAR(255) NOT NULL, step_name VARCHAR(255) NOT NULL, status VARCHAR(32) NOT NULL, "
+                + "result_ref VARCHAR(255), created_at TIMESTAMP NOT NULL)");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        if (sagaLog.equals("jdbc")) {
+            ShardRouter shardRouter = new ShardRouter(
+                    new ShardingProperties(false, List.of(), null, null, null), transactionTemplate);
+            log = new SagaLog(jdbcTemplate, transactionTemplate, shardRouter, 256, Duration.ofMillis(10),
+                    Duration.ofMillis(50), Duration.ofSeconds(5));
+            log.start();
+        } else {
+            log = new SagaCompositionBenchmark.NoopSagaLog();
+        }
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ResourceMetrics resourceMetrics = new ResourceMetrics(registry, true);
+        sagaExecutor = (ThreadPoolTaskExecutor)
+                new AsyncConfig().sagaExecutor(8, 32, 500, resourceMetrics);
+        sagaEngine = new SagaEngine(sagaExecutor, log, transactionTemplate,
+                new StageMetrics(registry), resourceMetrics, Duration.ofSeconds(5));
+        definition = SagaDefinition.builder(SAGA_NAME, Long.class)
+                .step("validateUser", context -> 1L)
+                .step("validateCategory", context -> 2L)
+                .recoverableStep("createTransaction", List.of("validateUser", "validateCategory"),
+                        context -> context.get("validateUser", Long.class) + context.get("validateCategory", Long.class),
+                        (context, id) -> {
+                        },
+                        String::valueOf)
+                .step("processTransaction", List.of("createTransaction"),
+                        context -> context.get("createTransaction", Long.class))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        sagaExecutor.shutdown();
+        if (sagaLog.equals("jdbc")) {
+            log.stop();
+        }
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Long orchestration() {
+        return sagaEngine.execute(definition).join();
+    }
+}
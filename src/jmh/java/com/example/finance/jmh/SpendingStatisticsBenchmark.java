@@ -0,0 +1,68 @@
+package com.example.finance.jmh;
+
+import com.example.finance.application.anomaly.SpendingStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  지출 이벤트 하나를 이상 감지 통계에 반영하는 시간
+ *  한 스레드에서 측정하므로 결과의 역수가 코어 하나로 처리할 수 있는 초당 이벤트 수다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class SpendingStatisticsBenchmark {
+
+    private static final int AMOUNTS = 1024;
+
+    @Param({"1000", "1000000"})
+    public int keys;
+
+    private SpendingStatistics statistics;
+    private BigDecimal[] amounts;
+    private SplittableRandom random;
+    private long micros;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        statistics = new SpendingStatistics(Duration.ofDays(1));
+        random = new SplittableRandom(42);
+        amounts = new BigDecimal[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            amounts[i] = BigDecimal.valueOf(Math.exp(3 + random.nextGaussian())).setScale(2, RoundingMode.HALF_UP);
+        }
+        for (int key = 0; key < keys; key++) {
+            statistics.observe(key, key % 16, amounts[key % AMOUNTS], ++micros, null);
+        }
+    }
+
+    /**
+     * 이벤트 id 는 넘기지 않는다. 체크포인트 없이 id 를 계속 쌓으면 측정 중에 집합만 커지기 때문이다.
+     */
+    @Benchmark
+    public Object observe() {
+        int key = random.nextInt(keys);
+        return statistics.observe(key, key % 16, amounts[key & (AMOUNTS - 1)], ++micros, null);
+    }
+}
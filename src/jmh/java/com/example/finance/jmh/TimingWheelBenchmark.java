@@ -0,0 +1,68 @@
+package com.example.finance.jmh;
+
+import com.example.finance.infrastructure.scheduling.TimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  반복 거래 예약 하나를 휠에 넣고, 만료될 때까지 시간을 진행하는 데 드는 시간
+ *  휠에 이미 scheduled 개가 들어 있어도 항목당 비용이 같은지 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimingWheelBenchmark {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final long MONTH_MILLIS = 31L * 24 * 3600 * 1000;
+
+    @Param({"10000", "1000000"})
+    public int scheduled;
+
+    private TimingWheel<Integer> wheel;
+    private SplittableRandom random;
+    private long now;
+    private long step;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        wheel = new TimingWheel<>(TICK_MILLIS, 0);
+        // 한 번 진행할 때 평균 하나가 만료되도록 진행 폭을 정한다.
+        step = TICK_MILLIS * Math.max(1, MONTH_MILLIS / TICK_MILLIS / scheduled);
+        for (int i = 0; i < scheduled; i++) {
+            wheel.schedule(i, random.nextLong(MONTH_MILLIS));
+        }
+    }
+
+    /**
+     * 한 달 안의 임의 시각으로 하나를 예약하고 한 틱 진행한다. 예약 수가 일정하게 유지된다.
+     */
+    @Benchmark
+    public int scheduleAndAdvance() {
+        wheel.schedule(0, now + random.nextLong(MONTH_MILLIS));
+        now += step;
+        return wheel.advanceTo(now).size();
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        return wheel.cancel(wheel.schedule(0, now + random.nextLong(MONTH_MILLIS)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.finance.application.anomaly;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ *  finance.anomaly.* 설정
+ *  표본이 min-samples 개 이상 쌓인 (사용자, 카테고리)에서만 이상 지출을 판단한다.
+ */
+@ConfigurationProperties(prefix = "finance.anomaly")
+public record AnomalyProperties(boolean enabled,
+                                Integer minSamples,
+                                Double amountZScore,
+                                Duration rateHalfLife,
+                                Double rateMultiplier,
+                                Path checkpointPath,
+                                Duration checkpointInterval) {
+
+    public AnomalyProperties {
+        minSamples = minSamples == null ? 10 : minSamples;
+        amountZScore = amountZScore == null ? 3.0 : amountZScore;
+        rateHalfLife = rateHalfLife == null ? Duration.ofDays(1) : rateHalfLife;
+        rateMultiplier = rateMultiplier == null ? 5.0 : rateMultiplier;
+        checkpointPath = checkpointPath == null ? Path.of("data", "anomaly", "spending-statistics.bin") : checkpointPath;
+        checkpointInterval = checkpointInterval == null ? Duration.ofMinutes(1) : checkpointInterval;
+    }
+}
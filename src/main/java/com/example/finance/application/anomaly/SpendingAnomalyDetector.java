@@ -0,0 +1,159 @@
+package com.example.finance.application.anomaly;
+
+import com.example.finance.domain.event.SpendingAnomalyDetectedEvent;
+import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.outbox.OutboxService;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.startup.DeferredInitialization;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ *  이상 지출 감지
+ *
+ *  지출 거래가 생성될 때마다 SpendingStatistics 에 반영하고, 반영 전 통계와 비교해서
+ *  금액의 표준 점수가 amount-z-score 이상이거나 최근 빈도가 평소의 rate-multiplier 배를 처음 넘으면
+ *  SpendingAnomalyDetectedEvent 를 사용자 샤드의 아웃박스에 저장한다. 판단에는 DB 조회가 없다.
+ *
+ *  통계는 checkpoint-interval 마다, 그리고 종료할 때 checkpoint-path 에 저장하고 기동할 때 읽어 온다.
+ *  마지막 체크포인트 이후 반영한 표본은 비정상 종료 시 잃어버린다.
+ */
+@Component
+@DeferredInitialization
+@ConditionalOnProperty(prefix = "finance.anomaly", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(AnomalyProperties.class)
+@Slf4j
+public class SpendingAnomalyDetector {
+
+    private final OutboxService outboxService;
+    private final ShardRouter shardRouter;
+    private final StageMetrics stageMetrics;
+    private final AnomalyProperties properties;
+    private final SpendingStatistics statistics;
+    private volatile long checkpointedUpdates = -1;
+
+    public SpendingAnomalyDetector(OutboxService outboxService,
+                                   ShardRouter shardRouter,
+                                   StageMetrics stageMetrics,
+                                   AnomalyProperties properties) {
+        this.outboxService = outboxService;
+        this.shardRouter = shardRouter;
+        this.stageMetrics = stageMetrics;
+        this.properties = properties;
+        this.statistics = new SpendingStatistics(properties.rateHalfLife());
+    }
+
+    /**
+     * 체크포인트가 없거나 읽을 수 없으면 빈 통계로 시작한다.
+     */
+    @PostConstruct
+    void restore() {
+        if (!Files.exists(properties.checkpointPath())) {
+            return;
+        }
+        try {
+            statistics.readFrom(properties.checkpointPath());
+            checkpointedUpdates = statistics.updates();
+            log.info("Restored spending statistics for {} user categories", statistics.size());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable spending statistics checkpoint {}", properties.checkpointPath(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finance.anomaly.checkpoint-interval:PT1M}",
+            initialDelayString = "${finance.anomaly.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        long updates = statistics.updates();
+        if (updates == checkpointedUpdates) {
+            return;
+        }
+        try {
+            statistics.writeTo(properties.checkpointPath());
+            checkpointedUpdates = updates;
+        } catch (IOException e) {
+            log.error("Failed to checkpoint spending statistics to {}", properties.checkpointPath(), e);
+        }
+    }
+
+    @PreDestroy
+    void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTransactionCreated(TransactionCreatedEvent event) {
+        stageMetrics.listener("spendingAnomaly", () -> detect(event));
+    }
+
+    private void detect(TransactionCreatedEvent event) {
+        Transaction transaction = event.getTransaction();
+        if (transaction.getType() != Transaction.TransactionType.EXPENSE) {
+            return;
+        }
+        // 통화가 섞여도 같은 기준으로 비교하도록 기준 통화 금액을 쓴다.
+        BigDecimal amount = transaction.getBaseAmount() != null ? transaction.getBaseAmount() : transaction.getAmount();
+        SpendingStatistics.Observation observation = statistics.observe(event.getUserId(), event.getCategoryId(),
+                amount, epochMicros(event.getOccurredOn()), event.getEventId());
+        if (observation == null || observation.count() < properties.minSamples()) {
+            return;
+        }
+
+        Set<SpendingAnomalyDetectedEvent.Reason> reasons = EnumSet.noneOf(SpendingAnomalyDetectedEvent.Reason.class);
+        if (observation.zScore() >= properties.amountZScore()) {
+            reasons.add(SpendingAnomalyDetectedEvent.Reason.AMOUNT);
+        }
+        // 빈도가 높은 동안 매 거래를 알리지 않도록 기준을 넘는 순간에만 알린다. NaN 과의 비교는 항상 false 다.
+        double rateLimit = properties.rateMultiplier() * observation.longRunRatePerDay();
+        if (observation.rateBeforePerDay() < rateLimit && observation.rateAfterPerDay() >= rateLimit) {
+            reasons.add(SpendingAnomalyDetectedEvent.Reason.FREQUENCY);
+        }
+        if (reasons.isEmpty()) {
+            return;
+        }
+
+        log.info("Spending anomaly {} for user {} category {}: amount={}, typical={}, z={}",
+                reasons, event.getUserId(), event.getCategoryId(), amount,
+                observation.typicalAmount(), observation.zScore());
+        SpendingAnomalyDetectedEvent anomaly = new SpendingAnomalyDetectedEvent(
+                transaction.getId(),
+                event.getUserId(),
+                event.getCategoryId(),
+                amount,
+                reasons,
+                observation.zScore(),
+                BigDecimal.valueOf(observation.typicalAmount()).setScale(2, RoundingMode.HALF_UP),
+                observation.rateAfterPerDay(),
+                Double.isNaN(observation.longRunRatePerDay()) ? null : observation.longRunRatePerDay());
+        shardRouter.inUserTransaction(event.getUserId(), () -> {
+            outboxService.storedEvent(anomaly);
+            return null;
+        });
+    }
+
+    private static long epochMicros(LocalDateTime occurredOn) {
+        Instant instant = occurredOn.atZone(ZoneId.systemDefault()).toInstant();
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.finance.application.anomaly;
+
+import com.example.finance.infrastructure.snapshot.RecentEventIds;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *  (사용자, 카테고리)별 지출 통계를 고정 크기 상태로 누적한다.
+ *
+ *  금액은 로그로 바꿔서 Welford 방식으로 평균과 분산을 갱신하므로 지출 금액처럼 치우친 분포에서도 배수 기준으로 비교된다.
+ *  발생 빈도는 반감기가 rateHalfLife 인 지수 감쇠 횟수로 센다. 표본 하나에 상수 개의 연산만 하고 DB 를 조회하지 않는다.
+ *
+ *  리스너가 여러 스레드에서 돌기 때문에 표본은 발생 시각 순서와 다르게 올 수 있다. 늦게 온 표본도 모두 반영하고,
+ *  감쇠 횟수는 그 키의 가장 늦은 시각 기준으로 유지하므로 순서가 바뀌어도 결과가 같다.
+ *  다시 전달된 이벤트는 RecentEventIds 로 거른다. 이벤트 id 는 체크포인트와 함께 저장하고 체크포인트마다 한 세대씩 밀므로
+ *  직전 두 체크포인트 주기 안에 반영한 이벤트가 재전달돼도 두 번 세지 않는다.
+ */
+public final class SpendingStatistics {
+
+    private static final int MAGIC = 0x53504e44;
+    // 버전 2 는 통계 뒤에 최근 이벤트 id 를 둔다. 버전 1 체크포인트는 id 없이 읽는다.
+    private static final int FORMAT_VERSION = 2;
+    private static final double MICROS_PER_DAY = 86_400_000_000.0;
+    // 금액이 모두 같을 때 표준편차 0 으로 나누지 않도록 로그 스케일에서 약 5% 를 최소값으로 둔다.
+    private static final double MIN_STDDEV = 0.05;
+
+    private final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong updates = new AtomicLong();
+    // 표본 반영은 읽기 락, 체크포인트의 복사와 세대 교체는 쓰기 락으로 나눠서 id 와 통계가 같은 시점을 가리키게 한다.
+    private final ReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private RecentEventIds recentEvents = new RecentEventIds();
+    private final double halfLifeDays;
+    private final double decayPerMicro;
+
+    public SpendingStatistics(Duration rateHalfLife) {
+        if (rateHalfLife.isNegative() || rateHalfLife.isZero()) {
+            throw new IllegalArgumentException("Rate half-life must be positive: " + rateHalfLife);
+        }
+        double halfLifeMicros = rateHalfLife.toNanos() / 1_000.0;
+        this.halfLifeDays = halfLifeMicros / MICROS_PER_DAY;
+        this.decayPerMicro = Math.log(2) / halfLifeMicros;
+    }
+
+    /**
+     * 표본을 더하고, 더하기 전까지의 통계로 평가한 결과를 돌려준다.
+     * 금액이 0 이하이거나 이미 반영한 이벤트이면 아무것도 하지 않고 null 을 돌려준다.
+     */
+    public Observation observe(long userId, long categoryId, BigDecimal amount, long epochMicros, UUID eventId) {
+        double value = amount.doubleValue();
+        if (!(value > 0)) {
+            return null;
+        }
+        double logAmount = Math.log(value);
+        Observation observation;
+        checkpointLock.readLock().lock();
+        try {
+            if (!recentEvents.add(eventId)) {
+                return null;
+            }
+            Stats entry = stats.computeIfAbsent(new Key(userId, categoryId), key -> new Stats());
+            synchronized (entry) {
+                observation = entry.add(logAmount, value, epochMicros);
+            }
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        updates.incrementAndGet();
+        return observation;
+    }
+
+    /**
+     * 감쇠 횟수를 하루당 발생 횟수로 바꾼다. 일정한 빈도 r 이면 감쇠 횟수는 r x 반감기 / ln2 로 수렴한다.
+     */
+    private double rateOf(double decayedCount) {
+        return decayedCount * Math.log(2) / halfLifeDays;
+    }
+
+    public int size() {
+        return stats.size();
+    }
+
+    /**
+     * 지금까지 반영한 표본 수. 체크포인트 이후 바뀐 것이 있는지 확인하는 데 쓴다.
+     */
+    public long updates() {
+        return updates.get();
+    }
+
+    /**
+     * 임시 파일에 모두 쓰고 디스크에 반영한 뒤 target 으로 원자적으로 교체한다.
+     * 메모리에 복사하는 동안만 표본 반영을 막고, 파일을 쓰는 동안에는 계속 반영할 수 있다.
+     */
+    public void writeTo(Path target) throws IOException {
+        List<Snapshot> snapshot = new ArrayList<>(stats.size());
+        ByteArrayOutputStream eventIds = new ByteArrayOutputStream();
+        checkpointLock.writeLock().lock();
+        try {
+            stats.forEach((key, value) -> {
+                synchronized (value) {
+                    if (value.count > 0) {
+                        snapshot.add(new Snapshot(key, value.count, value.mean, value.m2, value.decayedCount,
+                                value.firstMicros, value.lastMicros));
+                    }
+                }
+            });
+            recentEvents.writeTo(new DataOutputStream(eventIds));
+            recentEvents.rotate();
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(snapshot.size());
+            for (Snapshot entry : snapshot) {
+                out.writeLong(entry.key().userId());
+                out.writeLong(entry.key().categoryId());
+                out.writeLong(entry.count());
+                out.writeDouble(entry.mean());
+                out.writeDouble(entry.m2());
+                out.writeDouble(entry.decayedCount());
+                out.writeLong(entry.firstMicros());
+                out.writeLong(entry.lastMicros());
+            }
+            eventIds.writeTo(out);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 체크포인트를 읽어서 현재 통계를 대체한다. 파일이 잘렸거나 형식이 다르면 IOException 을 던지고 통계는 그대로 둔다.
+     */
+    public void readFrom(Path source) throws IOException {
+        Map<Key, Stats> loaded = new HashMap<>();
+        RecentEventIds events = new RecentEventIds();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source), 1 << 16))) {
+            int version = in.readInt() == MAGIC ? in.readInt() : -1;
+            if (version != 1 && version != FORMAT_VERSION) {
+                throw new IOException("Not a spending statistics checkpoint: " + source);
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                Key key = new Key(in.readLong(), in.readLong());
+                Stats value = new Stats();
+                value.count = in.readLong();
+                value.mean = in.readDouble();
+                value.m2 = in.readDouble();
+                value.decayedCount = in.readDouble();
+                value.firstMicros = in.readLong();
+                value.lastMicros = in.readLong();
+                loaded.put(key, value);
+            }
+            if (version == FORMAT_VERSION) {
+                events.readFrom(in);
+            }
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Corrupt spending statistics checkpoint: " + source);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated spending statistics checkpoint: " + source, e);
+        }
+        checkpointLock.writeLock().lock();
+        try {
+            stats.clear();
+            stats.putAll(loaded);
+            recentEvents = events;
+        } finally {
+            checkpointLock.writeLock().unlock();
+        }
+    }
+
+    private record Key(long userId, long categoryId) {
+    }
+
+    private record Snapshot(Key key, long count, double mean, double m2, double decayedCount,
+                            long firstMicros, long lastMicros) {
+    }
+
+    private final class Stats {
+        private long count;
+        private double mean;
+        private double m2;
+        // lastMicros 시점의 감쇠 횟수
+        private double decayedCount;
+        private long firstMicros;
+        private long lastMicros;
+
+        Observation add(double logAmount, double value, long epochMicros) {
+            long before = count;
+            double zScore = before < 2 ? 0 : (logAmount - mean) / Math.max(MIN_STDDEV, Math.sqrt(m2 / (before - 1)));
+
+            // Welford. 더하는 순서와 관계없이 같은 평균과 분산이 된다.
+            count = before + 1;
+            double delta = logAmount - mean;
+            mean += delta / count;
+            m2 += delta * (logAmount - mean);
+
+            // 감쇠는 가장 늦은 시각이 앞으로 갈 때만 한다. 늦게 온 표본은 그만큼 감쇠된 1 로 더한다.
+            double decayedBefore;
+            if (before == 0) {
+                decayedBefore = 0;
+                decayedCount = 1;
+                firstMicros = epochMicros;
+                lastMicros = epochMicros;
+            } else if (epochMicros > lastMicros) {
+                decayedBefore = decayedCount * Math.exp(-decayPerMicro * (epochMicros - lastMicros));
+                decayedCount = decayedBefore + 1;
+                lastMicros = epochMicros;
+            } else {
+                decayedBefore = decayedCount;
+                decayedCount += Math.exp(-decayPerMicro * (lastMicros - epochMicros));
+                firstMicros = Math.min(firstMicros, epochMicros);
+            }
+            double spanDays = (lastMicros - firstMicros) / MICROS_PER_DAY;
+
+            return new Observation(before,
+                    zScore,
+                    before == 0 ? value : Math.exp(mean),
+                    rateOf(decayedBefore),
+                    rateOf(decayedCount),
+                    before == 0 || spanDays < halfLifeDays ? Double.NaN : count / spanDays);
+        }
+    }
+
+    /**
+     * @param count              이 표본 이전까지의 표본 수
+     * @param zScore             이전 표본들의 로그 금액 분포에서 이 금액의 표준 점수
+     * @param typicalAmount      이 표본까지 포함한 로그 평균을 금액으로 되돌린 값 (기하 평균)
+     * @param rateBeforePerDay   이 표본 직전의 최근 하루당 발생 횟수
+     * @param rateAfterPerDay    이 표본을 포함한 최근 하루당 발생 횟수
+     * @param longRunRatePerDay  첫 표본부터의 평균 하루당 발생 횟수. 기간이 반감기보다 짧으면 NaN
+     */
+    public record Observation(long count,
+                              double zScore,
+                              double typicalAmount,
+                              double rateBeforePerDay,
+                              double rateAfterPerDay,
+                              double longRunRatePerDay) {
+    }
+}
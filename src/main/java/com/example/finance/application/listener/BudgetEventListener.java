@@ -0,0 +1,59 @@
+package com.example.finance.application.listener;
+
+import com.example.finance.application.service.BudgetAlertEngine;
+import com.example.finance.domain.event.BudgetThresholdCrossedEvent;
+import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.domain.event.TransactionDeletedEvent;
+import com.example.finance.domain.event.TransactionUpdatedEvent;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.startup.DeferredInitialization;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ *  거래 이벤트를 예산 합계에 반영하고, 예산 임계값 알림을 받는다.
+ */
+@Component
+@DeferredInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetEventListener {
+
+    private final BudgetAlertEngine budgetAlertEngine;
+    private final StageMetrics stageMetrics;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTransactionCreated(TransactionCreatedEvent event) {
+        stageMetrics.listener("budgetTransactionCreated", () -> budgetAlertEngine.apply(event));
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTransactionUpdated(TransactionUpdatedEvent event) {
+        stageMetrics.listener("budgetTransactionUpdated", () -> budgetAlertEngine.apply(event));
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTransactionDeleted(TransactionDeletedEvent event) {
+        stageMetrics.listener("budgetTransactionDeleted", () -> budgetAlertEngine.apply(event));
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleBudgetThresholdCrossed(BudgetThresholdCrossedEvent event) {
+        stageMetrics.listener("budgetThresholdCrossed", () ->
+                log.info("Budget alert: user={}, category={}, month={}, threshold={}%, spent={} of {}",
+                        event.getUserId(),
+                        event.getCategoryId(),
+                        event.getMonth(),
+                        event.getThresholdPercent(),
+                        event.getSpent(),
+                        event.getMonthlyLimit()));
+    }
+}
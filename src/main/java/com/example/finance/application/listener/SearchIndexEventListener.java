@@ -0,0 +1,43 @@
+package com.example.finance.application.listener;
+
+import com.example.finance.application.service.TransactionSearchIndex;
+import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.domain.event.TransactionDeletedEvent;
+import com.example.finance.domain.event.TransactionUpdatedEvent;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.startup.DeferredInitialization;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ *  거래 이벤트를 검색 비트맵 색인에 반영한다.
+ */
+@Component
+@DeferredInitialization
+@RequiredArgsConstructor
+public class SearchIndexEventListener {
+
+    private final TransactionSearchIndex transactionSearchIndex;
+    private final StageMetrics stageMetrics;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTransactionCreated(TransactionCreatedEvent event) {
+        stageMetrics.listener("searchIndexTransactionCreated", () -> transactionSearchIndex.apply(event));
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTransactionUpdated(TransactionUpdatedEvent event) {
+        stageMetrics.listener("searchIndexTransactionUpdated", () -> transactionSearchIndex.apply(event));
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTransactionDeleted(TransactionDeletedEvent event) {
+        stageMetrics.listener("searchIndexTransactionDeleted", () -> transactionSearchIndex.apply(event));
+    }
+}
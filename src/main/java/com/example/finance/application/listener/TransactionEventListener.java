@@ -4,6 +4,8 @@ import com.example.finance.domain.event.TransactionCreatedEvent;
 import com.example.finance.domain.event.TransactionDeletedEvent;
 import com.example.finance.domain.event.TransactionUpdatedEvent;
 import com.example.finance.domain.model.Transaction;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.startup.DeferredInitialization;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -12,54 +14,47 @@ import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
+@DeferredInitialization
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionEventListener {
 
+    private final StageMetrics stageMetrics;
+
     @Async
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleTransactionCreated(TransactionCreatedEvent event) {
-        Transaction transaction = event.getTransaction();
-        log.info("Transaction created: ID={}, Amount={}, Type={}, Category={}",
-                transaction.getId(),
-                transaction.getAmount(),
-                transaction.getType(),
-                transaction.getCategory().getName());
-
-
+        stageMetrics.listener("transactionCreated", () -> {
+            Transaction transaction = event.getTransaction();
+            log.info("Transaction created: ID={}, Amount={}, Type={}, Category={}",
+                    transaction.getId(),
+                    transaction.getAmount(),
+                    transaction.getType(),
+                    transaction.getCategory().getName());
+        });
     }
 
     @Async
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleTransactionUpdated(TransactionUpdatedEvent event) {
-        Transaction transaction = event.getTransaction();
-        log.info("Transaction updated: ID={}, Amount={}, Type={}, Category={}",
-                transaction.getId(),
-                transaction.getAmount(),
-                transaction.getType(),
-                transaction.getCategory().getName());
-
-
+        stageMetrics.listener("transactionUpdated", () ->
+                log.info("Transaction updated: ID={}, Version={}, Changed={}, Amount={} -> {}, Type={} -> {}",
+                        event.getTransactionId(),
+                        event.getVersion(),
+                        event.getChangedFields(),
+                        event.getOldAmount(),
+                        event.getNewAmount(),
+                        event.getOldType(),
+                        event.getNewType()));
     }
 
     @Async
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleTransactionDeleted(TransactionDeletedEvent event) {
-        log.info("Transaction deleted: ID={}, Type={}, Category ID={}",
-                event.getTransactionId(),
-                event.getType(),
-                event.getCategoryId());
-
-
-    }
-
-    private void analyzeConsumptionPattern(Transaction transaction) {
-        log.info("Analyzing consumption pattern for transaction: {}", transaction.getId());
-
-        if (transaction.getType() == Transaction.TransactionType.EXPENSE) {
-            log.info("Expense in category: {}, amount: {}",
-                    transaction.getCategory().getName(),
-                    transaction.getAmount());
-        }
+        stageMetrics.listener("transactionDeleted", () ->
+                log.info("Transaction deleted: ID={}, Type={}, Category ID={}",
+                        event.getTransactionId(),
+                        event.getType(),
+                        event.getCategoryId()));
     }
 }
@@ -0,0 +1,43 @@
+package com.example.finance.application.saga;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *  사가 실행 중 각 단계의 결과를 보관한다.
+ *  단계는 의존하는 단계의 결과를 이름으로 꺼내서 사용한다.
+ */
+public class SagaContext {
+
+    private static final Object NULL = new Object();
+
+    private final UUID sagaId;
+    private final String sagaName;
+    private final Map<String, Object> results = new ConcurrentHashMap<>();
+
+    SagaContext(UUID sagaId, String sagaName) {
+        this.sagaId = sagaId;
+        this.sagaName = sagaName;
+    }
+
+    public UUID getSagaId() {
+        return sagaId;
+    }
+
+    public String getSagaName() {
+        return sagaName;
+    }
+
+    public <T> T get(String stepName, Class<T> type) {
+        Object value = results.get(stepName);
+        if (value == null) {
+            throw new IllegalStateException("Step has not completed: " + stepName);
+        }
+        return value == NULL ? null : type.cast(value);
+    }
+
+    void put(String stepName, Object value) {
+        results.put(stepName, value == null ? NULL : value);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.finance.application.saga;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ *  사가 단계들의 DAG 정의
+ *  단계는 앞에서 선언된 단계에만 의존할 수 있으므로 선언 순서가 곧 위상 정렬 순서이고 순환이 생기지 않는다.
+ *  서로 의존하지 않는 단계는 SagaEngine 에서 동시에 실행된다.
+ */
+public class SagaDefinition<R> {
+
+    private final String name;
+    private final List<SagaStep<?>> steps;
+    private final String resultStep;
+    private final Class<R> resultType;
+
+    private SagaDefinition(String name, List<SagaStep<?>> steps, String resultStep, Class<R> resultType) {
+        this.name = name;
+        this.steps = Collections.unmodifiableList(steps);
+        this.resultStep = resultStep;
+        this.resultType = resultType;
+    }
+
+    public static <R> Builder<R> builder(String name, Class<R> resultType) {
+        return new Builder<>(name, resultType);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<SagaStep<?>> getSteps() {
+        return steps;
+    }
+
+    public String getResultStep() {
+        return resultStep;
+    }
+
+    public Class<R> getResultType() {
+        return resultType;
+    }
+
+    public static class Builder<R> {
+        private final String name;
+        private final Class<R> resultType;
+        private final Map<String, SagaStep<?>> steps = new LinkedHashMap<>();
+        private String resultStep;
+
+        private Builder(String name, Class<R> resultType) {
+            this.name = name;
+            this.resultType = resultType;
+        }
+
+        public <T> Builder<R> step(String stepName, Function<SagaContext, T> action) {
+            return step(stepName, List.of(), action, null, null);
+        }
+
+        public <T> Builder<R> step(String stepName, List<String> dependencies, Function<SagaContext, T> action) {
+            return step(stepName, dependencies, action, null, null);
+        }
+
+        public <T> Builder<R> step(String stepName, List<String> dependencies, Function<SagaContext, T> action,
+                                   BiConsumer<SagaContext, T> compensation) {
+            return step(stepName, dependencies, action, compensation, null);
+        }
+
+        public <T> Builder<R> step(String stepName, List<String> dependencies, Function<SagaContext, T> action,
+                                   BiConsumer<SagaContext, T> compensation, Duration timeout) {
+            return step(stepName, dependencies, action, compensation, null, timeout);
+        }
+
+        /**
+         * 보상이 필요한 외부 효과를 가진 단계. 단계 작업과 같은 트랜잭션에서 recoveryRef 값을 기록하므로
+         * 재시작 후 SagaRecoveryService 가 이 값으로 보상할 수 있다.
+         */
+        public <T> Builder<R> recoverableStep(String stepName, List<String> dependencies,
+                                              Function<SagaContext, T> action,
+                                              BiConsumer<SagaContext, T> compensation,
+                                              Function<T, String> recoveryRef) {
+            return step(stepName, dependencies, action, compensation, recoveryRef, null);
+        }
+
+        private <T> Builder<R> step(String stepName, List<String> dependencies, Function<SagaContext, T> action,
+                                    BiConsumer<SagaContext, T> compensation, Function<T, String> recoveryRef,
+                                    Duration timeout) {
+            if (steps.containsKey(stepName)) {
+                throw new IllegalArgumentException("Duplicate saga step: " + stepName);
+            }
+            for (String dependency : dependencies) {
+                if (!steps.containsKey(dependency)) {
+                    throw new IllegalArgumentException(
+                            "Step " + stepName + " depends on undeclared step: " + dependency);
+                }
+            }
+            steps.put(stepName, new SagaStep<>(stepName, dependencies, action, compensation, recoveryRef, timeout));
+            return this;
+        }
+
+        /**
+         * 사가 전체의 결과로 돌려줄 단계. 지정하지 않으면 마지막에 선언된 단계의 결과를 사용한다.
+         */
+        public Builder<R> result(String stepName) {
+            this.resultStep = stepName;
+            return this;
+        }
+
+        public SagaDefinition<R> build() {
+            if (steps.isEmpty()) {
+                throw new IllegalStateException("Saga has no steps: " + name);
+            }
+            List<SagaStep<?>> ordered = new ArrayList<>(steps.values());
+            String result = resultStep != null ? resultStep : ordered.get(ordered.size() - 1).name();
+            if (!steps.containsKey(result)) {
+                throw new IllegalArgumentException("Unknown result step: " + result);
+            }
+            return new SagaDefinition<>(name, ordered, result, resultType);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.finance.application.saga;
+
+import com.example.finance.infrastructure.saga.SagaInstance;
+import com.example.finance.infrastructure.saga.SagaLog;
+import com.example.finance.infrastructure.metrics.ResourceMetrics;
+import com.example.finance.infrastructure.metrics.ResourceScope;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.saga.SagaStepLog;
+import com.example.finance.infrastructure.tracing.TraceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *  SagaDefinition 의 DAG 를 sagaExecutor 위에서 실행한다.
+ *  의존 단계가 모두 끝난 단계부터 바로 실행하므로 전체 지연 시간은 단계들의 합이 아니라 임계 경로가 된다.
+ *  하나라도 실패하거나 타임아웃 되면 새 단계를 시작하지 않고, 실행 중인 단계가 끝나기를 기다린 다음
+ *  완료된 단계들을 완료 역순으로 보상한다.
+ *  진행 상태는 SagaLog 에 기록되어 재시작 시 SagaRecoveryService 가 이어서 처리한다.
+ */
+@Component
+@Slf4j
+public class SagaEngine {
+
+    private final Executor sagaExecutor;
+    private final SagaLog sagaLog;
+    private final TransactionTemplate transactionTemplate;
+    private final StageMetrics stageMetrics;
+    private final ResourceMetrics resourceMetrics;
+    private final Duration defaultStepTimeout;
+
+    public SagaEngine(@Qualifier("sagaExecutor") Executor sagaExecutor,
+                      SagaLog sagaLog,
+                      TransactionTemplate transactionTemplate,
+                      StageMetrics stageMetrics,
+                      ResourceMetrics resourceMetrics,
+                      @Value("${finance.saga.step-timeout:PT5S}") Duration defaultStepTimeout) {
+        this.sagaExecutor = sagaExecutor;
+        this.sagaLog = sagaLog;
+        this.transactionTemplate = transactionTemplate;
+        this.stageMetrics = stageMetrics;
+        this.resourceMetrics = resourceMetrics;
+        this.defaultStepTimeout = defaultStepTimeout;
+    }
+
+    public <R> CompletableFuture<R> execute(SagaDefinition<R> definition) {
+        UUID sagaId = sagaLog.start(definition.getName());
+        // 의존 단계의 완료나 타임아웃 콜백은 trace id 가 없는 스레드에서 실행될 수 있으므로 시작 시점의 값을 고정한다.
+        String traceId = TraceContext.current();
+        ResourceScope resourceScope = ResourceScope.current();
+        SagaContext context = new SagaContext(sagaId, definition.getName());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Deque<SagaStep<?>> completed = new ConcurrentLinkedDeque<>();
+        Queue<CompletableFuture<Void>> started = new ConcurrentLinkedQueue<>();
+        Map<String, CompletableFuture<Void>> stepFutures = new HashMap<>();
+
+        for (SagaStep<?> step : definition.getSteps()) {
+            CompletableFuture<?>[] dependencies = step.dependencies().stream()
+                    .map(stepFutures::get)
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture<Void> stepFuture = CompletableFuture.allOf(dependencies)
+                    .thenCompose(ignored -> {
+                        CompletableFuture<Void> task = CompletableFuture.runAsync(
+                                () -> TraceContext.run(traceId, () -> ResourceScope.run(resourceScope,
+                                        () -> runStep(step, context, failure, completed))),
+                                sagaExecutor);
+                        started.add(task);
+                        return withTimeout(definition.getName(), step, task);
+                    });
+            stepFuture.whenComplete((ignored, ex) -> {
+                if (ex != null) {
+                    failure.compareAndSet(null, unwrap(ex));
+                }
+            });
+            stepFutures.put(step.name(), stepFuture);
+        }
+
+        CompletableFuture<R> result = new CompletableFuture<>();
+        CompletableFuture.allOf(stepFutures.values().toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, ex) -> {
+                    if (ex == null) {
+                        sagaLog.updateStatus(sagaId, SagaInstance.Status.COMPLETED);
+                        result.complete(context.get(definition.getResultStep(), definition.getResultType()));
+                        return;
+                    }
+                    // 타임아웃 된 단계도 실제 작업이 끝나야 결과를 보상할 수 있다.
+                    CompletableFuture.allOf(started.toArray(CompletableFuture[]::new))
+                            .handle((v, taskEx) -> null)
+                            .thenRunAsync(() -> TraceContext.run(traceId, () -> ResourceScope.run(resourceScope, () -> {
+                                compensate(context, completed);
+                                result.completeExceptionally(failure.get() != null ? failure.get() : unwrap(ex));
+                            })), sagaExecutor);
+                });
+        return result;
+    }
+
+    private void runStep(SagaStep<?> step, SagaContext context, AtomicReference<Throwable> failure,
+                         Deque<SagaStep<?>> completed) {
+        if (failure.get() != null) {
+            throw new IllegalStateException("Saga aborted before step " + step.name());
+        }
+        long started = System.nanoTime();
+        ResourceMetrics.Sample resources = resourceMetrics.start();
+        boolean success = false;
+        try {
+            executeStep(step, context, completed);
+            success = true;
+        } finally {
+            stageMetrics.sagaStep(context.getSagaName(), step.name(), success, System.nanoTime() - started);
+            resourceMetrics.stop(resources, ResourceMetrics.SAGA_STEP, context.getSagaName() + "." + step.name());
+        }
+    }
+
+    private void executeStep(SagaStep<?> step, SagaContext context, Deque<SagaStep<?>> completed) {
+        Object value;
+        if (step.isRecoverable()) {
+            value = transactionTemplate.execute(status -> {
+                Object stepResult = step.action().apply(context);
+                sagaLog.recordStepInCurrentTransaction(context.getSagaId(), context.getSagaName(),
+                        step.name(), step.recoveryRefOf(stepResult));
+                return stepResult;
+            });
+        } else {
+            value = step.action().apply(context);
+            sagaLog.recordStep(context.getSagaId(), context.getSagaName(), step.name(),
+                    SagaStepLog.Status.COMPLETED, null);
+        }
+        context.put(step.name(), value);
+        completed.push(step);
+    }
+
+    private CompletableFuture<Void> withTimeout(String sagaName, SagaStep<?> step, CompletableFuture<Void> task) {
+        Duration timeout = step.timeout() != null ? step.timeout() : defaultStepTimeout;
+        return task.copy()
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .handle((ignored, ex) -> {
+                    if (ex != null) {
+                        throw new SagaExecutionException(sagaName, step.name(), unwrap(ex));
+                    }
+                    return null;
+                });
+    }
+
+    private void compensate(SagaContext context, Deque<SagaStep<?>> completed) {
+        // 보상 중에 중단되면 복구 시 이어서 보상해야 하므로 COMPENSATING 상태는 기록될 때까지 기다린다.
+        try {
+            sagaLog.updateStatus(context.getSagaId(), SagaInstance.Status.COMPENSATING).join();
+        } catch (CompletionException e) {
+            log.error("Failed to record compensating state for saga: {}", context.getSagaId(), e);
+        }
+
+        boolean compensatedAll = true;
+        for (SagaStep<?> step : completed) {
+            try {
+                log.info("Compensating saga step: {} ({})", step.name(), context.getSagaName());
+                step.compensate(context);
+                sagaLog.recordStep(context.getSagaId(), context.getSagaName(), step.name(),
+                        SagaStepLog.Status.COMPENSATED, null);
+            } catch (Exception e) {
+                compensatedAll = false;
+                log.error("Compensation failed for saga step: {} ({})", step.name(), context.getSagaName(), e);
+            }
+        }
+
+        // 보상에 실패한 단계가 있으면 COMPENSATING 으로 남겨서 다음 기동 시 복구 대상이 되게 한다.
+        if (compensatedAll) {
+            sagaLog.updateStatus(context.getSagaId(), SagaInstance.Status.COMPENSATED);
+        }
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        while (ex instanceof CompletionException && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.finance.application.saga;
+
+/**
+ * 사가 단계가 실패하거나 타임아웃 되었을 때 발생한다. 보상 트랜잭션은 이미 실행된 뒤이다.
+ */
+public class SagaExecutionException extends RuntimeException {
+
+    private final String sagaName;
+    private final String stepName;
+
+    public SagaExecutionException(String sagaName, String stepName, Throwable cause) {
+        super("Saga " + sagaName + " failed at step " + stepName, cause);
+        this.sagaName = sagaName;
+        this.stepName = stepName;
+    }
+
+    public String getSagaName() {
+        return sagaName;
+    }
+
+    public String getStepName() {
+        return stepName;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.finance.application.saga;
+
+import com.example.finance.infrastructure.saga.SagaStepLog;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ *  재시작 후 중단된 사가를 어떻게 마무리할지 사가 종류별로 정의한다.
+ */
+public interface SagaRecoveryHandler {
+
+    boolean supports(String sagaName);
+
+    /**
+     * 완료된 단계만으로 사가를 마저 진행할 수 있으면 진행하고 true 를 반환한다. false 면 보상이 진행된다.
+     */
+    boolean resume(UUID sagaId, List<SagaStepLog> completedSteps);
+
+    /**
+     * 기록된 resultRef 로 단계를 되돌린다. 같은 단계에 여러 번 호출되어도 안전해야 한다.
+     */
+    void compensate(SagaStepLog step);
+}
@@ -0,0 +1,146 @@
+package com.example.finance.application.saga;
+
+import com.example.finance.infrastructure.saga.SagaInstance;
+import com.example.finance.infrastructure.saga.SagaInstanceRepository;
+import com.example.finance.infrastructure.saga.SagaLog;
+import com.example.finance.infrastructure.saga.SagaStepLog;
+import com.example.finance.infrastructure.saga.SagaStepLogRepository;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ *  기동 시 saga_instances / saga_steps 를 확인해서 끝나지 않은 사가를 마무리한다.
+ *  RUNNING 상태는 핸들러가 이어서 진행할 수 있으면 완료 처리하고, 그렇지 않거나 COMPENSATING 상태였다면
+ *  기록된 resultRef 로 완료된 단계를 역순으로 보상한다. 모든 샤드를 확인하고, 사가마다 sagaExecutor 에서 병렬로 처리한다.
+ *  복구 판단이 복제 지연에 영향을 받지 않도록 모든 조회는 주 DB 에서 한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SagaRecoveryService {
+
+    private final SagaInstanceRepository sagaInstanceRepository;
+    private final SagaStepLogRepository sagaStepLogRepository;
+    private final SagaLog sagaLog;
+    private final List<SagaRecoveryHandler> handlers;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    @Qualifier("sagaExecutor")
+    private final Executor sagaExecutor;
+
+    // 기동 이후에 시작된 사가는 정상 진행 중이므로 복구 대상에서 제외한다.
+    private final LocalDateTime bootedAt = LocalDateTime.now();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUnfinishedSagas() {
+        List<UnfinishedSaga> unfinished = new ArrayList<>();
+        for (int shard : shardRouter.shards()) {
+            shardRouter.runOnShard(shard, () -> unfinished.addAll(replicaRouter.onPrimary(() -> findUnfinished(shard))));
+        }
+
+        if (unfinished.isEmpty()) {
+            return;
+        }
+
+        log.info("Recovering {} unfinished sagas", unfinished.size());
+        CompletableFuture.allOf(unfinished.stream()
+                        .map(saga -> CompletableFuture.runAsync(
+                                        () -> shardRouter.runOnShard(saga.shard(),
+                                                () -> replicaRouter.runOnPrimary(() -> recover(saga.instance()))),
+                                        sagaExecutor)
+                                .exceptionally(ex -> {
+                                    log.error("Saga recovery failed: {}", saga.instance().getId(), ex);
+                                    return null;
+                                }))
+                        .toArray(CompletableFuture[]::new))
+                .thenRun(() -> log.info("Saga recovery finished"));
+    }
+
+    private List<UnfinishedSaga> findUnfinished(int shard) {
+        List<UnfinishedSaga> unfinished = new ArrayList<>();
+        for (SagaInstance instance : sagaInstanceRepository.findByStatusInAndCreatedAtBefore(
+                List.of(SagaInstance.Status.RUNNING, SagaInstance.Status.COMPENSATING), bootedAt)) {
+            unfinished.add(new UnfinishedSaga(shard, instance));
+        }
+
+        for (Object[] orphan : sagaStepLogRepository.findOrphanSagas(bootedAt)) {
+            UUID sagaId = (UUID) orphan[0];
+            String sagaName = (String) orphan[1];
+            sagaLog.register(sagaId, sagaName).join();
+            unfinished.add(new UnfinishedSaga(shard, SagaInstance.builder()
+                    .id(sagaId)
+                    .sagaName(sagaName)
+                    .status(SagaInstance.Status.RUNNING)
+                    .build()));
+        }
+        return unfinished;
+    }
+
+    private void recover(SagaInstance instance) {
+        SagaRecoveryHandler handler = handlers.stream()
+                .filter(candidate -> candidate.supports(instance.getSagaName()))
+                .findFirst()
+                .orElse(null);
+        if (handler == null) {
+            log.warn("No recovery handler for saga: {} ({})", instance.getId(), instance.getSagaName());
+            return;
+        }
+
+        List<SagaStepLog> steps = sagaStepLogRepository.findBySagaIdOrderByIdAsc(instance.getId());
+        Set<String> compensatedSteps = steps.stream()
+                .filter(step -> step.getStatus() == SagaStepLog.Status.COMPENSATED)
+                .map(SagaStepLog::getStepName)
+                .collect(Collectors.toSet());
+        List<SagaStepLog> completedSteps = steps.stream()
+                .filter(step -> step.getStatus() == SagaStepLog.Status.COMPLETED)
+                .filter(step -> !compensatedSteps.contains(step.getStepName()))
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        if (instance.getStatus() == SagaInstance.Status.RUNNING && handler.resume(instance.getId(), completedSteps)) {
+            log.info("Resumed saga: {} ({})", instance.getId(), instance.getSagaName());
+            sagaLog.updateStatus(instance.getId(), SagaInstance.Status.COMPLETED);
+            return;
+        }
+
+        sagaLog.updateStatus(instance.getId(), SagaInstance.Status.COMPENSATING).join();
+        Collections.reverse(completedSteps);
+        boolean compensatedAll = true;
+        for (SagaStepLog step : completedSteps) {
+            if (step.getResultRef() == null) {
+                continue;
+            }
+            try {
+                handler.compensate(step);
+                sagaLog.recordStep(instance.getId(), instance.getSagaName(), step.getStepName(),
+                        SagaStepLog.Status.COMPENSATED, step.getResultRef());
+            } catch (Exception e) {
+                compensatedAll = false;
+                log.error("Compensation failed during recovery: {} step {}", instance.getId(), step.getStepName(), e);
+            }
+        }
+
+        if (compensatedAll) {
+            log.info("Compensated saga: {} ({})", instance.getId(), instance.getSagaName());
+            sagaLog.updateStatus(instance.getId(), SagaInstance.Status.COMPENSATED);
+        }
+    }
+
+    private record UnfinishedSaga(int shard, SagaInstance instance) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.finance.application.saga;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ *  사가를 구성하는 하나의 단계
+ *  dependencies 에 있는 단계가 모두 성공한 뒤에 실행되고, 사가가 실패하면 compensation 으로 되돌린다.
+ *  timeout 이 null 이면 SagaEngine 의 기본 타임아웃을 사용한다.
+ *  recoveryRef 가 있으면 단계 결과를 그 값으로 saga_steps 에 기록해서, 재시작 후에도 보상할 수 있게 한다.
+ */
+public record SagaStep<T>(String name,
+                          List<String> dependencies,
+                          Function<SagaContext, T> action,
+                          BiConsumer<SagaContext, T> compensation,
+                          Function<T, String> recoveryRef,
+                          Duration timeout) {
+
+    public SagaStep {
+        dependencies = List.copyOf(dependencies);
+    }
+
+    boolean isRecoverable() {
+        return recoveryRef != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    String recoveryRefOf(Object result) {
+        return recoveryRef.apply((T) result);
+    }
+
+    void compensate(SagaContext context) {
+        if (compensation != null) {
+            @SuppressWarnings("unchecked")
+            T result = (T) context.get(name, Object.class);
+            compensation.accept(context, result);
+        }
+    }
+}
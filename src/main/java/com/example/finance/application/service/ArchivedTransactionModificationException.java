@@ -0,0 +1,15 @@
+package com.example.finance.application.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 아카이브 파일로 옮겨진 거래는 읽기 전용이므로 수정하거나 삭제할 수 없다.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ArchivedTransactionModificationException extends RuntimeException {
+
+    public ArchivedTransactionModificationException(Long transactionId) {
+        super("Transaction " + transactionId + " is archived and read-only");
+    }
+}
@@ -0,0 +1,468 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.event.BudgetThresholdCrossedEvent;
+import com.example.finance.domain.event.DomainEvent;
+import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.domain.event.TransactionDeletedEvent;
+import com.example.finance.domain.event.TransactionUpdatedEvent;
+import com.example.finance.domain.model.Budget;
+import com.example.finance.domain.model.BudgetSpending;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.repository.BudgetRepository;
+import com.example.finance.infrastructure.outbox.OutboxService;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.snapshot.RecentEventIds;
+import com.example.finance.infrastructure.snapshot.SnapshotParticipant;
+import com.example.finance.infrastructure.snapshot.SnapshotService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *  예산 임계값 알림
+ *
+ *  예산이 있는 (사용자, 카테고리)마다 이번 달 지출 합계를 메모리에 두고 거래 이벤트의 금액 차이만 더하고 뺀다.
+ *  임계 금액(한도 x 임계 비율)은 정렬된 맵에 있어서 합계가 바뀌면 floorEntry 한 번으로 도달한 임계값을 알 수 있고,
+ *  이미 알린 임계값과 같으면 DB 를 건드리지 않는다. 예산이 없는 카테고리의 이벤트는 맵 조회 한 번으로 끝난다.
+ *
+ *  합계는 기동할 때와 달이 바뀔 때 DB 에서 다시 계산하고, 그 시각 이전에 발생한 이벤트는 이미 합계에 들어있으므로 건너뛴다.
+ *  계산하는 동안 커밋되지 않았던 거래는 다음 계산 때까지 빠질 수 있다.
+ *  임계값을 넘으면 예산의 알림 기록과 BudgetThresholdCrossedEvent 를 같은 사용자 샤드 트랜잭션으로 저장한다.
+ *  이벤트는 최소 한 번 전달되므로 같은 거래 이벤트가 다시 오면 합계가 그만큼 늘어날 수 있다.
+ *
+ *  스냅샷이 켜져 있으면 기동할 때 합계를 스냅샷에서 되살리고 그 뒤의 아웃박스 이벤트만 다시 반영한다.
+ *  예산 행은 가볍게 다시 읽어서 스냅샷 이후에 바뀐 예산만 DB 에서 다시 계산한다.
+ *  이때는 최근 두 스냅샷 주기 안에 반영한 이벤트 id 를 기억해서 같은 이벤트를 두 번 더하지 않는다.
+ *  합계를 만들기 전에 도착한 이벤트는 모아 두었다가 만든 뒤에 반영한다.
+ */
+@Service
+@Slf4j
+public class BudgetAlertEngine implements SnapshotParticipant {
+
+    private static final String SNAPSHOT_NAME = "budget-alerts.v1";
+
+    private final BudgetRepository budgetRepository;
+    private final OutboxService outboxService;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final SnapshotService snapshotService;
+    private final int[] thresholdPercents;
+    private final Map<Key, Tracker> trackers = new ConcurrentHashMap<>();
+    // 이벤트 반영은 읽기 락, 스냅샷은 쓰기 락을 잡아서 합계와 기억한 이벤트 id 가 같은 시점이 되게 한다.
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private RecentEventIds recentEvents = new RecentEventIds();
+    private final List<DomainEvent> pending = new ArrayList<>();
+    private volatile boolean loaded;
+
+    public BudgetAlertEngine(BudgetRepository budgetRepository,
+                             OutboxService outboxService,
+                             ShardRouter shardRouter,
+                             ReplicaRouter replicaRouter,
+                             SnapshotService snapshotService,
+                             @Value("${finance.budget.alert-thresholds:80,100}") int[] thresholdPercents) {
+        this.budgetRepository = budgetRepository;
+        this.outboxService = outboxService;
+        this.shardRouter = shardRouter;
+        this.replicaRouter = replicaRouter;
+        this.snapshotService = snapshotService;
+        this.thresholdPercents = Arrays.stream(thresholdPercents).filter(percent -> percent > 0).distinct().sorted().toArray();
+        if (this.thresholdPercents.length == 0) {
+            throw new IllegalArgumentException("finance.budget.alert-thresholds needs at least one positive percent");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBudgets() {
+        try {
+            if (!snapshotService.restore(this)) {
+                loadFromDatabase();
+            }
+        } finally {
+            markLoaded();
+        }
+        log.info("Tracking {} budgets with alert thresholds {}%", trackers.size(), Arrays.toString(thresholdPercents));
+    }
+
+    /**
+     * 모든 샤드의 예산과 이번 달 지출 합계를 읽는다. 읽기 전에 이미 넘었지만 알리지 않은 임계값은 여기서 알린다.
+     */
+    private void loadFromDatabase() {
+        trackers.clear();
+        YearMonth month = YearMonth.now();
+        for (int shard : shardRouter.shards()) {
+            List<BudgetSpending> budgets = replicaRouter.onPrimary(() -> shardRouter.onShard(shard,
+                    () -> budgetRepository.findAllWithSpending(Transaction.TransactionType.EXPENSE,
+                            startOf(month), startOf(month.plusMonths(1)))));
+            LocalDateTime snapshotAt = LocalDateTime.now();
+            for (BudgetSpending budget : budgets) {
+                Tracker tracker = new Tracker(budget, month, snapshotAt);
+                trackers.put(tracker.key, tracker);
+                synchronized (tracker) {
+                    evaluate(tracker);
+                }
+            }
+        }
+    }
+
+    /**
+     * 합계를 만드는 동안 모아 둔 이벤트를 반영하고, 이후 이벤트는 바로 반영한다.
+     */
+    private void markLoaded() {
+        List<DomainEvent> buffered;
+        synchronized (pending) {
+            loaded = true;
+            buffered = List.copyOf(pending);
+            pending.clear();
+        }
+        buffered.forEach(this::applyOnce);
+    }
+
+    /**
+     * 예산이 바뀌었거나 지워졌을 때 BudgetService 가 커밋 뒤에 호출한다.
+     */
+    public void reload(Long userId, Long categoryId) {
+        Key key = new Key(userId, categoryId);
+        YearMonth month = YearMonth.now();
+        Optional<BudgetSpending> budget = load(userId, categoryId, month);
+        LocalDateTime snapshotAt = LocalDateTime.now();
+        if (budget.isEmpty()) {
+            trackers.remove(key);
+            return;
+        }
+        Tracker tracker = new Tracker(budget.get(), month, snapshotAt);
+        trackers.put(key, tracker);
+        synchronized (tracker) {
+            evaluate(tracker);
+        }
+    }
+
+    public void apply(TransactionCreatedEvent event) {
+        accept(event);
+    }
+
+    public void apply(TransactionUpdatedEvent event) {
+        accept(event);
+    }
+
+    public void apply(TransactionDeletedEvent event) {
+        accept(event);
+    }
+
+    private void accept(DomainEvent event) {
+        if (!loaded) {
+            synchronized (pending) {
+                if (!loaded) {
+                    pending.add(event);
+                    return;
+                }
+            }
+        }
+        applyOnce(event);
+    }
+
+    /**
+     * 스냅샷이 켜져 있으면 이미 반영한 이벤트를 건너뛴다.
+     */
+    private void applyOnce(DomainEvent event) {
+        snapshotLock.readLock().lock();
+        try {
+            if (snapshotService.isEnabled() && !recentEvents.add(event.getEventId())) {
+                return;
+            }
+            if (event instanceof TransactionCreatedEvent created) {
+                applyCreated(created);
+            } else if (event instanceof TransactionUpdatedEvent updated) {
+                applyUpdated(updated);
+            } else if (event instanceof TransactionDeletedEvent deleted) {
+                applyDeleted(deleted);
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    private void applyCreated(TransactionCreatedEvent event) {
+        Transaction transaction = event.getTransaction();
+        if (transaction.getType() == Transaction.TransactionType.EXPENSE) {
+            apply(event.getUserId(), event.getCategoryId(), transaction.getTransactionDate(),
+                    baseAmountOf(transaction.getBaseAmount(), transaction.getAmount()), event.getOccurredOn());
+        }
+    }
+
+    /**
+     * 이전 값을 빼고 새 값을 더한다. 카테고리가 그대로면 차이를 한 번에 반영해서 중간 합계로 알림이 나가지 않게 한다.
+     */
+    private void applyUpdated(TransactionUpdatedEvent event) {
+        Map<Long, BigDecimal> deltas = new HashMap<>(2);
+        if (event.getOldType() == Transaction.TransactionType.EXPENSE) {
+            deltas.merge(event.getOldCategoryId(), baseAmountOf(event.getOldBaseAmount(), event.getOldAmount()).negate(), BigDecimal::add);
+        }
+        if (event.getNewType() == Transaction.TransactionType.EXPENSE) {
+            deltas.merge(event.getNewCategoryId(), baseAmountOf(event.getNewBaseAmount(), event.getNewAmount()),
+                    BigDecimal::add);
+        }
+        deltas.forEach((categoryId, delta) -> apply(event.getUserId(), categoryId,
+                transactionDateOf(event.getTransactionDate(), event), delta, event.getOccurredOn()));
+    }
+
+    private void applyDeleted(TransactionDeletedEvent event) {
+        if (event.getType() == Transaction.TransactionType.EXPENSE) {
+            apply(event.getUserId(), event.getCategoryId(), transactionDateOf(event.getTransactionDate(), event),
+                    baseAmountOf(event.getBaseAmount(), event.getAmount()).negate(), event.getOccurredOn());
+        }
+    }
+
+    private void apply(Long userId, Long categoryId, LocalDateTime transactionDate, BigDecimal delta,
+                       LocalDateTime occurredOn) {
+        Tracker tracker = trackers.get(new Key(userId, categoryId));
+        if (tracker == null || delta.signum() == 0) {
+            return;
+        }
+        synchronized (tracker) {
+            YearMonth current = YearMonth.now();
+            if (!current.equals(tracker.month) && !rollOver(tracker, current)) {
+                return;
+            }
+            // 지난 달 거래는 이번 달 합계와 상관없고, 합계를 계산하기 전에 발생한 이벤트는 이미 합계에 들어있다.
+            if (!YearMonth.from(transactionDate).equals(tracker.month) || occurredOn.isBefore(tracker.snapshotAt)) {
+                return;
+            }
+            tracker.spent = tracker.spent.add(delta);
+            evaluate(tracker);
+        }
+    }
+
+    @Override
+    public String snapshotName() {
+        return SNAPSHOT_NAME;
+    }
+
+    @Override
+    public Set<Class<? extends DomainEvent>> replayedEvents() {
+        return Set.of(TransactionCreatedEvent.class, TransactionUpdatedEvent.class, TransactionDeletedEvent.class);
+    }
+
+    @Override
+    public boolean readyForSnapshot() {
+        return loaded;
+    }
+
+    @Override
+    public void replay(DomainEvent event) {
+        applyOnce(event);
+    }
+
+    @Override
+    public void writeSnapshot(DataOutputStream out) throws IOException {
+        snapshotLock.writeLock().lock();
+        try {
+            List<Tracker> snapshot = List.copyOf(trackers.values());
+            out.writeInt(snapshot.size());
+            for (Tracker tracker : snapshot) {
+                synchronized (tracker) {
+                    out.writeLong(tracker.budgetId);
+                    out.writeLong(tracker.key.userId());
+                    out.writeLong(tracker.key.categoryId());
+                    out.writeUTF(tracker.limit.toPlainString());
+                    out.writeUTF(tracker.month.toString());
+                    out.writeUTF(tracker.snapshotAt.toString());
+                    out.writeUTF(tracker.spent.toPlainString());
+                    out.writeInt(tracker.alertedPercent);
+                }
+            }
+            recentEvents.writeTo(out);
+            recentEvents.rotate();
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 스냅샷의 합계를 예산 행과 맞춰 본다. 스냅샷 이후에 생기거나 한도가 바뀐 예산은 DB 에서 다시 계산하고,
+     * 지워진 예산은 추적하지 않는다.
+     */
+    @Override
+    public void readSnapshot(DataInputStream in) throws IOException {
+        Map<Key, Tracker> restored = new HashMap<>();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            long budgetId = in.readLong();
+            long userId = in.readLong();
+            long categoryId = in.readLong();
+            BigDecimal limit = new BigDecimal(in.readUTF());
+            YearMonth month = YearMonth.parse(in.readUTF());
+            LocalDateTime snapshotAt = LocalDateTime.parse(in.readUTF());
+            BigDecimal spent = new BigDecimal(in.readUTF());
+            int alertedPercent = in.readInt();
+            Tracker tracker = new Tracker(new BudgetSpending(budgetId, userId, categoryId, limit,
+                    month.toString(), alertedPercent, spent), month, snapshotAt);
+            restored.put(tracker.key, tracker);
+        }
+        RecentEventIds events = new RecentEventIds();
+        events.readFrom(in);
+
+        Set<Key> stale = new HashSet<>();
+        Set<Key> current = new HashSet<>();
+        for (int shard : shardRouter.shards()) {
+            List<Budget> budgets = replicaRouter.onPrimary(() -> shardRouter.onShard(shard, budgetRepository::findAll));
+            for (Budget budget : budgets) {
+                Key key = new Key(budget.getUser().getId(), budget.getCategory().getId());
+                Tracker tracker = restored.get(key);
+                current.add(key);
+                if (tracker == null || !tracker.budgetId.equals(budget.getId())
+                        || tracker.limit.compareTo(budget.getMonthlyLimit()) != 0) {
+                    stale.add(key);
+                }
+            }
+        }
+        restored.keySet().retainAll(current);
+
+        snapshotLock.writeLock().lock();
+        try {
+            recentEvents = events;
+            trackers.clear();
+            trackers.putAll(restored);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+        stale.forEach(key -> reload(key.userId(), key.categoryId()));
+    }
+
+    /**
+     * 새 달의 합계를 DB 에서 다시 계산한다. 그 사이 예산이 지워졌으면 추적을 멈추고 false 를 돌려준다.
+     */
+    private boolean rollOver(Tracker tracker, YearMonth month) {
+        Optional<BudgetSpending> budget = load(tracker.key.userId(), tracker.key.categoryId(), month);
+        if (budget.isEmpty()) {
+            trackers.remove(tracker.key, tracker);
+            return false;
+        }
+        tracker.reset(budget.get(), month, LocalDateTime.now());
+        return true;
+    }
+
+    /**
+     * 합계로 도달한 가장 높은 임계값이 이미 알린 임계값보다 높으면 알리고, 지출이 줄어서 낮아졌으면 기록만 낮춘다.
+     * 저장에 실패하면 기록을 그대로 두므로 다음 이벤트에서 다시 시도한다.
+     */
+    private void evaluate(Tracker tracker) {
+        Map.Entry<BigDecimal, Integer> reached = tracker.thresholds.floorEntry(tracker.spent);
+        int percent = reached == null ? 0 : reached.getValue();
+        if (percent == tracker.alertedPercent) {
+            return;
+        }
+        try {
+            recordAlert(tracker, percent);
+            tracker.alertedPercent = percent;
+        } catch (RuntimeException e) {
+            log.error("Failed to record budget alert for user {} category {}",
+                    tracker.key.userId(), tracker.key.categoryId(), e);
+        }
+    }
+
+    private void recordAlert(Tracker tracker, int percent) {
+        Long userId = tracker.key.userId();
+        shardRouter.inUserTransaction(userId, () -> {
+            budgetRepository.findById(tracker.budgetId).ifPresent(budget -> {
+                budget.setAlertedMonth(tracker.month.toString());
+                budget.setAlertedPercent(percent);
+                budgetRepository.save(budget);
+                if (percent > tracker.alertedPercent) {
+                    outboxService.storedEvent(new BudgetThresholdCrossedEvent(tracker.budgetId, userId,
+                            tracker.key.categoryId(), tracker.month, percent, tracker.limit, tracker.spent));
+                    log.info("Budget {} of user {} reached {}%: spent {} of {}",
+                            tracker.budgetId, userId, percent, tracker.spent, tracker.limit);
+                }
+                replicaRouter.recordWrite(userId);
+            });
+            return null;
+        });
+    }
+
+    private Optional<BudgetSpending> load(Long userId, Long categoryId, YearMonth month) {
+        return replicaRouter.onPrimary(() -> shardRouter.onUserShard(userId,
+                () -> budgetRepository.findWithSpending(userId, categoryId, Transaction.TransactionType.EXPENSE,
+                        startOf(month), startOf(month.plusMonths(1)))));
+    }
+
+    private NavigableMap<BigDecimal, Integer> thresholdsOf(BigDecimal limit) {
+        NavigableMap<BigDecimal, Integer> thresholds = new TreeMap<>();
+        for (int percent : thresholdPercents) {
+            thresholds.put(limit.multiply(BigDecimal.valueOf(percent)).movePointLeft(2), percent);
+        }
+        return thresholds;
+    }
+
+    /**
+     * transactionDate 가 없는 예전 이벤트는 이벤트가 발생한 날짜로 대신한다.
+     */
+    private static LocalDateTime transactionDateOf(LocalDateTime transactionDate, DomainEvent event) {
+        return transactionDate != null ? transactionDate : event.getOccurredOn();
+    }
+
+    /**
+     * 예산은 기준 통화 금액으로 비교한다. 기준 통화 금액이 없는 예전 이벤트는 기준 통화 거래였으므로 amount 를 쓴다.
+     */
+    private static BigDecimal baseAmountOf(BigDecimal baseAmount, BigDecimal amount) {
+        return baseAmount != null ? baseAmount : amount;
+    }
+
+    private static LocalDateTime startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+
+    private record Key(Long userId, Long categoryId) {
+    }
+
+    /**
+     * 예산 하나의 이번 달 상태. 모든 필드는 이 객체의 락 안에서 읽고 쓴다.
+     */
+    private final class Tracker {
+        private final Key key;
+        private Long budgetId;
+        private BigDecimal limit;
+        private NavigableMap<BigDecimal, Integer> thresholds;
+        private YearMonth month;
+        private LocalDateTime snapshotAt;
+        private BigDecimal spent;
+        private int alertedPercent;
+
+        Tracker(BudgetSpending budget, YearMonth month, LocalDateTime snapshotAt) {
+            this.key = new Key(budget.userId(), budget.categoryId());
+            reset(budget, month, snapshotAt);
+        }
+
+        void reset(BudgetSpending budget, YearMonth month, LocalDateTime snapshotAt) {
+            this.budgetId = budget.budgetId();
+            this.limit = budget.monthlyLimit();
+            this.thresholds = thresholdsOf(budget.monthlyLimit());
+            this.month = month;
+            this.snapshotAt = snapshotAt;
+            this.spent = budget.spent();
+            this.alertedPercent = month.toString().equals(budget.alertedMonth()) ? budget.alertedPercent() : 0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.Budget;
+import com.example.finance.domain.repository.BudgetRepository;
+import com.example.finance.domain.repository.CategoryRepository;
+import com.example.finance.domain.repository.UserRepository;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ *  사용자의 카테고리별 월 예산 관리
+ *  예산은 사용자 샤드에 저장되고, 바뀔 때마다 커밋 뒤에 BudgetAlertEngine 이 새 한도로 다시 계산한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class BudgetService {
+
+    private final BudgetRepository budgetRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final BudgetAlertEngine budgetAlertEngine;
+
+    /**
+     * 사용자의 마지막 쓰기가 복제본에 반영되지 않았으면 주 DB 에서 읽는다.
+     */
+    public List<Budget> getBudgets(Long userId) {
+        return shardRouter.onUserShard(userId, () -> replicaRouter.isCaughtUp(userId)
+                ? budgetRepository.findByUserIdOrderByCategoryIdAsc(userId)
+                : replicaRouter.onPrimary(() -> budgetRepository.findByUserIdOrderByCategoryIdAsc(userId)));
+    }
+
+    /**
+     * 예산이 없으면 만들고 있으면 한도를 바꾼다. 한도가 바뀌면 이번 달 알림 기록을 지워서 새 한도로 다시 알린다.
+     */
+    public Budget setBudget(Long userId, Long categoryId, BigDecimal monthlyLimit) {
+        if (monthlyLimit == null || monthlyLimit.signum() <= 0) {
+            throw new InvalidBudgetException(monthlyLimit);
+        }
+        Budget saved = shardRouter.inUserTransaction(userId, () -> {
+            Budget budget = budgetRepository.findByUserIdAndCategoryId(userId, categoryId)
+                    .orElseGet(() -> Budget.builder()
+                            .user(userRepository.findById(userId)
+                                    .orElseThrow(() -> new RuntimeException("User not found with Id: " + userId)))
+                            .category(categoryRepository.findById(categoryId)
+                                    .orElseThrow(() -> new RuntimeException("Category not found with Id: " + categoryId)))
+                            .build());
+            if (budget.getMonthlyLimit() != null && budget.getMonthlyLimit().compareTo(monthlyLimit) == 0) {
+                return budget;
+            }
+            budget.setMonthlyLimit(monthlyLimit);
+            budget.setAlertedMonth(null);
+            budget.setAlertedPercent(0);
+            Budget result = budgetRepository.save(budget);
+            replicaRouter.recordWrite(userId);
+            return result;
+        });
+        budgetAlertEngine.reload(userId, categoryId);
+        return saved;
+    }
+
+    /**
+     * 예산을 지운다. 예산이 없으면 false 를 반환한다.
+     */
+    public boolean deleteBudget(Long userId, Long categoryId) {
+        boolean deleted = shardRouter.inUserTransaction(userId, () ->
+                budgetRepository.findByUserIdAndCategoryId(userId, categoryId).map(budget -> {
+                    budgetRepository.delete(budget);
+                    replicaRouter.recordWrite(userId);
+                    return true;
+                }).orElse(false));
+        if (deleted) {
+            budgetAlertEngine.reload(userId, categoryId);
+        }
+        return deleted;
+    }
+}
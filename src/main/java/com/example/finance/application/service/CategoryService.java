@@ -0,0 +1,230 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.model.CategoryTotal;
+import com.example.finance.domain.repository.CategoryRepository;
+import com.example.finance.domain.repository.TransactionRepository;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ *  카테고리 트리 관리
+ *
+ *  하위 카테고리 조회와 하위 합계 집계는 Category 의 [lft, rgt] 구간 조건 하나로 끝나므로 재귀 조회가 없다.
+ *  추가와 이동은 바뀌는 위치 사이에 있는 행만 UPDATE 로 밀어서 맞추고 트리 전체를 다시 번호 매기지 않는다.
+ *
+ *  카테고리는 모든 샤드에 복제된 참조 데이터라서 쓰기는 0번 샤드부터 샤드마다 같은 연산을 적용한다.
+ *  id 는 0번 샤드에서 정하고 다른 샤드에는 같은 id 로 넣는다. 구간을 읽고 고치는 사이에 다른 쓰기가 끼지 않도록
+ *  쓰기는 한 번에 하나씩 실행한다. 샤드를 건너는 트랜잭션은 아니므로 0번 샤드를 기준으로 삼는다. 다른 샤드에서 실패하면
+ *  그 샤드의 트리를 0번 샤드에서 다시 복사하고, 기동할 때도 샤드마다 트리를 비교해서 다르면 복사한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final TransactionRepository transactionRepository;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+
+    public List<Category> getCategories() {
+        return categoryRepository.findAllByOrderByLftAsc();
+    }
+
+    /**
+     * 카테고리와 모든 하위 카테고리를 트리 순서로 돌려준다. 카테고리가 없으면 비어있는 Optional 을 반환한다.
+     */
+    public Optional<List<Category>> getSubtree(Long categoryId) {
+        List<Category> subtree = categoryRepository.findSubtree(categoryId);
+        return subtree.isEmpty() ? Optional.empty() : Optional.of(subtree);
+    }
+
+    /**
+     * 부모의 마지막 하위 카테고리로 추가한다. parentId 가 없으면 최상위 카테고리로 추가한다.
+     */
+    public synchronized Category createCategory(String name, String description, Long parentId) {
+        Category created = shardRouter.inShardTransaction(0, () -> {
+            Slot slot = openSlot(parentId);
+            return categoryRepository.save(Category.builder()
+                    .name(name)
+                    .description(description)
+                    .parentId(parentId)
+                    .lft(slot.lft())
+                    .rgt(slot.lft() + 1)
+                    .depth(slot.depth())
+                    .build());
+        });
+        forOtherShards(() -> {
+            Slot slot = openSlot(parentId);
+            categoryRepository.insertCopy(created.getId(), name, description, parentId,
+                    slot.lft(), slot.lft() + 1, slot.depth(), created.getCreatedAt());
+            return null;
+        });
+        return created;
+    }
+
+    /**
+     * 하위 카테고리와 함께 새 부모의 마지막 하위 카테고리로 옮긴다. parentId 가 없으면 최상위로 옮긴다.
+     */
+    public synchronized Category moveCategory(Long categoryId, Long parentId) {
+        Category moved = shardRouter.inShardTransaction(0, () -> move(categoryId, parentId));
+        forOtherShards(() -> move(categoryId, parentId));
+        return moved;
+    }
+
+    /**
+     * 사용자의 월별 카테고리 합계. 각 카테고리의 합계에는 하위 카테고리의 거래가 포함된다.
+     * 아카이브로 옮겨진 달의 거래는 포함되지 않는다.
+     */
+    public List<CategoryTotal> getTotals(Long userId, YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime until = month.plusMonths(1).atDay(1).atStartOfDay();
+        Supplier<List<CategoryTotal>> query = () -> transactionRepository.sumByCategorySubtree(userId, from, until);
+        return shardRouter.onUserShard(userId, () -> replicaRouter.isCaughtUp(userId)
+                ? query.get()
+                : replicaRouter.onPrimary(query));
+    }
+
+    /**
+     * parent 의 rgt 자리에 두 칸을 비운다. 최상위면 마지막 rgt 뒤에 붙인다.
+     */
+    private Slot openSlot(Long parentId) {
+        if (parentId == null) {
+            return new Slot(categoryRepository.findMaxRgt() + 1, 0);
+        }
+        Category parent = find(parentId);
+        categoryRepository.openGap(parent.getRgt(), 2);
+        return new Slot(parent.getRgt(), parent.getDepth() + 1);
+    }
+
+    private Category move(Long categoryId, Long parentId) {
+        Category category = find(categoryId);
+        int lft = category.getLft();
+        int rgt = category.getRgt();
+        int width = rgt - lft + 1;
+
+        int target;
+        int depth;
+        if (parentId == null) {
+            target = categoryRepository.findMaxRgt() + 1;
+            depth = 0;
+        } else {
+            Category parent = find(parentId);
+            if (parent.getLft() >= lft && parent.getLft() <= rgt) {
+                throw new InvalidCategoryMoveException(categoryId, parentId);
+            }
+            target = parent.getRgt();
+            depth = parent.getDepth() + 1;
+        }
+
+        categoryRepository.reparent(categoryId, parentId, lft, rgt, depth - category.getDepth());
+        if (target > rgt) {
+            // 뒤로 옮기면 사이에 있던 번호가 구간 폭만큼 앞으로 당겨지고, 구간은 target 바로 앞에서 끝난다.
+            categoryRepository.moveInterval(lft, rgt, target - rgt - 1, rgt + 1, target - 1, -width);
+        } else if (target < lft) {
+            categoryRepository.moveInterval(lft, rgt, target - lft, target, lft - 1, width);
+        }
+        return find(categoryId);
+    }
+
+    /**
+     * 0번 샤드와 트리가 다른 샤드에 0번 샤드의 트리를 복사한다. 이전 실행에서 중간 샤드의 쓰기가 실패했거나
+     * 복사 중에 중단되었어도 기동 후에는 모든 샤드가 같은 트리를 갖는다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconcileShards() {
+        if (shardRouter.shardCount() == 1) {
+            return;
+        }
+        List<Category> source = shardRouter.inShardTransaction(0, categoryRepository::findAllByOrderByLftAsc);
+        List<Position> expected = positions(source);
+        for (int shard : shardRouter.shards()) {
+            if (shard == 0) {
+                continue;
+            }
+            List<Category> actual = shardRouter.inShardTransaction(shard, categoryRepository::findAllByOrderByLftAsc);
+            if (!expected.equals(positions(actual))) {
+                log.warn("Category tree on shard {} differs from shard 0, copying it", shard);
+                copyTree(shard, source);
+            }
+        }
+    }
+
+    private void forOtherShards(Supplier<?> action) {
+        for (int shard : shardRouter.shards()) {
+            if (shard == 0) {
+                continue;
+            }
+            try {
+                shardRouter.inShardTransaction(shard, action);
+            } catch (RuntimeException e) {
+                log.warn("Category write failed on shard {}, copying the tree from shard 0", shard, e);
+                try {
+                    copyTree(shard, shardRouter.inShardTransaction(0, categoryRepository::findAllByOrderByLftAsc));
+                } catch (RuntimeException copyFailure) {
+                    // 다음 기동 시 reconcileShards 가 다시 맞춘다.
+                    log.error("Failed to copy the category tree to shard {}", shard, copyFailure);
+                }
+            }
+        }
+    }
+
+    /**
+     * 한 트랜잭션에서 shard 의 카테고리 위치를 source 와 같게 고치고 없는 카테고리를 넣는다.
+     * 0번 샤드에 없는 카테고리는 거래가 참조하고 있을 수 있으므로 지우지 않고 로그만 남긴다.
+     */
+    private void copyTree(int shard, List<Category> source) {
+        shardRouter.inShardTransaction(shard, () -> {
+            Map<Long, Category> existing = new HashMap<>();
+            categoryRepository.findAll().forEach(category -> existing.put(category.getId(), category));
+            for (Category category : source) {
+                if (existing.remove(category.getId()) != null) {
+                    categoryRepository.updatePosition(category.getId(), category.getParentId(),
+                            category.getLft(), category.getRgt(), category.getDepth());
+                } else {
+                    categoryRepository.insertCopy(category.getId(), category.getName(), category.getDescription(),
+                            category.getParentId(), category.getLft(), category.getRgt(), category.getDepth(),
+                            category.getCreatedAt());
+                }
+            }
+            if (!existing.isEmpty()) {
+                log.error("Categories on shard {} are missing on shard 0: {}", shard, existing.keySet());
+            }
+            return null;
+        });
+    }
+
+    private static List<Position> positions(List<Category> categories) {
+        return categories.stream()
+                .map(category -> new Position(category.getId(), category.getParentId(),
+                        category.getLft(), category.getRgt(), category.getDepth()))
+                .sorted(Comparator.comparing(Position::id))
+                .toList();
+    }
+
+    private Category find(Long categoryId) {
+        return categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new RuntimeException("Category not found with Id: " + categoryId));
+    }
+
+    private record Slot(int lft, int depth) {
+    }
+
+    private record Position(Long id, Long parentId, int lft, int rgt, int depth) {
+    }
+}
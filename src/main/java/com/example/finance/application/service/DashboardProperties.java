@@ -0,0 +1,29 @@
+package com.example.finance.application.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ *  finance.dashboard.* 설정
+ *  항목별 제한 시간 안에 끝나지 않은 조회는 빼고 응답한다. 빠진 항목이 없는 대시보드만 cache-ttl 동안 재사용한다.
+ */
+@ConfigurationProperties(prefix = "finance.dashboard")
+public record DashboardProperties(Duration userTimeout,
+                                  Duration recentTransactionsTimeout,
+                                  Duration categoryTotalsTimeout,
+                                  Duration balanceTimeout,
+                                  Integer recentLimit,
+                                  Duration cacheTtl,
+                                  Integer cacheMaxEntries) {
+
+    public DashboardProperties {
+        userTimeout = userTimeout == null ? Duration.ofMillis(200) : userTimeout;
+        recentTransactionsTimeout = recentTransactionsTimeout == null ? Duration.ofMillis(300) : recentTransactionsTimeout;
+        categoryTotalsTimeout = categoryTotalsTimeout == null ? Duration.ofMillis(500) : categoryTotalsTimeout;
+        balanceTimeout = balanceTimeout == null ? Duration.ofMillis(500) : balanceTimeout;
+        recentLimit = recentLimit == null ? 10 : recentLimit;
+        cacheTtl = cacheTtl == null ? Duration.ofSeconds(2) : cacheTtl;
+        cacheMaxEntries = cacheMaxEntries == null ? 10000 : cacheMaxEntries;
+    }
+}
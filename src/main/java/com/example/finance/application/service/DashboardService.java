@@ -0,0 +1,186 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.CategoryTotal;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.User;
+import com.example.finance.domain.repository.TransactionRepository;
+import com.example.finance.domain.repository.UserRepository;
+import com.example.finance.infrastructure.archive.ArchiveCatalog;
+import com.example.finance.infrastructure.archive.ArchivedTransaction;
+import com.example.finance.infrastructure.cache.ExpiringCache;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ *  사용자 대시보드 조회
+ *
+ *  사용자, 최근 거래, 이번 달 카테고리별 합계, 잔액을 dashboardExecutor 에서 동시에 조회하므로
+ *  응답 시간은 네 조회의 합이 아니라 가장 느린 조회의 시간이다.
+ *  항목마다 제한 시간이 있고, 그 안에 끝나지 않았거나 실패한 항목은 빼고 나머지만으로 응답한다.
+ *  빠진 항목이 없는 대시보드는 cache-ttl 동안 재사용한다. 사용자의 쓰기가 아직 복제본에 반영되지 않았으면
+ *  캐시를 거치지 않고 주 DB 에서 읽는다.
+ */
+@Service
+@EnableConfigurationProperties(DashboardProperties.class)
+@Slf4j
+public class DashboardService {
+
+    private static final String USER = "user";
+    private static final String RECENT_TRANSACTIONS = "recentTransactions";
+    private static final String CATEGORY_TOTALS = "categoryTotals";
+    private static final String BALANCE = "balance";
+
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final ArchiveCatalog archiveCatalog;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final StageMetrics stageMetrics;
+    private final Executor dashboardExecutor;
+    private final DashboardProperties properties;
+    private final ExpiringCache<Long, Optional<UserDashboard>> cache;
+
+    public DashboardService(UserRepository userRepository,
+                            TransactionRepository transactionRepository,
+                            ArchiveCatalog archiveCatalog,
+                            ShardRouter shardRouter,
+                            ReplicaRouter replicaRouter,
+                            StageMetrics stageMetrics,
+                            @Qualifier("dashboardExecutor") Executor dashboardExecutor,
+                            DashboardProperties properties) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.archiveCatalog = archiveCatalog;
+        this.shardRouter = shardRouter;
+        this.replicaRouter = replicaRouter;
+        this.stageMetrics = stageMetrics;
+        this.dashboardExecutor = dashboardExecutor;
+        this.properties = properties;
+        this.cache = new ExpiringCache<>(properties.cacheTtl(), properties.cacheMaxEntries());
+    }
+
+    /**
+     * 사용자가 없으면 비어있는 Optional 을 돌려준다. 사용자 조회가 제한 시간을 넘긴 경우에는 user 가 빠진 대시보드를 돌려준다.
+     */
+    public CompletableFuture<Optional<UserDashboard>> dashboard(Long userId) {
+        if (!replicaRouter.isCaughtUp(userId)) {
+            return load(userId);
+        }
+        return cache.get(userId, () -> load(userId),
+                dashboard -> dashboard.isPresent() && !dashboard.get().partial());
+    }
+
+    private CompletableFuture<Optional<UserDashboard>> load(Long userId) {
+        YearMonth month = YearMonth.now();
+        int shard = shardRouter.shardOfUser(userId);
+
+        CompletableFuture<Section<Optional<User>>> user = source(USER, properties.userTimeout(), userId,
+                () -> userRepository.findById(userId));
+        CompletableFuture<Section<List<Transaction>>> recent = source(RECENT_TRANSACTIONS,
+                properties.recentTransactionsTimeout(), userId,
+                () -> transactionRepository.findByUserIdOrderByTransactionDateDescIdDesc(userId,
+                        Limit.of(properties.recentLimit())));
+        CompletableFuture<Section<List<CategoryTotal>>> totals = source(CATEGORY_TOTALS,
+                properties.categoryTotalsTimeout(), userId,
+                () -> transactionRepository.sumByCategorySubtree(userId,
+                        month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay()));
+        CompletableFuture<Section<BigDecimal>> balance = source(BALANCE, properties.balanceTimeout(), userId,
+                () -> balance(shard, userId));
+
+        return CompletableFuture.allOf(user, recent, totals, balance).thenApply(ignored -> {
+            Section<Optional<User>> userSection = user.join();
+            if (userSection.available() && userSection.value().isEmpty()) {
+                return Optional.empty();
+            }
+            List<String> unavailable = new ArrayList<>();
+            addIfUnavailable(unavailable, USER, userSection);
+            addIfUnavailable(unavailable, RECENT_TRANSACTIONS, recent.join());
+            addIfUnavailable(unavailable, CATEGORY_TOTALS, totals.join());
+            addIfUnavailable(unavailable, BALANCE, balance.join());
+            return Optional.of(new UserDashboard(
+                    userSection.available() ? userSection.value().get() : null,
+                    recent.join().value(),
+                    month,
+                    totals.join().value(),
+                    balance.join().value(),
+                    !unavailable.isEmpty(),
+                    List.copyOf(unavailable)));
+        });
+    }
+
+    /**
+     * 테이블과 아카이브의 수입 합계에서 지출 합계를 뺀다. 모두 기준 통화 금액이다.
+     */
+    private BigDecimal balance(int shard, Long userId) {
+        BigDecimal balance = transactionRepository.sumAmount(userId, Transaction.TransactionType.INCOME)
+                .subtract(transactionRepository.sumAmount(userId, Transaction.TransactionType.EXPENSE));
+        for (ArchivedTransaction archived : archiveCatalog.findByUser(shard, userId)) {
+            balance = archived.type() == Transaction.TransactionType.INCOME
+                    ? balance.add(archived.baseAmount())
+                    : balance.subtract(archived.baseAmount());
+        }
+        return balance;
+    }
+
+    /**
+     * 조회 하나를 사용자 샤드에서 실행한다. 제한 시간을 넘기거나 실패하면 예외 대신 빠진 항목으로 끝난다.
+     * 제한 시간을 넘긴 조회는 취소되지 않고 끝까지 실행되지만 결과는 버려진다.
+     */
+    private <T> CompletableFuture<Section<T>> source(String name, Duration timeout, Long userId, Supplier<T> loader) {
+        long started = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = CompletableFuture.supplyAsync(() -> read(userId, loader), dashboardExecutor);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).handle((value, ex) -> {
+            stageMetrics.dashboardSource(name, ex == null, System.nanoTime() - started);
+            if (ex != null) {
+                log.warn("Dashboard source {} unavailable for user {}: {}", name, userId, ex.toString());
+                return Section.unavailable();
+            }
+            return Section.of(value);
+        });
+    }
+
+    private <T> T read(Long userId, Supplier<T> loader) {
+        return shardRouter.onUserShard(userId, () -> replicaRouter.isCaughtUp(userId)
+                ? loader.get()
+                : replicaRouter.onPrimary(loader));
+    }
+
+    private static void addIfUnavailable(List<String> unavailable, String name, Section<?> section) {
+        if (!section.available()) {
+            unavailable.add(name);
+        }
+    }
+
+    private record Section<T>(T value, boolean available) {
+
+        static <T> Section<T> of(T value) {
+            return new Section<>(value, true);
+        }
+
+        static <T> Section<T> unavailable() {
+            return new Section<>(null, false);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.finance.application.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * group-commit 대기열이 가득 차서 생성 요청을 받을 수 없을 때 발생한다. 클라이언트는 잠시 후 다시 시도하면 된다.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestionQueueFullException extends RuntimeException {
+
+    public IngestionQueueFullException(int shard) {
+        super("Transaction ingestion queue is full on shard " + shard);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.finance.application.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 종료 중이라 group-commit 요청을 받거나 커밋할 수 없을 때 발생한다. 요청은 저장되지 않았으므로 다시 시도해도 된다.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestionStoppedException extends RuntimeException {
+
+    public IngestionStoppedException() {
+        super("Transaction ingestion is shutting down");
+    }
+}
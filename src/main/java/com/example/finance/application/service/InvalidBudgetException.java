@@ -0,0 +1,15 @@
+package com.example.finance.application.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 예산 한도는 0 보다 커야 한다.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidBudgetException extends RuntimeException {
+
+    public InvalidBudgetException(Object monthlyLimit) {
+        super("Monthly limit must be positive: " + monthlyLimit);
+    }
+}
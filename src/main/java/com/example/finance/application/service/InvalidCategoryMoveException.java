@@ -0,0 +1,15 @@
+package com.example.finance.application.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 카테고리를 자기 자신이나 자신의 하위 카테고리 밑으로 옮길 수 없다.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCategoryMoveException extends RuntimeException {
+
+    public InvalidCategoryMoveException(Long categoryId, Long parentId) {
+        super("Cannot move category " + categoryId + " under its own subtree: " + parentId);
+    }
+}
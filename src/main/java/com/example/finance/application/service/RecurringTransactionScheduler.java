@@ -0,0 +1,169 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.RecurringTransaction;
+import com.example.finance.domain.model.ScheduledRun;
+import com.example.finance.domain.repository.RecurringTransactionRepository;
+import com.example.finance.infrastructure.scheduling.TimingWheel;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ *  반복 거래 실행
+ *
+ *  모든 반복 거래의 다음 실행 시각을 메모리의 TimingWheel 에 두고, tick 마다 만료된 것만 꺼내 실행한다.
+ *  테이블을 주기적으로 훑지 않으므로 실행 비용은 전체 반복 거래 수가 아니라 이번에 만료된 수에 비례한다.
+ *  만료된 반복 거래는 샤드별로 batch-size 개씩 한 DB 트랜잭션에서 TransactionService.createTransaction 으로 거래와
+ *  아웃박스 이벤트를 만들고 다음 실행 시각으로 옮긴 뒤, 커밋되면 휠에 다시 넣는다.
+ *  묶음이 실패하면 하나씩 다시 실행하고, 그래도 실패한 반복 거래는 retry-delay 뒤에 다시 시도한다.
+ *
+ *  실행 전에 DB 의 다음 실행 시각을 다시 확인하고 버전으로 갱신하므로, 여러 인스턴스가 같은 반복 거래를 동시에 실행해도
+ *  거래는 한 번만 만들어진다. 앱이 멈춰 있던 동안 밀린 실행은 tick 마다 한 번씩 따라잡는다.
+ */
+@Service
+@Slf4j
+public class RecurringTransactionScheduler {
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final TransactionService transactionService;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final TimingWheel<ScheduleKey> wheel;
+    // wheel 과 함께 this 로 동기화한다.
+    private final Map<ScheduleKey, TimingWheel.Timer<ScheduleKey>> timers = new HashMap<>();
+
+    public RecurringTransactionScheduler(RecurringTransactionRepository recurringTransactionRepository,
+                                         TransactionService transactionService,
+                                         ShardRouter shardRouter,
+                                         ReplicaRouter replicaRouter,
+                                         @Value("${finance.recurring.tick:PT1S}") Duration tick,
+                                         @Value("${finance.recurring.batch-size:100}") int batchSize,
+                                         @Value("${finance.recurring.retry-delay:PT1M}") Duration retryDelay) {
+        this.recurringTransactionRepository = recurringTransactionRepository;
+        this.transactionService = transactionService;
+        this.shardRouter = shardRouter;
+        this.replicaRouter = replicaRouter;
+        this.batchSize = Math.max(1, batchSize);
+        this.retryDelay = retryDelay;
+        this.wheel = new TimingWheel<>(tick.toMillis(), System.currentTimeMillis());
+    }
+
+    /**
+     * 샤드마다 id 와 다음 실행 시각만 읽어서 휠에 넣는다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSchedules() {
+        long started = System.nanoTime();
+        int loaded = 0;
+        for (int shard : shardRouter.shards()) {
+            List<ScheduledRun> runs = replicaRouter.onPrimary(() -> shardRouter.onShard(shard,
+                    recurringTransactionRepository::findAllScheduledRuns));
+            for (ScheduledRun run : runs) {
+                schedule(shard, run.id(), run.nextRunAt());
+            }
+            loaded += runs.size();
+        }
+        log.info("Scheduled {} recurring transactions in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * 이미 예약된 반복 거래면 이전 예약을 대체한다.
+     */
+    public synchronized void schedule(int shard, Long id, LocalDateTime nextRunAt) {
+        ScheduleKey key = new ScheduleKey(shard, id);
+        TimingWheel.Timer<ScheduleKey> previous = timers.put(key,
+                wheel.schedule(key, nextRunAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        if (previous != null) {
+            wheel.cancel(previous);
+        }
+    }
+
+    public synchronized void cancel(int shard, Long id) {
+        TimingWheel.Timer<ScheduleKey> timer = timers.remove(new ScheduleKey(shard, id));
+        if (timer != null) {
+            wheel.cancel(timer);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${finance.recurring.tick:PT1S}")
+    public void fireDue() {
+        List<ScheduleKey> due = due(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        for (ScheduleKey key : due) {
+            idsByShard.computeIfAbsent(key.shard(), shard -> new ArrayList<>()).add(key.id());
+        }
+        idsByShard.forEach((shard, ids) -> {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                fire(shard, ids.subList(from, Math.min(ids.size(), from + batchSize)));
+            }
+        });
+    }
+
+    private synchronized List<ScheduleKey> due(long nowMillis) {
+        List<ScheduleKey> due = wheel.advanceTo(nowMillis);
+        due.forEach(timers::remove);
+        return due;
+    }
+
+    private void fire(int shard, List<Long> ids) {
+        List<ScheduledRun> next;
+        try {
+            next = shardRouter.inShardTransaction(shard, () -> fireBatch(ids));
+        } catch (Exception e) {
+            if (ids.size() == 1) {
+                log.error("Recurring transaction {} on shard {} failed, retrying in {}", ids.get(0), shard, retryDelay, e);
+                schedule(shard, ids.get(0), LocalDateTime.now().plus(retryDelay));
+                return;
+            }
+            log.warn("Batch of {} recurring transactions failed on shard {}, retrying one by one", ids.size(), shard, e);
+            ids.forEach(id -> fire(shard, List.of(id)));
+            return;
+        }
+        next.forEach(run -> schedule(shard, run.id(), run.nextRunAt()));
+    }
+
+    /**
+     * 지워진 반복 거래는 결과에서 빠지므로 다시 예약되지 않는다.
+     */
+    private List<ScheduledRun> fireBatch(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduledRun> next = new ArrayList<>(ids.size());
+        for (RecurringTransaction recurring : recurringTransactionRepository.findByIdIn(ids)) {
+            // 다른 인스턴스가 먼저 실행했으면 거래를 만들지 않고 다음 실행 시각만 다시 예약한다.
+            if (!recurring.getNextRunAt().isAfter(now)) {
+                transactionService.createTransaction(recurring.getUser(), recurring.getCategory(),
+                        recurring.getAmount(), recurring.getCurrency(), recurring.getDescription(),
+                        recurring.getType());
+                recurring.advance();
+            }
+            next.add(new ScheduledRun(recurring.getId(), recurring.getNextRunAt()));
+        }
+        return next;
+    }
+
+    public synchronized int scheduledCount() {
+        return wheel.size();
+    }
+
+    private record ScheduleKey(int shard, Long id) {
+    }
+}
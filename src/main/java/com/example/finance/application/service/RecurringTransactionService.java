@@ -0,0 +1,92 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.RecurringTransaction;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.repository.CategoryRepository;
+import com.example.finance.domain.repository.RecurringTransactionRepository;
+import com.example.finance.domain.repository.UserRepository;
+import com.example.finance.infrastructure.fx.ExchangeRates;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ *  반복 거래 등록과 해지
+ *  반복 거래는 사용자 샤드에 저장되고, 커밋된 뒤에 RecurringTransactionScheduler 에 예약된다.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecurringTransactionService {
+
+    private final RecurringTransactionRepository recurringTransactionRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final RecurringTransactionScheduler recurringTransactionScheduler;
+    private final ExchangeRates exchangeRates;
+
+    /**
+     * 사용자의 마지막 쓰기가 복제본에 반영되지 않았으면 주 DB 에서 읽는다.
+     */
+    public List<RecurringTransaction> getRecurringTransactions(Long userId) {
+        return shardRouter.onUserShard(userId, () -> replicaRouter.isCaughtUp(userId)
+                ? recurringTransactionRepository.findByUserIdOrderByIdAsc(userId)
+                : replicaRouter.onPrimary(() -> recurringTransactionRepository.findByUserIdOrderByIdAsc(userId)));
+    }
+
+    /**
+     * startAt 이 없으면 지금부터 시작한다. 지난 시각이면 그때부터 밀린 실행을 차례로 만든다.
+     * currency 가 없으면 기준 통화이고, 환율표에 없는 통화는 등록할 때 거절한다.
+     */
+    public RecurringTransaction createRecurringTransaction(Long userId, Long categoryId, BigDecimal amount,
+                                                           String currency, String description,
+                                                           Transaction.TransactionType type,
+                                                           RecurringTransaction.Frequency frequency,
+                                                           LocalDateTime startAt) {
+        LocalDateTime start = startAt == null ? LocalDateTime.now() : startAt;
+        String code = exchangeRates.normalize(currency);
+        exchangeRates.toBase(amount, code, start.toLocalDate());
+        RecurringTransaction saved = shardRouter.inUserTransaction(userId, () -> {
+            RecurringTransaction recurring = RecurringTransaction.builder()
+                    .user(userRepository.findById(userId)
+                            .orElseThrow(() -> new RuntimeException("User not found with Id: " + userId)))
+                    .category(categoryRepository.findById(categoryId)
+                            .orElseThrow(() -> new RuntimeException("Category not found with Id: " + categoryId)))
+                    .amount(amount)
+                    .currency(code)
+                    .description(description)
+                    .type(type)
+                    .frequency(frequency)
+                    .startAt(start)
+                    .nextRunAt(start)
+                    .build();
+            RecurringTransaction result = recurringTransactionRepository.save(recurring);
+            replicaRouter.recordWrite(userId);
+            return result;
+        });
+        recurringTransactionScheduler.schedule(shardRouter.shardOfUser(userId), saved.getId(), saved.getNextRunAt());
+        return saved;
+    }
+
+    /**
+     * 반복 거래를 해지한다. 이미 만들어진 거래는 그대로 둔다. 반복 거래가 없으면 false 를 반환한다.
+     */
+    public boolean deleteRecurringTransaction(Long userId, Long id) {
+        boolean deleted = shardRouter.inUserTransaction(userId, () ->
+                recurringTransactionRepository.findByIdAndUserId(id, userId).map(recurring -> {
+                    recurringTransactionRepository.delete(recurring);
+                    replicaRouter.recordWrite(userId);
+                    return true;
+                }).orElse(false));
+        if (deleted) {
+            recurringTransactionScheduler.cancel(shardRouter.shardOfUser(userId), id);
+        }
+        return deleted;
+    }
+}
@@ -1,124 +1,79 @@
 package com.example.finance.application.service;
 
-import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.application.saga.SagaDefinition;
+import com.example.finance.application.saga.SagaEngine;
 import com.example.finance.domain.model.Category;
 import com.example.finance.domain.model.Transaction;
 import com.example.finance.domain.model.User;
 import com.example.finance.domain.repository.CategoryRepository;
-import com.example.finance.domain.repository.TransactionRepository;
 import com.example.finance.domain.repository.UserRepository;
-import com.example.finance.infrastructure.outbox.OutboxService;
+import com.example.finance.infrastructure.sharding.ShardRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionStage;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SagaOrchestrationService {
 
-    private final TransactionRepository transactionRepository;
+    static final String SAGA_NAME = "transaction-saga";
+    static final String VALIDATE_USER = "validateUser";
+    static final String VALIDATE_CATEGORY = "validateCategory";
+    static final String CREATE_TRANSACTION = "createTransaction";
+    static final String PROCESS_TRANSACTION = "processTransaction";
+
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
-    private final OutboxService outboxService;
     private final TransactionService transactionService;
+    private final SagaEngine sagaEngine;
+    private final ShardRouter shardRouter;
 
     /**
-     *  중앙 조정자 -> 각 단계를 순차적으로 실행시키고, 실패 시 보상 트랜잭션을 실행 시킨다.
-     *
+     *  중앙 조정자 -> 각 단계를 DAG 로 선언하고 SagaEngine 이 실행한다.
+     *  사용자 검증과 카테고리 검증은 서로 독립적이므로 동시에 실행되고, 실패 시 완료된 단계를 역순으로 보상한다.
      */
     public CompletableFuture<Transaction> executeTransactionSaga(
             Long userId, Long categoryId, BigDecimal amount, String description, Transaction.TransactionType type
     ) {
-        return validateUserAsync(userId)
-                .thenCompose(user -> validateCategoryAsync(categoryId)
-                        .thenCompose(category -> createTransactionAsync(user, category, amount, description, type)
-                                .thenCompose(this::processTransactionAsync)
-                        )
-                ).
-                exceptionally(ex -> {
+        SagaDefinition<Transaction> saga = SagaDefinition.builder(SAGA_NAME, Transaction.class)
+                .step(VALIDATE_USER, context -> validateUser(userId))
+                .step(VALIDATE_CATEGORY, context -> validateCategory(categoryId))
+                .recoverableStep(CREATE_TRANSACTION, List.of(VALIDATE_USER, VALIDATE_CATEGORY),
+                        context -> transactionService.createTransaction(
+                                context.get(VALIDATE_USER, User.class),
+                                context.get(VALIDATE_CATEGORY, Category.class),
+                                amount, description, type),
+                        (context, transaction) -> transactionService.compensateTransactionCreation(transaction),
+                        transaction -> String.valueOf(transaction.getId()))
+                .step(PROCESS_TRANSACTION, List.of(CREATE_TRANSACTION),
+                        context -> processTransaction(context.get(CREATE_TRANSACTION, Transaction.class)))
+                .build();
+
+        // 사가 로그는 사용자 샤드에 기록되어 거래 생성 기록과 같은 DB 에 남는다.
+        return shardRouter.onUserShard(userId, () -> sagaEngine.execute(saga))
+                .exceptionally(ex -> {
                     log.error("Transaction saga failed", ex);
                     throw new RuntimeException("Transaction saga failed", ex);
                 });
     }
 
-    @Async
-    public CompletableFuture<Transaction> processTransactionAsync(Transaction transaction) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                log.info("processing ing...");
-                return transaction;
-            } catch (Exception e) {
-
-                try {
-                    transactionService.compensateTransactionCreation(transaction);
-                }catch (Exception compensationEx) {
-                    log.error("Compensation failed for transaction: {}", transaction.getId(), compensationEx);
-                }
-
-                throw new RuntimeException("Transaction processing failed", e);
-            }
-        });
-    }
-
-    @Async
-    public CompletableFuture<User> validateUserAsync(Long userId) {
-        return CompletableFuture.supplyAsync(() -> {
-           try {
-               return userRepository.findById(userId)
-                       .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
-           } catch (Exception e) {
-               throw new RuntimeException("User validation failed", e);
-           }
-        });
+    private Transaction processTransaction(Transaction transaction) {
+        log.info("processing ing...");
+        return transaction;
     }
 
-    // 카테고리 validateCategoryAsync public
-    @Async
-    public CompletableFuture<Category> validateCategoryAsync(Long categoryId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return categoryRepository.findById(categoryId)
-                        .orElseThrow(() -> new RuntimeException("Category not found with ID: " + categoryId));
-            } catch (Exception e) {
-                throw new RuntimeException("Category validation failed", e);
-            }
-        });
+    private User validateUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
     }
 
-    // 트랜잭션을 생성하는것 createTransactionAsync public
-    @Async
-    @Transactional
-    public CompletableFuture<Transaction> createTransactionAsync(
-            User user, Category category, BigDecimal amount, String description, Transaction.TransactionType type
-    ) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                Transaction transaction = Transaction.builder()
-                        .user(user)
-                        .category(category)
-                        .amount(amount)
-                        .description(description)
-                        .type(type)
-                        .transactionDate(LocalDateTime.now())
-                        .build();
-
-                transaction = transactionRepository.save(transaction);
-
-                TransactionCreatedEvent event = new TransactionCreatedEvent(transaction);
-                outboxService.storedEvent(event);
-
-                return transaction;
-            } catch (Exception e) {
-                throw new RuntimeException("Transaction creation failed", e);
-            }
-        });
+    private Category validateCategory(Long categoryId) {
+        return categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new RuntimeException("Category not found with ID: " + categoryId));
     }
 }
@@ -0,0 +1,238 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.User;
+import com.example.finance.domain.repository.CategoryRepository;
+import com.example.finance.domain.repository.UserRepository;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.tracing.TraceContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ *  대량 생성 요청을 모아서 커밋하는 group-commit 모드
+ *
+ *  요청은 사용자 샤드의 대기열에 쌓이고, 샤드마다 하나인 writer 스레드가 max-group-size 개가 모이거나
+ *  첫 요청이 들어온 지 max-wait 가 지나면 모인 요청의 거래와 아웃박스 이벤트를 한 DB 트랜잭션으로 저장한다.
+ *  호출자의 future 는 자신이 속한 묶음이 커밋된 뒤에 완료된다.
+ *  묶음 커밋이 실패하면 요청을 하나씩 다시 커밋해서 문제가 있는 요청만 실패시킨다.
+ *  종료가 시작되면 새 요청은 받지 않고, writer 가 처리 중인 묶음만 커밋한 뒤 대기열에 남은 요청은 실패시킨다.
+ */
+@Service
+@Slf4j
+public class TransactionIngestionService {
+
+    private final TransactionService transactionService;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int maxGroupSize;
+    private final long maxWaitNanos;
+    private final int queueCapacity;
+
+    private final List<BlockingQueue<Request>> queues = new ArrayList<>();
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+
+    public TransactionIngestionService(TransactionService transactionService,
+                                       UserRepository userRepository,
+                                       CategoryRepository categoryRepository,
+                                       ShardRouter shardRouter,
+                                       @Value("${finance.ingestion.group-commit.enabled:false}") boolean enabled,
+                                       @Value("${finance.ingestion.group-commit.max-group-size:256}") int maxGroupSize,
+                                       @Value("${finance.ingestion.group-commit.max-wait:PT0.005S}") Duration maxWait,
+                                       @Value("${finance.ingestion.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.transactionService = transactionService;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.maxGroupSize = maxGroupSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.queueCapacity = queueCapacity;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int shard : shardRouter.shards()) {
+            BlockingQueue<Request> queue = new ArrayBlockingQueue<>(queueCapacity);
+            Thread writer = new Thread(() -> writeLoop(shard, queue), "Ingest-shard-" + shard);
+            writer.setDaemon(true);
+            queues.add(queue);
+            writers.add(writer);
+            writer.start();
+        }
+    }
+
+    /**
+     * writer 가 처리 중인 묶음을 마칠 때까지 기다린 뒤 대기열에 남은 요청을 실패시킨다.
+     * 커밋 중인 writer 를 인터럽트하면 커밋이 실패할 수 있으므로 인터럽트하지 않고, writer 는 다음 poll 에서 끝난다.
+     * submit 이 그 뒤에 넣은 요청은 submit 이 직접 빼서 실패시키므로, 완료되지 않는 future 는 남지 않는다.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            if (writer.isAlive()) {
+                log.warn("{} did not finish its group within 5 seconds", writer.getName());
+            }
+        }
+        for (BlockingQueue<Request> queue : queues) {
+            List<Request> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            remaining.forEach(request -> request.result().completeExceptionally(new IngestionStoppedException()));
+            if (!remaining.isEmpty()) {
+                log.warn("Rejected {} queued transactions on shutdown", remaining.size());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<Transaction> submit(Long userId, Long categoryId, BigDecimal amount, String currency,
+                                                 String description, Transaction.TransactionType type) {
+        int shard = shardRouter.shardOfUser(userId);
+        Request request = new Request(userId, categoryId, amount, currency, description, type,
+                TraceContext.current(), System.nanoTime(), new CompletableFuture<>());
+        if (!running) {
+            return CompletableFuture.failedFuture(new IngestionStoppedException());
+        }
+        BlockingQueue<Request> queue = queues.get(shard);
+        if (!queue.offer(request)) {
+            return CompletableFuture.failedFuture(new IngestionQueueFullException(shard));
+        }
+        // stop() 이 대기열을 비운 뒤에 들어갔으면 꺼낼 쪽이 없으므로 직접 빼서 실패시킨다.
+        if (!running && queue.remove(request)) {
+            return CompletableFuture.failedFuture(new IngestionStoppedException());
+        }
+        return request.result();
+    }
+
+    private void writeLoop(int shard, BlockingQueue<Request> queue) {
+        List<Request> group = new ArrayList<>(maxGroupSize);
+        while (running) {
+            try {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = first.enqueuedAt() + maxWaitNanos;
+                while (group.size() < maxGroupSize) {
+                    queue.drainTo(group, maxGroupSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxGroupSize || remaining <= 0) {
+                        break;
+                    }
+                    Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(shard, group);
+                group.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected failure in ingestion writer for shard {}", shard, e);
+                group.clear();
+            }
+        }
+        if (!group.isEmpty()) {
+            commit(shard, group);
+        }
+    }
+
+    private void commit(int shard, List<Request> group) {
+        List<Outcome> outcomes;
+        try {
+            outcomes = shardRouter.inShardTransaction(shard, () -> insertGroup(group));
+        } catch (Exception e) {
+            if (group.size() == 1) {
+                group.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Group commit of {} transactions failed on shard {}, retrying one by one",
+                    group.size(), shard, e);
+            group.forEach(request -> commit(shard, List.of(request)));
+            return;
+        }
+        outcomes.forEach(Outcome::complete);
+    }
+
+    /**
+     * 묶음의 사용자와 카테고리를 한 번에 읽어서 검증하고, 검증을 통과한 요청만 현재 트랜잭션에 저장한다.
+     * future 는 커밋된 뒤에 완료되어야 하므로 결과만 모아서 돌려준다.
+     */
+    private List<Outcome> insertGroup(List<Request> group) {
+        Map<Long, User> users = userRepository.findAllById(group.stream()
+                        .map(Request::userId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Category> categories = categoryRepository.findAllById(group.stream()
+                        .map(Request::categoryId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        List<Outcome> outcomes = new ArrayList<>(group.size());
+        for (Request request : group) {
+            User user = users.get(request.userId());
+            Category category = categories.get(request.categoryId());
+            if (user == null) {
+                outcomes.add(new Outcome(request, null,
+                        new RuntimeException("User not found with Id: " + request.userId())));
+            } else if (category == null) {
+                outcomes.add(new Outcome(request, null,
+                        new RuntimeException("Category not found with Id: " + request.categoryId())));
+            } else {
+                // 묶음 안의 요청마다 자신의 trace id 로 아웃박스 이벤트를 남긴다.
+                outcomes.add(new Outcome(request, TraceContext.with(request.traceId(),
+                        () -> transactionService.createTransaction(user, category, request.amount(),
+                                request.currency(), request.description(), request.type())), null));
+            }
+        }
+        return outcomes;
+    }
+
+    private record Request(Long userId, Long categoryId, BigDecimal amount, String currency, String description,
+                           Transaction.TransactionType type, String traceId, long enqueuedAt,
+                           CompletableFuture<Transaction> result) {
+    }
+
+    private record Outcome(Request request, Transaction transaction, RuntimeException error) {
+
+        void complete() {
+            TraceContext.run(request.traceId(), () -> {
+                if (error != null) {
+                    request.result().completeExceptionally(error);
+                } else {
+                    request.result().complete(transaction);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.User;
+import com.example.finance.domain.repository.CategoryRepository;
+import com.example.finance.domain.repository.TransactionRepository;
+import com.example.finance.domain.repository.UserRepository;
+import com.example.finance.infrastructure.archive.ArchiveCatalog;
+import com.example.finance.infrastructure.archive.ArchivedTransaction;
+import com.example.finance.infrastructure.cache.SingleFlight;
+import com.example.finance.infrastructure.fx.ExchangeRates;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ *  조회 전용 서비스
+ *  동일한 조회가 동시에 들어오면 SingleFlight 로 묶어서 DB 조회를 한 번만 수행한다.
+ *  호출자끼리 결과를 공유하기 때문에 user, category 까지 한 번에 읽어서 세션 밖에서도 안전하게 직렬화되도록 한다.
+ *  id, 사용자 기준 조회는 해당 샤드 하나만 조회하고, 전체 조회는 모든 샤드에 동시에 보낸 뒤 id 순으로 합친다.
+ *  조회는 복제본에서 읽되, 사용자의 마지막 쓰기가 아직 복제본에 반영되지 않았으면 주 DB 에서 읽는다.
+ *  전체 조회는 특정 사용자의 조회가 아니므로 항상 복제본에서 읽고, 복제 지연만큼 늦을 수 있다.
+ *  오래된 거래는 아카이브 파일로 옮겨지므로 테이블 조회 결과와 아카이브 조회 결과를 id 기준으로 합쳐서 돌려준다.
+ *  조건 검색은 TransactionSearchIndex 로 후보 id 를 고른 뒤 테이블에서 읽고 조건을 다시 확인한다. 아카이브는 찾지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionQueryService {
+
+    private final TransactionRepository transactionRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final ArchiveCatalog archiveCatalog;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final ExchangeRates exchangeRates;
+    private final TransactionSearchIndex transactionSearchIndex;
+    @Qualifier("shardQueryExecutor")
+    private final Executor shardQueryExecutor;
+
+    // 복제본 조회와 주 DB 조회가 서로의 결과를 공유하지 않도록 따로 묶는다.
+    private final SingleFlight<Long, Optional<Transaction>> byIdFlight = new SingleFlight<>();
+    private final SingleFlight<Long, Optional<Transaction>> byIdPrimaryFlight = new SingleFlight<>();
+    private final SingleFlight<Long, Optional<List<Transaction>>> byUserFlight = new SingleFlight<>();
+    private final SingleFlight<Long, Optional<List<Transaction>>> byUserPrimaryFlight = new SingleFlight<>();
+
+    /**
+     * id 만으로는 사용자를 알 수 없으므로 먼저 복제본에서 읽고, 소유자의 쓰기가 아직 반영되지 않았으면 주 DB 에서 다시 읽는다.
+     * 복제본에 없을 때는 샤드의 마지막 쓰기가 반영되지 않은 경우에만 주 DB 를 확인한다.
+     */
+    public Optional<Transaction> findById(Long id) {
+        int shard = shardRouter.shardOfTransaction(id);
+        return findHotById(shard, id).or(() -> archiveCatalog.findById(shard, id)
+                .map(archived -> toTransactions(shard, List.of(archived)).get(0)));
+    }
+
+    private Optional<Transaction> findHotById(int shard, Long id) {
+        Optional<Transaction> fromReplica = byIdFlight.execute(id, () -> shardRouter.onShard(shard,
+                () -> transactionRepository.findDetailById(id)));
+
+        boolean caughtUp = fromReplica
+                .map(transaction -> replicaRouter.isCaughtUp(transaction.getUser().getId()))
+                .orElseGet(() -> replicaRouter.isShardCaughtUp(shard));
+        if (caughtUp) {
+            return fromReplica;
+        }
+        return byIdPrimaryFlight.execute(id, () -> replicaRouter.onPrimary(() -> shardRouter.onShard(shard,
+                () -> transactionRepository.findDetailById(id))));
+    }
+
+    /**
+     * 사용자가 존재하지 않으면 비어있는 Optional 을 반환한다.
+     */
+    public Optional<List<Transaction>> findByUser(Long userId) {
+        if (replicaRouter.isCaughtUp(userId)) {
+            return byUserFlight.execute(userId, () -> loadByUser(userId));
+        }
+        return byUserPrimaryFlight.execute(userId, () -> replicaRouter.onPrimary(() -> loadByUser(userId)));
+    }
+
+    private Optional<List<Transaction>> loadByUser(Long userId) {
+        int shard = shardRouter.shardOfUser(userId);
+        return shardRouter.onShard(shard, () -> {
+            if (!userRepository.existsById(userId)) {
+                return Optional.empty();
+            }
+            return Optional.of(merge(transactionRepository.findByUserIdOrderByIdAsc(userId),
+                    toTransactions(shard, archiveCatalog.findByUser(shard, userId))));
+        });
+    }
+
+    public List<Transaction> findAll() {
+        if (shardRouter.shardCount() == 1) {
+            return findAllOnShard(0);
+        }
+
+        List<CompletableFuture<List<Transaction>>> perShard = shardRouter.shards().stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> findAllOnShard(shard), shardQueryExecutor))
+                .toList();
+
+        List<Transaction> merged = new ArrayList<>();
+        perShard.forEach(future -> merged.addAll(future.join()));
+        merged.sort(Comparator.comparing(Transaction::getId));
+        return merged;
+    }
+
+    private List<Transaction> findAllOnShard(int shard) {
+        return shardRouter.onShard(shard, () -> merge(transactionRepository.findAllByOrderByIdAsc(),
+                toTransactions(shard, archiveCatalog.findAll(shard))));
+    }
+
+    /**
+     * 조건에 맞는 거래를 id 순으로 limit 개까지 돌려준다. 카테고리 조건은 하위 카테고리까지 포함한다.
+     * 색인은 커밋 후 이벤트로 갱신되므로 방금 저장한 거래가 잠시 빠질 수 있다.
+     */
+    public List<Transaction> search(TransactionSearchCriteria criteria, int limit) {
+        TransactionSearchCriteria expanded = withSubcategories(criteria);
+        if (expanded.userId() != null) {
+            int shard = shardRouter.shardOfUser(expanded.userId());
+            if (replicaRouter.isCaughtUp(expanded.userId())) {
+                return searchShard(shard, expanded, limit);
+            }
+            return replicaRouter.onPrimary(() -> searchShard(shard, expanded, limit));
+        }
+        if (shardRouter.shardCount() == 1) {
+            return searchShard(0, expanded, limit);
+        }
+
+        List<CompletableFuture<List<Transaction>>> perShard = shardRouter.shards().stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> searchShard(shard, expanded, limit),
+                        shardQueryExecutor))
+                .toList();
+
+        List<Transaction> merged = new ArrayList<>();
+        perShard.forEach(future -> merged.addAll(future.join()));
+        merged.sort(Comparator.comparing(Transaction::getId));
+        return merged.size() > limit ? List.copyOf(merged.subList(0, limit)) : merged;
+    }
+
+    /**
+     * 카테고리는 모든 샤드에 같은 내용으로 있으므로 첫 번째 샤드에서 읽는다.
+     */
+    private TransactionSearchCriteria withSubcategories(TransactionSearchCriteria criteria) {
+        if (criteria.categoryIds().isEmpty()) {
+            return criteria;
+        }
+        Set<Long> categoryIds = new HashSet<>(criteria.categoryIds());
+        shardRouter.onShard(0, () -> {
+            criteria.categoryIds().forEach(categoryId -> categoryRepository.findSubtree(categoryId)
+                    .forEach(category -> categoryIds.add(category.getId())));
+            return null;
+        });
+        return criteria.withCategoryIds(categoryIds);
+    }
+
+    /**
+     * 후보를 limit 개씩 읽어서 조건을 다시 확인한다. 그사이 바뀌거나 지워진 거래는 여기서 빠진다.
+     */
+    private List<Transaction> searchShard(int shard, TransactionSearchCriteria criteria, int limit) {
+        PrimitiveIterator.OfLong candidates = transactionSearchIndex.candidates(shard, criteria);
+        List<Transaction> found = new ArrayList<>();
+        while (found.size() < limit && candidates.hasNext()) {
+            List<Long> batch = new ArrayList<>(limit);
+            while (batch.size() < limit && candidates.hasNext()) {
+                batch.add(candidates.nextLong());
+            }
+            shardRouter.onShard(shard, () -> transactionRepository.findByIdInOrderByIdAsc(batch)).stream()
+                    .filter(criteria::matches)
+                    .limit(limit - found.size())
+                    .forEach(found::add);
+        }
+        return found;
+    }
+
+    /**
+     * 아카이브로 옮기는 도중에는 같은 거래가 양쪽에 있을 수 있으므로 테이블 쪽을 우선해서 id 순으로 합친다.
+     */
+    private List<Transaction> merge(List<Transaction> hot, List<Transaction> cold) {
+        if (cold.isEmpty()) {
+            return hot;
+        }
+        Map<Long, Transaction> merged = new LinkedHashMap<>();
+        cold.forEach(transaction -> merged.put(transaction.getId(), transaction));
+        hot.forEach(transaction -> merged.put(transaction.getId(), transaction));
+        List<Transaction> sorted = new ArrayList<>(merged.values());
+        sorted.sort(Comparator.comparing(Transaction::getId));
+        return sorted;
+    }
+
+    /**
+     * 아카이브 행에 사용자와 카테고리를 붙여서 테이블에서 읽은 거래와 같은 모양으로 만든다.
+     * 통화가 없는 옛 아카이브 행은 기준 통화 거래로 본다.
+     */
+    private List<Transaction> toTransactions(int shard, List<ArchivedTransaction> archived) {
+        if (archived.isEmpty()) {
+            return List.of();
+        }
+        return shardRouter.onShard(shard, () -> {
+            Map<Long, User> users = userRepository.findAllById(archived.stream()
+                            .map(ArchivedTransaction::userId).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            Map<Long, Category> categories = categoryRepository.findAllById(archived.stream()
+                            .map(ArchivedTransaction::categoryId).collect(Collectors.toSet())).stream()
+                    .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+            return archived.stream()
+                    .map(row -> Transaction.builder()
+                            .id(row.id())
+                            .user(users.get(row.userId()))
+                            .category(categories.get(row.categoryId()))
+                            .amount(row.amount())
+                            .currency(row.currency() != null ? row.currency() : exchangeRates.baseCurrency())
+                            .baseAmount(row.baseAmount())
+                            .description(row.description())
+                            .type(row.type())
+                            .transactionDate(row.transactionDate())
+                            .createdAt(row.createdAt())
+                            .updatedAt(row.updatedAt())
+                            .version(row.version())
+                            .build())
+                    .sorted(Comparator.comparing(Transaction::getId))
+                    .toList();
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.finance.application.service;
+
+import com.example.finance.application.saga.SagaRecoveryHandler;
+import com.example.finance.domain.repository.TransactionRepository;
+import com.example.finance.infrastructure.saga.SagaStepLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ *  거래 생성 사가(오케스트레이션, 코레오그래피)의 복구 규칙
+ *  거래가 생성된 뒤에 남은 단계는 처리 로그뿐이므로 거래가 남아 있으면 완료로 처리하고, 아니면 생성된 거래를 삭제한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionSagaRecoveryHandler implements SagaRecoveryHandler {
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public boolean supports(String sagaName) {
+        return SagaOrchestrationService.SAGA_NAME.equals(sagaName)
+                || TransactionService.CHOREOGRAPHY_SAGA_NAME.equals(sagaName);
+    }
+
+    @Override
+    public boolean resume(UUID sagaId, List<SagaStepLog> completedSteps) {
+        return completedSteps.stream()
+                .filter(this::isTransactionCreation)
+                .anyMatch(step -> transactionRepository.existsById(Long.valueOf(step.getResultRef())));
+    }
+
+    @Override
+    public void compensate(SagaStepLog step) {
+        if (isTransactionCreation(step)) {
+            transactionService.compensateTransactionCreation(Long.valueOf(step.getResultRef()));
+        }
+    }
+
+    private boolean isTransactionCreation(SagaStepLog step) {
+        return step.getResultRef() != null
+                && (SagaOrchestrationService.CREATE_TRANSACTION.equals(step.getStepName())
+                || TransactionService.CREATE_TRANSACTION_STEP.equals(step.getStepName()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Set;
+
+/**
+ *  거래 검색 조건
+ *  null 이거나 비어 있는 조건은 걸지 않는다. 한 조건 안의 값끼리는 OR, 조건끼리는 AND 이다.
+ *  from/to 는 거래일의 달로 양 끝을 포함하고, 금액은 기준 통화 금액(baseAmount)으로 양 끝을 포함해 비교한다.
+ */
+public record TransactionSearchCriteria(Long userId,
+                                        Set<Transaction.TransactionType> types,
+                                        Set<Long> categoryIds,
+                                        YearMonth from,
+                                        YearMonth to,
+                                        BigDecimal minAmount,
+                                        BigDecimal maxAmount) {
+
+    public TransactionSearchCriteria {
+        types = types == null ? Set.of() : Set.copyOf(types);
+        categoryIds = categoryIds == null ? Set.of() : Set.copyOf(categoryIds);
+    }
+
+    public TransactionSearchCriteria withCategoryIds(Set<Long> categoryIds) {
+        return new TransactionSearchCriteria(userId, types, categoryIds, from, to, minAmount, maxAmount);
+    }
+
+    public boolean matches(Transaction transaction) {
+        YearMonth month = YearMonth.from(transaction.getTransactionDate());
+        BigDecimal amount = transaction.getBaseAmount();
+        return (userId == null || userId.equals(transaction.getUser().getId()))
+                && (types.isEmpty() || types.contains(transaction.getType()))
+                && (categoryIds.isEmpty() || categoryIds.contains(transaction.getCategory().getId()))
+                && (from == null || !month.isBefore(from))
+                && (to == null || !month.isAfter(to))
+                && (minAmount == null || amount.compareTo(minAmount) >= 0)
+                && (maxAmount == null || amount.compareTo(maxAmount) <= 0);
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.event.DomainEvent;
+import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.domain.event.TransactionDeletedEvent;
+import com.example.finance.domain.event.TransactionUpdatedEvent;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.TransactionIndexRow;
+import com.example.finance.domain.repository.TransactionRepository;
+import com.example.finance.infrastructure.archive.ArchivedTransaction;
+import com.example.finance.infrastructure.archive.TransactionsArchivedEvent;
+import com.example.finance.infrastructure.index.CompressedBitmap;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PrimitiveIterator;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *  거래 검색용 메모리 비트맵 색인
+ *
+ *  샤드마다 거래 id 를 샤드 안의 순번((id - shard - 1) / 샤드 수)으로 바꾸고, 사용자, 유형, 카테고리, 거래월,
+ *  금액 구간(기준 통화 금액의 정수 자릿수)별로 그 순번의 CompressedBitmap 을 둔다. 조건 안의 값은 OR 로, 조건끼리는
+ *  AND 로 합치므로 어떤 조건을 조합해도 B-tree 인덱스 하나를 고를 필요가 없다. AND 는 작은 비트맵부터 계산한다.
+ *
+ *  기동할 때 모든 샤드의 거래를 읽어서 만들고 이후에는 거래 이벤트로 고친다. 순번마다 마지막으로 반영한 버전과
+ *  필드 값을 두어서, 순서가 바뀌거나 다시 온 이벤트는 버전으로 거르고 수정은 이전 값의 비트맵에서 빼고 새 값에 더한다.
+ *  색인은 후보만 고르므로 호출하는 쪽은 읽은 행에 조건을 다시 확인한다. 아카이브로 옮겨진 거래는 색인하지 않으며,
+ *  실행 중에 옮겨진 거래는 TransactionsArchivedEvent 를 받아서 뺀다.
+ */
+@Service
+@Slf4j
+public class TransactionSearchIndex {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int AMOUNT_BUCKETS = 20;
+
+    private final TransactionRepository transactionRepository;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final ShardIndex[] shards;
+    private final List<DomainEvent> pending = new ArrayList<>();
+    private volatile boolean loaded;
+
+    public TransactionSearchIndex(TransactionRepository transactionRepository,
+                                  ShardRouter shardRouter,
+                                  ReplicaRouter replicaRouter) {
+        this.transactionRepository = transactionRepository;
+        this.shardRouter = shardRouter;
+        this.replicaRouter = replicaRouter;
+        this.shards = new ShardIndex[shardRouter.shardCount()];
+        for (int shard = 0; shard < shards.length; shard++) {
+            shards[shard] = new ShardIndex();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        long rows = 0;
+        try {
+            for (int shard : shardRouter.shards()) {
+                rows += loadShard(shard);
+            }
+        } finally {
+            markLoaded();
+        }
+        log.info("Indexed {} transactions for search in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private long loadShard(int shard) {
+        ShardIndex index = shards[shard];
+        long rows = 0;
+        long after = 0;
+        while (true) {
+            long from = after;
+            List<TransactionIndexRow> batch = replicaRouter.onPrimary(() -> shardRouter.onShard(shard,
+                    () -> transactionRepository.findIndexRowsAfter(from, Limit.of(LOAD_BATCH_SIZE))));
+            for (TransactionIndexRow row : batch) {
+                index.put(ordinal(shard, row.id()), version(row.version()), row.userId(), row.categoryId(),
+                        row.type(), month(row.transactionDate()), amountBucket(row.baseAmount()));
+                after = row.id();
+            }
+            rows += batch.size();
+            if (batch.size() < LOAD_BATCH_SIZE) {
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * 색인을 만드는 동안 모아 둔 이벤트를 반영하고, 이후 이벤트는 바로 반영한다.
+     */
+    private void markLoaded() {
+        List<DomainEvent> buffered;
+        synchronized (pending) {
+            loaded = true;
+            buffered = List.copyOf(pending);
+            pending.clear();
+        }
+        buffered.forEach(this::applyLoaded);
+    }
+
+    public void apply(DomainEvent event) {
+        if (!loaded) {
+            synchronized (pending) {
+                if (!loaded) {
+                    pending.add(event);
+                    return;
+                }
+            }
+        }
+        applyLoaded(event);
+    }
+
+    private void applyLoaded(DomainEvent event) {
+        if (event instanceof TransactionCreatedEvent created) {
+            Transaction transaction = created.getTransaction();
+            int shard = shardRouter.shardOfTransaction(transaction.getId());
+            shards[shard].put(ordinal(shard, transaction.getId()), version(transaction.getVersion()),
+                    created.getUserId(), created.getCategoryId(), transaction.getType(),
+                    month(transaction.getTransactionDate()), amountBucket(transaction.getBaseAmount()));
+        } else if (event instanceof TransactionUpdatedEvent updated) {
+            // 이 필드들이 생기기 전에 저장된 이벤트는 거래월과 기준 통화 금액을 모르므로 이미 있는 값을 쓴다.
+            int shard = shardRouter.shardOfTransaction(updated.getTransactionId());
+            shards[shard].update(ordinal(shard, updated.getTransactionId()), version(updated.getVersion()),
+                    updated.getUserId(), updated.getNewCategoryId(), updated.getNewType(),
+                    updated.getTransactionDate() == null ? -1 : month(updated.getTransactionDate()),
+                    updated.getNewBaseAmount() == null ? -1 : amountBucket(updated.getNewBaseAmount()));
+        } else if (event instanceof TransactionDeletedEvent deleted) {
+            int shard = shardRouter.shardOfTransaction(deleted.getTransactionId());
+            shards[shard].delete(ordinal(shard, deleted.getTransactionId()), version(deleted.getVersion()));
+        }
+    }
+
+    /**
+     * 옮겨진 버전을 삭제처럼 기록하므로 색인을 만드는 중에 받아도 된다. 그 사이 수정되어 테이블에 남은 거래는
+     * 버전이 더 높아서 빠지지 않는다.
+     */
+    @EventListener
+    public void onArchived(TransactionsArchivedEvent event) {
+        int shard = event.shard();
+        for (ArchivedTransaction row : event.transactions()) {
+            shards[shard].delete(ordinal(shard, row.id()), version(row.version()));
+        }
+    }
+
+    /**
+     * 조건에 맞을 수 있는 거래 id 를 오름차순으로 돌려준다.
+     */
+    public PrimitiveIterator.OfLong candidates(int shard, TransactionSearchCriteria criteria) {
+        PrimitiveIterator.OfInt ordinals = shards[shard].search(criteria).iterator();
+        int shardCount = shardRouter.shardCount();
+        return new PrimitiveIterator.OfLong() {
+            @Override
+            public boolean hasNext() {
+                return ordinals.hasNext();
+            }
+
+            @Override
+            public long nextLong() {
+                return (long) ordinals.nextInt() * shardCount + shard + 1;
+            }
+        };
+    }
+
+    private int ordinal(int shard, long transactionId) {
+        return Math.toIntExact((transactionId - shard - 1) / shardRouter.shardCount());
+    }
+
+    static int month(LocalDateTime date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /**
+     * 기준 통화 금액의 정수 부분 자릿수. 1 미만은 0 이다.
+     */
+    static int amountBucket(BigDecimal amount) {
+        return Math.max(0, Math.min(AMOUNT_BUCKETS - 1, amount.precision() - amount.scale()));
+    }
+
+    /**
+     * 0 은 아직 본 적 없는 순번이다.
+     */
+    private static long version(Long version) {
+        return (version == null ? 0 : version) + 1;
+    }
+
+    private static final class ShardIndex {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final CompressedBitmap live = new CompressedBitmap();
+        private final Map<Long, CompressedBitmap> byUser = new HashMap<>();
+        private final Map<Long, CompressedBitmap> byCategory = new HashMap<>();
+        private final NavigableMap<Integer, CompressedBitmap> byMonth = new TreeMap<>();
+        private final CompressedBitmap[] byType = new CompressedBitmap[Transaction.TransactionType.values().length];
+        private final CompressedBitmap[] byAmount = new CompressedBitmap[AMOUNT_BUCKETS];
+
+        // 순번별로 마지막으로 반영한 버전(+1)과 필드 값. 수정과 삭제 때 이전 값의 비트맵을 찾는 데 쓴다.
+        private long[] versions = new long[1024];
+        private long[] userIds = new long[1024];
+        private long[] categoryIds = new long[1024];
+        private int[] months = new int[1024];
+        private byte[] types = new byte[1024];
+        private byte[] amounts = new byte[1024];
+
+        ShardIndex() {
+            Arrays.setAll(byType, ignored -> new CompressedBitmap());
+            Arrays.setAll(byAmount, ignored -> new CompressedBitmap());
+        }
+
+        void put(int ordinal, long version, Long userId, Long categoryId, Transaction.TransactionType type,
+                 int month, int amount) {
+            lock.writeLock().lock();
+            try {
+                ensureCapacity(ordinal);
+                if (versions[ordinal] >= version) {
+                    return;
+                }
+                unindex(ordinal);
+                versions[ordinal] = version;
+                userIds[ordinal] = userId;
+                categoryIds[ordinal] = categoryId;
+                types[ordinal] = (byte) type.ordinal();
+                months[ordinal] = month;
+                amounts[ordinal] = (byte) amount;
+                live.add(ordinal);
+                byUser.computeIfAbsent(userId, key -> new CompressedBitmap()).add(ordinal);
+                byCategory.computeIfAbsent(categoryId, key -> new CompressedBitmap()).add(ordinal);
+                byMonth.computeIfAbsent(month, key -> new CompressedBitmap()).add(ordinal);
+                byType[type.ordinal()].add(ordinal);
+                byAmount[amount].add(ordinal);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * month, amount 가 -1 이면 이미 색인된 값을 쓴다. 색인되지 않은 거래면 건너뛴다.
+         */
+        void update(int ordinal, long version, Long userId, Long categoryId, Transaction.TransactionType type,
+                    int month, int amount) {
+            if (month < 0 || amount < 0) {
+                lock.readLock().lock();
+                try {
+                    if (ordinal >= versions.length || !live.contains(ordinal)) {
+                        return;
+                    }
+                    month = month < 0 ? months[ordinal] : month;
+                    amount = amount < 0 ? amounts[ordinal] : amount;
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+            put(ordinal, version, userId, categoryId, type, month, amount);
+        }
+
+        void delete(int ordinal, long version) {
+            lock.writeLock().lock();
+            try {
+                ensureCapacity(ordinal);
+                if (versions[ordinal] > version) {
+                    return;
+                }
+                unindex(ordinal);
+                // 삭제한 버전을 남겨 두어서 늦게 도착한 생성, 수정 이벤트가 되살리지 않게 한다.
+                versions[ordinal] = version;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * 결과는 색인과 공유하지 않는 새 비트맵이다.
+         */
+        CompressedBitmap search(TransactionSearchCriteria criteria) {
+            lock.readLock().lock();
+            try {
+                List<CompressedBitmap> conditions = new ArrayList<>();
+                if (criteria.userId() != null) {
+                    conditions.add(byUser.getOrDefault(criteria.userId(), new CompressedBitmap()));
+                }
+                if (!criteria.types().isEmpty()) {
+                    conditions.add(union(criteria.types().stream().map(type -> byType[type.ordinal()]).toList()));
+                }
+                if (!criteria.categoryIds().isEmpty()) {
+                    conditions.add(union(criteria.categoryIds().stream()
+                            .map(byCategory::get)
+                            .filter(bitmap -> bitmap != null)
+                            .toList()));
+                }
+                if (criteria.from() != null || criteria.to() != null) {
+                    int from = criteria.from() == null ? Integer.MIN_VALUE
+                            : criteria.from().getYear() * 12 + criteria.from().getMonthValue() - 1;
+                    int to = criteria.to() == null ? Integer.MAX_VALUE
+                            : criteria.to().getYear() * 12 + criteria.to().getMonthValue() - 1;
+                    conditions.add(from > to ? new CompressedBitmap()
+                            : union(List.copyOf(byMonth.subMap(from, true, to, true).values())));
+                }
+                if (criteria.minAmount() != null || criteria.maxAmount() != null) {
+                    int from = criteria.minAmount() == null ? 0 : amountBucket(criteria.minAmount());
+                    int to = criteria.maxAmount() == null ? AMOUNT_BUCKETS - 1 : amountBucket(criteria.maxAmount());
+                    conditions.add(union(Arrays.asList(byAmount).subList(from, Math.max(from, to + 1))));
+                }
+                if (conditions.isEmpty()) {
+                    return live.copy();
+                }
+
+                conditions.sort(Comparator.comparingLong(CompressedBitmap::cardinality));
+                CompressedBitmap result = conditions.get(0);
+                for (int i = 1; i < conditions.size() && !result.isEmpty(); i++) {
+                    result = CompressedBitmap.and(result, conditions.get(i));
+                }
+                return result == conditions.get(0) ? result.copy() : result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static CompressedBitmap union(List<CompressedBitmap> bitmaps) {
+            if (bitmaps.isEmpty()) {
+                return new CompressedBitmap();
+            }
+            CompressedBitmap result = bitmaps.get(0);
+            for (int i = 1; i < bitmaps.size(); i++) {
+                result = CompressedBitmap.or(result, bitmaps.get(i));
+            }
+            return result;
+        }
+
+        private void unindex(int ordinal) {
+            if (!live.remove(ordinal)) {
+                return;
+            }
+            removeFrom(byUser, userIds[ordinal], ordinal);
+            removeFrom(byCategory, categoryIds[ordinal], ordinal);
+            removeFrom(byMonth, months[ordinal], ordinal);
+            byType[types[ordinal]].remove(ordinal);
+            byAmount[amounts[ordinal]].remove(ordinal);
+        }
+
+        private static <K> void removeFrom(Map<K, CompressedBitmap> bitmaps, K key, int ordinal) {
+            CompressedBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null && bitmap.remove(ordinal) && bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+
+        private void ensureCapacity(int ordinal) {
+            if (ordinal < versions.length) {
+                return;
+            }
+            int capacity = Math.max(ordinal + 1, versions.length * 2);
+            versions = Arrays.copyOf(versions, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            months = Arrays.copyOf(months, capacity);
+            types = Arrays.copyOf(types, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+    }
+}
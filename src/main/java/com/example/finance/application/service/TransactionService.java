@@ -1,58 +1,202 @@
 package com.example.finance.application.service;
 
 import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.domain.event.TransactionDeletedEvent;
+import com.example.finance.domain.event.TransactionUpdatedEvent;
 import com.example.finance.domain.model.Category;
 import com.example.finance.domain.model.Transaction;
 import com.example.finance.domain.model.User;
 import com.example.finance.domain.repository.CategoryRepository;
 import com.example.finance.domain.repository.TransactionRepository;
 import com.example.finance.domain.repository.UserRepository;
+import com.example.finance.infrastructure.archive.ArchiveCatalog;
+import com.example.finance.infrastructure.fx.ExchangeRates;
+import com.example.finance.infrastructure.metrics.StageMetrics;
 import com.example.finance.infrastructure.outbox.OutboxService;
+import com.example.finance.infrastructure.saga.SagaInstance;
+import com.example.finance.infrastructure.saga.SagaLog;
+import com.example.finance.infrastructure.saga.SagaStepLog;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
+    static final String CHOREOGRAPHY_SAGA_NAME = "transaction-choreography-saga";
+    static final String CREATE_TRANSACTION_STEP = "createTransaction";
+
     private final OutboxService outboxService;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final SagaLog sagaLog;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final ArchiveCatalog archiveCatalog;
+    private final ExchangeRates exchangeRates;
+    private final StageMetrics stageMetrics;
+    @Qualifier("sagaExecutor")
+    private final Executor sagaExecutor;
 
     /**
      * 새로운 거래를 생성하고 , 이벤트를 발행한다.
      * 사용자와 카테고리를 검증하고, 거래를 저장한 뒤에 아웃박스 패턴을 통해서 이벤트를 발행하는 메소드
+     * 거래와 아웃박스 이벤트는 사용자의 샤드에 저장된다.
      */
     @Transactional
     public Transaction createTransaction(Long userId, Long categoryId, BigDecimal amount,
                                          String description, Transaction.TransactionType type) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with Id: " + userId));
+        return createTransaction(userId, categoryId, amount, null, description, type);
+    }
+
+    /**
+     * currency 가 없으면 기준 통화 거래로 만든다.
+     */
+    @Transactional
+    public Transaction createTransaction(Long userId, Long categoryId, BigDecimal amount, String currency,
+                                         String description, Transaction.TransactionType type) {
+        return shardRouter.onUserShard(userId, () -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found with Id: " + userId));
+
+            Category category = categoryRepository.findById(categoryId)
+                    .orElseThrow(() -> new RuntimeException("Category not found with Id: " + categoryId));
+
+            return createTransaction(user, category, amount, currency, description, type);
+        });
+    }
+
+    /**
+     * 이미 검증된 사용자와 카테고리로 거래를 생성한다. 사가처럼 검증 단계를 따로 수행한 경우에 사용한다.
+     */
+    @Transactional
+    public Transaction createTransaction(User user, Category category, BigDecimal amount,
+                                         String description, Transaction.TransactionType type) {
+        return createTransaction(user, category, amount, null, description, type);
+    }
 
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new RuntimeException("Category not found with Id: " + categoryId));
+    /**
+     * 기준 통화 금액은 거래일의 환율로 여기서 한 번 계산해서 함께 저장한다.
+     */
+    @Transactional
+    public Transaction createTransaction(User user, Category category, BigDecimal amount, String currency,
+                                         String description, Transaction.TransactionType type) {
+        return shardRouter.onUserShard(user.getId(), () -> {
+            LocalDateTime transactionDate = LocalDateTime.now();
+            String code = exchangeRates.normalize(currency);
+            Transaction transaction = Transaction.builder()
+                    .user(user)
+                    .category(category)
+                    .amount(amount)
+                    .currency(code)
+                    .baseAmount(exchangeRates.toBase(amount, code, transactionDate.toLocalDate()))
+                    .description(description)
+                    .type(type)
+                    .transactionDate(transactionDate)
+                    .build();
 
-        Transaction transaction = Transaction.builder()
-                .user(user)
-                .category(category)
-                .amount(amount)
-                .description(description)
-                .type(type)
-                .transactionDate(LocalDateTime.now())
-                .build();
+            transaction = transactionRepository.save(transaction);
+            replicaRouter.recordWrite(user.getId());
 
-        transaction = transactionRepository.save(transaction);
+            TransactionCreatedEvent event = new TransactionCreatedEvent(transaction);
+            outboxService.storedEvent(event);
 
-        TransactionCreatedEvent event = new TransactionCreatedEvent(transaction);
-        outboxService.storedEvent(event);
+            return transaction;
+        });
+    }
 
+    /**
+     * 값이 주어진 필드 중 실제로 바뀐 필드만 반영한다. UPDATE 문에는 바뀐 컬럼과 버전만 포함된다.
+     * expectedVersion 이 있으면 현재 버전과 같을 때만 수정하고, 바뀐 필드가 없으면 아무것도 기록하지 않는다.
+     * 거래가 없으면 비어있는 Optional 을 반환한다.
+     */
+    @Transactional
+    public Optional<Transaction> updateTransaction(Long transactionId, Long categoryId, BigDecimal amount,
+                                                   String description, Transaction.TransactionType type,
+                                                   Long expectedVersion) {
+        return shardRouter.onShard(shardRouter.shardOfTransaction(transactionId),
+                () -> findForModification(transactionId, expectedVersion).map(transaction -> {
+                    Long oldCategoryId = transaction.getCategory().getId();
+                    BigDecimal oldAmount = transaction.getAmount();
+                    BigDecimal oldBaseAmount = transaction.getBaseAmount();
+                    Transaction.TransactionType oldType = transaction.getType();
+                    Set<String> changedFields = new LinkedHashSet<>();
+
+                    if (categoryId != null && !categoryId.equals(oldCategoryId)) {
+                        transaction.setCategory(categoryRepository.findById(categoryId)
+                                .orElseThrow(() -> new RuntimeException("Category not found with Id: " + categoryId)));
+                        changedFields.add(TransactionUpdatedEvent.CATEGORY);
+                    }
+                    if (amount != null && amount.compareTo(oldAmount) != 0) {
+                        transaction.setAmount(amount);
+                        transaction.setBaseAmount(exchangeRates.toBase(amount, transaction.getCurrency(),
+                                transaction.getTransactionDate().toLocalDate()));
+                        changedFields.add(TransactionUpdatedEvent.AMOUNT);
+                    }
+                    if (description != null && !description.equals(transaction.getDescription())) {
+                        transaction.setDescription(description);
+                        changedFields.add(TransactionUpdatedEvent.DESCRIPTION);
+                    }
+                    if (type != null && type != oldType) {
+                        transaction.setType(type);
+                        changedFields.add(TransactionUpdatedEvent.TYPE);
+                    }
+                    if (changedFields.isEmpty()) {
+                        return transaction;
+                    }
+
+                    // 이벤트에 증가된 버전을 담기 위해 먼저 반영한다. 동시에 수정된 경우 여기서 낙관적 락 예외가 난다.
+                    Transaction updated = transactionRepository.saveAndFlush(transaction);
+                    outboxService.storedEvent(new TransactionUpdatedEvent(updated, changedFields,
+                            oldCategoryId, oldAmount, oldBaseAmount, oldType));
+                    replicaRouter.recordWrite(updated.getUser().getId());
+                    return updated;
+                }));
+    }
+
+    /**
+     * 거래를 삭제하고 삭제 이벤트를 발행한다. 거래가 없으면 false 를 반환한다.
+     */
+    @Transactional
+    public boolean deleteTransaction(Long transactionId, Long expectedVersion) {
+        return shardRouter.onShard(shardRouter.shardOfTransaction(transactionId),
+                () -> findForModification(transactionId, expectedVersion).map(transaction -> {
+                    transactionRepository.delete(transaction);
+                    transactionRepository.flush();
+                    outboxService.storedEvent(new TransactionDeletedEvent(transaction));
+                    replicaRouter.recordWrite(transaction.getUser().getId());
+                    return true;
+                }).orElse(false));
+    }
+
+    private Optional<Transaction> findForModification(Long transactionId, Long expectedVersion) {
+        Optional<Transaction> transaction = transactionRepository.findDetailById(transactionId);
+        if (transaction.isEmpty()) {
+            if (archiveCatalog.findById(shardRouter.shardOfTransaction(transactionId), transactionId).isPresent()) {
+                throw new ArchivedTransactionModificationException(transactionId);
+            }
+            return Optional.empty();
+        }
+        Long version = transaction.get().getVersion();
+        if (expectedVersion != null && !Objects.equals(expectedVersion, version)) {
+            throw new TransactionVersionMismatchException(transactionId, expectedVersion, version);
+        }
         return transaction;
     }
 
@@ -88,39 +232,73 @@ public class TransactionService {
 
     public void compensateTransactionCreation(Transaction transaction) {
         try {
-            transactionRepository.delete(transaction);
+            shardRouter.runOnShard(shardRouter.shardOfTransaction(transaction.getId()),
+                    () -> transactionRepository.delete(transaction));
+            replicaRouter.recordWrite(transaction.getUser().getId());
         } catch (Exception e) {
             log.error("Compensation failed for transaction: {}", transaction.getId(), e);
         }
     }
 
+    /**
+     * 복구 시 saga_steps 에 기록된 거래 id 로 보상한다. 이미 삭제된 거래면 아무것도 하지 않는다.
+     */
+    @Transactional
+    public void compensateTransactionCreation(Long transactionId) {
+        shardRouter.runOnShard(shardRouter.shardOfTransaction(transactionId),
+                () -> transactionRepository.findById(transactionId).ifPresent(transaction -> {
+                    transactionRepository.delete(transaction);
+                    replicaRouter.recordWrite(transaction.getUser().getId());
+                }));
+    }
+
     /**
      *  코레오 그래피 방식 -> 각 단계가 다음 단계를 직접 호출하는 형식이며, 실패 시 보상 트랜잭션을 실행해야한다.
      *  CompletableFuture 비동기적으로 처리할 것입니다.
+     *  거래 생성 기록은 거래와 같은 트랜잭션으로 saga_steps 에 남겨서 재시작 후에도 복구할 수 있게 한다.
      */
     public CompletableFuture<Transaction> createTransactionWithSaga(Long userId, Long categoryId, BigDecimal amount,
                                                                     String description, Transaction.TransactionType type) {
         return CompletableFuture.supplyAsync(() -> {
             log.info("Starting transaction saga with choreography pattern");
-
-            User user = validateUser(userId);
-
-            Category category = validateCategory(categoryId);
+            UUID sagaId = shardRouter.onUserShard(userId, () -> sagaLog.start(CHOREOGRAPHY_SAGA_NAME));
 
             Transaction transaction = null;
 
             try {
-                transaction = createTransaction(userId, categoryId, amount, description, type);
+                User user = validateUser(userId);
+
+                Category category = validateCategory(categoryId);
+
+                long stepStarted = System.nanoTime();
+                boolean stepSucceeded = false;
+                try {
+                    transaction = shardRouter.inUserTransaction(userId, () -> {
+                        Transaction created = createTransaction(user, category, amount, description, type);
+                        sagaLog.recordStepInCurrentTransaction(sagaId, CHOREOGRAPHY_SAGA_NAME,
+                                CREATE_TRANSACTION_STEP, String.valueOf(created.getId()));
+                        return created;
+                    });
+                    stepSucceeded = true;
+                } finally {
+                    stageMetrics.sagaStep(CHOREOGRAPHY_SAGA_NAME, CREATE_TRANSACTION_STEP, stepSucceeded,
+                            System.nanoTime() - stepStarted);
+                }
 
                 processTransaction(transaction);
 
+                sagaLog.updateStatus(sagaId, SagaInstance.Status.COMPLETED);
                 return transaction;
             } catch (Exception e) {
                 if (transaction != null) {
+                    sagaLog.updateStatus(sagaId, SagaInstance.Status.COMPENSATING).join();
                     compensateTransactionCreation(transaction);
+                    sagaLog.recordStep(sagaId, CHOREOGRAPHY_SAGA_NAME, CREATE_TRANSACTION_STEP,
+                            SagaStepLog.Status.COMPENSATED, String.valueOf(transaction.getId()));
                 }
+                sagaLog.updateStatus(sagaId, SagaInstance.Status.COMPENSATED);
                 throw new RuntimeException("Failed to complete transaction saga", e);
             }
-        });
+        }, sagaExecutor);
     }
 }
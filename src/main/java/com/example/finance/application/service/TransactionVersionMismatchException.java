@@ -0,0 +1,15 @@
+package com.example.finance.application.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 클라이언트가 보낸 버전(If-Match)이 현재 거래의 버전과 다를 때 발생한다. 최신 상태를 다시 읽은 뒤 재시도해야 한다.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class TransactionVersionMismatchException extends RuntimeException {
+
+    public TransactionVersionMismatchException(Long transactionId, Long expected, Long actual) {
+        super("Transaction " + transactionId + " is at version " + actual + ", expected " + expected);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.CategoryTotal;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.User;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ *  사용자 대시보드
+ *  제한 시간 안에 조회하지 못한 항목은 null 이고, 그 이름이 unavailable 에 들어간다.
+ *  balance 는 아카이브된 거래까지 포함한 전체 수입 - 지출이다.
+ */
+public record UserDashboard(User user,
+                            List<Transaction> recentTransactions,
+                            YearMonth month,
+                            List<CategoryTotal> categoryTotals,
+                            BigDecimal balance,
+                            boolean partial,
+                            List<String> unavailable) {
+}
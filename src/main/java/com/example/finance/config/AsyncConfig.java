@@ -1,24 +1,90 @@
 package com.example.finance.config;
 
+import com.example.finance.infrastructure.metrics.ResourceMetrics;
+import com.example.finance.infrastructure.metrics.ResourceTaskDecorator;
+import com.example.finance.infrastructure.tracing.TraceTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
+/**
+ *  모든 실행기는 TraceTaskDecorator 로 제출한 스레드의 trace id 를 이어받고,
+ *  ResourceTaskDecorator 로 작업마다 할당량과 CPU 시간을 실행기 이름으로 기록한다.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(ResourceMetrics resourceMetrics) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(25);
         executor.setThreadNamePrefix("FinanceApp-");
+        executor.setTaskDecorator(decorator("taskExecutor", resourceMetrics));
         executor.initialize();
         return executor;
     }
+
+    /**
+     * 사가 단계 전용 실행기. 공용 ForkJoinPool 이나 이벤트 처리용 taskExecutor 와 섞이지 않도록 분리한다.
+     */
+    @Bean(name = "sagaExecutor")
+    public Executor sagaExecutor(@Value("${finance.saga.core-pool-size:8}") int corePoolSize,
+                                 @Value("${finance.saga.max-pool-size:32}") int maxPoolSize,
+                                 @Value("${finance.saga.queue-capacity:500}") int queueCapacity,
+                                 ResourceMetrics resourceMetrics) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("Saga-");
+        executor.setTaskDecorator(decorator("sagaExecutor", resourceMetrics));
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 여러 샤드에 동시에 조회를 보내는 fan-out 전용 실행기
+     */
+    @Bean(name = "shardQueryExecutor")
+    public Executor shardQueryExecutor(@Value("${finance.sharding.query-pool-size:16}") int poolSize,
+                                       ResourceMetrics resourceMetrics) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("ShardQuery-");
+        executor.setTaskDecorator(decorator("shardQueryExecutor", resourceMetrics));
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 대시보드 항목 조회 전용 실행기. 제한 시간을 넘긴 조회도 끝날 때까지 스레드를 쓰므로 다른 조회와 분리한다.
+     */
+    @Bean(name = "dashboardExecutor")
+    public Executor dashboardExecutor(@Value("${finance.dashboard.pool-size:16}") int poolSize,
+                                      ResourceMetrics resourceMetrics) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("Dashboard-");
+        executor.setTaskDecorator(decorator("dashboardExecutor", resourceMetrics));
+        executor.initialize();
+        return executor;
+    }
+
+    private static TaskDecorator decorator(String executor, ResourceMetrics resourceMetrics) {
+        TaskDecorator trace = new TraceTaskDecorator();
+        TaskDecorator resources = new ResourceTaskDecorator(executor, resourceMetrics);
+        return runnable -> resources.decorate(trace.decorate(runnable));
+    }
 }
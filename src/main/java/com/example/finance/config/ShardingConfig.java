@@ -0,0 +1,94 @@
+package com.example.finance.config;
+
+import com.example.finance.infrastructure.sharding.ReplicaProperties;
+import com.example.finance.infrastructure.sharding.ShardDataSources;
+import com.example.finance.infrastructure.sharding.ShardRoutingDataSource;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties({ShardingProperties.class, ReplicaProperties.class})
+public class ShardingConfig {
+
+    private static final String ROUTING_ENABLED =
+            "${finance.sharding.enabled:false} or ${finance.replica.enabled:false}";
+
+    /**
+     * 샤딩을 끄고 복제본만 쓰는 경우에는 spring.datasource 설정으로 만든 DB 하나가 0번 샤드가 된다.
+     */
+    @Bean
+    @ConditionalOnExpression(ROUTING_ENABLED)
+    public ShardDataSources shardDataSources(ShardingProperties sharding,
+                                             ReplicaProperties replica,
+                                             DataSourceProperties dataSourceProperties) {
+        List<DataSource> primaries = new ArrayList<>();
+        if (sharding.enabled()) {
+            for (int shard = 0; shard < sharding.urls().size(); shard++) {
+                primaries.add(hikari("shard-" + shard, sharding.urls().get(shard),
+                        sharding.username(), sharding.password(), sharding.maxPoolSize()));
+            }
+        } else {
+            primaries.add(hikari("shard-0", dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(),
+                    sharding.maxPoolSize()));
+        }
+
+        List<DataSource> replicas = new ArrayList<>();
+        if (replica.enabled()) {
+            if (replica.urls().size() < primaries.size()) {
+                throw new IllegalStateException("finance.replica.urls needs one url per shard: "
+                        + primaries.size() + " shards, " + replica.urls().size() + " replicas");
+            }
+            for (int shard = 0; shard < primaries.size(); shard++) {
+                replicas.add(hikari("replica-" + shard, replica.urls().get(shard),
+                        replica.username(), replica.password(), replica.maxPoolSize()));
+            }
+        }
+        return new ShardDataSources(List.copyOf(primaries), List.copyOf(replicas));
+    }
+
+    /**
+     * 샤딩이나 복제본을 켜면 JPA, JdbcTemplate 모두 이 DataSource 를 통해 현재 스레드의 샤드와 역할(주 DB, 복제본)로 연결된다.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnExpression(ROUTING_ENABLED)
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            targets.put(new ShardRoutingDataSource.Route(shard, false), shardDataSources.get(shard));
+            targets.put(new ShardRoutingDataSource.Route(shard, true), shardDataSources.replica(shard));
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shardDataSources.get(0));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource hikari(String poolName, String url, String username, String password, int maxPoolSize) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(poolName);
+        dataSource.setMaximumPoolSize(maxPoolSize);
+        return dataSource;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.finance.config;
+
+import com.example.finance.infrastructure.metrics.ResourceAccountingInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ResourceAccountingInterceptor resourceAccountingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(resourceAccountingInterceptor);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.finance.domain.event;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ *  예산 임계값 도달 이벤트
+ *  한 달 동안 한 예산의 같은 임계값에 대해 한 번만 발행된다. 여러 임계값을 한 번에 넘으면 가장 높은 것만 발행된다.
+ */
+@Getter
+@NoArgsConstructor
+public class BudgetThresholdCrossedEvent extends DomainEvent {
+    private Long budgetId;
+    private Long userId;
+    private Long categoryId;
+    private YearMonth month;
+    private int thresholdPercent;
+    private BigDecimal monthlyLimit;
+    private BigDecimal spent;
+
+    public BudgetThresholdCrossedEvent(Long budgetId, Long userId, Long categoryId, YearMonth month,
+                                       int thresholdPercent, BigDecimal monthlyLimit, BigDecimal spent) {
+        initialize();
+        this.budgetId = budgetId;
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.month = month;
+        this.thresholdPercent = thresholdPercent;
+        this.monthlyLimit = monthlyLimit;
+        this.spent = spent;
+    }
+}
@@ -9,7 +9,7 @@ import java.util.UUID;
 /**
  *  도메인 이벤트의 기본 클래스
  *  모든 도메인 이벤트가 해당 이벤트를 상속 받아야한다.
- *  각 이벤트들은 고유 ID와 발생 시간을 가진다.
+ *  각 이벤트들은 고유 ID와 발생 시간을 가진다. ID 는 EventIds 로 만들어 발생 순서대로 정렬된다.
  */
 @Getter
 @NoArgsConstructor
@@ -19,7 +19,7 @@ public abstract class DomainEvent {
 
      protected void initialize() {
          if (this.eventId == null) {
-             this.eventId = UUID.randomUUID();
+             this.eventId = EventIds.next();
          }
 
          if (this.occurredOn == null) {
@@ -0,0 +1,46 @@
+package com.example.finance.domain.event;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ *  이상 지출 감지 이벤트
+ *  AMOUNT 는 금액이 평소보다 크게 벗어난 경우, FREQUENCY 는 최근 지출 빈도가 평소 빈도의 배수를 처음 넘은 경우다.
+ *  amount, typicalAmount 는 기준 통화 금액이다. amountScore 는 로그 금액의 표준 점수이고, longRunRatePerDay 는 기록 기간이 짧아서 알 수 없으면 null 이다.
+ */
+@Getter
+@NoArgsConstructor
+public class SpendingAnomalyDetectedEvent extends DomainEvent {
+
+    public enum Reason {
+        AMOUNT, FREQUENCY
+    }
+
+    private Long transactionId;
+    private Long userId;
+    private Long categoryId;
+    private BigDecimal amount;
+    private Set<Reason> reasons;
+    private double amountScore;
+    private BigDecimal typicalAmount;
+    private double recentRatePerDay;
+    private Double longRunRatePerDay;
+
+    public SpendingAnomalyDetectedEvent(Long transactionId, Long userId, Long categoryId, BigDecimal amount,
+                                        Set<Reason> reasons, double amountScore, BigDecimal typicalAmount,
+                                        double recentRatePerDay, Double longRunRatePerDay) {
+        initialize();
+        this.transactionId = transactionId;
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.amount = amount;
+        this.reasons = Set.copyOf(reasons);
+        this.amountScore = amountScore;
+        this.typicalAmount = typicalAmount;
+        this.recentRatePerDay = recentRatePerDay;
+        this.longRunRatePerDay = longRunRatePerDay;
+    }
+}
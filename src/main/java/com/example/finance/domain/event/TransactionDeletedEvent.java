@@ -4,6 +4,9 @@ import com.example.finance.domain.model.Transaction;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
 @Getter
 @NoArgsConstructor
 public class TransactionDeletedEvent extends DomainEvent {
@@ -11,6 +14,10 @@ public class TransactionDeletedEvent extends DomainEvent {
     private Long userId;
     private Long categoryId;
     private Transaction.TransactionType type;
+    private BigDecimal amount;
+    private BigDecimal baseAmount;
+    private Long version;
+    private LocalDateTime transactionDate;
 
 
     public TransactionDeletedEvent(Transaction transaction) {
@@ -19,5 +26,9 @@ public class TransactionDeletedEvent extends DomainEvent {
         this.userId = transaction.getUser().getId();
         this.categoryId = transaction.getCategory().getId();
         this.type = transaction.getType();
+        this.amount = transaction.getAmount();
+        this.baseAmount = transaction.getBaseAmount();
+        this.version = transaction.getVersion();
+        this.transactionDate = transaction.getTransactionDate();
     }
 }
@@ -4,21 +4,55 @@ import com.example.finance.domain.model.Transaction;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ *  거래 수정 이벤트
+ *  바뀐 필드 이름과 그 새 값만 담고, 금액/유형/카테고리는 변경 여부와 상관없이 이전 값과 새 값을 함께 담는다.
+ *  집계 쪽은 이전 값을 빼고 새 값을 더하는 것만으로 반영할 수 있다.
+ *  transactionDate, oldBaseAmount, newBaseAmount 는 이 필드들이 생기기 전에 저장된 이벤트에서는 null 이다.
+ */
 @Getter
 @NoArgsConstructor
 public class TransactionUpdatedEvent extends DomainEvent{
-    private Transaction transaction;
+    public static final String CATEGORY = "categoryId";
+    public static final String AMOUNT = "amount";
+    public static final String DESCRIPTION = "description";
+    public static final String TYPE = "type";
+
+    private Long transactionId;
     private Long userId;
-    private Long categoryId;
+    private Long version;
+    private Set<String> changedFields;
+    private String description;
+    private Long oldCategoryId;
+    private Long newCategoryId;
+    private BigDecimal oldAmount;
+    private BigDecimal newAmount;
+    private BigDecimal oldBaseAmount;
+    private BigDecimal newBaseAmount;
     private Transaction.TransactionType oldType;
     private Transaction.TransactionType newType;
+    private LocalDateTime transactionDate;
 
-    public TransactionUpdatedEvent(Transaction transaction, Transaction.TransactionType oldType) {
+    public TransactionUpdatedEvent(Transaction transaction, Set<String> changedFields, Long oldCategoryId,
+                                   BigDecimal oldAmount, BigDecimal oldBaseAmount, Transaction.TransactionType oldType) {
         initialize();
-        this.transaction = transaction;
+        this.transactionId = transaction.getId();
         this.userId = transaction.getUser().getId();
-        this.categoryId = transaction.getCategory().getId();
+        this.version = transaction.getVersion();
+        this.changedFields = Set.copyOf(changedFields);
+        this.description = changedFields.contains(DESCRIPTION) ? transaction.getDescription() : null;
+        this.oldCategoryId = oldCategoryId;
+        this.newCategoryId = transaction.getCategory().getId();
+        this.oldAmount = oldAmount;
+        this.newAmount = transaction.getAmount();
+        this.oldBaseAmount = oldBaseAmount;
+        this.newBaseAmount = transaction.getBaseAmount();
         this.oldType = oldType;
         this.newType = transaction.getType();
+        this.transactionDate = transaction.getTransactionDate();
     }
 }
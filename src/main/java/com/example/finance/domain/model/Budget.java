@@ -0,0 +1,66 @@
+package com.example.finance.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ *  사용자의 카테고리별 월 지출 한도
+ *  사용자 샤드에 저장된다. alertedMonth(yyyy-MM) 에 alertedPercent 까지 알림을 보냈다는 것을 기록해서
+ *  재기동하거나 같은 임계값을 다시 넘어도 알림이 중복되지 않게 한다.
+ */
+@Entity
+@Table(name = "budgets", uniqueConstraints = @UniqueConstraint(name = "uk_budgets_user_category",
+        columnNames = {"user_id", "category_id"}))
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Budget {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    @ToString.Exclude
+    private Category category;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal monthlyLimit;
+
+    @Column(length = 7)
+    private String alertedMonth;
+
+    @Column(nullable = false)
+    private int alertedPercent;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
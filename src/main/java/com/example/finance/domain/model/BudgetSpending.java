@@ -0,0 +1,10 @@
+package com.example.finance.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ *  예산 하나와 그 사용자, 카테고리의 기간 내 지출 합계
+ */
+public record BudgetSpending(Long budgetId, Long userId, Long categoryId, BigDecimal monthlyLimit,
+                             String alertedMonth, int alertedPercent, BigDecimal spent) {
+}
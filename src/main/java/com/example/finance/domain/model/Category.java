@@ -5,8 +5,13 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 
+/**
+ *  카테고리 트리의 노드
+ *  트리를 전위 순회하며 들어갈 때와 나올 때 매긴 번호를 [lft, rgt] 구간으로 가진다. 하위 카테고리의 구간은 모두
+ *  부모의 구간 안에 있으므로 하위 카테고리 조회는 구간 조건 하나로 끝난다. 구간은 CategoryService 만 바꾼다.
+ */
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = @Index(name = "idx_categories_lft_rgt", columnList = "lft, rgt"))
 @Getter @Setter
 @ToString
 @Builder
@@ -24,6 +29,20 @@ public class Category {
     @Column
     private String description;
 
+    // 최상위 카테고리면 null
+    @Column
+    private Long parentId;
+
+    @Column(nullable = false)
+    private int lft;
+
+    @Column(nullable = false)
+    private int rgt;
+
+    // 최상위 카테고리가 0
+    @Column(nullable = false)
+    private int depth;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
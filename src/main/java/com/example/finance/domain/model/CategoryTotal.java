@@ -0,0 +1,14 @@
+package com.example.finance.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ *  카테고리와 거래 유형별 기준 통화 금액 합계
+ *  합계에는 하위 카테고리의 거래가 포함된다. 부모와 자식의 합계를 더하면 중복되므로 parentId 로 트리를 다시 만들어 쓴다.
+ */
+public record CategoryTotal(Long categoryId,
+                            String categoryName,
+                            Long parentId,
+                            Transaction.TransactionType type,
+                            BigDecimal total) {
+}
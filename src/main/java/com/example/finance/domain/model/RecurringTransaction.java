@@ -0,0 +1,106 @@
+package com.example.finance.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ *  정해진 주기로 자동 생성되는 거래(구독료, 급여 등)
+ *  사용자 샤드에 저장된다. n 번째 실행 시각은 startAt 에서 주기의 n 배만큼 지난 시각이므로
+ *  31일에 시작한 월 주기도 짧은 달에 밀리지 않고 매달 말일이나 31일에 실행된다.
+ */
+@Entity
+@Table(name = "recurring_transactions")
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    @ToString.Exclude
+    private Category category;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    /**
+     * amount 의 통화 코드. 실행할 때마다 그날의 환율로 기준 통화 금액을 계산한다.
+     */
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Transaction.TransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Frequency frequency;
+
+    @Column(nullable = false)
+    private LocalDateTime startAt;
+
+    @Column(nullable = false)
+    private long occurrences;
+
+    @Column(nullable = false)
+    private LocalDateTime nextRunAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * 한 번 실행했다고 기록하고 다음 실행 시각으로 옮긴다.
+     */
+    public void advance() {
+        occurrences++;
+        nextRunAt = frequency.occurrence(startAt, occurrences);
+    }
+
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY, YEARLY;
+
+        public LocalDateTime occurrence(LocalDateTime startAt, long n) {
+            return switch (this) {
+                case DAILY -> startAt.plusDays(n);
+                case WEEKLY -> startAt.plusWeeks(n);
+                case MONTHLY -> startAt.plusMonths(n);
+                case YEARLY -> startAt.plusYears(n);
+            };
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.finance.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ *  반복 거래 id 와 다음 실행 시각. 기동할 때 엔티티를 만들지 않고 스케줄만 읽는 데 쓴다.
+ */
+public record ScheduledRun(Long id, LocalDateTime nextRunAt) {
+}
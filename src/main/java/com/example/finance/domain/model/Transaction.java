@@ -2,12 +2,14 @@ package com.example.finance.domain.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@DynamicUpdate
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_transaction_date", columnList = "transaction_date"))
 @Getter
 @Setter
 @ToString
@@ -35,11 +37,23 @@ public class Transaction {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal amount;
 
+    /**
+     * amount 의 통화 (ISO 4217)
+     */
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    /**
+     * 저장할 때 거래일의 환율로 바꾼 기준 통화 금액. 합계와 보고서는 이 값을 더한다.
+     */
+    @Column(name = "base_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal baseAmount;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private TransactionType type;
 
-    @Column(nullable = false)
+    @Column(name = "transaction_date", nullable = false)
     private LocalDateTime transactionDate;
 
     @Column(nullable = false)
@@ -48,6 +62,10 @@ public class Transaction {
     @Column
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,11 @@
+package com.example.finance.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ *  검색 색인을 만들 때 읽는 거래의 필터 대상 필드
+ */
+public record TransactionIndexRow(Long id, Long userId, Long categoryId, Transaction.TransactionType type,
+                                  LocalDateTime transactionDate, BigDecimal baseAmount, Long version) {
+}
@@ -0,0 +1,47 @@
+package com.example.finance.domain.repository;
+
+import com.example.finance.domain.model.Budget;
+import com.example.finance.domain.model.BudgetSpending;
+import com.example.finance.domain.model.Transaction;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    @EntityGraph(attributePaths = {"user", "category"})
+    Optional<Budget> findByUserIdAndCategoryId(Long userId, Long categoryId);
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = {"user", "category"})
+    List<Budget> findByUserIdOrderByCategoryIdAsc(Long userId);
+
+    /**
+     * 샤드의 모든 예산과 기간 내 해당 유형 거래 합계. 거래가 없는 예산은 합계가 0 이다.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.finance.domain.model.BudgetSpending(b.id, b.user.id, b.category.id, "
+            + "b.monthlyLimit, b.alertedMonth, b.alertedPercent, COALESCE(SUM(t.baseAmount), 0)) "
+            + "FROM Budget b LEFT JOIN Transaction t ON t.user = b.user AND t.category = b.category "
+            + "AND t.type = ?1 AND t.transactionDate >= ?2 AND t.transactionDate < ?3 "
+            + "GROUP BY b.id, b.user.id, b.category.id, b.monthlyLimit, b.alertedMonth, b.alertedPercent")
+    List<BudgetSpending> findAllWithSpending(Transaction.TransactionType type, LocalDateTime from, LocalDateTime until);
+
+    /**
+     * 사용자, 카테고리 하나의 예산과 기간 내 해당 유형 거래 합계
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.finance.domain.model.BudgetSpending(b.id, b.user.id, b.category.id, "
+            + "b.monthlyLimit, b.alertedMonth, b.alertedPercent, COALESCE(SUM(t.baseAmount), 0)) "
+            + "FROM Budget b LEFT JOIN Transaction t ON t.user = b.user AND t.category = b.category "
+            + "AND t.type = ?3 AND t.transactionDate >= ?4 AND t.transactionDate < ?5 "
+            + "WHERE b.user.id = ?1 AND b.category.id = ?2 "
+            + "GROUP BY b.id, b.user.id, b.category.id, b.monthlyLimit, b.alertedMonth, b.alertedPercent")
+    Optional<BudgetSpending> findWithSpending(Long userId, Long categoryId, Transaction.TransactionType type,
+                                              LocalDateTime from, LocalDateTime until);
+}
@@ -2,6 +2,80 @@ package com.example.finance.domain.repository;
 
 import com.example.finance.domain.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    /**
+     * 트리 순서. 부모 바로 다음에 하위 카테고리가 온다.
+     */
+    List<Category> findAllByOrderByLftAsc();
+
+    /**
+     * 카테고리와 모든 하위 카테고리. 재귀 없이 구간 조건 하나로 찾는다.
+     */
+    @Query("SELECT c FROM Category c, Category root "
+            + "WHERE root.id = ?1 AND c.lft BETWEEN root.lft AND root.rgt ORDER BY c.lft")
+    List<Category> findSubtree(Long categoryId);
+
+    @Query("SELECT COALESCE(MAX(c.rgt), 0) FROM Category c")
+    int findMaxRgt();
+
+    /**
+     * at 위치부터 뒤의 번호를 width 만큼 밀어서 빈 자리를 만든다. at 을 포함하는 구간은 그만큼 넓어진다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Category c SET c.lft = CASE WHEN c.lft >= :at THEN c.lft + :width ELSE c.lft END, "
+            + "c.rgt = c.rgt + :width WHERE c.rgt >= :at")
+    int openGap(@Param("at") int at, @Param("width") int width);
+
+    /**
+     * [lft, rgt] 구간을 offset 만큼 옮기고, 비켜 줘야 하는 [from, to] 구간을 shift 만큼 민다.
+     * 옮기기 전과 후의 위치 사이에 있는 행만 바뀐다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Category c SET "
+            + "c.lft = CASE WHEN c.lft BETWEEN :lft AND :rgt THEN c.lft + :offset "
+            + "WHEN c.lft BETWEEN :from AND :to THEN c.lft + :shift ELSE c.lft END, "
+            + "c.rgt = CASE WHEN c.rgt BETWEEN :lft AND :rgt THEN c.rgt + :offset "
+            + "WHEN c.rgt BETWEEN :from AND :to THEN c.rgt + :shift ELSE c.rgt END "
+            + "WHERE c.lft BETWEEN :lft AND :rgt OR c.lft BETWEEN :from AND :to "
+            + "OR c.rgt BETWEEN :lft AND :rgt OR c.rgt BETWEEN :from AND :to")
+    int moveInterval(@Param("lft") int lft, @Param("rgt") int rgt, @Param("offset") int offset,
+                     @Param("from") int from, @Param("to") int to, @Param("shift") int shift);
+
+    /**
+     * 카테고리의 부모를 바꾸고 하위 카테고리까지 깊이를 depthDelta 만큼 바꾼다. 구간은 바꾸지 않는다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Category c SET "
+            + "c.parentId = CASE WHEN c.id = :id THEN :parentId ELSE c.parentId END, "
+            + "c.depth = c.depth + :depthDelta "
+            + "WHERE c.lft BETWEEN :lft AND :rgt")
+    int reparent(@Param("id") Long id, @Param("parentId") Long parentId,
+                 @Param("lft") int lft, @Param("rgt") int rgt, @Param("depthDelta") int depthDelta);
+
+    /**
+     * 0번 샤드와 어긋난 다른 샤드의 카테고리 위치를 0번 샤드의 값으로 덮어쓴다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Category c SET c.parentId = :parentId, c.lft = :lft, c.rgt = :rgt, c.depth = :depth "
+            + "WHERE c.id = :id")
+    int updatePosition(@Param("id") Long id, @Param("parentId") Long parentId,
+                       @Param("lft") int lft, @Param("rgt") int rgt, @Param("depth") int depth);
+
+    /**
+     * 0번 샤드에서 만든 카테고리를 같은 id 로 다른 샤드에 넣는다.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO categories (id, name, description, parent_id, lft, rgt, depth, created_at) "
+            + "VALUES (:id, :name, :description, :parentId, :lft, :rgt, :depth, :createdAt)", nativeQuery = true)
+    int insertCopy(@Param("id") Long id, @Param("name") String name, @Param("description") String description,
+                   @Param("parentId") Long parentId, @Param("lft") int lft, @Param("rgt") int rgt,
+                   @Param("depth") int depth, @Param("createdAt") LocalDateTime createdAt);
 }
@@ -0,0 +1,28 @@
+package com.example.finance.domain.repository;
+
+import com.example.finance.domain.model.RecurringTransaction;
+import com.example.finance.domain.model.ScheduledRun;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RecurringTransactionRepository extends JpaRepository<RecurringTransaction, Long> {
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.finance.domain.model.ScheduledRun(r.id, r.nextRunAt) FROM RecurringTransaction r")
+    List<ScheduledRun> findAllScheduledRuns();
+
+    @EntityGraph(attributePaths = {"user", "category"})
+    List<RecurringTransaction> findByIdIn(Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = {"user", "category"})
+    List<RecurringTransaction> findByUserIdOrderByIdAsc(Long userId);
+
+    Optional<RecurringTransaction> findByIdAndUserId(Long id, Long userId);
+}
@@ -1,11 +1,65 @@
 package com.example.finance.domain.repository;
 
+import com.example.finance.domain.model.CategoryTotal;
 import com.example.finance.domain.model.Transaction;
-import com.example.finance.domain.model.User;
+import com.example.finance.domain.model.TransactionIndexRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    Optional<User> findByUser(User user);
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = {"user", "category"})
+    Optional<Transaction> findDetailById(Long id);
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = {"user", "category"})
+    List<Transaction> findByUserIdOrderByIdAsc(Long userId);
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = {"user", "category"})
+    List<Transaction> findAllByOrderByIdAsc();
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = {"user", "category"})
+    List<Transaction> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * 검색 색인을 만들 때 id 순으로 나눠 읽는다.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.finance.domain.model.TransactionIndexRow("
+            + "t.id, t.user.id, t.category.id, t.type, t.transactionDate, t.baseAmount, t.version) "
+            + "FROM Transaction t WHERE t.id > ?1 ORDER BY t.id")
+    List<TransactionIndexRow> findIndexRowsAfter(Long id, Limit limit);
+
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = {"user", "category"})
+    List<Transaction> findByUserIdOrderByTransactionDateDescIdDesc(Long userId, Limit limit);
+
+    /**
+     * 카테고리별 합계. 거래 카테고리의 구간이 집계할 카테고리의 구간 안에 있으면 더하므로 각 합계에 하위 카테고리가
+     * 포함되고, 재귀 조회 없이 한 번에 모든 카테고리의 하위 합계를 구한다.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.finance.domain.model.CategoryTotal("
+            + "a.id, a.name, a.parentId, t.type, SUM(t.baseAmount)) "
+            + "FROM Transaction t JOIN t.category c, Category a "
+            + "WHERE t.user.id = ?1 AND t.transactionDate >= ?2 AND t.transactionDate < ?3 "
+            + "AND c.lft BETWEEN a.lft AND a.rgt "
+            + "GROUP BY a.id, a.name, a.parentId, a.lft, t.type ORDER BY a.lft, t.type")
+    List<CategoryTotal> sumByCategorySubtree(Long userId, LocalDateTime from, LocalDateTime until);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT COALESCE(SUM(t.baseAmount), 0) FROM Transaction t WHERE t.user.id = ?1 AND t.type = ?2")
+    BigDecimal sumAmount(Long userId, Transaction.TransactionType type);
 }
@@ -0,0 +1,126 @@
+package com.example.finance.infrastructure.archive;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ *  샤드별로 열려 있는 월 단위 아카이브 파일 목록
+ *  기동 시 directory/shard-N/transactions-yyyyMM.ftxa 파일을 모두 열고, 압축 작업이 새 파일을 만들면 교체한다.
+ *  아카이브가 꺼져 있으면 항상 비어 있다.
+ */
+@Component
+@EnableConfigurationProperties(ArchiveProperties.class)
+@Slf4j
+public class ArchiveCatalog {
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("transactions-(\\d{6})\\.ftxa");
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final ArchiveProperties properties;
+    private final Map<Integer, NavigableMap<YearMonth, ArchiveSegment>> segments = new ConcurrentHashMap<>();
+
+    public ArchiveCatalog(ArchiveProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void loadSegments() throws IOException {
+        if (!properties.enabled() || !Files.isDirectory(properties.directory())) {
+            return;
+        }
+        try (Stream<Path> shardDirectories = Files.list(properties.directory())) {
+            for (Path shardDirectory : shardDirectories.toList()) {
+                String name = shardDirectory.getFileName().toString();
+                if (!Files.isDirectory(shardDirectory) || !name.startsWith("shard-")) {
+                    continue;
+                }
+                int shard = Integer.parseInt(name.substring("shard-".length()));
+                try (Stream<Path> files = Files.list(shardDirectory)) {
+                    for (Path file : files.toList()) {
+                        Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+                        if (matcher.matches()) {
+                            install(ArchiveSegment.open(shard, YearMonth.parse(matcher.group(1), MONTH_FORMAT), file));
+                        }
+                    }
+                }
+            }
+        }
+        log.info("Loaded {} archive segments from {}",
+                segments.values().stream().mapToInt(Map::size).sum(), properties.directory());
+    }
+
+    public Path pathOf(int shard, YearMonth month) {
+        return properties.directory()
+                .resolve("shard-" + shard)
+                .resolve("transactions-" + month.format(MONTH_FORMAT) + ".ftxa");
+    }
+
+    public Optional<ArchiveSegment> segment(int shard, YearMonth month) {
+        return Optional.ofNullable(segmentsOf(shard).get(month));
+    }
+
+    /**
+     * 같은 달의 기존 파일이 있으면 새 파일로 교체한다. 이미 조회 중인 쪽은 기존 매핑을 계속 사용한다.
+     */
+    public void install(ArchiveSegment segment) {
+        segments.computeIfAbsent(segment.shard(), shard -> new ConcurrentSkipListMap<>())
+                .put(segment.month(), segment);
+    }
+
+    public boolean isEmpty(int shard) {
+        return segmentsOf(shard).isEmpty();
+    }
+
+    public Optional<ArchivedTransaction> findById(int shard, long id) {
+        for (ArchiveSegment segment : segmentsOf(shard).descendingMap().values()) {
+            Optional<ArchivedTransaction> found = segment.findById(id);
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<ArchivedTransaction> findByUser(int shard, long userId) {
+        List<ArchivedTransaction> found = new ArrayList<>();
+        segmentsOf(shard).values().forEach(segment -> found.addAll(segment.findByUser(userId)));
+        return found;
+    }
+
+    public List<ArchivedTransaction> findAll(int shard) {
+        List<ArchivedTransaction> all = new ArrayList<>();
+        segmentsOf(shard).values().forEach(segment -> all.addAll(segment.readAll()));
+        return all;
+    }
+
+    /**
+     * 압축 작업에서 기존 파일의 행을 새 행과 합칠 때 사용한다.
+     */
+    List<ArchivedTransaction> readMonth(int shard, YearMonth month) {
+        return segment(shard, month).map(ArchiveSegment::readAll).orElseGet(List::of);
+    }
+
+    private NavigableMap<YearMonth, ArchiveSegment> segmentsOf(int shard) {
+        NavigableMap<YearMonth, ArchiveSegment> forShard = segments.get(shard);
+        return forShard != null ? forShard : Collections.emptyNavigableMap();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.finance.infrastructure.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ *  finance.archive.* 설정
+ *  hot-months 보다 오래된 월의 거래는 directory 아래 샤드별 아카이브 파일로 옮겨진다.
+ */
+@ConfigurationProperties(prefix = "finance.archive")
+public record ArchiveProperties(boolean enabled,
+                                Path directory,
+                                Integer hotMonths,
+                                Integer rowGroupSize,
+                                Duration compactionInterval) {
+
+    public ArchiveProperties {
+        directory = directory == null ? Path.of("data", "archive") : directory;
+        hotMonths = hotMonths == null ? 12 : hotMonths;
+        rowGroupSize = rowGroupSize == null ? 1024 : rowGroupSize;
+        compactionInterval = compactionInterval == null ? Duration.ofHours(1) : compactionInterval;
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.finance.infrastructure.archive;
+
+import com.example.finance.domain.model.Transaction;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ *  한 샤드의 한 달치 거래를 담은 읽기 전용 아카이브 파일
+ *
+ *  행은 (userId, id) 순으로 정렬해서 rowGroupSize 개씩 묶고, 묶음마다 컬럼별로 따로 인코딩/압축해서 저장한다.
+ *  파일 끝의 디렉터리에 묶음별 id, userId 범위를 두어서 조회 시 필요한 묶음의 필요한 컬럼만 압축을 푼다.
+ *  파일은 메모리 매핑으로 읽으므로 힙에는 디렉터리만 올라온다.
+ *
+ *  [magic][version] [컬럼 데이터 ...] [디렉터리] [디렉터리 위치][magic]
+ *  버전 1 파일에는 VERSION 컬럼이 없으며, 읽을 때 행 버전을 0 으로 본다.
+ *  버전 2 이하 파일에는 CURRENCY, BASE_AMOUNT 컬럼이 없으며, 읽을 때 통화는 null, 기준 통화 금액은 amount 로 본다.
+ */
+public class ArchiveSegment {
+
+    private static final int MAGIC = 0x46545841;
+    private static final int FORMAT_VERSION = 3;
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES;
+
+    private enum Column {
+        ID, USER_ID, CATEGORY_ID, AMOUNT, TYPE, DESCRIPTION, TRANSACTION_DATE, CREATED_AT, UPDATED_AT, VERSION,
+        CURRENCY, BASE_AMOUNT
+    }
+
+    private static final Column[] COLUMNS = Column.values();
+    private static final int V1_COLUMN_COUNT = Column.VERSION.ordinal();
+    private static final int V2_COLUMN_COUNT = Column.CURRENCY.ordinal();
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    private final int shard;
+    private final YearMonth month;
+    private final MappedByteBuffer buffer;
+    private final List<RowGroup> groups;
+
+    private ArchiveSegment(int shard, YearMonth month, MappedByteBuffer buffer, List<RowGroup> groups) {
+        this.shard = shard;
+        this.month = month;
+        this.buffer = buffer;
+        this.groups = groups;
+    }
+
+    public int shard() {
+        return shard;
+    }
+
+    public YearMonth month() {
+        return month;
+    }
+
+    public long rowCount() {
+        return groups.stream().mapToLong(RowGroup::rowCount).sum();
+    }
+
+    public Optional<ArchivedTransaction> findById(long id) {
+        for (RowGroup group : groups) {
+            if (id < group.minId() || id > group.maxId()) {
+                continue;
+            }
+            ColumnCodec.Decoder ids = decoder(group, Column.ID);
+            long previous = 0;
+            for (int row = 0; row < group.rowCount(); row++) {
+                previous += ids.getLong();
+                if (previous == id) {
+                    return Optional.of(decodeRows(group, row, row + 1).get(0));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<ArchivedTransaction> findByUser(long userId) {
+        List<ArchivedTransaction> found = new ArrayList<>();
+        for (RowGroup group : groups) {
+            if (userId < group.minUserId() || userId > group.maxUserId()) {
+                continue;
+            }
+            ColumnCodec.Decoder users = decoder(group, Column.USER_ID);
+            long previous = 0;
+            int from = -1;
+            int to = -1;
+            for (int row = 0; row < group.rowCount(); row++) {
+                previous += users.getLong();
+                if (previous == userId) {
+                    from = from < 0 ? row : from;
+                    to = row + 1;
+                } else if (previous > userId) {
+                    break;
+                }
+            }
+            if (from >= 0) {
+                found.addAll(decodeRows(group, from, to));
+            }
+        }
+        return found;
+    }
+
+    public List<ArchivedTransaction> readAll() {
+        List<ArchivedTransaction> all = new ArrayList<>();
+        for (RowGroup group : groups) {
+            all.addAll(decodeRows(group, 0, group.rowCount()));
+        }
+        return all;
+    }
+
+    public static ArchiveSegment open(int shard, YearMonth month, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE || size < 2 * Integer.BYTES + FOOTER_BYTES) {
+                throw new IOException("Unsupported archive size " + size + ": " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt((int) size - Integer.BYTES) != MAGIC) {
+                throw new IOException("Not an archive segment: " + path);
+            }
+            int formatVersion = buffer.getInt(Integer.BYTES);
+            if (formatVersion < 1 || formatVersion > FORMAT_VERSION) {
+                throw new IOException("Unsupported archive version " + formatVersion + ": " + path);
+            }
+            int columnCount = switch (formatVersion) {
+                case 1 -> V1_COLUMN_COUNT;
+                case 2 -> V2_COLUMN_COUNT;
+                default -> COLUMNS.length;
+            };
+
+            int position = (int) buffer.getLong((int) size - FOOTER_BYTES);
+            int groupCount = buffer.getInt(position);
+            position += Integer.BYTES;
+            List<RowGroup> groups = new ArrayList<>(groupCount);
+            for (int i = 0; i < groupCount; i++) {
+                int rowCount = buffer.getInt(position);
+                long minId = buffer.getLong(position + 4);
+                long maxId = buffer.getLong(position + 12);
+                long minUserId = buffer.getLong(position + 20);
+                long maxUserId = buffer.getLong(position + 28);
+                position += 36;
+                long[] offsets = new long[columnCount];
+                int[] compressedLengths = new int[columnCount];
+                int[] rawLengths = new int[columnCount];
+                for (int c = 0; c < columnCount; c++) {
+                    offsets[c] = buffer.getLong(position);
+                    compressedLengths[c] = buffer.getInt(position + 8);
+                    rawLengths[c] = buffer.getInt(position + 12);
+                    position += 16;
+                }
+                groups.add(new RowGroup(rowCount, minId, maxId, minUserId, maxUserId,
+                        offsets, compressedLengths, rawLengths));
+            }
+            return new ArchiveSegment(shard, month, buffer, List.copyOf(groups));
+        }
+    }
+
+    /**
+     * 임시 파일에 모두 쓰고 디스크에 반영한 뒤 target 으로 원자적으로 교체한다.
+     */
+    public static void write(Path target, List<ArchivedTransaction> rows, int rowGroupSize) throws IOException {
+        List<ArchivedTransaction> sorted = rows.stream()
+                .sorted(Comparator.comparingLong(ArchivedTransaction::userId).thenComparingLong(ArchivedTransaction::id))
+                .toList();
+        Files.createDirectories(target.getParent());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            long offset = 2 * Integer.BYTES;
+
+            List<RowGroup> groups = new ArrayList<>();
+            for (int from = 0; from < sorted.size(); from += rowGroupSize) {
+                List<ArchivedTransaction> group = sorted.subList(from, Math.min(sorted.size(), from + rowGroupSize));
+                byte[][] raw = encode(group);
+                long[] offsets = new long[COLUMNS.length];
+                int[] compressedLengths = new int[COLUMNS.length];
+                int[] rawLengths = new int[COLUMNS.length];
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    byte[] compressed = ColumnCodec.deflate(raw[c]);
+                    out.write(compressed);
+                    offsets[c] = offset;
+                    compressedLengths[c] = compressed.length;
+                    rawLengths[c] = raw[c].length;
+                    offset += compressed.length;
+                }
+                groups.add(new RowGroup(group.size(),
+                        group.stream().mapToLong(ArchivedTransaction::id).min().orElse(0),
+                        group.stream().mapToLong(ArchivedTransaction::id).max().orElse(0),
+                        group.get(0).userId(), group.get(group.size() - 1).userId(),
+                        offsets, compressedLengths, rawLengths));
+            }
+
+            long directoryOffset = offset;
+            writeDirectory(out, groups);
+            out.writeLong(directoryOffset);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeDirectory(DataOutputStream out, List<RowGroup> groups) throws IOException {
+        out.writeInt(groups.size());
+        for (RowGroup group : groups) {
+            out.writeInt(group.rowCount());
+            out.writeLong(group.minId());
+            out.writeLong(group.maxId());
+            out.writeLong(group.minUserId());
+            out.writeLong(group.maxUserId());
+            for (int c = 0; c < group.offsets().length; c++) {
+                out.writeLong(group.offsets()[c]);
+                out.writeInt(group.compressedLengths()[c]);
+                out.writeInt(group.rawLengths()[c]);
+            }
+        }
+    }
+
+    private static byte[][] encode(List<ArchivedTransaction> rows) {
+        ColumnCodec.Encoder[] encoders = new ColumnCodec.Encoder[COLUMNS.length];
+        for (int c = 0; c < COLUMNS.length; c++) {
+            encoders[c] = new ColumnCodec.Encoder();
+        }
+
+        long previousId = 0;
+        long previousUserId = 0;
+        long previousDate = 0;
+        for (ArchivedTransaction row : rows) {
+            long date = ColumnCodec.toMicros(row.transactionDate());
+            long createdAt = ColumnCodec.toMicros(row.createdAt());
+            encoders[Column.ID.ordinal()].putLong(row.id() - previousId);
+            encoders[Column.USER_ID.ordinal()].putLong(row.userId() - previousUserId);
+            encoders[Column.CATEGORY_ID.ordinal()].putLong(row.categoryId());
+            encoders[Column.AMOUNT.ordinal()].putLong(row.amount().setScale(2).unscaledValue().longValueExact());
+            encoders[Column.TYPE.ordinal()].putByte((byte) row.type().ordinal());
+            encoders[Column.DESCRIPTION.ordinal()].putString(row.description());
+            encoders[Column.TRANSACTION_DATE.ordinal()].putLong(date - previousDate);
+            encoders[Column.CREATED_AT.ordinal()].putLong(createdAt - date);
+            // 0 은 null, 그 외에는 createdAt 과의 차이를 zigzag 로 바꾼 값에 1 을 더해서 저장한다.
+            encoders[Column.UPDATED_AT.ordinal()].putLong(row.updatedAt() == null ? 0
+                    : zigzag(ColumnCodec.toMicros(row.updatedAt()) - createdAt) + 1);
+            encoders[Column.VERSION.ordinal()].putLong(row.version());
+            encoders[Column.CURRENCY.ordinal()].putString(row.currency() == null ? "" : row.currency());
+            encoders[Column.BASE_AMOUNT.ordinal()].putLong(
+                    row.baseAmount().setScale(2).unscaledValue().longValueExact());
+            previousId = row.id();
+            previousUserId = row.userId();
+            previousDate = date;
+        }
+
+        byte[][] raw = new byte[COLUMNS.length][];
+        for (int c = 0; c < COLUMNS.length; c++) {
+            raw[c] = encoders[c].toByteArray();
+        }
+        return raw;
+    }
+
+    /**
+     * 묶음의 [from, to) 행만 객체로 만든다. 앞쪽 행은 누적 값을 맞추기 위해 읽기만 하고 건너뛴다.
+     */
+    private List<ArchivedTransaction> decodeRows(RowGroup group, int from, int to) {
+        ColumnCodec.Decoder[] decoders = new ColumnCodec.Decoder[COLUMNS.length];
+        for (Column column : COLUMNS) {
+            decoders[column.ordinal()] = column.ordinal() < group.offsets().length ? decoder(group, column) : null;
+        }
+        ColumnCodec.Decoder versions = decoders[Column.VERSION.ordinal()];
+        ColumnCodec.Decoder currencies = decoders[Column.CURRENCY.ordinal()];
+        ColumnCodec.Decoder baseAmounts = decoders[Column.BASE_AMOUNT.ordinal()];
+
+        List<ArchivedTransaction> rows = new ArrayList<>(to - from);
+        long id = 0;
+        long userId = 0;
+        long date = 0;
+        for (int row = 0; row < to; row++) {
+            id += decoders[Column.ID.ordinal()].getLong();
+            userId += decoders[Column.USER_ID.ordinal()].getLong();
+            date += decoders[Column.TRANSACTION_DATE.ordinal()].getLong();
+            if (row < from) {
+                decoders[Column.CATEGORY_ID.ordinal()].getLong();
+                decoders[Column.AMOUNT.ordinal()].getLong();
+                decoders[Column.TYPE.ordinal()].getByte();
+                decoders[Column.DESCRIPTION.ordinal()].skipString();
+                decoders[Column.CREATED_AT.ordinal()].getLong();
+                decoders[Column.UPDATED_AT.ordinal()].getLong();
+                if (versions != null) {
+                    versions.getLong();
+                }
+                if (currencies != null) {
+                    currencies.skipString();
+                    baseAmounts.getLong();
+                }
+                continue;
+            }
+            long categoryId = decoders[Column.CATEGORY_ID.ordinal()].getLong();
+            BigDecimal amount = BigDecimal.valueOf(decoders[Column.AMOUNT.ordinal()].getLong(), 2);
+            Transaction.TransactionType type = TYPES[decoders[Column.TYPE.ordinal()].getByte()];
+            String description = decoders[Column.DESCRIPTION.ordinal()].getString();
+            long createdAt = date + decoders[Column.CREATED_AT.ordinal()].getLong();
+            long updated = decoders[Column.UPDATED_AT.ordinal()].getLong();
+            long version = versions != null ? versions.getLong() : 0L;
+            String currency = null;
+            BigDecimal baseAmount = amount;
+            if (currencies != null) {
+                String code = currencies.getString();
+                currency = code.isEmpty() ? null : code;
+                baseAmount = BigDecimal.valueOf(baseAmounts.getLong(), 2);
+            }
+            rows.add(new ArchivedTransaction(id, userId, categoryId, amount, currency, baseAmount,
+                    description, type, ColumnCodec.fromMicros(date), ColumnCodec.fromMicros(createdAt),
+                    updated == 0 ? null : ColumnCodec.fromMicros(createdAt + unzigzag(updated - 1)), version));
+        }
+        return rows;
+    }
+
+    private ColumnCodec.Decoder decoder(RowGroup group, Column column) {
+        int c = column.ordinal();
+        return new ColumnCodec.Decoder(ColumnCodec.inflate(
+                buffer.slice((int) group.offsets()[c], group.compressedLengths()[c]), group.rawLengths()[c]));
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private record RowGroup(int rowCount, long minId, long maxId, long minUserId, long maxUserId,
+                            long[] offsets, int[] compressedLengths, int[] rawLengths) {
+    }
+}
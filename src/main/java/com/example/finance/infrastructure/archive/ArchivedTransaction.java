@@ -0,0 +1,24 @@
+package com.example.finance.infrastructure.archive;
+
+import com.example.finance.domain.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ *  아카이브 파일에 저장된 거래 한 건. 사용자와 카테고리는 id 로만 가지고 있다.
+ *  통화가 도입되기 전에 쓴 파일의 행은 currency 가 null 이고 baseAmount 가 amount 와 같다.
+ */
+public record ArchivedTransaction(long id,
+                                  long userId,
+                                  long categoryId,
+                                  BigDecimal amount,
+                                  String currency,
+                                  BigDecimal baseAmount,
+                                  String description,
+                                  Transaction.TransactionType type,
+                                  LocalDateTime transactionDate,
+                                  LocalDateTime createdAt,
+                                  LocalDateTime updatedAt,
+                                  long version) {
+}
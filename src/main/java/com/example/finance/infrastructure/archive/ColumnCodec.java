@@ -0,0 +1,144 @@
+package com.example.finance.infrastructure.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ *  아카이브 컬럼 인코딩
+ *  정수는 zigzag varint 로 저장하고, 정렬되어 있거나 서로 가까운 값은 이전 값과의 차이만 저장해서 압축률을 높인다.
+ *  컬럼 하나를 다 채운 뒤 Deflater 로 통째로 압축한다.
+ */
+final class ColumnCodec {
+
+    private ColumnCodec() {
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 매핑된 파일 영역을 그대로 입력으로 써서 압축을 푼다.
+     */
+    static byte[] inflate(ByteBuffer compressed, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                read += inflater.inflate(raw, read, rawLength - read);
+            }
+            if (read != rawLength) {
+                throw new IllegalStateException("Corrupted archive column: expected " + rawLength + " bytes, got " + read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted archive column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static final class Encoder {
+        private byte[] buffer = new byte[1024];
+        private int size;
+
+        void putLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                putByte((byte) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            putByte((byte) zigzag);
+        }
+
+        void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void putByte(byte value) {
+            ensure(1);
+            buffer[size++] = value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    static final class Decoder {
+        private final byte[] data;
+        private int position;
+
+        Decoder(byte[] data) {
+            this.data = data;
+        }
+
+        long getLong() {
+            long zigzag = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = data[position++];
+                zigzag |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        String getString() {
+            int length = (int) getLong();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        void skipString() {
+            int length = (int) getLong();
+            position += length;
+        }
+
+        byte getByte() {
+            return data[position++];
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.finance.infrastructure.archive;
+
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.startup.DeferredInitialization;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  hot-months 보다 오래된 월의 거래를 아카이브 파일로 옮기고 transactions 테이블에서 지운다.
+ *
+ *  거래는 transaction_date 의 월 단위로 나뉘며, 샤드마다 월 하나가 파일 하나가 된다.
+ *  파일을 먼저 디스크에 반영하고 목록에 올린 뒤에 행을 지우므로, 중간에 멈추더라도 잠시 두 곳에 함께 있을 뿐 유실되지 않는다.
+ *  조회 쪽은 id 로 중복을 걸러서 합치고, 다음 실행이 남은 행을 기존 파일과 합쳐서 다시 쓴다.
+ *  행을 지운 뒤에는 TransactionsArchivedEvent 를 발행해서 메모리 색인이 옮겨진 거래를 빼도록 한다.
+ */
+@Component
+@DeferredInitialization
+@ConditionalOnProperty(prefix = "finance.archive", name = "enabled", havingValue = "true")
+@Slf4j
+public class TransactionArchiver {
+
+    private static final String SELECT_OLDEST = "SELECT MIN(transaction_date) FROM transactions";
+    private static final String SELECT_MONTH = "SELECT id, user_id, category_id, amount, currency, base_amount, description, type, "
+            + "transaction_date, created_at, updated_at, version FROM transactions WHERE transaction_date >= ? AND transaction_date < ?";
+    // 읽은 뒤에 수정된 행은 지우지 않고 테이블에 남겨서 다음 실행에서 다시 옮긴다.
+    private static final String DELETE = "DELETE FROM transactions WHERE id = ? AND version = ?";
+
+    private static final RowMapper<ArchivedTransaction> ROW_MAPPER = (rs, rowNum) -> new ArchivedTransaction(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getLong("category_id"),
+            rs.getBigDecimal("amount"),
+            rs.getString("currency"),
+            rs.getBigDecimal("base_amount"),
+            rs.getString("description"),
+            Transaction.TransactionType.valueOf(rs.getString("type")),
+            rs.getObject("transaction_date", LocalDateTime.class),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class),
+            rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final ArchiveCatalog archiveCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int hotMonths;
+    private final int rowGroupSize;
+
+    public TransactionArchiver(JdbcTemplate jdbcTemplate,
+                               ShardRouter shardRouter,
+                               ArchiveCatalog archiveCatalog,
+                               ApplicationEventPublisher eventPublisher,
+                               ArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.archiveCatalog = archiveCatalog;
+        this.eventPublisher = eventPublisher;
+        this.hotMonths = properties.hotMonths();
+        this.rowGroupSize = properties.rowGroupSize();
+    }
+
+    @Scheduled(fixedDelayString = "${finance.archive.compaction-interval:PT1H}",
+            initialDelayString = "${finance.archive.compaction-interval:PT1H}")
+    public void compact() {
+        YearMonth cutoff = YearMonth.now().minusMonths(hotMonths);
+        for (int shard : shardRouter.shards()) {
+            try {
+                compactShard(shard, cutoff);
+            } catch (Exception e) {
+                log.error("Failed to archive transactions of shard {}", shard, e);
+            }
+        }
+    }
+
+    private void compactShard(int shard, YearMonth cutoff) throws IOException {
+        LocalDateTime oldest = shardRouter.inShardTransaction(shard,
+                () -> jdbcTemplate.queryForObject(SELECT_OLDEST, LocalDateTime.class));
+        if (oldest == null) {
+            return;
+        }
+        for (YearMonth month = YearMonth.from(oldest); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            archiveMonth(shard, month);
+        }
+    }
+
+    private void archiveMonth(int shard, YearMonth month) throws IOException {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        List<ArchivedTransaction> hot = shardRouter.inShardTransaction(shard,
+                () -> jdbcTemplate.query(SELECT_MONTH, ROW_MAPPER, from, to));
+        if (hot.isEmpty()) {
+            return;
+        }
+
+        Map<Long, ArchivedTransaction> merged = new LinkedHashMap<>();
+        archiveCatalog.readMonth(shard, month).forEach(row -> merged.put(row.id(), row));
+        hot.forEach(row -> merged.put(row.id(), row));
+
+        Path path = archiveCatalog.pathOf(shard, month);
+        ArchiveSegment.write(path, new ArrayList<>(merged.values()), rowGroupSize);
+        archiveCatalog.install(ArchiveSegment.open(shard, month, path));
+
+        List<Object[]> ids = hot.stream().map(row -> new Object[]{row.id(), row.version()}).toList();
+        shardRouter.inShardTransaction(shard, () -> jdbcTemplate.batchUpdate(DELETE, ids));
+        eventPublisher.publishEvent(new TransactionsArchivedEvent(shard, hot));
+        log.info("Archived {} transactions of {} on shard {} ({} rows in segment)",
+                hot.size(), month, shard, merged.size());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.finance.infrastructure.archive;
+
+import java.util.List;
+
+/**
+ *  아카이브 파일로 옮기고 테이블에서 지운 거래
+ *  아웃박스를 거치지 않는 로컬 이벤트로, 테이블의 거래를 메모리에 들고 있는 구조가 해당 거래를 빼는 데 쓴다.
+ *  읽은 뒤에 수정되어 지워지지 않은 행도 들어 있을 수 있으므로 받는 쪽은 version 으로 거른다.
+ */
+public record TransactionsArchivedEvent(int shard, List<ArchivedTransaction> transactions) {
+}
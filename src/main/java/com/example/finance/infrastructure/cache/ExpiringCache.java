@@ -0,0 +1,174 @@
+package com.example.finance.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ *  비동기 조회 결과를 키별로 TTL 동안 보관한다.
+ *  같은 키로 동시에 들어온 조회는 하나의 loader 실행을 공유하고, 실패했거나 cacheable 이 false 인 결과는
+ *  공유만 하고 보관하지 않는다. TTL 은 조회를 시작한 시점부터 센다. TTL 이 0 이면 항상 loader 를 실행한다.
+ *
+ *  TTL 이 모두 같으므로 만든 순서가 곧 만료 순서다. 항목을 만들 때마다 순서 큐의 앞쪽을 몇 개씩만 확인해서
+ *  만료된 항목을 빼고, maxEntries 를 넘으면 가장 오래된 완료 항목부터 뺀다. 전체를 훑는 정리는 하지 않는다.
+ *  실행 중인 항목은 결과를 기다리는 호출자가 있으므로 빼지 않고 큐 뒤로 보낸다.
+ *  whenFull 을 주면 TTL 이 남은 항목은 빼지 않고, 보관 중인 항목이 maxEntries 개이면 새 키를 그 예외로 거절한다.
+ */
+public class ExpiringCache<K, V> {
+
+    // 항목 하나를 만들 때 순서 큐 앞쪽에서 확인하는 최대 개수. 1 보다 커야 큐가 줄어든다.
+    private static final int EVICTIONS_PER_WRITE = 8;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node<K, V>> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Supplier<? extends RuntimeException> whenFull;
+    private final LongSupplier nanoClock;
+
+    public ExpiringCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, null, System::nanoTime);
+    }
+
+    /**
+     * TTL 동안 반드시 남아 있어야 하는 항목(Idempotency-Key 등)에 쓴다.
+     */
+    public ExpiringCache(Duration ttl, int maxEntries, Supplier<? extends RuntimeException> whenFull) {
+        this(ttl, maxEntries, whenFull, System::nanoTime);
+    }
+
+    ExpiringCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        this(ttl, maxEntries, null, nanoClock);
+    }
+
+    ExpiringCache(Duration ttl, int maxEntries, Supplier<? extends RuntimeException> whenFull,
+                  LongSupplier nanoClock) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.whenFull = whenFull;
+        this.nanoClock = nanoClock;
+    }
+
+    public CompletableFuture<V> get(K key, Supplier<CompletableFuture<V>> loader, Predicate<V> cacheable) {
+        return get(key, null, loader, cacheable, () -> new IllegalStateException("Unexpected tag for key " + key));
+    }
+
+    /**
+     * 보관 중이거나 실행 중인 결과가 다른 tag 로 만들어졌으면 그 결과를 공유하지 않고 tagMismatch 의 예외를 던진다.
+     * 같은 키가 다른 요청에 쓰이면 안 되는 경우(Idempotency-Key 등)에 요청 내용의 지문을 tag 로 넘긴다.
+     */
+    public CompletableFuture<V> get(K key, Object tag, Supplier<CompletableFuture<V>> loader,
+                                    Predicate<V> cacheable, Supplier<? extends RuntimeException> tagMismatch) {
+        if (ttlNanos <= 0) {
+            return loader.get();
+        }
+        long now = nanoClock.getAsLong();
+        if (whenFull != null) {
+            // 만료된 항목을 먼저 빼야 그 자리를 새 키가 쓸 수 있다.
+            evict(now);
+        }
+        Entry<V> fresh = new Entry<>(tag, new CompletableFuture<>(), now + ttlNanos);
+        Entry<V> current = entries.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                return existing;
+            }
+            if (existing == null && whenFull != null && entries.size() >= maxEntries) {
+                throw whenFull.get();
+            }
+            return fresh;
+        });
+        if (current != fresh) {
+            if (!Objects.equals(current.tag(), tag)) {
+                throw tagMismatch.get();
+            }
+            return current.value().copy();
+        }
+
+        order.add(new Node<>(key, fresh));
+        queued.incrementAndGet();
+        evict(now);
+
+        try {
+            loader.get().whenComplete((value, ex) -> {
+                if (ex != null || !cacheable.test(value)) {
+                    entries.remove(key, fresh);
+                }
+                if (ex != null) {
+                    fresh.value().completeExceptionally(ex);
+                } else {
+                    fresh.value().complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            entries.remove(key, fresh);
+            fresh.value().completeExceptionally(e);
+            throw e;
+        }
+        return fresh.value().copy();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 큐의 앞쪽부터 이미 빠진 항목은 버리고, 만료되었거나 개수를 넘긴 완료 항목은 뺀다.
+     * 큐 길이로 개수를 세므로 보관하지 않은 실패 결과도 큐에서 빠질 때까지는 개수에 들어간다.
+     * whenFull 이 있으면 개수를 넘겨도 빼지 않는다. 거절은 맵의 크기로 판단하므로 실패 결과는 세지 않는다.
+     */
+    private void evict(long now) {
+        for (int i = 0; i < EVICTIONS_PER_WRITE; i++) {
+            Node<K, V> head = order.peek();
+            if (head == null || (!overLimit() && !head.isExpired(now) && head.isLive(entries))) {
+                return;
+            }
+            Node<K, V> node = order.poll();
+            if (node == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (!node.isLive(entries)) {
+                continue;
+            }
+            if (node.entry().value().isDone()
+                    && (node.isExpired(now) || (whenFull == null && queued.get() >= maxEntries))) {
+                entries.remove(node.key(), node.entry());
+            } else {
+                order.add(node);
+                queued.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean overLimit() {
+        return whenFull == null && queued.get() > maxEntries;
+    }
+
+    private record Entry<V>(Object tag, CompletableFuture<V> value, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+
+    private record Node<K, V>(K key, Entry<V> entry) {
+
+        boolean isExpired(long now) {
+            return entry.isExpired(now);
+        }
+
+        /**
+         * 실패했거나 만료 후 다시 만들어져서 맵에서 빠진 항목이면 false
+         */
+        boolean isLive(ConcurrentHashMap<K, Entry<V>> entries) {
+            return entries.get(key) == entry;
+        }
+    }
+}
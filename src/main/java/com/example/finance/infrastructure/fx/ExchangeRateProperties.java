@@ -0,0 +1,21 @@
+package com.example.finance.infrastructure.fx;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ *  finance.fx.* 설정
+ *  rates 는 Spring 리소스 위치(classpath:, file:)이고, reload-interval 마다 다시 읽어서 버전이 바뀌었으면 교체한다.
+ */
+@ConfigurationProperties(prefix = "finance.fx")
+public record ExchangeRateProperties(String baseCurrency,
+                                     String rates,
+                                     Duration reloadInterval) {
+
+    public ExchangeRateProperties {
+        baseCurrency = baseCurrency == null ? "KRW" : baseCurrency;
+        rates = rates == null ? "classpath:fx/rates.csv" : rates;
+        reloadInterval = reloadInterval == null ? Duration.ofMinutes(5) : reloadInterval;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.finance.infrastructure.fx;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ *  한 버전의 환율표. 만든 뒤에는 바뀌지 않는다.
+ *
+ *  통화마다 적용 시작일(epoch day)을 오름차순 int 배열로, 환율을 같은 순서의 배열로 가진다.
+ *  어떤 날짜의 환율은 그 날짜 이하인 가장 늦은 시작일의 환율이며 이진 탐색 한 번으로 찾는다.
+ *  환율은 외화 1 단위의 기준 통화 금액이다.
+ *
+ *  파일 형식 (CSV)
+ *  # version=2025-01-01
+ *  date,currency,rate
+ *  2025-01-01,USD,1470.00
+ */
+public final class ExchangeRateTable {
+
+    private static final String VERSION_PREFIX = "# version=";
+
+    private final String version;
+    private final String baseCurrency;
+    private final Map<String, Rates> rates;
+
+    private ExchangeRateTable(String version, String baseCurrency, Map<String, Rates> rates) {
+        this.version = version;
+        this.baseCurrency = baseCurrency;
+        this.rates = rates;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public String baseCurrency() {
+        return baseCurrency;
+    }
+
+    /**
+     * 기준 통화는 항상 1 이다. 통화를 모르거나 date 가 첫 시작일보다 이르면 비어있다.
+     */
+    public Optional<BigDecimal> rate(String currency, LocalDate date) {
+        if (baseCurrency.equals(currency)) {
+            return Optional.of(BigDecimal.ONE);
+        }
+        Rates currencyRates = rates.get(currency);
+        return currencyRates == null ? Optional.empty() : currencyRates.on(date.toEpochDay());
+    }
+
+    public static ExchangeRateTable parse(Reader source, String baseCurrency) throws IOException {
+        String version = null;
+        Map<String, TreeMap<Long, BigDecimal>> parsed = new HashMap<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.startsWith(VERSION_PREFIX)) {
+                version = line.substring(VERSION_PREFIX.length()).strip();
+                continue;
+            }
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("date,")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3) {
+                throw new IOException("Malformed exchange rate at line " + lineNumber + ": " + line);
+            }
+            try {
+                BigDecimal rate = new BigDecimal(fields[2].strip());
+                if (rate.signum() <= 0) {
+                    throw new IOException("Exchange rate must be positive at line " + lineNumber + ": " + line);
+                }
+                parsed.computeIfAbsent(fields[1].strip().toUpperCase(Locale.ROOT), currency -> new TreeMap<>())
+                        .put(LocalDate.parse(fields[0].strip()).toEpochDay(), rate);
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IOException("Malformed exchange rate at line " + lineNumber + ": " + line, e);
+            }
+        }
+        if (version == null) {
+            throw new IOException("Exchange rate table has no '" + VERSION_PREFIX + "' line");
+        }
+
+        Map<String, Rates> rates = new HashMap<>();
+        parsed.forEach((currency, byDay) -> {
+            int[] days = new int[byDay.size()];
+            BigDecimal[] values = new BigDecimal[byDay.size()];
+            int i = 0;
+            for (Map.Entry<Long, BigDecimal> entry : byDay.entrySet()) {
+                days[i] = Math.toIntExact(entry.getKey());
+                values[i++] = entry.getValue();
+            }
+            rates.put(currency, new Rates(days, values));
+        });
+        return new ExchangeRateTable(version, baseCurrency, Map.copyOf(rates));
+    }
+
+    public List<String> currencies() {
+        List<String> currencies = new ArrayList<>(rates.keySet());
+        currencies.add(baseCurrency);
+        currencies.sort(null);
+        return currencies;
+    }
+
+    private record Rates(int[] days, BigDecimal[] values) {
+
+        Optional<BigDecimal> on(long epochDay) {
+            // 파일의 날짜는 int 범위이므로 그 밖의 날짜는 양 끝으로 맞춰도 결과가 같다.
+            int index = Arrays.binarySearch(days, Math.clamp(epochDay, Integer.MIN_VALUE, Integer.MAX_VALUE));
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return index < 0 ? Optional.empty() : Optional.of(values[index]);
+        }
+    }
+}
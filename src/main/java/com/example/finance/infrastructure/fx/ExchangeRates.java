@@ -0,0 +1,96 @@
+package com.example.finance.infrastructure.fx;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ *  로컬 환율표로 금액을 기준 통화로 바꾼다.
+ *  환율표는 기동할 때 읽고 reload-interval 마다 다시 읽어서 버전이 바뀐 경우에만 통째로 교체하므로,
+ *  조회는 락 없이 현재 환율표 하나만 본다. 다시 읽다가 실패하면 이전 환율표를 계속 쓴다.
+ */
+@Component
+@EnableConfigurationProperties(ExchangeRateProperties.class)
+@Slf4j
+public class ExchangeRates {
+
+    private final ResourceLoader resourceLoader;
+    private final ExchangeRateProperties properties;
+    private final String baseCurrency;
+    private volatile ExchangeRateTable table;
+
+    public ExchangeRates(ResourceLoader resourceLoader, ExchangeRateProperties properties) {
+        this.resourceLoader = resourceLoader;
+        this.properties = properties;
+        this.baseCurrency = properties.baseCurrency().toUpperCase(Locale.ROOT);
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            table = read();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load exchange rates from " + properties.rates(), e);
+        }
+        log.info("Loaded exchange rates version {} for {}", table.version(), table.currencies());
+    }
+
+    @Scheduled(fixedDelayString = "${finance.fx.reload-interval:PT5M}",
+            initialDelayString = "${finance.fx.reload-interval:PT5M}")
+    public void reload() {
+        try {
+            ExchangeRateTable loaded = read();
+            if (!loaded.version().equals(table.version())) {
+                log.info("Exchange rates updated from version {} to {}", table.version(), loaded.version());
+                table = loaded;
+            }
+        } catch (IOException e) {
+            log.error("Failed to reload exchange rates from {}, keeping version {}",
+                    properties.rates(), table.version(), e);
+        }
+    }
+
+    public String baseCurrency() {
+        return baseCurrency;
+    }
+
+    public String version() {
+        return table.version();
+    }
+
+    /**
+     * 통화 코드를 대문자로 맞춘다. 비어 있으면 기준 통화로 본다.
+     */
+    public String normalize(String currency) {
+        return currency == null || currency.isBlank() ? baseCurrency : currency.strip().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * date 에 적용되는 환율로 금액을 기준 통화로 바꾸고 소수 둘째 자리에서 반올림한다.
+     */
+    public BigDecimal toBase(BigDecimal amount, String currency, LocalDate date) {
+        String code = normalize(currency);
+        BigDecimal rate = table.rate(code, date).orElseThrow(() -> new UnsupportedCurrencyException(code, date));
+        return amount.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private ExchangeRateTable read() throws IOException {
+        try (Reader reader = new InputStreamReader(
+                resourceLoader.getResource(properties.rates()).getInputStream(), StandardCharsets.UTF_8)) {
+            return ExchangeRateTable.parse(reader, baseCurrency);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.finance.infrastructure.fx;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDate;
+
+/**
+ * 환율표에 없는 통화이거나 그 날짜에 적용할 환율이 없을 때 발생한다.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedCurrencyException extends RuntimeException {
+
+    public UnsupportedCurrencyException(String currency, LocalDate date) {
+        super("No exchange rate for " + currency + " on " + date);
+    }
+}
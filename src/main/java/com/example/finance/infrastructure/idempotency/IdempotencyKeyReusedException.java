@@ -0,0 +1,15 @@
+package com.example.finance.infrastructure.idempotency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 같은 Idempotency-Key 가 다른 요청 내용으로 재사용되었을 때 발생한다.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key was already used with a different request: " + key);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.finance.infrastructure.idempotency;
+
+import com.example.finance.infrastructure.cache.ExpiringCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ *  Idempotency-Key 별로 처리 결과를 TTL 동안 메모리에 보관한다.
+ *  같은 키로 동시에 들어온 요청은 하나의 실행으로 합쳐지고, 이후 재시도는 저장된 응답을 그대로 돌려받는다.
+ *  실패했거나 캐시 대상이 아닌 응답은 보관하지 않으므로 클라이언트가 다시 시도할 수 있다.
+ *  보관과 개수 제한은 ExpiringCache 가 맡는다. TTL 이 남은 키는 버리지 않고, max-entries 개가 차면 새 키를
+ *  IdempotencyStoreFullException(503) 으로 거절한다. max-entries 는 TTL 동안 들어오는 키 수보다 커야 한다.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private final ExpiringCache<String, Object> responses;
+
+    public IdempotencyStore(@Value("${finance.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${finance.idempotency.max-entries:100000}") int maxEntries) {
+        this.responses = new ExpiringCache<>(ttl, maxEntries, () -> {
+            log.warn("Rejecting new Idempotency-Key: {} keys are stored within TTL {}", maxEntries, ttl);
+            return new IdempotencyStoreFullException(maxEntries);
+        });
+    }
+
+    /**
+     * 비동기 작업을 키 단위로 한 번만 실행한다.
+     * 이미 실행 중이거나 완료된 키라면 action 을 호출하지 않고 기존 결과를 돌려준다.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, String fingerprint,
+                                                 Supplier<CompletableFuture<T>> action,
+                                                 Predicate<T> cacheable) {
+        AtomicBoolean executed = new AtomicBoolean();
+        CompletableFuture<Object> result = responses.get(key, fingerprint,
+                () -> {
+                    executed.set(true);
+                    return (CompletableFuture<Object>) action.get();
+                },
+                value -> cacheable.test((T) value),
+                () -> new IdempotencyKeyReusedException(key));
+        if (!executed.get()) {
+            log.debug("Replaying stored response for Idempotency-Key: {}", key);
+        }
+        return (CompletableFuture<T>) result;
+    }
+
+    /**
+     * 동기 작업용 executeAsync. 동시에 들어온 요청은 먼저 시작된 실행이 끝날 때까지 기다린다.
+     */
+    public <T> T execute(String key, String fingerprint, Supplier<T> action, Predicate<T> cacheable) {
+        CompletableFuture<T> future = executeAsync(key, fingerprint, () -> {
+            try {
+                return CompletableFuture.completedFuture(action.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }, cacheable);
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for idempotent request: " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Idempotent request failed: " + key, cause);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.finance.infrastructure.idempotency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 보관 중인 Idempotency-Key 가 max-entries 개여서 새 키를 받을 수 없을 때 발생한다.
+ * 이전 키를 버리면 그 키의 재시도가 다시 실행되므로 새 요청을 거절한다. 클라이언트는 잠시 후 다시 시도하면 된다.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IdempotencyStoreFullException extends RuntimeException {
+
+    public IdempotencyStoreFullException(int maxEntries) {
+        super("Idempotency store is full (" + maxEntries + " keys within TTL)");
+    }
+}
@@ -0,0 +1,487 @@
+package com.example.finance.infrastructure.index;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ *  음이 아닌 int 집합을 담는 압축 비트맵 (Roaring 방식)
+ *
+ *  값의 상위 16비트마다 컨테이너를 하나 둔다. 값이 4096 개 이하인 컨테이너는 정렬된 char 배열이고, 그보다 많으면
+ *  65536 비트짜리 비트맵(8KB)이다. 드문 구간은 값 개수만큼만, 빽빽한 구간은 비트 하나씩만 쓴다.
+ *  and/or 는 키가 같은 컨테이너끼리만 계산하고 결과를 새 비트맵으로 돌려준다. 스레드에 안전하지 않다.
+ */
+public final class CompressedBitmap {
+
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public CompressedBitmap() {
+        this(4);
+    }
+
+    private CompressedBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Container[capacity];
+    }
+
+    /**
+     * 없던 값이면 true
+     */
+    public boolean add(int value) {
+        checkValue(value);
+        char key = (char) (value >>> 16);
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new ArrayContainer());
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        containers[index] = container.add((char) value);
+        return containers[index].cardinality() != before;
+    }
+
+    /**
+     * 있던 값이면 true
+     */
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        int before = container.cardinality();
+        Container after = container.remove((char) value);
+        if (after.cardinality() == 0) {
+            removeContainer(index);
+        } else {
+            containers[index] = after;
+        }
+        return after.cardinality() != before;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public CompressedBitmap copy() {
+        CompressedBitmap copy = new CompressedBitmap(Math.max(size, 4));
+        for (int i = 0; i < size; i++) {
+            copy.keys[i] = keys[i];
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    public static CompressedBitmap and(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap(Math.max(Math.min(left.size, right.size), 4));
+        int i = 0;
+        int j = 0;
+        while (i < left.size && j < right.size) {
+            if (left.keys[i] < right.keys[j]) {
+                i++;
+            } else if (left.keys[i] > right.keys[j]) {
+                j++;
+            } else {
+                Container container = left.containers[i].and(right.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.appendContainer(left.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public static CompressedBitmap or(CompressedBitmap left, CompressedBitmap right) {
+        CompressedBitmap result = new CompressedBitmap(Math.max(left.size + right.size, 4));
+        int i = 0;
+        int j = 0;
+        while (i < left.size || j < right.size) {
+            if (j == right.size || (i < left.size && left.keys[i] < right.keys[j])) {
+                result.appendContainer(left.keys[i], left.containers[i].copy());
+                i++;
+            } else if (i == left.size || left.keys[i] > right.keys[j]) {
+                result.appendContainer(right.keys[j], right.containers[j].copy());
+                j++;
+            } else {
+                result.appendContainer(left.keys[i], left.containers[i].or(right.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 오름차순으로 값을 돌려준다. 순회하는 동안 비트맵을 바꾸면 안 된다.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+
+            private int index;
+            private int next = advance(0, 0);
+
+            private int advance(int containerIndex, int low) {
+                index = containerIndex;
+                while (index < size) {
+                    int found = low <= 0xffff ? containers[index].next(low) : -1;
+                    if (found >= 0) {
+                        return keys[index] << 16 | found;
+                    }
+                    index++;
+                    low = 0;
+                }
+                return -1;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int value = next;
+                next = advance(index, (value & 0xffff) + 1);
+                return value;
+            }
+        };
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        ensureCapacity();
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void appendContainer(char key, Container container) {
+        ensureCapacity();
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private void ensureCapacity() {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+    }
+
+    private abstract static class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        /**
+         * 값이 늘어서 종류가 바뀌면 새 컨테이너를 돌려준다.
+         */
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container copy();
+
+        /**
+         * from 이상인 가장 작은 값. 없으면 -1
+         */
+        abstract int next(int from);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(Math.max(cardinality * 2, 4), ARRAY_LIMIT));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer array) {
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) {
+                        result[count++] = values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer bitmap) {
+                return bitmap.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            if (cardinality + array.cardinality > ARRAY_LIMIT) {
+                return toBitmap().or(array);
+            }
+            char[] result = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 4)), cardinality);
+        }
+
+        @Override
+        int next(int from) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < cardinality ? values[index] : -1;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+            }
+            return cardinality <= ARRAY_LIMIT ? toArray() : this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & otherWords[i];
+                count += Long.bitCount(result[i]);
+            }
+            BitmapContainer bitmap = new BitmapContainer(result, count);
+            return count <= ARRAY_LIMIT ? bitmap.toArray() : bitmap;
+        }
+
+        @Override
+        Container or(Container other) {
+            BitmapContainer result = (BitmapContainer) copy();
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) {
+                    result.add(array.values[i]);
+                }
+                return result;
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result.words[i] |= otherWords[i];
+                count += Long.bitCount(result.words[i]);
+            }
+            result.cardinality = count;
+            return result;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int next(int from) {
+            int index = from >>> 6;
+            long word = words[index] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return index << 6 | Long.numberOfTrailingZeros(word);
+                }
+                if (++index == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[index];
+            }
+        }
+
+        ArrayContainer toArray() {
+            char[] values = new char[Math.max(cardinality, 4)];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[count++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.finance.infrastructure.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ *  요청 하나가 쓴 할당량과 CPU 시간을 request 로 기록한다.
+ *  비동기 응답(CompletableFuture)은 결과를 직렬화하는 async dispatch 까지 더해서 마지막 dispatch 가 끝날 때 기록한다.
+ *  처리율 제한에 걸린 요청은 세지 않도록 RateLimitFilter 뒤에 둔다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class ResourceAccountingFilter extends OncePerRequestFilter {
+
+    private static final String SCOPE_ATTRIBUTE = ResourceAccountingFilter.class.getName() + ".scope";
+
+    private final ResourceMetrics resourceMetrics;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !resourceMetrics.isEnabled();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ResourceScope scope = (ResourceScope) request.getAttribute(SCOPE_ATTRIBUTE);
+        if (scope == null) {
+            scope = new ResourceScope();
+            request.setAttribute(SCOPE_ATTRIBUTE, scope);
+        }
+        ResourceScope previous = ResourceScope.set(scope);
+        ResourceMetrics.Sample sample = resourceMetrics.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.add(resourceMetrics.measure(sample));
+            ResourceScope.set(previous);
+            if (!request.isAsyncStarted()) {
+                resourceMetrics.record(ResourceMetrics.REQUEST, scope.endpoint(), scope.endpoint(), scope.total());
+            }
+        }
+    }
+}
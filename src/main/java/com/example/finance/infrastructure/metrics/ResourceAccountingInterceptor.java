@@ -0,0 +1,24 @@
+package com.example.finance.infrastructure.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ *  핸들러가 정해지면 요청의 ResourceScope 에 컨트롤러.메서드 이름을 붙인다.
+ *  컨트롤러가 실행기에 작업을 넘기기 전이므로 그 작업들도 같은 이름으로 기록된다.
+ */
+@Component
+public class ResourceAccountingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ResourceScope scope = ResourceScope.current();
+        if (scope != null && handler instanceof HandlerMethod method) {
+            scope.nameEndpoint(method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.finance.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  요청, 실행기 작업, 사가 단계별 힙 할당량과 CPU 시간 히스토그램
+ *
+ *  finance.resource.allocated  스레드가 할당한 바이트 (kind, name, endpoint)
+ *  finance.resource.cpu        스레드가 쓴 CPU 시간 (kind, name, endpoint)
+ *
+ *  kind 는 request, task, saga-step 이다. request 는 요청 스레드와 응답 전에 끝난 실행기 작업을 합친 값이고,
+ *  task 는 실행기(name)별, saga-step 은 사가.단계(name)별 값이다. 사가 단계는 sagaExecutor 작업 안에서 돌므로
+ *  task 에도 함께 들어간다. endpoint 는 작업을 시작한 컨트롤러 메서드이며 요청 밖에서 시작했으면 none 이다.
+ *  모아 본 결과는 /actuator/resources 에서 할당량 합계 순으로 볼 수 있다.
+ */
+@Component
+@Slf4j
+public class ResourceMetrics {
+
+    public static final String ALLOCATED = "finance.resource.allocated";
+    public static final String CPU = "finance.resource.cpu";
+
+    public static final String REQUEST = "request";
+    public static final String TASK = "task";
+    public static final String SAGA_STEP = "saga-step";
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public ResourceMetrics(MeterRegistry registry,
+                           @Value("${finance.diagnostics.resource-accounting.enabled:true}") boolean enabled) {
+        this.registry = registry;
+        this.enabled = enabled && ThreadUsage.supported();
+        if (enabled && !this.enabled) {
+            log.warn("Thread allocation and CPU time measurement is not supported by this JVM");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 현재 스레드의 사용량을 재기 시작한다.
+     */
+    public Sample start() {
+        return enabled ? new Sample(ThreadUsage.allocatedBytes(), ThreadUsage.cpuNanos()) : Sample.DISABLED;
+    }
+
+    /**
+     * start 이후 현재 스레드의 사용량. 잴 수 없으면 null
+     */
+    public Usage measure(Sample sample) {
+        if (sample.allocatedBytes < 0 || sample.cpuNanos < 0) {
+            return null;
+        }
+        long allocated = ThreadUsage.allocatedBytes() - sample.allocatedBytes;
+        long cpu = ThreadUsage.cpuNanos() - sample.cpuNanos;
+        return allocated < 0 || cpu < 0 ? null : new Usage(allocated, cpu);
+    }
+
+    /**
+     * start 이후 현재 스레드의 사용량을 현재 엔드포인트로 기록하고 돌려준다.
+     */
+    public Usage stop(Sample sample, String kind, String name) {
+        Usage usage = measure(sample);
+        record(kind, name, ResourceScope.currentEndpoint(), usage);
+        return usage;
+    }
+
+    public void record(String kind, String name, String endpoint, Usage usage) {
+        if (usage == null) {
+            return;
+        }
+        Meters meter = meters.computeIfAbsent(kind + "|" + name + "|" + endpoint, key -> new Meters(
+                DistributionSummary.builder(ALLOCATED)
+                        .tags("kind", kind, "name", name, "endpoint", endpoint)
+                        .baseUnit("bytes")
+                        .publishPercentiles(0.5, 0.9, 0.99)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1024.0)
+                        .maximumExpectedValue(1024.0 * 1024 * 1024)
+                        .register(registry),
+                Timer.builder(CPU)
+                        .tags("kind", kind, "name", name, "endpoint", endpoint)
+                        .publishPercentiles(0.5, 0.9, 0.99)
+                        .publishPercentileHistogram()
+                        .register(registry)));
+        meter.allocated().record(usage.allocatedBytes());
+        meter.cpu().record(usage.cpuNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public static final class Sample {
+
+        static final Sample DISABLED = new Sample(-1, -1);
+
+        private final long allocatedBytes;
+        private final long cpuNanos;
+
+        private Sample(long allocatedBytes, long cpuNanos) {
+            this.allocatedBytes = allocatedBytes;
+            this.cpuNanos = cpuNanos;
+        }
+    }
+
+    public record Usage(long allocatedBytes, long cpuNanos) {
+    }
+
+    private record Meters(DistributionSummary allocated, Timer cpu) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.finance.infrastructure.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *  자원 사용량을 돌릴 엔드포인트
+ *  ResourceAccountingFilter 가 요청마다 만들고 ResourceAccountingInterceptor 가 핸들러 이름을 붙인다.
+ *  실행기로 넘어간 작업은 ResourceTaskDecorator 가 제출한 스레드의 것을 이어받아 같은 엔드포인트로 기록하고,
+ *  요청 합계에도 더한다.
+ */
+public final class ResourceScope {
+
+    public static final String NONE = "none";
+    public static final String UNMAPPED = "unmapped";
+
+    private static final ThreadLocal<ResourceScope> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private volatile String endpoint = UNMAPPED;
+
+    public static ResourceScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 요청 밖(스케줄러, 기동 시 복구 등)에서 시작한 작업은 none
+     */
+    public static String currentEndpoint() {
+        ResourceScope scope = CURRENT.get();
+        return scope == null ? NONE : scope.endpoint;
+    }
+
+    /**
+     * 다른 스레드에서 이어 실행할 때 잡아 둔 값을 다시 설정한다.
+     */
+    public static void run(ResourceScope scope, Runnable action) {
+        ResourceScope previous = set(scope);
+        try {
+            action.run();
+        } finally {
+            set(previous);
+        }
+    }
+
+    /**
+     * 이전 값을 돌려준다. 끝나면 그 값으로 되돌려야 한다.
+     */
+    static ResourceScope set(ResourceScope scope) {
+        ResourceScope previous = CURRENT.get();
+        if (scope == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scope);
+        }
+        return previous;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    void nameEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void add(ResourceMetrics.Usage usage) {
+        if (usage != null) {
+            allocatedBytes.add(usage.allocatedBytes());
+            cpuNanos.add(usage.cpuNanos());
+        }
+    }
+
+    ResourceMetrics.Usage total() {
+        return new ResourceMetrics.Usage(allocatedBytes.sum(), cpuNanos.sum());
+    }
+}
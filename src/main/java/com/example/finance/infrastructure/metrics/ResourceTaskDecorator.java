@@ -0,0 +1,40 @@
+package com.example.finance.infrastructure.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ *  실행기 작업 하나가 쓴 할당량과 CPU 시간을 task 로 기록한다.
+ *  제출한 스레드의 ResourceScope 를 이어받으므로 작업 안에서 잰 사가 단계도 같은 엔드포인트로 기록되고,
+ *  작업의 사용량은 요청 합계에도 더해진다.
+ */
+public class ResourceTaskDecorator implements TaskDecorator {
+
+    private final String executor;
+    private final ResourceMetrics resourceMetrics;
+
+    public ResourceTaskDecorator(String executor, ResourceMetrics resourceMetrics) {
+        this.executor = executor;
+        this.resourceMetrics = resourceMetrics;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        if (!resourceMetrics.isEnabled()) {
+            return runnable;
+        }
+        ResourceScope scope = ResourceScope.current();
+        return () -> {
+            ResourceScope previous = ResourceScope.set(scope);
+            ResourceMetrics.Sample sample = resourceMetrics.start();
+            try {
+                runnable.run();
+            } finally {
+                ResourceMetrics.Usage usage = resourceMetrics.stop(sample, ResourceMetrics.TASK, executor);
+                if (scope != null) {
+                    scope.add(usage);
+                }
+                ResourceScope.set(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.finance.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValuePercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  /actuator/resources
+ *  ResourceMetrics 의 히스토그램을 (kind, name, endpoint) 별로 모아 할당량 합계가 큰 순서로 보여준다.
+ */
+@Component
+@Endpoint(id = "resources")
+@RequiredArgsConstructor
+public class ResourceUsageEndpoint {
+
+    private final MeterRegistry registry;
+
+    @ReadOperation
+    public List<Entry> usage() {
+        List<Entry> entries = new ArrayList<>();
+        for (DistributionSummary allocated : registry.find(ResourceMetrics.ALLOCATED).summaries()) {
+            Meter.Id id = allocated.getId();
+            Timer cpu = registry.find(ResourceMetrics.CPU).tags(id.getTags()).timer();
+            if (cpu == null) {
+                continue;
+            }
+            HistogramSnapshot bytes = allocated.takeSnapshot();
+            HistogramSnapshot time = cpu.takeSnapshot();
+            entries.add(new Entry(id.getTag("kind"), id.getTag("name"), id.getTag("endpoint"), bytes.count(),
+                    new Distribution(bytes.total(), bytes.mean(), bytes.max(),
+                            percentile(bytes, 0.5, null), percentile(bytes, 0.9, null),
+                            percentile(bytes, 0.99, null)),
+                    new Distribution(time.total(TimeUnit.MILLISECONDS), time.mean(TimeUnit.MILLISECONDS),
+                            time.max(TimeUnit.MILLISECONDS),
+                            percentile(time, 0.5, TimeUnit.MILLISECONDS), percentile(time, 0.9, TimeUnit.MILLISECONDS),
+                            percentile(time, 0.99, TimeUnit.MILLISECONDS))));
+        }
+        entries.sort(Comparator.comparingDouble((Entry entry) -> entry.allocatedBytes().total()).reversed());
+        return entries;
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile, TimeUnit unit) {
+        for (ValuePercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return unit == null ? value.value() : value.value(unit);
+            }
+        }
+        return Double.NaN;
+    }
+
+    public record Entry(String kind, String name, String endpoint, long count,
+                        Distribution allocatedBytes, Distribution cpuMillis) {
+    }
+
+    public record Distribution(double total, double mean, double max, double p50, double p90, double p99) {
+    }
+}
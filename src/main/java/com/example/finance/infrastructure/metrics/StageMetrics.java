@@ -0,0 +1,87 @@
+package com.example.finance.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ *  생성 요청이 거치는 단계별 지연 시간 히스토그램
+ *
+ *  finance.saga.step     사가 단계 실행 시간 (saga, step, outcome)
+ *  finance.outbox.dwell  아웃박스 저장부터 릴레이가 꺼낼 때까지 기다린 시간
+ *  finance.outbox.relay  릴레이가 이벤트 하나를 역직렬화해서 발행하고 처리 표시할 때까지의 시간 (outcome)
+ *  finance.listener      이벤트 리스너 처리 시간 (listener)
+ *  finance.dashboard.source 대시보드 항목별 조회 시간. 제한 시간을 넘기면 그 시간에서 failure 로 기록된다 (source, outcome)
+ *
+ *  모두 p50/p90/p99 와 히스토그램 버킷을 함께 내보내므로 /actuator/metrics/{name} 에서 바로 비교할 수 있다.
+ *
+ *  finance.outbox.backlog 아직 릴레이되지 않은 아웃박스 이벤트 수 (게이지, 조회할 때마다 센다)
+ */
+@Component
+public class StageMetrics {
+
+    public static final String SAGA_STEP = "finance.saga.step";
+    public static final String OUTBOX_DWELL = "finance.outbox.dwell";
+    public static final String OUTBOX_RELAY = "finance.outbox.relay";
+    public static final String LISTENER = "finance.listener";
+    public static final String DASHBOARD_SOURCE = "finance.dashboard.source";
+    public static final String OUTBOX_BACKLOG = "finance.outbox.backlog";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StageMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void sagaStep(String saga, String step, boolean success, long nanos) {
+        timer(SAGA_STEP, "saga", saga, "step", step, "outcome", outcome(success))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void outboxDwell(Duration dwell) {
+        timer(OUTBOX_DWELL).record(dwell.isNegative() ? Duration.ZERO : dwell);
+    }
+
+    public void outboxRelay(boolean success, long nanos) {
+        timer(OUTBOX_RELAY, "outcome", outcome(success)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> void outboxBacklog(T source, ToDoubleFunction<T> backlog) {
+        Gauge.builder(OUTBOX_BACKLOG, source, backlog)
+                .description("Outbox events not yet relayed")
+                .register(registry);
+    }
+
+    public void listener(String listener, Runnable action) {
+        long started = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            timer(LISTENER, "listener", listener).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void dashboardSource(String source, boolean success, long nanos) {
+        timer(DASHBOARD_SOURCE, "source", source, "outcome", outcome(success)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String... tags) {
+        return timers.computeIfAbsent(name + "|" + String.join("|", tags), key -> Timer.builder(name)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private static String outcome(boolean success) {
+        return success ? "success" : "failure";
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.finance.infrastructure.metrics;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ *  현재 스레드가 지금까지 할당한 바이트와 쓴 CPU 시간
+ *  HotSpot 의 com.sun.management.ThreadMXBean 으로 읽는다. 지원하지 않는 JVM 이면 supported 가 false 이고,
+ *  측정할 수 없는 스레드(가상 스레드 등)에서는 -1 을 돌려준다.
+ */
+final class ThreadUsage {
+
+    private static final ThreadMXBean THREADS = threads();
+
+    private ThreadUsage() {
+    }
+
+    static boolean supported() {
+        return THREADS != null;
+    }
+
+    static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    static long cpuNanos() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadCpuTime();
+    }
+
+    private static ThreadMXBean threads() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()
+                || !threads.isCurrentThreadCpuTimeSupported()) {
+            return null;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        threads.setThreadCpuTimeEnabled(true);
+        return threads;
+    }
+}
@@ -7,7 +7,13 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "outbox_events")
+// 릴레이는 처리되지 않은 이벤트를 event_id 순으로 읽는다. event_id 는 시간 순서로 늘어나므로 삽입은 인덱스 끝에 붙는다.
+// 스냅샷 복원은 watermark 시각 이후에 처리된 이벤트를 processed_at 으로 찾는다.
+@Table(name = "outbox_events",
+        indexes = {
+                @Index(name = "idx_outbox_events_processed_event_id", columnList = "processed, event_id"),
+                @Index(name = "idx_outbox_events_processed_at", columnList = "processed_at")
+        })
 @Getter @Setter
 @ToString
 @Builder
@@ -28,6 +34,10 @@ public class OutboxEvent {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String payload;
 
+    // 이벤트를 저장한 요청의 trace id. 릴레이와 리스너가 같은 id 로 로그를 남긴다.
+    @Column(length = 64)
+    private String traceId;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
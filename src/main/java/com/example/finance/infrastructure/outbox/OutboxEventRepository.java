@@ -1,12 +1,36 @@
 package com.example.finance.infrastructure.outbox;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
 
-    @Query("SELECT o FROM OutboxEvent o WHERE o.processed = false ORDER BY o.createdAt ASC LIMIT ?1")
+    /**
+     * eventId 는 EventIds 로 만든 시간 순서 id 이므로 같은 밀리초에 저장된 이벤트도 발생 순서대로 읽는다.
+     */
+    @Query("SELECT o FROM OutboxEvent o WHERE o.processed = false ORDER BY o.eventId ASC LIMIT ?1")
     List<OutboxEvent> findUnprocessedEventsLimited(int limit);
+
+    long countByProcessedFalse();
+
+    @Query("SELECT MAX(o.id) FROM OutboxEvent o WHERE o.processed = true")
+    Long findMaxProcessedId();
+
+    /**
+     * 스냅샷 이후에 처리된 이벤트를 id 순으로 읽는다.
+     */
+    List<OutboxEvent> findByIdGreaterThanAndProcessedTrueAndEventTypeInOrderByIdAsc(Long id,
+                                                                                    Collection<String> eventTypes,
+                                                                                    Limit limit);
+
+    /**
+     * watermark 를 읽을 때 아직 처리되지 않았던 이벤트를 찾는다. watermark 이하의 id 중 그 뒤에 처리된 것만 읽는다.
+     */
+    List<OutboxEvent> findByIdBetweenAndProcessedTrueAndProcessedAtGreaterThanEqualAndEventTypeInOrderByIdAsc(
+            Long fromId, Long toId, LocalDateTime processedSince, Collection<String> eventTypes, Limit limit);
 }
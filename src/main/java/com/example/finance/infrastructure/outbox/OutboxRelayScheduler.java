@@ -0,0 +1,23 @@
+package com.example.finance.infrastructure.outbox;
+
+import com.example.finance.infrastructure.startup.DeferredInitialization;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ *  아웃박스 릴레이 주기 실행
+ *  OutboxService 는 요청 경로에서 바로 쓰이므로, 스케줄만 따로 떼어서 기동 이후로 미룰 수 있게 한다.
+ */
+@Component
+@DeferredInitialization
+@RequiredArgsConstructor
+public class OutboxRelayScheduler {
+
+    private final OutboxService outboxService;
+
+    @Scheduled(fixedRate = 5000)
+    public void relay() {
+        outboxService.processOutbox();
+    }
+}
@@ -2,18 +2,26 @@ package com.example.finance.infrastructure.outbox;
 
 import com.example.finance.domain.event.DomainEvent;
 import com.example.finance.domain.service.DomainEventPublisher;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.tracing.TraceContext;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 @Service
 @RequiredArgsConstructor
@@ -22,9 +30,20 @@ public class OutboxService {
     private final OutboxEventRepository outboxEventRepository;
     private final DomainEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final StageMetrics stageMetrics;
+    @Qualifier("taskExecutor")
+    private final Executor taskExecutor;
+
+    private final Set<Integer> relayingShards = ConcurrentHashMap.newKeySet();
 
     private static final int BATCH_SIZE = 10;
 
+    @PostConstruct
+    void registerBacklogGauge() {
+        stageMetrics.outboxBacklog(this, OutboxService::backlog);
+    }
+
     @Transactional
     public void storedEvent(DomainEvent event) {
         try {
@@ -33,6 +52,7 @@ public class OutboxService {
                     .eventId(event.getEventId())
                     .eventType(event.getClass().getName())
                     .payload(payload)
+                    .traceId(TraceContext.current())
                     .build();
 
             outboxEventRepository.save(outboxEvent);
@@ -41,25 +61,65 @@ public class OutboxService {
         }
     }
 
-    @Async
-    @Scheduled(fixedRate = 5000)
-    @Transactional
+    /**
+     * 샤드마다 독립적으로 아웃박스를 릴레이한다.
+     * 이전 릴레이가 끝나지 않은 샤드는 이번 주기를 건너뛰므로 느린 샤드가 다른 샤드를 막지 않는다.
+     * 주기 실행은 OutboxRelayScheduler 가 맡는다.
+     */
     public void processOutbox() {
+        for (int shard : shardRouter.shards()) {
+            if (!relayingShards.add(shard)) {
+                continue;
+            }
+            CompletableFuture.runAsync(() -> shardRouter.inShardTransaction(shard, this::relayBatch), taskExecutor)
+                    .whenComplete((ignored, ex) -> {
+                        relayingShards.remove(shard);
+                        if (ex != null) {
+                            log.error("Outbox relay failed on shard {}", shard, ex);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * 모든 샤드에서 아직 릴레이되지 않은 이벤트 수
+     */
+    public long backlog() {
+        long backlog = 0;
+        for (int shard : shardRouter.shards()) {
+            backlog += shardRouter.onShard(shard, outboxEventRepository::countByProcessedFalse);
+        }
+        return backlog;
+    }
+
+    private Void relayBatch() {
         List<OutboxEvent> events = outboxEventRepository.findUnprocessedEventsLimited(BATCH_SIZE);
 
         for (OutboxEvent event : events) {
-            try {
-                Class<?> eventClass = Class.forName(event.getEventType());
+            // 저장한 요청의 trace id 를 이어받아서, 발행된 이벤트의 리스너까지 같은 id 로 이어지게 한다.
+            TraceContext.run(event.getTraceId(), () -> relay(event));
+        }
+        return null;
+    }
 
-                DomainEvent domainEvent = (DomainEvent) objectMapper.readValue(event.getPayload(), eventClass);
-                eventPublisher.publish(domainEvent);
+    private void relay(OutboxEvent event) {
+        long started = System.nanoTime();
+        stageMetrics.outboxDwell(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+        boolean success = false;
+        try {
+            Class<?> eventClass = Class.forName(event.getEventType());
 
-                event.setProcessed(true);
-                event.setProcessedAt(LocalDateTime.now());
-                outboxEventRepository.save(event);
-            } catch (Exception e) {
-                log.error("Failed to process outbox event: {}", event.getEventId(), e);
-            }
+            DomainEvent domainEvent = (DomainEvent) objectMapper.readValue(event.getPayload(), eventClass);
+            eventPublisher.publish(domainEvent);
+
+            event.setProcessed(true);
+            event.setProcessedAt(LocalDateTime.now());
+            outboxEventRepository.save(event);
+            success = true;
+        } catch (Exception e) {
+            log.error("Failed to process outbox event: {}", event.getEventId(), e);
+        } finally {
+            stageMetrics.outboxRelay(success, System.nanoTime() - started);
         }
     }
 }
@@ -0,0 +1,113 @@
+package com.example.finance.infrastructure.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  거래를 만드는 POST /api/transactions/** 요청을 클라이언트별, userId 별 토큰 버킷으로 제한한다.
+ *  클라이언트는 호출자가 정할 수 없는 원격 주소로 구분한다. 헤더로 받은 값으로 나누면 요청마다 값을 바꿔서 새 버킷을 얻을 수 있다.
+ *  프록시 뒤에서는 server.forward-headers-strategy 로 신뢰하는 프록시가 전달한 주소를 원격 주소로 쓰게 한다.
+ *  한도를 넘으면 컨트롤러까지 가지 않고 429 와 Retry-After 로 응답하므로 JDBC 풀과 실행기를 차지하지 않는다.
+ *  응답에는 남은 토큰이 더 적은 쪽의 X-RateLimit-Limit/Remaining/Reset 헤더를 붙인다.
+ *  클라이언트 한도를 먼저 확인하고, 통과한 요청만 사용자 한도를 소비한다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "finance.rate-limit", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitProperties.class)
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String RESET_HEADER = "X-RateLimit-Reset";
+    private static final String SCOPE_HEADER = "X-RateLimit-Scope";
+    private static final String PATH_PREFIX = "/api/transactions";
+
+    private final TokenBucketTable clientBuckets;
+    private final TokenBucketTable userBuckets;
+
+    public RateLimitFilter(RateLimitProperties properties) {
+        this.clientBuckets = new TokenBucketTable(properties.client().permitsPerSecond(), properties.client().burst(),
+                properties.capacity(), properties.stripes());
+        this.userBuckets = new TokenBucketTable(properties.user().permitsPerSecond(), properties.user().burst(),
+                properties.capacity(), properties.stripes());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !request.getRequestURI().startsWith(PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TokenBucketTable.Decision client = clientBuckets.tryAcquire(TokenBucketTable.keyOf(request.getRemoteAddr()));
+        if (!client.allowed()) {
+            reject(response, "client", client);
+            return;
+        }
+
+        TokenBucketTable.Decision decision = client;
+        Long userId = userIdOf(request);
+        if (userId != null) {
+            TokenBucketTable.Decision user = userBuckets.tryAcquire(userId);
+            if (!user.allowed()) {
+                reject(response, "user", user);
+                return;
+            }
+            if (user.remaining() < client.remaining()) {
+                decision = user;
+            }
+        }
+        setRateLimitHeaders(response, decision);
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, String scope, TokenBucketTable.Decision decision) {
+        log.debug("Rate limited by {} limit", scope);
+        setRateLimitHeaders(response, decision);
+        response.setHeader(SCOPE_HEADER, scope);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ceilSeconds(decision.retryAfterNanos())));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    private static void setRateLimitHeaders(HttpServletResponse response, TokenBucketTable.Decision decision) {
+        response.setHeader(LIMIT_HEADER, String.valueOf(decision.limit()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(ceilSeconds(decision.resetNanos())));
+    }
+
+    /**
+     * 잘못된 userId 는 여기서 거르지 않고 컨트롤러의 검증에 맡긴다.
+     */
+    private static Long userIdOf(HttpServletRequest request) {
+        String userId = request.getParameter("userId");
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(userId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
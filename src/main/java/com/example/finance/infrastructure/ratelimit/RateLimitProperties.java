@@ -0,0 +1,34 @@
+package com.example.finance.infrastructure.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ *  finance.rate-limit.* 설정
+ *  user 는 userId 별, client 는 원격 주소별 한도이다.
+ *  capacity 는 동시에 한도를 소비 중인 키를 몇 개까지 기억할지이고, 메모리는 한도마다 capacity * 16 바이트로 고정된다.
+ */
+@ConfigurationProperties(prefix = "finance.rate-limit")
+public record RateLimitProperties(boolean enabled,
+                                  Limit user,
+                                  Limit client,
+                                  Integer capacity,
+                                  Integer stripes) {
+
+    public RateLimitProperties {
+        user = user == null ? new Limit(20.0, 40) : user;
+        client = client == null ? new Limit(200.0, 400) : client;
+        capacity = capacity == null ? 1 << 18 : capacity;
+        stripes = stripes == null ? 64 : stripes;
+    }
+
+    /**
+     * 초당 permitsPerSecond 개씩 채워지고 최대 burst 개까지 쌓이는 토큰 버킷
+     */
+    public record Limit(Double permitsPerSecond, Integer burst) {
+
+        public Limit {
+            permitsPerSecond = permitsPerSecond == null ? 20.0 : permitsPerSecond;
+            burst = burst == null ? 40 : burst;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.finance.infrastructure.ratelimit;
+
+/**
+ *  long 키별 토큰 버킷을 고정 크기 표에 담는다.
+ *
+ *  버킷은 "토큰이 다시 가득 차는 시각"(TAT) 하나로 표현한다. 요청마다 TAT 를 토큰 하나만큼 미루고,
+ *  TAT 가 지금보다 burst 개 분량 이상 앞서게 되면 거절한다 (GCRA 와 같은 계산).
+ *  TAT 가 지났으면 버킷이 가득 찬 것이고 처음 보는 키와 구별되지 않으므로, 그 칸은 언제든 다른 키가 써도 된다.
+ *  그래서 따로 정리하는 스레드 없이도 한동안 요청이 없던 키의 칸은 자연히 재사용된다.
+ *
+ *  표는 stripes 개의 구간으로 나뉘고 구간마다 락이 하나씩 있다. 키는 해시로 구간과 시작 칸이 정해지고,
+ *  시작 칸부터 PROBE 칸 안에서 자리를 찾는다. 그 안이 모두 사용 중이면 가장 먼저 가득 찰 버킷을 밀어낸다.
+ *  밀려난 키는 가득 찬 버킷으로 다시 시작하므로 한도가 잠시 느슨해질 뿐 메모리는 늘지 않는다.
+ */
+public final class TokenBucketTable {
+
+    private static final int PROBE = 8;
+
+    private final int burst;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final long origin = System.nanoTime();
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    public TokenBucketTable(double permitsPerSecond, int burst, int capacity, int stripes) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate and burst: "
+                    + permitsPerSecond + "/s, burst " + burst);
+        }
+        this.burst = burst;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.capacityNanos = intervalNanos * burst;
+        int segmentCount = powerOfTwoAtLeast(Math.max(1, stripes));
+        int slotsPerSegment = powerOfTwoAtLeast(Math.max(PROBE, capacity / segmentCount));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(slotsPerSegment);
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    public Decision tryAcquire(long key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    Decision tryAcquire(long key, long nanoTime) {
+        // 빈 칸의 TAT(0)보다 항상 크도록 1 부터 센다.
+        long now = nanoTime - origin + 1;
+        long hash = mix(key);
+        Segment segment = segments[(int) (hash >>> 32) & segmentMask];
+        synchronized (segment) {
+            return segment.acquire(key, (int) hash, now);
+        }
+    }
+
+    /**
+     * 문자열 키(클라이언트 id 등)를 표의 키로 바꾼다. 64비트 FNV-1a.
+     */
+    public static long keyOf(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * allowed 가 false 이면 retryAfterNanos 뒤에 토큰 하나가 생긴다. resetNanos 는 버킷이 다시 가득 찰 때까지의 시간이다.
+     */
+    public record Decision(boolean allowed, int limit, int remaining, long resetNanos, long retryAfterNanos) {
+    }
+
+    private final class Segment {
+        private final long[] keys;
+        private final long[] tats;
+        private final int mask;
+
+        Segment(int slots) {
+            this.keys = new long[slots];
+            this.tats = new long[slots];
+            this.mask = slots - 1;
+        }
+
+        Decision acquire(long key, int hash, long now) {
+            int home = hash & mask;
+            int free = -1;
+            int earliest = -1;
+            for (int probe = 0; probe < PROBE; probe++) {
+                int slot = (home + probe) & mask;
+                long tat = tats[slot];
+                if (tat <= now) {
+                    if (free < 0) {
+                        free = slot;
+                    }
+                } else if (keys[slot] == key) {
+                    return consume(slot, tat, now);
+                } else if (earliest < 0 || tat < tats[earliest]) {
+                    earliest = slot;
+                }
+            }
+            int slot = free >= 0 ? free : earliest;
+            keys[slot] = key;
+            return consume(slot, now, now);
+        }
+
+        private Decision consume(int slot, long tat, long now) {
+            long next = Math.max(tat, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > capacityNanos) {
+                return new Decision(false, burst, 0, tat - now, ahead - capacityNanos);
+            }
+            tats[slot] = next;
+            return new Decision(true, burst, (int) ((capacityNanos - ahead) / intervalNanos), ahead, 0);
+        }
+    }
+}
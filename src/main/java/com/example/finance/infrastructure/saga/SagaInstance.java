@@ -0,0 +1,41 @@
+package com.example.finance.infrastructure.saga;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ *  사가 실행 단위의 상태 로그
+ *  행은 SagaLog 가 배치로 기록하므로 id 는 애플리케이션에서 미리 생성한다.
+ */
+@Entity
+@Table(name = "saga_instances", indexes = @Index(name = "idx_saga_instances_status", columnList = "status"))
+@Getter @Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaInstance {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "saga_name", nullable = false)
+    private String sagaName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        RUNNING, COMPENSATING, COMPLETED, COMPENSATED
+    }
+}
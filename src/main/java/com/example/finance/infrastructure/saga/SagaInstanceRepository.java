@@ -0,0 +1,13 @@
+package com.example.finance.infrastructure.saga;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface SagaInstanceRepository extends JpaRepository<SagaInstance, UUID> {
+
+    List<SagaInstance> findByStatusInAndCreatedAtBefore(Collection<SagaInstance.Status> statuses, LocalDateTime createdAt);
+}
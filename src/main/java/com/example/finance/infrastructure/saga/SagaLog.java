@@ -0,0 +1,304 @@
+package com.example.finance.infrastructure.saga;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  사가 상태 전이를 saga_instances / saga_steps 에 기록한다.
+ *
+ *  대부분의 기록은 큐에 쌓였다가 writer 스레드가 batchSize 개 또는 flushInterval 마다 한 트랜잭션으로 저장한다.
+ *  보상이 필요한 단계의 완료 기록만은 recordStepInCurrentTransaction 으로 단계의 DB 작업과 같은 트랜잭션에 저장해서,
+ *  배치가 유실되더라도 복구 시 되돌려야 할 작업은 항상 남아 있도록 한다.
+ *  사가의 기록은 start 시점의 샤드에 모두 저장되므로, 사용자 샤드를 지정한 상태에서 start 를 호출해야 한다.
+ *
+ *  저장에 실패한 배치는 버리지 않는다. 샤드 단위 저장이 실패하면 사가별로 나눠 다시 저장하고, 그래도 실패한 사가의 기록은
+ *  retry-backoff 부터 max-retry-backoff 까지 두 배씩 늘어나는 간격으로 저장될 때까지 다시 시도한다. 재시도 중인 사가의
+ *  새 기록은 순서를 지키기 위해 그 뒤에 붙이고, 다른 사가의 기록은 기다리지 않고 저장한다. 기다리는 호출자에게는 첫 실패를
+ *  그대로 알린다. 종료할 때까지 저장하지 못한 기록은 내용을 로그로 남긴다.
+ */
+@Component
+@Slf4j
+public class SagaLog {
+
+    private static final String INSERT_INSTANCE =
+            "INSERT INTO saga_instances (id, saga_name, status, created_at) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_INSTANCE =
+            "UPDATE saga_instances SET status = ?, updated_at = ? WHERE id = ?";
+    private static final String INSERT_STEP =
+            "INSERT INTO saga_steps (saga_id, saga_name, step_name, status, result_ref, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+
+    private final BlockingQueue<Record> queue = new LinkedBlockingQueue<>();
+    private final Map<UUID, Integer> sagaShards = new ConcurrentHashMap<>();
+    // writer 스레드만 다룬다. 종료 후에는 stop 이 넘겨받는다.
+    private final List<Record> retrying = new ArrayList<>();
+    private long backoffMillis;
+    private long nextRetryAt;
+    private volatile boolean running;
+    private Thread writer;
+
+    public SagaLog(JdbcTemplate jdbcTemplate,
+                   TransactionTemplate transactionTemplate,
+                   ShardRouter shardRouter,
+                   @Value("${finance.saga.log.batch-size:256}") int batchSize,
+                   @Value("${finance.saga.log.flush-interval:PT0.01S}") Duration flushInterval,
+                   @Value("${finance.saga.log.retry-backoff:PT0.05S}") Duration retryBackoff,
+                   @Value("${finance.saga.log.max-retry-backoff:PT5S}") Duration maxRetryBackoff) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.retryBackoffMillis = Math.max(1, retryBackoff.toMillis());
+        this.maxRetryBackoffMillis = Math.max(this.retryBackoffMillis, maxRetryBackoff.toMillis());
+        this.backoffMillis = this.retryBackoffMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "SagaLog-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        List<Record> remaining = new ArrayList<>(retrying);
+        retrying.clear();
+        queue.drainTo(remaining);
+        List<Record> failed = flush(remaining);
+        if (!failed.isEmpty()) {
+            log.error("Discarding {} saga log records that could not be written: {}", failed.size(), failed);
+        }
+    }
+
+    public UUID start(String sagaName) {
+        UUID sagaId = UUID.randomUUID();
+        register(sagaId, sagaName);
+        return sagaId;
+    }
+
+    /**
+     * 이미 id 가 정해진 사가의 인스턴스 행을 RUNNING 으로 기록한다. 인스턴스 행 없이 남은 단계 기록을 복구할 때 사용한다.
+     */
+    public CompletableFuture<Void> register(UUID sagaId, String sagaName) {
+        sagaShards.put(sagaId, ShardRouter.currentShard());
+        return enqueue(new Record(Kind.INSERT_INSTANCE, sagaId, sagaName, SagaInstance.Status.RUNNING.name(),
+                null, null, LocalDateTime.now(), shardOf(sagaId), new CompletableFuture<>()));
+    }
+
+    public CompletableFuture<Void> updateStatus(UUID sagaId, SagaInstance.Status status) {
+        CompletableFuture<Void> flushed = enqueue(new Record(Kind.UPDATE_INSTANCE, sagaId, null, status.name(),
+                null, null, LocalDateTime.now(), shardOf(sagaId), new CompletableFuture<>()));
+        if (status == SagaInstance.Status.COMPLETED || status == SagaInstance.Status.COMPENSATED) {
+            sagaShards.remove(sagaId);
+        }
+        return flushed;
+    }
+
+    public void recordStep(UUID sagaId, String sagaName, String stepName, SagaStepLog.Status status, String resultRef) {
+        enqueue(new Record(Kind.INSERT_STEP, sagaId, sagaName, status.name(),
+                stepName, resultRef, LocalDateTime.now(), shardOf(sagaId), new CompletableFuture<>()));
+    }
+
+    /**
+     * 현재 트랜잭션 안에서 바로 단계 완료를 기록한다. 단계의 DB 작업과 함께 커밋되거나 함께 롤백된다.
+     */
+    public void recordStepInCurrentTransaction(UUID sagaId, String sagaName, String stepName, String resultRef) {
+        jdbcTemplate.update(INSERT_STEP, sagaId, sagaName, stepName, SagaStepLog.Status.COMPLETED.name(),
+                resultRef, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private CompletableFuture<Void> enqueue(Record record) {
+        queue.add(record);
+        return record.flushed;
+    }
+
+    private int shardOf(UUID sagaId) {
+        Integer shard = sagaShards.get(sagaId);
+        return shard != null ? shard : ShardRouter.currentShard();
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                long waitMillis = retrying.isEmpty() ? flushIntervalMillis
+                        : Math.max(0, Math.min(flushIntervalMillis, nextRetryAt - System.currentTimeMillis()));
+                Record first = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+                List<Record> batch = new ArrayList<>(batchSize);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                write(batch, System.currentTimeMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in saga log writer", e);
+            }
+        }
+    }
+
+    /**
+     * 재시도 중인 사가의 새 기록은 재시도 목록 뒤에 붙이고, 재시도할 때가 되었으면 목록 전체를 새 기록 앞에 둔다.
+     */
+    void write(List<Record> batch, long now) {
+        Set<UUID> blocked = new HashSet<>();
+        retrying.forEach(record -> blocked.add(record.sagaId));
+        List<Record> ready = new ArrayList<>(batch.size() + retrying.size());
+        boolean retryDue = !retrying.isEmpty() && now >= nextRetryAt;
+        if (retryDue) {
+            ready.addAll(retrying);
+            retrying.clear();
+        }
+        for (Record record : batch) {
+            if (blocked.contains(record.sagaId) && !retryDue) {
+                retrying.add(record);
+            } else {
+                ready.add(record);
+            }
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        List<Record> failed = flush(ready);
+        if (failed.isEmpty()) {
+            if (retryDue) {
+                backoffMillis = retryBackoffMillis;
+            }
+            return;
+        }
+        // 실패한 기록은 그 사가의 다음 기록보다 앞에 있어야 한다.
+        retrying.addAll(0, failed);
+        nextRetryAt = now + backoffMillis;
+        log.warn("Retrying {} saga log records in {} ms", retrying.size(), backoffMillis);
+        backoffMillis = Math.min(backoffMillis * 2, maxRetryBackoffMillis);
+    }
+
+    List<Record> drain() {
+        List<Record> batch = new ArrayList<>(batchSize);
+        queue.drainTo(batch, batchSize);
+        return batch;
+    }
+
+    int retryingCount() {
+        return retrying.size();
+    }
+
+    /**
+     * 샤드마다 한 트랜잭션으로 저장하고, 실패한 샤드의 기록은 사가별로 나눠 다시 저장한다. 저장하지 못한 기록을 순서대로 돌려준다.
+     */
+    private List<Record> flush(List<Record> batch) {
+        Map<Integer, List<Record>> byShard = new TreeMap<>();
+        for (Record record : batch) {
+            byShard.computeIfAbsent(record.shard, shard -> new ArrayList<>()).add(record);
+        }
+        List<Record> failed = new ArrayList<>();
+        for (Map.Entry<Integer, List<Record>> entry : byShard.entrySet()) {
+            int shard = entry.getKey();
+            RuntimeException error = write(shard, entry.getValue());
+            if (error == null) {
+                continue;
+            }
+            log.warn("Failed to write {} saga log records on shard {}", entry.getValue().size(), shard, error);
+            Map<UUID, List<Record>> bySaga = new LinkedHashMap<>();
+            for (Record record : entry.getValue()) {
+                bySaga.computeIfAbsent(record.sagaId, sagaId -> new ArrayList<>()).add(record);
+            }
+            if (bySaga.size() == 1) {
+                failed.addAll(entry.getValue());
+                continue;
+            }
+            for (List<Record> records : bySaga.values()) {
+                if (write(shard, records) != null) {
+                    failed.addAll(records);
+                }
+            }
+        }
+        return failed;
+    }
+
+    private RuntimeException write(int shard, List<Record> records) {
+        try {
+            shardRouter.runOnShard(shard, () -> flushShard(records));
+            records.forEach(record -> record.flushed.complete(null));
+            return null;
+        } catch (RuntimeException e) {
+            records.forEach(record -> record.flushed.completeExceptionally(e));
+            return e;
+        }
+    }
+
+    private void flushShard(List<Record> batch) {
+        List<Object[]> instanceInserts = new ArrayList<>();
+        List<Object[]> instanceUpdates = new ArrayList<>();
+        List<Object[]> stepInserts = new ArrayList<>();
+        for (Record record : batch) {
+            Timestamp at = Timestamp.valueOf(record.at);
+            switch (record.kind) {
+                case INSERT_INSTANCE -> instanceInserts.add(new Object[]{record.sagaId, record.sagaName, record.status, at});
+                case UPDATE_INSTANCE -> instanceUpdates.add(new Object[]{record.status, at, record.sagaId});
+                case INSERT_STEP -> stepInserts.add(new Object[]{record.sagaId, record.sagaName, record.stepName,
+                        record.status, record.resultRef, at});
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!instanceInserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_INSTANCE, instanceInserts);
+            }
+            if (!stepInserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_STEP, stepInserts);
+            }
+            if (!instanceUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_INSTANCE, instanceUpdates);
+            }
+        });
+    }
+
+    enum Kind {
+        INSERT_INSTANCE, UPDATE_INSTANCE, INSERT_STEP
+    }
+
+    record Record(Kind kind, UUID sagaId, String sagaName, String status, String stepName,
+                  String resultRef, LocalDateTime at, int shard, CompletableFuture<Void> flushed) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.finance.infrastructure.saga;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ *  사가 단계의 완료/보상 기록
+ *  resultRef 는 복구 시 보상에 필요한 최소한의 값(예: 생성된 거래 id)이다.
+ */
+@Entity
+@Table(name = "saga_steps", indexes = @Index(name = "idx_saga_steps_saga_id", columnList = "saga_id"))
+@Getter @Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaStepLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "saga_id", nullable = false)
+    private UUID sagaId;
+
+    @Column(name = "saga_name", nullable = false)
+    private String sagaName;
+
+    @Column(name = "step_name", nullable = false)
+    private String stepName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "result_ref")
+    private String resultRef;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public enum Status {
+        COMPLETED, COMPENSATED
+    }
+}
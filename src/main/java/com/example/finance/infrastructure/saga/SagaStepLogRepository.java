@@ -0,0 +1,20 @@
+package com.example.finance.infrastructure.saga;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface SagaStepLogRepository extends JpaRepository<SagaStepLog, Long> {
+
+    List<SagaStepLog> findBySagaIdOrderByIdAsc(UUID sagaId);
+
+    /**
+     * 단계 기록은 즉시 저장되지만 인스턴스 행은 배치로 저장되므로, 인스턴스 행이 기록되기 전에 중단된 사가를 찾는다.
+     */
+    @Query("SELECT DISTINCT s.sagaId, s.sagaName FROM SagaStepLog s " +
+            "WHERE s.createdAt < ?1 AND NOT EXISTS (SELECT i FROM SagaInstance i WHERE i.id = s.sagaId)")
+    List<Object[]> findOrphanSagas(LocalDateTime createdBefore);
+}
@@ -0,0 +1,194 @@
+package com.example.finance.infrastructure.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ *  계층형 타이밍 휠
+ *
+ *  시간은 tickMillis 단위 틱으로 센다. 레벨마다 64 칸이 있고 레벨 l 의 한 칸은 64^l 틱을 덮는다.
+ *  만료 시각이 가까운 항목은 낮은 레벨에, 먼 항목은 높은 레벨에 들어가고, 높은 레벨의 칸은 그 칸의 구간이 시작될 때
+ *  한 단계 아래 레벨로 옮겨진다(cascade). 항목 하나는 만료될 때까지 최대 LEVELS 번 옮겨지므로
+ *  추가, 취소, 만료 모두 항목 수와 상관없이 상수 시간이다. 칸은 항목끼리 직접 연결한 이중 연결 리스트라서 취소도 상수 시간이다.
+ *
+ *  만료 시각은 틱 단위로 올림하므로 항목이 예정보다 일찍 만료되지는 않는다. 스레드 안전하지 않으므로 호출하는 쪽에서 동기화한다.
+ */
+public final class TimingWheel<T> {
+
+    private static final int LEVEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << LEVEL_BITS;
+    private static final int SLOT_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 6;
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final Timer<T>[][] slots;
+    // 가장 높은 레벨의 범위(64^6 틱)를 넘는 항목. 가장 높은 레벨이 한 바퀴 돌 때마다 다시 배치한다.
+    private final Timer<T> overflow = new Timer<>(null, 0);
+    // 추가할 때 이미 만료 시각이 지난 항목. 다음 advanceTo 에서 바로 만료된다.
+    private final Timer<T> overdue = new Timer<>(null, 0);
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.originMillis = nowMillis;
+        this.slots = new Timer[LEVELS][WHEEL_SIZE];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                slots[level][slot] = new Timer<>(null, 0);
+            }
+        }
+    }
+
+    public Timer<T> schedule(T value, long deadlineMillis) {
+        Timer<T> timer = new Timer<>(value, Math.ceilDiv(deadlineMillis - originMillis, tickMillis));
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * 아직 만료되지 않은 항목이면 빼고 true 를 돌려준다.
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.next == null) {
+            return false;
+        }
+        timer.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * nowMillis 까지 시간을 진행하고 그동안 만료된 항목을 만료 시각 순서로 돌려준다.
+     */
+    public List<T> advanceTo(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        drainOverdue(expired);
+        long targetTick = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        if (size == 0 && targetTick > currentTick) {
+            currentTick = targetTick;
+            return expired;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            // cascade 중에 이번 틱이 만료 시각인 항목은 overdue 로 들어간다.
+            drain(overdue, expired);
+            drain(slots[0][(int) (currentTick & SLOT_MASK)], expired);
+        }
+        return expired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 현재 틱이 높은 레벨 칸의 구간 시작이면 그 칸의 항목을 낮은 레벨로 옮긴다. 높은 레벨부터 옮겨야 여러 단계를 한 번에 내려갈 수 있다.
+     */
+    private void cascade() {
+        if ((currentTick & ((1L << (LEVEL_BITS * LEVELS)) - 1)) == 0) {
+            replaceAll(overflow);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (LEVEL_BITS * level)) - 1)) == 0) {
+                replaceAll(slots[level][(int) ((currentTick >>> (LEVEL_BITS * level)) & SLOT_MASK)]);
+            }
+        }
+    }
+
+    private void replaceAll(Timer<T> head) {
+        Timer<T> timer = head.next;
+        while (timer != head) {
+            Timer<T> next = timer.next;
+            timer.unlink();
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private void drain(Timer<T> head, List<T> expired) {
+        Timer<T> timer = head.next;
+        while (timer != head) {
+            Timer<T> next = timer.next;
+            timer.unlink();
+            size--;
+            expired.add(timer.value);
+            timer = next;
+        }
+    }
+
+    /**
+     * 지난 시각으로 추가된 항목은 추가된 순서로 쌓여 있으므로 만료 시각 순서로 정렬해서 꺼낸다.
+     */
+    private void drainOverdue(List<T> expired) {
+        List<Timer<T>> timers = new ArrayList<>();
+        for (Timer<T> timer = overdue.next; timer != overdue; timer = timer.next) {
+            timers.add(timer);
+        }
+        timers.sort(Comparator.comparingLong(timer -> timer.deadlineTick));
+        for (Timer<T> timer : timers) {
+            timer.unlink();
+            size--;
+            expired.add(timer.value);
+        }
+    }
+
+    /**
+     * 현재 틱과 같은 상위 구간에 있는 가장 낮은 레벨에 넣는다.
+     */
+    private void place(Timer<T> timer) {
+        long deadline = timer.deadlineTick;
+        if (deadline <= currentTick) {
+            timer.linkBefore(overdue);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (((deadline ^ currentTick) >>> (LEVEL_BITS * (level + 1))) == 0) {
+                timer.linkBefore(slots[level][(int) ((deadline >>> (LEVEL_BITS * level)) & SLOT_MASK)]);
+                return;
+            }
+        }
+        timer.linkBefore(overflow);
+    }
+
+    /**
+     * schedule 이 돌려주는 항목. 칸의 머리 노드로도 쓰인다.
+     */
+    public static final class Timer<T> {
+        private final T value;
+        private final long deadlineTick;
+        private Timer<T> prev = this;
+        private Timer<T> next = this;
+
+        private Timer(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T value() {
+            return value;
+        }
+
+        private void linkBefore(Timer<T> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.finance.infrastructure.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ *  finance.replica.* 설정
+ *  urls 는 샤드 순서대로 하나씩 지정하고, 샤드 수보다 많으면 앞에서부터 샤드 수만큼만 사용한다.
+ *  stand-in-sync 는 로컬 H2 복제본을 주 DB 와 맞춰 주는 대체 복제기로, 실제 복제를 쓰는 환경에서는 끈다.
+ */
+@ConfigurationProperties(prefix = "finance.replica")
+public record ReplicaProperties(boolean enabled,
+                                List<String> urls,
+                                String username,
+                                String password,
+                                Integer maxPoolSize,
+                                Boolean standInSync,
+                                Duration syncInterval,
+                                List<String> tables) {
+
+    public ReplicaProperties {
+        urls = urls == null ? List.of() : List.copyOf(urls);
+        username = username == null ? "sa" : username;
+        password = password == null ? "" : password;
+        maxPoolSize = maxPoolSize == null ? 10 : maxPoolSize;
+        standInSync = standInSync == null || standInSync;
+        syncInterval = syncInterval == null ? Duration.ofSeconds(1) : syncInterval;
+        tables = tables == null ? List.of("users", "categories", "transactions", "budgets", "recurring_transactions") : List.copyOf(tables);
+    }
+}
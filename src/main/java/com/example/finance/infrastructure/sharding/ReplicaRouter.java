@@ -0,0 +1,117 @@
+package com.example.finance.infrastructure.sharding;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ *  readOnly 트랜잭션의 조회를 복제본으로 보내고, 복제 지연 때문에 자신이 쓴 데이터를 못 보는 일이 없도록 한다.
+ *
+ *  쓰기가 커밋될 때마다 전역 쓰기 위치를 하나 올려서 사용자와 샤드의 마지막 쓰기 위치(watermark)로 기록한다.
+ *  복제본이 어느 위치까지 반영했는지는 markApplied 로 전달받고, 사용자의 watermark 가 그보다 앞서 있는 동안에만
+ *  그 사용자의 조회를 주 DB 로 보낸다. 로컬에서는 ReplicaSynchronizer 가, 운영에서는 복제 지연을 확인하는 쪽이 호출한다.
+ */
+@Component
+public class ReplicaRouter {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final ShardRouter shardRouter;
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLongArray appliedPositions;
+    private final AtomicLongArray shardWatermarks;
+    private final Map<Long, Long> userWatermarks = new ConcurrentHashMap<>();
+
+    public ReplicaRouter(ReplicaProperties properties, ShardRouter shardRouter) {
+        this.enabled = properties.enabled();
+        this.shardRouter = shardRouter;
+        this.appliedPositions = new AtomicLongArray(shardRouter.shardCount());
+        this.shardWatermarks = new AtomicLongArray(shardRouter.shardCount());
+    }
+
+    /**
+     * 현재 스레드의 연결을 복제본으로 보낼지 여부. readOnly 트랜잭션이면서 주 DB 가 강제되지 않은 경우에만 복제본을 쓴다.
+     */
+    public static boolean isReplicaRead() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_FORCED.get() == null;
+    }
+
+    public <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            }
+        }
+    }
+
+    public void runOnPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 사용자의 마지막 쓰기가 복제본에 반영됐으면 true
+     */
+    public boolean isCaughtUp(Long userId) {
+        Long watermark = userWatermarks.get(userId);
+        return watermark == null || watermark <= appliedPositions.get(shardRouter.shardOfUser(userId));
+    }
+
+    /**
+     * 샤드의 마지막 쓰기가 복제본에 반영됐으면 true. 사용자를 알 수 없는 조회에서 사용한다.
+     */
+    public boolean isShardCaughtUp(int shard) {
+        return shardWatermarks.get(shard) <= appliedPositions.get(shard);
+    }
+
+    /**
+     * 사용자의 데이터를 바꾼 쓰기를 기록한다. 트랜잭션 안이면 커밋된 뒤에 위치가 정해진다.
+     */
+    public void recordWrite(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance(userId);
+                }
+            });
+        } else {
+            advance(userId);
+        }
+    }
+
+    /**
+     * 지금까지 커밋된 쓰기의 위치. 복제를 시작하기 전에 읽어 두면 그 위치까지의 쓰기는 모두 복제 대상에 포함된다.
+     */
+    public long writePosition() {
+        return writePosition.get();
+    }
+
+    public void markApplied(int shard, long position) {
+        appliedPositions.accumulateAndGet(shard, position, Math::max);
+        userWatermarks.entrySet().removeIf(entry ->
+                shardRouter.shardOfUser(entry.getKey()) == shard && entry.getValue() <= position);
+    }
+
+    private void advance(Long userId) {
+        long position = writePosition.incrementAndGet();
+        userWatermarks.merge(userId, position, Math::max);
+        shardWatermarks.accumulateAndGet(shardRouter.shardOfUser(userId), position, Math::max);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.finance.infrastructure.sharding;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *  로컬 H2 복제본을 주 DB 와 맞춰 주는 대체 복제기
+ *  sync-interval 마다 샤드별로 복제 대상 테이블을 통째로 다시 복사하고, 복사 직전의 쓰기 위치를 ReplicaRouter 에 알린다.
+ *  그 사이의 간격이 곧 복제 지연이므로, 간격을 늘려서 read-your-writes 동작을 확인할 수 있다.
+ */
+@Component
+@ConditionalOnExpression("${finance.replica.enabled:false} and ${finance.replica.stand-in-sync:true}")
+@DependsOnDatabaseInitialization
+@Slf4j
+public class ReplicaSynchronizer {
+
+    private final ShardDataSources shardDataSources;
+    private final ReplicaRouter replicaRouter;
+    private final List<String> tables;
+    private final List<TransactionTemplate> replicaTransactions = new ArrayList<>();
+
+    public ReplicaSynchronizer(ShardDataSources shardDataSources,
+                               ReplicaRouter replicaRouter,
+                               ReplicaProperties properties,
+                               ObjectProvider<ShardInitializer> shardInitializer) {
+        // 샤드 스키마와 id 정렬이 끝난 뒤에 복제본을 만든다.
+        shardInitializer.getIfAvailable();
+        this.shardDataSources = shardDataSources;
+        this.replicaRouter = replicaRouter;
+        this.tables = properties.tables();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            replicaTransactions.add(new TransactionTemplate(
+                    new DataSourceTransactionManager(shardDataSources.replica(shard))));
+        }
+    }
+
+    @PostConstruct
+    void initializeReplicas() {
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            JdbcTemplate replica = new JdbcTemplate(shardDataSources.replica(shard));
+            if (!ShardInitializer.hasTable(replica, "TRANSACTIONS")) {
+                ShardInitializer.schemaScript(new JdbcTemplate(shardDataSources.get(shard))).forEach(replica::execute);
+            }
+            synchronize(shard);
+        }
+        log.info("Initialized {} replicas", shardDataSources.size());
+    }
+
+    @Scheduled(fixedDelayString = "${finance.replica.sync-interval:PT1S}")
+    public void synchronizeReplicas() {
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            try {
+                synchronize(shard);
+            } catch (Exception e) {
+                log.error("Failed to synchronize replica of shard {}", shard, e);
+            }
+        }
+    }
+
+    private void synchronize(int shard) {
+        long position = replicaRouter.writePosition();
+        JdbcTemplate primary = new JdbcTemplate(shardDataSources.get(shard));
+        List<TableRows> snapshot = tables.stream()
+                .map(table -> TableRows.read(primary, table))
+                .toList();
+
+        JdbcTemplate replica = new JdbcTemplate(shardDataSources.replica(shard));
+        replicaTransactions.get(shard).executeWithoutResult(status -> {
+            // 외래 키 순서를 지키도록 참조하는 테이블부터 지우고, 참조되는 테이블부터 넣는다.
+            for (int i = snapshot.size() - 1; i >= 0; i--) {
+                replica.update("DELETE FROM " + snapshot.get(i).table());
+            }
+            snapshot.forEach(rows -> rows.insertInto(replica));
+        });
+        replicaRouter.markApplied(shard, position);
+    }
+}
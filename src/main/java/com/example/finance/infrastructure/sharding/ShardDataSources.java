@@ -0,0 +1,43 @@
+package com.example.finance.infrastructure.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ *  샤드 번호 순서대로 정렬된 실제 DataSource 목록. 샤드 초기화처럼 라우팅을 거치지 않아야 하는 작업에서 사용한다.
+ *  replicas 는 복제본을 쓰지 않으면 비어 있다.
+ */
+public record ShardDataSources(List<DataSource> dataSources, List<DataSource> replicas) implements AutoCloseable {
+
+    public DataSource get(int shard) {
+        return dataSources.get(shard);
+    }
+
+    public int size() {
+        return dataSources.size();
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * 샤드의 복제본. 복제본을 쓰지 않으면 주 DB 를 반환한다.
+     */
+    public DataSource replica(int shard) {
+        return hasReplicas() ? replicas.get(shard) : dataSources.get(shard);
+    }
+
+    @Override
+    public void close() {
+        for (List<DataSource> group : List.of(dataSources, replicas)) {
+            for (DataSource dataSource : group) {
+                if (dataSource instanceof HikariDataSource hikari) {
+                    hikari.close();
+                }
+            }
+        }
+    }
+}
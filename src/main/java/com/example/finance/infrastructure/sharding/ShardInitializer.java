@@ -0,0 +1,84 @@
+package com.example.finance.infrastructure.sharding;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ *  로컬 H2 샤드를 초기화한다.
+ *  JPA 가 0번 샤드에 만든 스키마를 H2 의 SCRIPT NODATA 로 나머지 샤드에 복사하고, 참조 데이터(사용자, 카테고리)를 복제한다.
+ *  거래 id 는 샤드마다 (shard + 1) 부터 샤드 수만큼 증가하도록 맞춰서 전체 샤드에서 겹치지 않게 한다.
+ *  운영 DB 에서는 스키마를 마이그레이션 도구로 샤드마다 적용하고 이 클래스의 id 정렬만 같은 방식으로 맞추면 된다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "finance.sharding", name = "enabled", havingValue = "true")
+@DependsOnDatabaseInitialization
+@RequiredArgsConstructor
+@Slf4j
+public class ShardInitializer {
+
+    private static final List<String> REFERENCE_TABLES = List.of("users", "categories");
+
+    private final ShardDataSources shardDataSources;
+
+    @PostConstruct
+    void initializeShards() {
+        JdbcTemplate primary = new JdbcTemplate(shardDataSources.get(0));
+        List<String> schema = schemaScript(primary);
+
+        for (int shard = 1; shard < shardDataSources.size(); shard++) {
+            JdbcTemplate target = new JdbcTemplate(shardDataSources.get(shard));
+            if (!hasTable(target, "TRANSACTIONS")) {
+                schema.forEach(target::execute);
+            }
+            for (String table : REFERENCE_TABLES) {
+                copyIfEmpty(primary, target, table);
+            }
+        }
+
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            alignTransactionIds(new JdbcTemplate(shardDataSources.get(shard)), shard);
+        }
+        log.info("Initialized {} transaction shards", shardDataSources.size());
+    }
+
+    /**
+     * H2 의 SCRIPT NODATA 로 데이터 없이 스키마만 만드는 DDL 을 얻는다.
+     */
+    static List<String> schemaScript(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SCRIPT NODATA", String.class).stream()
+                .filter(statement -> !statement.startsWith("--"))
+                .toList();
+    }
+
+    static boolean hasTable(JdbcTemplate jdbcTemplate, String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ?",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private void copyIfEmpty(JdbcTemplate source, JdbcTemplate target, String table) {
+        Integer existing = target.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        TableRows.read(source, table).insertInto(target);
+    }
+
+    private void alignTransactionIds(JdbcTemplate jdbcTemplate, int shard) {
+        int shardCount = shardDataSources.size();
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM transactions", Long.class);
+        long next = (maxId == null ? 0 : maxId) + 1;
+        next += Math.floorMod(shard + 1 - next, (long) shardCount);
+
+        jdbcTemplate.execute("ALTER TABLE transactions ALTER COLUMN id SET INCREMENT BY " + shardCount);
+        jdbcTemplate.execute("ALTER TABLE transactions ALTER COLUMN id RESTART WITH " + next);
+    }
+}
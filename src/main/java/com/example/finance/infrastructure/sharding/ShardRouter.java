@@ -0,0 +1,94 @@
+package com.example.finance.infrastructure.sharding;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ *  userId 기준으로 거래와 아웃박스를 저장할 샤드를 정하고, 현재 스레드의 샤드를 지정한다.
+ *
+ *  거래 id 는 샤드마다 (shard + 1) 부터 샤드 수만큼 증가하도록 맞춰 두므로 id 만으로도 샤드를 알 수 있다.
+ *  사용자와 카테고리는 모든 샤드에 복제된 참조 데이터이므로 어느 샤드에서 읽어도 된다.
+ *  샤드는 트랜잭션이 시작되기 전에, 또는 아직 SQL 이 실행되지 않은 트랜잭션 안에서 지정해야 한다.
+ */
+@Component
+public class ShardRouter {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final int shardCount;
+    private final TransactionTemplate transactionTemplate;
+
+    public ShardRouter(ShardingProperties properties, TransactionTemplate transactionTemplate) {
+        this.shardCount = properties.shardCount();
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * 현재 스레드에 지정된 샤드. 지정되지 않았으면 0번 샤드를 사용한다.
+     */
+    public static int currentShard() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public List<Integer> shards() {
+        return IntStream.range(0, shardCount).boxed().toList();
+    }
+
+    public int shardOfUser(Long userId) {
+        return (int) Math.floorMod(userId, (long) shardCount);
+    }
+
+    public int shardOfTransaction(Long transactionId) {
+        return (int) Math.floorMod(transactionId - 1, (long) shardCount);
+    }
+
+    public <T> T onUserShard(Long userId, Supplier<T> action) {
+        return onShard(shardOfUser(userId), action);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        if (previous != null && previous != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(
+                    "Cannot switch from shard " + previous + " to shard " + shard + " inside a transaction");
+        }
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void runOnShard(int shard, Runnable action) {
+        onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 사용자 샤드에서 트랜잭션을 실행한다. 이미 트랜잭션 안이라면 그 트랜잭션에 참여한다.
+     */
+    public <T> T inUserTransaction(Long userId, Supplier<T> action) {
+        return onUserShard(userId, () -> transactionTemplate.execute(status -> action.get()));
+    }
+
+    public <T> T inShardTransaction(int shard, Supplier<T> action) {
+        return onShard(shard, () -> transactionTemplate.execute(status -> action.get()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.finance.infrastructure.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ *  현재 스레드의 샤드와 읽기/쓰기 역할에 해당하는 DataSource 로 연결을 위임한다.
+ *  샤드는 ShardRouter 가, 복제본 사용 여부는 ReplicaRouter 가 정한다.
+ *  LazyConnectionDataSourceProxy 뒤에 두어서 트랜잭션 시작 시점이 아니라 첫 SQL 실행 시점에 대상이 결정되게 한다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return new Route(ShardRouter.currentShard(), ReplicaRouter.isReplicaRead());
+    }
+
+    public record Route(int shard, boolean replica) {
+    }
+}
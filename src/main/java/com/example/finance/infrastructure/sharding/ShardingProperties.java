@@ -0,0 +1,28 @@
+package com.example.finance.infrastructure.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ *  finance.sharding.* 설정
+ *  enabled 가 false 면 기본 DataSource 하나를 그대로 사용하고 모든 요청은 0번 샤드로 취급한다.
+ */
+@ConfigurationProperties(prefix = "finance.sharding")
+public record ShardingProperties(boolean enabled,
+                                 List<String> urls,
+                                 String username,
+                                 String password,
+                                 Integer maxPoolSize) {
+
+    public ShardingProperties {
+        urls = urls == null ? List.of() : List.copyOf(urls);
+        username = username == null ? "sa" : username;
+        password = password == null ? "" : password;
+        maxPoolSize = maxPoolSize == null ? 10 : maxPoolSize;
+    }
+
+    public int shardCount() {
+        return enabled && !urls.isEmpty() ? urls.size() : 1;
+    }
+}
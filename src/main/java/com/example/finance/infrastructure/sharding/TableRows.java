@@ -0,0 +1,44 @@
+package com.example.finance.infrastructure.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.rowset.SqlRowSet;
+import org.springframework.jdbc.support.rowset.SqlRowSetMetaData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ *  테이블 하나의 전체 행을 읽어 두었다가 다른 DB 에 그대로 넣는다. 로컬 H2 샤드와 복제본을 채울 때 사용한다.
+ */
+record TableRows(String table, List<String> columns, List<Object[]> rows) {
+
+    static TableRows read(JdbcTemplate source, String table) {
+        SqlRowSet rowSet = source.queryForRowSet("SELECT * FROM " + table);
+        SqlRowSetMetaData metaData = rowSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(metaData.getColumnName(i));
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        while (rowSet.next()) {
+            Object[] values = new Object[columnCount];
+            for (int i = 1; i <= columnCount; i++) {
+                values[i - 1] = rowSet.getObject(i);
+            }
+            rows.add(values);
+        }
+        return new TableRows(table, columns, rows);
+    }
+
+    void insertInto(JdbcTemplate target) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        target.batchUpdate(sql, rows);
+    }
+}
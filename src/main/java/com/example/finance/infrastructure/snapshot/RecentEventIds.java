@@ -0,0 +1,63 @@
+package com.example.finance.infrastructure.snapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *  최근에 반영한 이벤트 id
+ *  스냅샷을 쓸 때마다 rotate 로 한 세대씩 밀어서 직전 두 스냅샷 주기 안에 반영한 id 만 남긴다.
+ *  스냅샷의 아웃박스 위치는 한 주기 전에 읽은 것이므로, 그 뒤에 반영한 이벤트는 모두 이 안에 있다.
+ *  add 가 rotate, writeTo 와 겹치지 않도록 하는 것은 쓰는 쪽이 맡는다.
+ */
+public final class RecentEventIds {
+
+    private volatile Set<UUID> previous = ConcurrentHashMap.newKeySet();
+    private volatile Set<UUID> current = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 처음 보는 id 면 기록하고 true 를 돌려준다. id 가 없는 이벤트는 항상 처음 보는 것으로 본다.
+     */
+    public boolean add(UUID eventId) {
+        if (eventId == null) {
+            return true;
+        }
+        return !previous.contains(eventId) && current.add(eventId);
+    }
+
+    public void rotate() {
+        previous = current;
+        current = ConcurrentHashMap.newKeySet();
+    }
+
+    public int size() {
+        return previous.size() + current.size();
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(size());
+        for (Set<UUID> generation : List.of(previous, current)) {
+            for (UUID eventId : generation) {
+                out.writeLong(eventId.getMostSignificantBits());
+                out.writeLong(eventId.getLeastSignificantBits());
+            }
+        }
+    }
+
+    /**
+     * 읽은 id 는 모두 이전 세대로 둔다.
+     */
+    public void readFrom(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Set<UUID> loaded = ConcurrentHashMap.newKeySet(size);
+        for (int i = 0; i < size; i++) {
+            loaded.add(new UUID(in.readLong(), in.readLong()));
+        }
+        previous = loaded;
+        current = ConcurrentHashMap.newKeySet();
+    }
+}
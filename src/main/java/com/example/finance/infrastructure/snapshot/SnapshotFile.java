@@ -0,0 +1,210 @@
+package com.example.finance.infrastructure.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ *  메모리 구조들의 상태를 한 파일에 담은 스냅샷
+ *
+ *  샤드마다 스냅샷에 이미 반영된 아웃박스 id(watermark)와 그 위치를 읽은 시각을 두고, 그 뒤에 구조별 구역을 이름과 함께 둔다.
+ *  파일은 메모리 매핑으로 쓰고 읽는다. 읽을 때 구역은 매핑된 영역을 그대로 가리키므로 힙으로 복사하지 않는다.
+ *
+ *  [magic][version][createdAt][watermarkAt] [샤드 수][(shard, watermark) ...] [구역 수][(이름, 길이, 내용) ...] [crc][magic]
+ *  버전 1 파일에는 watermarkAt 이 없으며 읽지 않는다.
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x534e4150;
+    private static final int FORMAT_VERSION = 2;
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final Instant createdAt;
+    private final Instant watermarkAt;
+    private final Map<Integer, Long> watermarks;
+    private final Map<String, ByteBuffer> sections;
+
+    private SnapshotFile(Instant createdAt, Instant watermarkAt, Map<Integer, Long> watermarks,
+                         Map<String, ByteBuffer> sections) {
+        this.createdAt = createdAt;
+        this.watermarkAt = watermarkAt;
+        this.watermarks = watermarks;
+        this.sections = sections;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * watermark 를 읽기 시작한 시각
+     */
+    public Instant watermarkAt() {
+        return watermarkAt;
+    }
+
+    public Map<Integer, Long> watermarks() {
+        return watermarks;
+    }
+
+    /**
+     * 구역 내용을 읽는 스트림. 호출할 때마다 처음부터 읽는다.
+     */
+    public Optional<InputStream> section(String name) {
+        ByteBuffer section = sections.get(name);
+        return section == null ? Optional.empty() : Optional.of(new BufferInputStream(section.duplicate()));
+    }
+
+    /**
+     * 임시 파일에 매핑해서 쓰고 디스크에 반영한 뒤 target 으로 원자적으로 교체한다.
+     */
+    public static void write(Path target, Instant createdAt, Instant watermarkAt, Map<Integer, Long> watermarks,
+                             Map<String, byte[]> sections) throws IOException {
+        byte[][] names = new byte[sections.size()][];
+        long size = 2 * Integer.BYTES + 2 * Long.BYTES + Integer.BYTES
+                + (long) watermarks.size() * (Integer.BYTES + Long.BYTES) + Integer.BYTES + FOOTER_BYTES;
+        int index = 0;
+        for (Map.Entry<String, byte[]> section : sections.entrySet()) {
+            names[index] = section.getKey().getBytes(StandardCharsets.UTF_8);
+            size += 2 * Integer.BYTES + names[index].length + section.getValue().length;
+            index++;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large: " + size + " bytes");
+        }
+
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(FORMAT_VERSION);
+            buffer.putLong(createdAt.toEpochMilli());
+            buffer.putLong(watermarkAt.toEpochMilli());
+            buffer.putInt(watermarks.size());
+            for (Map.Entry<Integer, Long> watermark : new TreeMap<>(watermarks).entrySet()) {
+                buffer.putInt(watermark.getKey());
+                buffer.putLong(watermark.getValue());
+            }
+            buffer.putInt(sections.size());
+            index = 0;
+            for (byte[] content : sections.values()) {
+                buffer.putInt(names[index].length);
+                buffer.put(names[index]);
+                buffer.putInt(content.length);
+                buffer.put(content);
+                index++;
+            }
+            buffer.putLong(checksum(buffer, buffer.position()));
+            buffer.putInt(MAGIC);
+            buffer.force();
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 파일이 잘렸거나 체크섬이 맞지 않으면 IOException 을 던진다.
+     */
+    public static SnapshotFile read(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE || size < 4 * Integer.BYTES + 2 * Long.BYTES + FOOTER_BYTES) {
+                throw new IOException("Unsupported snapshot size " + size + ": " + source);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int end = (int) size - FOOTER_BYTES;
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(end + Long.BYTES) != MAGIC) {
+                throw new IOException("Not a snapshot: " + source);
+            }
+            if (buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + buffer.getInt(Integer.BYTES) + ": " + source);
+            }
+            if (buffer.getLong(end) != checksum(buffer, end)) {
+                throw new IOException("Corrupt snapshot: " + source);
+            }
+
+            try {
+                buffer.position(2 * Integer.BYTES);
+                Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+                Instant watermarkAt = Instant.ofEpochMilli(buffer.getLong());
+                int shardCount = buffer.getInt();
+                Map<Integer, Long> watermarks = new TreeMap<>();
+                for (int i = 0; i < shardCount; i++) {
+                    watermarks.put(buffer.getInt(), buffer.getLong());
+                }
+                int sectionCount = buffer.getInt();
+                Map<String, ByteBuffer> sections = new LinkedHashMap<>();
+                for (int i = 0; i < sectionCount; i++) {
+                    byte[] name = new byte[buffer.getInt()];
+                    buffer.get(name);
+                    int length = buffer.getInt();
+                    sections.put(new String(name, StandardCharsets.UTF_8),
+                            buffer.slice(buffer.position(), length).asReadOnlyBuffer());
+                    buffer.position(buffer.position() + length);
+                }
+                if (buffer.position() != end) {
+                    throw new IOException("Corrupt snapshot layout: " + source);
+                }
+                return new SnapshotFile(createdAt, watermarkAt, Collections.unmodifiableMap(watermarks),
+                        Collections.unmodifiableMap(sections));
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt snapshot layout: " + source, e);
+            }
+        }
+    }
+
+    private static long checksum(ByteBuffer buffer, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(0).limit(length));
+        return crc.getValue();
+    }
+
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.finance.infrastructure.snapshot;
+
+import com.example.finance.domain.event.DomainEvent;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ *  스냅샷에 상태를 저장하고 기동할 때 되살리는 메모리 구조
+ *  빈으로 등록되어 있으면 SnapshotService 가 주기마다 writeSnapshot 을 호출한다.
+ *  되살릴 때는 readSnapshot 다음에, 스냅샷 이후에 처리된 아웃박스 이벤트 중 replayedEvents 타입만 replay 로 전달한다.
+ */
+public interface SnapshotParticipant {
+
+    /**
+     * 스냅샷 파일 안에서 이 구조의 구역 이름. 형식이 바뀌면 이름도 바꿔서 예전 구역을 읽지 않게 한다.
+     */
+    String snapshotName();
+
+    Set<Class<? extends DomainEvent>> replayedEvents();
+
+    /**
+     * 아직 상태를 다 만들지 못했으면 false. 이때는 스냅샷을 쓰지 않는다.
+     */
+    boolean readyForSnapshot();
+
+    void writeSnapshot(DataOutputStream out) throws IOException;
+
+    /**
+     * 읽다가 실패하면 IOException 을 던지고 상태를 바꾸지 않아야 한다.
+     */
+    void readSnapshot(DataInputStream in) throws IOException;
+
+    /**
+     * 스냅샷에 이미 들어있는 이벤트가 다시 올 수 있으므로 이벤트 id 로 중복을 거른다.
+     */
+    void replay(DomainEvent event);
+}
@@ -0,0 +1,25 @@
+package com.example.finance.infrastructure.snapshot;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ *  finance.snapshot.* 설정
+ *  max-age 보다 오래된 스냅샷은 다시 반영할 아웃박스 이벤트가 많으므로 쓰지 않고 DB 에서 다시 만든다.
+ */
+@ConfigurationProperties(prefix = "finance.snapshot")
+public record SnapshotProperties(boolean enabled,
+                                 Path path,
+                                 Duration interval,
+                                 Duration maxAge,
+                                 Integer replayBatchSize) {
+
+    public SnapshotProperties {
+        path = path == null ? Path.of("data", "snapshot", "state.snap") : path;
+        interval = interval == null ? Duration.ofMinutes(1) : interval;
+        maxAge = maxAge == null ? Duration.ofDays(1) : maxAge;
+        replayBatchSize = replayBatchSize == null ? 500 : replayBatchSize;
+    }
+}
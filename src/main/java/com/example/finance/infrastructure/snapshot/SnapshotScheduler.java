@@ -0,0 +1,40 @@
+package com.example.finance.infrastructure.snapshot;
+
+import com.example.finance.infrastructure.startup.DeferredInitialization;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ *  스냅샷 주기 실행
+ *  interval 마다, 그리고 종료할 때 스냅샷을 쓴다.
+ */
+@Component
+@DeferredInitialization
+@ConditionalOnProperty(prefix = "finance.snapshot", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SnapshotScheduler {
+
+    private final SnapshotService snapshotService;
+
+    @Scheduled(fixedDelayString = "${finance.snapshot.interval:PT1M}",
+            initialDelayString = "${finance.snapshot.interval:PT1M}")
+    public void write() {
+        try {
+            snapshotService.write();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to write snapshot", e);
+        }
+    }
+
+    @PreDestroy
+    void writeOnShutdown() {
+        write();
+    }
+}
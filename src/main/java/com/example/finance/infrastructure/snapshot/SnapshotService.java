@@ -0,0 +1,223 @@
+package com.example.finance.infrastructure.snapshot;
+
+import com.example.finance.domain.event.DomainEvent;
+import com.example.finance.infrastructure.outbox.OutboxEvent;
+import com.example.finance.infrastructure.outbox.OutboxEventRepository;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+/**
+ *  메모리 구조의 스냅샷 저장과 기동 시 복원
+ *
+ *  write 는 등록된 SnapshotParticipant 의 상태를 path 에 쓰고, 샤드마다 한 주기 전에 읽어 둔 아웃박스 위치와
+ *  그 위치를 읽은 시각을 watermark 로 붙인다. 그때까지 처리된 이벤트는 리스너가 이미 반영했을 만큼 시간이 지났고,
+ *  그 뒤에 반영한 이벤트는 참여자가 RecentEventIds 로 기억하고 있으므로 복원 후 다시 반영할 때 중복을 거를 수 있다.
+ *
+ *  restore 는 기동할 때 참여자가 직접 호출한다. 스냅샷의 구역을 읽고 watermark 이후에 처리된 이벤트만 다시 반영하므로
+ *  전체를 DB 에서 다시 계산하지 않는다. 위치는 처리된 가장 큰 id 라서 처리에 계속 실패하는 행이 있어도 앞으로 나간다.
+ *  그 id 이하인데 위치를 읽을 때 아직 처리되지 않았던 이벤트(늦게 커밋되었거나, 릴레이가 밀렸거나, 실패 후 다시 처리된 것)는
+ *  그 시각 이후에 처리되므로, processed_at 이 watermark 시각 이후인 이벤트도 함께 다시 반영한다.
+ *  스냅샷이 없거나, 오래됐거나, 샤드 구성이 다르면 false 를 돌려주고 참여자는 예전처럼 DB 에서 상태를 만든다.
+ *  아직 처리되지 않은 이벤트는 릴레이를 거쳐 리스너로 전달된다.
+ */
+@Service
+@EnableConfigurationProperties(SnapshotProperties.class)
+@Slf4j
+public class SnapshotService {
+
+    private final SnapshotProperties properties;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ShardRouter shardRouter;
+    private final ReplicaRouter replicaRouter;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<SnapshotParticipant> participants;
+    private volatile SnapshotFile loaded;
+    private Map<Integer, Long> previousPositions;
+    private Instant previousPositionsAt;
+
+    public SnapshotService(SnapshotProperties properties,
+                           OutboxEventRepository outboxEventRepository,
+                           ShardRouter shardRouter,
+                           ReplicaRouter replicaRouter,
+                           ObjectMapper objectMapper,
+                           ObjectProvider<SnapshotParticipant> participants) {
+        this.properties = properties;
+        this.outboxEventRepository = outboxEventRepository;
+        this.shardRouter = shardRouter;
+        this.replicaRouter = replicaRouter;
+        this.objectMapper = objectMapper;
+        this.participants = participants;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * 스냅샷을 읽을 수 없으면 없는 것으로 본다.
+     */
+    @PostConstruct
+    void load() {
+        if (!properties.enabled() || !Files.exists(properties.path())) {
+            return;
+        }
+        try {
+            SnapshotFile snapshot = SnapshotFile.read(properties.path());
+            Duration age = Duration.between(snapshot.createdAt(), Instant.now());
+            if (age.compareTo(properties.maxAge()) > 0) {
+                log.info("Ignoring snapshot {} written {} ago", properties.path(), age);
+                return;
+            }
+            if (!snapshot.watermarks().keySet().equals(Set.copyOf(shardRouter.shards()))) {
+                log.info("Ignoring snapshot {} written for shards {}", properties.path(), snapshot.watermarks().keySet());
+                return;
+            }
+            loaded = snapshot;
+            log.info("Loaded snapshot {} written at {} with outbox watermarks {}",
+                    properties.path(), snapshot.createdAt(), snapshot.watermarks());
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable snapshot {}", properties.path(), e);
+        }
+    }
+
+    /**
+     * 참여자의 구역을 읽고 스냅샷 이후의 이벤트를 다시 반영한다. 복원하지 못했으면 false 를 돌려준다.
+     */
+    public boolean restore(SnapshotParticipant participant) {
+        SnapshotFile snapshot = loaded;
+        if (snapshot == null) {
+            return false;
+        }
+        Optional<InputStream> section = snapshot.section(participant.snapshotName());
+        if (section.isEmpty()) {
+            return false;
+        }
+        long started = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(section.get())) {
+            participant.readSnapshot(in);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable snapshot section {}", participant.snapshotName(), e);
+            return false;
+        }
+        long replayed = replay(snapshot, participant);
+        log.info("Restored {} from snapshot and replayed {} outbox events in {} ms",
+                participant.snapshotName(), replayed, (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * 첫 호출은 아웃박스 위치만 기록한다. 참여자 중 하나라도 준비되지 않았으면 이번 주기는 건너뛴다.
+     */
+    public synchronized void write() throws IOException {
+        Map<Integer, Long> watermarks = previousPositions;
+        Instant watermarkAt = previousPositionsAt;
+        previousPositionsAt = Instant.now();
+        previousPositions = outboxPositions();
+        if (watermarks == null) {
+            return;
+        }
+        List<SnapshotParticipant> registered = participants.orderedStream().toList();
+        if (registered.isEmpty() || !registered.stream().allMatch(SnapshotParticipant::readyForSnapshot)) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        Map<String, byte[]> sections = new LinkedHashMap<>();
+        for (SnapshotParticipant participant : registered) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                participant.writeSnapshot(out);
+            }
+            sections.put(participant.snapshotName(), bytes.toByteArray());
+        }
+        SnapshotFile.write(properties.path(), Instant.now(), watermarkAt, watermarks, sections);
+        log.debug("Wrote snapshot of {} with outbox watermarks {} in {} ms",
+                sections.keySet(), watermarks, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * 샤드마다 처리된 가장 큰 아웃박스 id. 그보다 작은 id 가 아직 처리되지 않았을 수 있다.
+     */
+    private Map<Integer, Long> outboxPositions() {
+        Map<Integer, Long> positions = new TreeMap<>();
+        for (int shard : shardRouter.shards()) {
+            positions.put(shard, replicaRouter.onPrimary(() -> shardRouter.onShard(shard, () -> {
+                Long max = outboxEventRepository.findMaxProcessedId();
+                return max == null ? 0L : max;
+            })));
+        }
+        return positions;
+    }
+
+    private long replay(SnapshotFile snapshot, SnapshotParticipant participant) {
+        Set<String> eventTypes = participant.replayedEvents().stream()
+                .map(Class::getName)
+                .collect(Collectors.toSet());
+        Limit limit = Limit.of(properties.replayBatchSize());
+        LocalDateTime processedSince = LocalDateTime.ofInstant(snapshot.watermarkAt(), ZoneId.systemDefault());
+        long replayed = 0;
+        for (Map.Entry<Integer, Long> watermark : snapshot.watermarks().entrySet()) {
+            int shard = watermark.getKey();
+            long upTo = watermark.getValue();
+            replayed += replay(shard, participant, 0, after -> outboxEventRepository
+                    .findByIdBetweenAndProcessedTrueAndProcessedAtGreaterThanEqualAndEventTypeInOrderByIdAsc(
+                            after + 1, upTo, processedSince, eventTypes, limit));
+            replayed += replay(shard, participant, upTo, after -> outboxEventRepository
+                    .findByIdGreaterThanAndProcessedTrueAndEventTypeInOrderByIdAsc(after, eventTypes, limit));
+        }
+        return replayed;
+    }
+
+    /**
+     * nextBatch 로 after 보다 큰 id 의 이벤트를 id 순으로 읽어서 다 떨어질 때까지 반영한다.
+     */
+    private long replay(int shard, SnapshotParticipant participant, long after,
+                        LongFunction<List<OutboxEvent>> nextBatch) {
+        long replayed = 0;
+        while (true) {
+            long from = after;
+            List<OutboxEvent> batch = replicaRouter.onPrimary(() -> shardRouter.onShard(shard,
+                    () -> nextBatch.apply(from)));
+            for (OutboxEvent event : batch) {
+                try {
+                    Class<?> eventClass = Class.forName(event.getEventType());
+                    participant.replay((DomainEvent) objectMapper.readValue(event.getPayload(), eventClass));
+                    replayed++;
+                } catch (Exception e) {
+                    log.error("Failed to replay outbox event {} into {}",
+                            event.getEventId(), participant.snapshotName(), e);
+                }
+                after = event.getId();
+            }
+            if (batch.size() < properties.replayBatchSize()) {
+                return replayed;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.finance.infrastructure.startup;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ *  요청 처리에 필요하지 않은 빈 표시
+ *  finance.startup.defer-non-critical 이 켜져 있으면 기동 중에는 만들지 않고, 기동이 끝난 뒤 백그라운드에서 만든다.
+ *  다른 빈이 주입받는 빈에 붙이면 그 빈이 만들어질 때 같이 만들어지므로 효과가 없다.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DeferredInitialization {
+}
@@ -0,0 +1,43 @@
+package com.example.finance.infrastructure.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ *  @DeferredInitialization 이 붙은 빈을 lazy 로 바꾼다.
+ *  AOT 처리 시에는 빌드 시점의 설정으로 한 번 실행되고, 그 결과가 생성된 빈 정의에 그대로 남는다.
+ */
+@Component
+@Slf4j
+public class DeferredInitializationPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    static final String ENABLED_PROPERTY = "finance.startup.defer-non-critical";
+
+    private boolean enabled;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.enabled = environment.getProperty(ENABLED_PROPERTY, Boolean.class, false);
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (!enabled) {
+            return;
+        }
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            Class<?> type = beanFactory.getType(name, false);
+            if (type != null && AnnotatedElementUtils.hasAnnotation(type, DeferredInitialization.class)) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                definition.setLazyInit(true);
+                log.debug("Deferring initialization of bean '{}'", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.finance.infrastructure.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ *  기동이 끝나면 미뤄 둔 빈을 만든다. 이때 @Scheduled 작업이 등록되고 @PostConstruct 가 실행된다.
+ *  ApplicationReadyEvent 는 taskExecutor 에서 처리되므로 요청 처리 스레드를 막지 않는다.
+ */
+@Component
+@Slf4j
+public class DeferredInitializer {
+
+    private final ApplicationContext applicationContext;
+    private final boolean enabled;
+
+    public DeferredInitializer(ApplicationContext applicationContext,
+                               @Value("${" + DeferredInitializationPostProcessor.ENABLED_PROPERTY + ":false}") boolean enabled) {
+        this.applicationContext = applicationContext;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeDeferredBeans() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        String[] names = applicationContext.getBeanNamesForAnnotation(DeferredInitialization.class);
+        for (String name : names) {
+            try {
+                applicationContext.getBean(name);
+            } catch (Exception e) {
+                log.error("Failed to initialize deferred bean '{}'", name, e);
+            }
+        }
+        log.info("Initialized {} deferred beans in {} ms", names.length, (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.finance.infrastructure.tracing;
+
+import org.slf4j.MDC;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ *  요청 하나를 따라가는 trace id
+ *  MDC 의 traceId 키에 두므로 로그 패턴에서 바로 찍힌다. 스레드를 건너갈 때는 wrap 으로 감싸거나
+ *  TraceTaskDecorator 가 붙은 실행기를 쓰고, 아웃박스를 건너갈 때는 OutboxEvent.traceId 로 옮긴다.
+ */
+public final class TraceContext {
+
+    public static final String MDC_KEY = "traceId";
+    public static final String HEADER = "X-Trace-Id";
+
+    private TraceContext() {
+    }
+
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+
+    /**
+     * 128비트 난수를 32자리 16진수로 만든다. (W3C traceparent 의 trace-id 형식)
+     */
+    public static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return HexFormat.of().toHexDigits(random.nextLong()) + HexFormat.of().toHexDigits(random.nextLong());
+    }
+
+    public static <T> T with(String traceId, Supplier<T> action) {
+        String previous = current();
+        set(traceId);
+        try {
+            return action.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    public static void run(String traceId, Runnable action) {
+        with(traceId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * 현재 trace id 를 잡아 두었다가 다른 스레드에서 실행될 때 다시 설정한다.
+     */
+    public static Runnable wrap(Runnable action) {
+        String traceId = current();
+        return () -> run(traceId, action);
+    }
+
+    public static <T> Supplier<T> wrap(Supplier<T> action) {
+        String traceId = current();
+        return () -> with(traceId, action);
+    }
+
+    static void set(String traceId) {
+        if (traceId == null) {
+            MDC.remove(MDC_KEY);
+        } else {
+            MDC.put(MDC_KEY, traceId);
+        }
+    }
+}
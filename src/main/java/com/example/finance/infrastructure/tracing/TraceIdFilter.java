@@ -0,0 +1,41 @@
+package com.example.finance.infrastructure.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ *  요청의 X-Trace-Id 를 이어받거나 새로 만들고, 응답 헤더로도 돌려준다.
+ *  비동기 응답(CompletableFuture)은 실행기의 TraceTaskDecorator 가 이어서 전달한다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceIdFilter extends OncePerRequestFilter {
+
+    private static final Pattern VALID = Pattern.compile("[0-9A-Za-z\\-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = request.getHeader(TraceContext.HEADER);
+        if (traceId == null || !VALID.matcher(traceId).matches()) {
+            traceId = TraceContext.newTraceId();
+        }
+        response.setHeader(TraceContext.HEADER, traceId);
+        String previous = TraceContext.current();
+        TraceContext.set(traceId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TraceContext.set(previous);
+        }
+    }
+}
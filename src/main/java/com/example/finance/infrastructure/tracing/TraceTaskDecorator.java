@@ -0,0 +1,15 @@
+package com.example.finance.infrastructure.tracing;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ *  작업을 제출한 스레드의 trace id 를 실행 스레드로 옮긴다. @Async, 이벤트 멀티캐스터, CompletableFuture 의
+ *  *Async(..., executor) 호출 모두 ThreadPoolTaskExecutor.execute 를 거치므로 여기서 한 번에 처리된다.
+ */
+public class TraceTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return TraceContext.wrap(runnable);
+    }
+}
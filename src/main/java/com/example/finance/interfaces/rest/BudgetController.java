@@ -0,0 +1,41 @@
+package com.example.finance.interfaces.rest;
+
+import com.example.finance.application.service.BudgetService;
+import com.example.finance.domain.model.Budget;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users/{userId}/budgets")
+@RequiredArgsConstructor
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    @GetMapping
+    public ResponseEntity<List<Budget>> getBudgets(@PathVariable Long userId) {
+        return ResponseEntity.ok(budgetService.getBudgets(userId));
+    }
+
+    /**
+     * 카테고리의 월 한도를 정한다. 이번 달 지출이 이미 임계값을 넘었으면 바로 알림이 나간다.
+     */
+    @PutMapping("/{categoryId}")
+    public ResponseEntity<Budget> setBudget(@PathVariable Long userId,
+                                            @PathVariable Long categoryId,
+                                            @RequestParam BigDecimal monthlyLimit) {
+        return ResponseEntity.ok(budgetService.setBudget(userId, categoryId, monthlyLimit));
+    }
+
+    @DeleteMapping("/{categoryId}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable Long userId, @PathVariable Long categoryId) {
+        if (budgetService.deleteBudget(userId, categoryId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
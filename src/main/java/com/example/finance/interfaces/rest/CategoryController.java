@@ -0,0 +1,64 @@
+package com.example.finance.interfaces.rest;
+
+import com.example.finance.application.service.CategoryService;
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.model.CategoryTotal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/categories")
+@RequiredArgsConstructor
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    /**
+     * 트리 순서로 돌려준다. 부모 바로 다음에 하위 카테고리가 온다.
+     */
+    @GetMapping
+    public ResponseEntity<List<Category>> getCategories() {
+        return ResponseEntity.ok(categoryService.getCategories());
+    }
+
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<List<Category>> getSubtree(@PathVariable Long id) {
+        return categoryService.getSubtree(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * parentId 가 없으면 최상위 카테고리로 만든다.
+     */
+    @PostMapping
+    public ResponseEntity<Category> createCategory(@RequestParam String name,
+                                                   @RequestParam(required = false) String description,
+                                                   @RequestParam(required = false) Long parentId) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(categoryService.createCategory(name, description, parentId));
+    }
+
+    /**
+     * 하위 카테고리와 함께 parentId 밑으로 옮긴다. parentId 가 없으면 최상위로 옮긴다.
+     */
+    @PutMapping("/{id}/parent")
+    public ResponseEntity<Category> moveCategory(@PathVariable Long id,
+                                                 @RequestParam(required = false) Long parentId) {
+        return ResponseEntity.ok(categoryService.moveCategory(id, parentId));
+    }
+
+    /**
+     * 사용자의 월별 카테고리 합계. 각 합계에는 하위 카테고리의 거래가 포함된다. month 가 없으면 이번 달이다.
+     */
+    @GetMapping("/totals")
+    public ResponseEntity<List<CategoryTotal>> getTotals(@RequestParam Long userId,
+                                                         @RequestParam(required = false) YearMonth month) {
+        return ResponseEntity.ok(categoryService.getTotals(userId, month == null ? YearMonth.now() : month));
+    }
+}
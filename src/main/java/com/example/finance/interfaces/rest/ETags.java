@@ -0,0 +1,76 @@
+package com.example.finance.interfaces.rest;
+
+import com.example.finance.domain.model.Transaction;
+
+import java.util.List;
+
+/**
+ *  거래 리소스의 강한 ETag 를 만든다.
+ *  본문을 직렬화하지 않고 id 와 버전만으로 계산하므로 If-None-Match 비교 비용이 작다.
+ *  단건 ETag 는 "id-version" 형태라서 If-Match 에서 기대 버전을 바로 꺼낼 수 있다.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Transaction transaction) {
+        return "\"" + transaction.getId() + "-" + revision(transaction) + "\"";
+    }
+
+    static String of(List<Transaction> transactions) {
+        long hash = 1125899906842597L;
+        for (Transaction transaction : transactions) {
+            hash = 31 * hash + transaction.getId();
+            hash = 31 * hash + revision(transaction);
+        }
+        return "\"" + transactions.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * If-None-Match 헤더 값 중 하나라도 etag 와 일치하면 true. (weak 비교, "*" 포함)
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Match 헤더에서 기대 버전을 꺼낸다. 헤더가 없거나 "*" 이면 null,
+     * 해석할 수 없는 값이면 어떤 버전과도 일치하지 않는 -1 을 반환한다.
+     * If-Match 는 strong 비교만 허용하므로(RFC 9110 13.1.1) W/ 태그도 -1 이다.
+     */
+    static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        tag = tag.substring(1, tag.length() - 1);
+        try {
+            return Long.parseLong(tag.substring(tag.lastIndexOf('-') + 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static long revision(Transaction transaction) {
+        return transaction.getVersion() != null ? transaction.getVersion() : 0L;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.finance.interfaces.rest;
+
+import com.example.finance.application.service.RecurringTransactionService;
+import com.example.finance.domain.model.RecurringTransaction;
+import com.example.finance.domain.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users/{userId}/recurring-transactions")
+@RequiredArgsConstructor
+public class RecurringTransactionController {
+
+    private final RecurringTransactionService recurringTransactionService;
+
+    @GetMapping
+    public ResponseEntity<List<RecurringTransaction>> getRecurringTransactions(@PathVariable Long userId) {
+        return ResponseEntity.ok(recurringTransactionService.getRecurringTransactions(userId));
+    }
+
+    @PostMapping
+    public ResponseEntity<RecurringTransaction> createRecurringTransaction(
+            @PathVariable Long userId,
+            @RequestParam Long categoryId,
+            @RequestParam BigDecimal amount,
+            @RequestParam String description,
+            @RequestParam Transaction.TransactionType type,
+            @RequestParam RecurringTransaction.Frequency frequency,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startAt,
+            @RequestParam(required = false) String currency) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(recurringTransactionService.createRecurringTransaction(
+                userId, categoryId, amount, currency, description, type, frequency, startAt));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurringTransaction(@PathVariable Long userId, @PathVariable Long id) {
+        if (recurringTransactionService.deleteRecurringTransaction(userId, id)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
@@ -1,20 +1,27 @@
 package com.example.finance.interfaces.rest;
 
 import com.example.finance.application.service.SagaOrchestrationService;
+import com.example.finance.application.service.TransactionIngestionService;
+import com.example.finance.application.service.TransactionQueryService;
+import com.example.finance.application.service.TransactionSearchCriteria;
 import com.example.finance.application.service.TransactionService;
 import com.example.finance.domain.model.Transaction;
-import com.example.finance.domain.repository.TransactionRepository;
-import com.example.finance.domain.repository.UserRepository;
+import com.example.finance.infrastructure.idempotency.IdempotencyStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -22,21 +29,50 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class TransactionController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_SEARCH_LIMIT = 1000;
+
     private final TransactionService transactionService;
     private final SagaOrchestrationService sagaOrchestrationService;
-    private final TransactionRepository transactionRepository;
-    private final UserRepository userRepository;
+    private final TransactionQueryService transactionQueryService;
+    private final TransactionIngestionService transactionIngestionService;
+    private final IdempotencyStore idempotencyStore;
 
+    /**
+     * group-commit 모드가 켜져 있으면 요청을 모아서 커밋하고, 응답은 자신이 속한 묶음이 커밋된 뒤에 나간다.
+     */
     @PostMapping
-    public ResponseEntity<Transaction> createTransaction(
+    public CompletableFuture<ResponseEntity<Transaction>> createTransaction(
             @RequestParam Long userId,
             @RequestParam Long categoryId,
             @RequestParam BigDecimal amount,
             @RequestParam String description,
-            @RequestParam Transaction.TransactionType type) {
+            @RequestParam Transaction.TransactionType type,
+            @RequestParam(required = false) String currency,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+
+        String fingerprint = fingerprint("create", userId, categoryId, amount, currency, description, type);
+        if (transactionIngestionService.isEnabled()) {
+            return idempotent(idempotencyKey, fingerprint,
+                    () -> transactionIngestionService.submit(userId, categoryId, amount, currency, description, type)
+                            .thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction)));
+        }
+
+        if (idempotencyKey == null) {
+            return CompletableFuture.completedFuture(
+                    doCreateTransaction(userId, categoryId, amount, currency, description, type));
+        }
+
+        return CompletableFuture.completedFuture(idempotencyStore.execute(idempotencyKey, fingerprint,
+                () -> doCreateTransaction(userId, categoryId, amount, currency, description, type),
+                response -> response.getStatusCode().is2xxSuccessful()));
+    }
 
+    private ResponseEntity<Transaction> doCreateTransaction(Long userId, Long categoryId, BigDecimal amount,
+                                                            String currency, String description,
+                                                            Transaction.TransactionType type) {
         Transaction transaction = transactionService.createTransaction(
-                userId, categoryId, amount, description, type);
+                userId, categoryId, amount, currency, description, type);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(transaction);
     }
@@ -51,14 +87,17 @@ public class TransactionController {
             @RequestParam Long categoryId,
             @RequestParam BigDecimal amount,
             @RequestParam String description,
-            @RequestParam Transaction.TransactionType type) {
-
-        return transactionService.createTransactionWithSaga(userId, categoryId, amount, description, type)
-                .thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction))
-                .exceptionally(ex -> {
-                    log.error("Error creating transaction with choreography saga", ex);
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-                });
+            @RequestParam Transaction.TransactionType type,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+
+        return idempotent(idempotencyKey,
+                fingerprint("saga/choreography", userId, categoryId, amount, null, description, type),
+                () -> transactionService.createTransactionWithSaga(userId, categoryId, amount, description, type)
+                        .thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction))
+                        .exceptionally(ex -> {
+                            log.error("Error creating transaction with choreography saga", ex);
+                            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                        }));
     }
 
     /**
@@ -71,14 +110,17 @@ public class TransactionController {
             @RequestParam Long categoryId,
             @RequestParam BigDecimal amount,
             @RequestParam String description,
-            @RequestParam Transaction.TransactionType type) {
-
-        return sagaOrchestrationService.executeTransactionSaga(userId, categoryId, amount, description, type)
-                .thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction))
-                .exceptionally(ex -> {
-                    log.error("Error creating transaction with orchestration saga", ex);
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-                });
+            @RequestParam Transaction.TransactionType type,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+
+        return idempotent(idempotencyKey,
+                fingerprint("saga/orchestration", userId, categoryId, amount, null, description, type),
+                () -> sagaOrchestrationService.executeTransactionSaga(userId, categoryId, amount, description, type)
+                        .thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction))
+                        .exceptionally(ex -> {
+                            log.error("Error creating transaction with orchestration saga", ex);
+                            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                        }));
     }
 
     /**
@@ -91,28 +133,116 @@ public class TransactionController {
             @RequestParam Long categoryId,
             @RequestParam BigDecimal amount,
             @RequestParam String description,
-            @RequestParam Transaction.TransactionType type) {
+            @RequestParam Transaction.TransactionType type,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
 
-        return createTransactionWithChoreographySaga(userId, categoryId, amount, description, type);
+        return createTransactionWithChoreographySaga(userId, categoryId, amount, description, type, idempotencyKey);
     }
 
     @GetMapping
     public ResponseEntity<List<Transaction>> getAllTransactions() {
-        List<Transaction> transactions = transactionRepository.findAll();
+        List<Transaction> transactions = transactionQueryService.findAll();
         return ResponseEntity.ok(transactions);
     }
 
+    /**
+     * 조건을 조합해서 거래를 찾는다. 같은 조건을 여러 번 주면 그중 하나만 맞아도 되고, 결과는 id 순이다.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Transaction>> searchTransactions(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Set<Transaction.TransactionType> type,
+            @RequestParam(required = false) Set<Long> categoryId,
+            @RequestParam(required = false) YearMonth from,
+            @RequestParam(required = false) YearMonth to,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(defaultValue = "100") int limit) {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria(
+                userId, type, categoryId, from, to, minAmount, maxAmount);
+        return ResponseEntity.ok(transactionQueryService.search(criteria,
+                Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT))));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Transaction> getTransactionById(@PathVariable Long id) {
-        return transactionRepository.findById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<Transaction> getTransactionById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return transactionQueryService.findById(id)
+                .map(transaction -> conditional(ETags.of(transaction), ifNoneMatch, transaction))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Transaction>> getTransactionsByUser(@PathVariable Long userId) {
-        return userRepository.findById(userId)
-                .map(user -> ResponseEntity.ok(transactionRepository.findByUser(user)))
+    public ResponseEntity<List<Transaction>> getTransactionsByUser(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return transactionQueryService.findByUser(userId)
+                .map(transactions -> conditional(ETags.of(transactions), ifNoneMatch, transactions))
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * 주어진 필드만 수정한다. If-Match 가 있으면 그 ETag 의 버전과 현재 버전이 같을 때만 수정하고, 다르면 412 를 반환한다.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Transaction> updateTransaction(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal amount,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) Transaction.TransactionType type,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return transactionService.updateTransaction(id, categoryId, amount, description, type, ETags.versionOf(ifMatch))
+                .map(transaction -> ResponseEntity.ok().eTag(ETags.of(transaction)).body(transaction))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTransaction(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (transactionService.deleteTransaction(id, ETags.versionOf(ifMatch))) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 버전 확인 이후 커밋 전에 다른 요청이 먼저 수정한 경우
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleConcurrentModification(OptimisticLockingFailureException e) {
+        log.warn("Concurrent modification detected: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    /**
+     * If-None-Match 가 현재 ETag 와 일치하면 본문 없이 304 를 반환한다.
+     */
+    private static <T> ResponseEntity<T> conditional(String etag, String ifNoneMatch, T body) {
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    /**
+     * Idempotency-Key 가 있으면 같은 키의 요청을 한 번만 실행하고, 성공 응답은 TTL 동안 재사용한다.
+     */
+    private CompletableFuture<ResponseEntity<Transaction>> idempotent(
+            String idempotencyKey, String fingerprint,
+            Supplier<CompletableFuture<ResponseEntity<Transaction>>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        return idempotencyStore.executeAsync(idempotencyKey, fingerprint, action,
+                response -> response.getStatusCode().is2xxSuccessful());
+    }
+
+    private static String fingerprint(String route, Long userId, Long categoryId, BigDecimal amount,
+                                      String currency, String description, Transaction.TransactionType type) {
+        return String.join("|", route, String.valueOf(userId), String.valueOf(categoryId),
+                amount.stripTrailingZeros().toPlainString(), String.valueOf(currency), description, type.name());
+    }
 }
@@ -0,0 +1,32 @@
+package com.example.finance.interfaces.rest;
+
+import com.example.finance.application.service.DashboardService;
+import com.example.finance.application.service.UserDashboard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserDashboardController {
+
+    private final DashboardService dashboardService;
+
+    /**
+     * 사용자, 최근 거래, 이번 달 카테고리별 합계, 잔액을 동시에 조회한다.
+     * 제한 시간 안에 조회하지 못한 항목은 빠지고 partial 이 true 가 된다.
+     */
+    @GetMapping("/{id}/dashboard")
+    public CompletableFuture<ResponseEntity<UserDashboard>> getDashboard(@PathVariable Long id) {
+        return dashboardService.dashboard(id)
+                .thenApply(dashboard -> dashboard
+                        .map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.notFound().build()));
+    }
+}
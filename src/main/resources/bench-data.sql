@@ -0,0 +1,11 @@
+-- 벤치마크용 기본 데이터. reactive 모듈의 data.sql 과 동일하다.
+INSERT INTO users (username, full_name, email, password, created_at)
+SELECT 'user' || X, 'User ' || X, 'user' || X || '@example.com', 'secret', CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 1000)
+WHERE NOT EXISTS (SELECT 1 FROM users);
+
+-- 모두 최상위 카테고리다. (lft, rgt) 는 트리 순서대로 (2X-1, 2X)
+INSERT INTO categories (name, description, lft, rgt, depth, created_at)
+SELECT 'category' || X, 'Category ' || X, 2 * X - 1, 2 * X, 0, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 20)
+WHERE NOT EXISTS (SELECT 1 FROM categories);
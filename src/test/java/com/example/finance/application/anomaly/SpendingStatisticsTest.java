@@ -0,0 +1,115 @@
+package com.example.finance.application.anomaly;
+
+import com.example.finance.domain.event.EventIds;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SpendingStatisticsTest {
+
+    private static final long HOUR_MICROS = 3_600_000_000L;
+    private static final double EPSILON = 1e-9;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void lateSamplesAreCounted() {
+        SpendingStatistics statistics = new SpendingStatistics(Duration.ofDays(1));
+        statistics.observe(1, 1, amount(100), 10 * HOUR_MICROS, EventIds.next());
+        statistics.observe(1, 1, amount(100), 20 * HOUR_MICROS, EventIds.next());
+
+        SpendingStatistics.Observation late = statistics.observe(1, 1, amount(100), 15 * HOUR_MICROS,
+                EventIds.next());
+
+        assertNotNull(late);
+        assertEquals(2, late.count());
+        assertEquals(3, statistics.observe(1, 1, amount(100), 21 * HOUR_MICROS, EventIds.next()).count());
+    }
+
+    @Test
+    void arrivalOrderDoesNotChangeStatistics() {
+        List<Sample> samples = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            samples.add(new Sample(EventIds.next(), random.nextLong(0, 60 * 24 * HOUR_MICROS),
+                    BigDecimal.valueOf(1 + random.nextInt(500))));
+        }
+        Sample probe = new Sample(EventIds.next(), 60 * 24 * HOUR_MICROS, amount(250));
+
+        SpendingStatistics.Observation inOrder = observeAll(samples.stream()
+                .sorted((a, b) -> Long.compare(a.micros(), b.micros())).toList(), probe);
+        Collections.shuffle(samples, random);
+        SpendingStatistics.Observation shuffled = observeAll(samples, probe);
+
+        assertEquals(inOrder.count(), shuffled.count());
+        assertEquals(inOrder.zScore(), shuffled.zScore(), EPSILON);
+        assertEquals(inOrder.typicalAmount(), shuffled.typicalAmount(), EPSILON);
+        assertEquals(inOrder.rateBeforePerDay(), shuffled.rateBeforePerDay(), EPSILON);
+        assertEquals(inOrder.rateAfterPerDay(), shuffled.rateAfterPerDay(), EPSILON);
+        assertEquals(inOrder.longRunRatePerDay(), shuffled.longRunRatePerDay(), EPSILON);
+    }
+
+    @Test
+    void redeliveredEventIsIgnored() {
+        SpendingStatistics statistics = new SpendingStatistics(Duration.ofDays(1));
+        UUID eventId = EventIds.next();
+
+        assertNotNull(statistics.observe(1, 1, amount(100), HOUR_MICROS, eventId));
+        assertNull(statistics.observe(1, 1, amount(100), HOUR_MICROS, eventId));
+        assertEquals(1, statistics.observe(1, 1, amount(100), HOUR_MICROS, EventIds.next()).count());
+        assertEquals(2, statistics.updates());
+    }
+
+    @Test
+    void checkpointKeepsEventIdsForTwoIntervals() throws IOException {
+        Path checkpoint = directory.resolve("anomaly.bin");
+        SpendingStatistics statistics = new SpendingStatistics(Duration.ofDays(1));
+        UUID older = EventIds.next();
+        UUID newer = EventIds.next();
+        statistics.observe(1, 1, amount(100), HOUR_MICROS, older);
+        statistics.writeTo(checkpoint);
+        statistics.observe(1, 1, amount(100), 2 * HOUR_MICROS, newer);
+        statistics.writeTo(checkpoint);
+
+        SpendingStatistics restored = new SpendingStatistics(Duration.ofDays(1));
+        restored.readFrom(checkpoint);
+
+        assertNull(restored.observe(1, 1, amount(100), HOUR_MICROS, older));
+        assertNull(restored.observe(1, 1, amount(100), 2 * HOUR_MICROS, newer));
+        assertEquals(2, restored.observe(1, 1, amount(100), 3 * HOUR_MICROS, EventIds.next()).count());
+
+        // 두 번 더 체크포인트를 쓰면 older 는 밀려난다.
+        restored.writeTo(checkpoint);
+        restored.writeTo(checkpoint);
+        assertNotNull(restored.observe(1, 1, amount(100), HOUR_MICROS, older));
+    }
+
+    private static SpendingStatistics.Observation observeAll(List<Sample> samples, Sample probe) {
+        SpendingStatistics statistics = new SpendingStatistics(Duration.ofDays(7));
+        for (Sample sample : samples) {
+            statistics.observe(1, 1, sample.amount(), sample.micros(), sample.eventId());
+        }
+        return statistics.observe(1, 1, probe.amount(), probe.micros(), probe.eventId());
+    }
+
+    private static BigDecimal amount(long value) {
+        return BigDecimal.valueOf(value);
+    }
+
+    private record Sample(UUID eventId, long micros, BigDecimal amount) {
+    }
+}
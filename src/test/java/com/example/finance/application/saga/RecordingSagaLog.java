@@ -0,0 +1,51 @@
+package com.example.finance.application.saga;
+
+import com.example.finance.infrastructure.saga.SagaInstance;
+import com.example.finance.infrastructure.saga.SagaLog;
+import com.example.finance.infrastructure.saga.SagaStepLog;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ *  DB 대신 기록 순서를 events 에 남기는 사가 로그. writer 스레드는 띄우지 않는다.
+ */
+class RecordingSagaLog extends SagaLog {
+
+    final List<String> events = new CopyOnWriteArrayList<>();
+
+    RecordingSagaLog() {
+        super(null, null, null, 1, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+    }
+
+    @Override
+    public UUID start(String sagaName) {
+        events.add("start " + sagaName);
+        return UUID.randomUUID();
+    }
+
+    @Override
+    public CompletableFuture<Void> register(UUID sagaId, String sagaName) {
+        events.add("register " + sagaName);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateStatus(UUID sagaId, SagaInstance.Status status) {
+        events.add(status.name());
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void recordStep(UUID sagaId, String sagaName, String stepName, SagaStepLog.Status status, String resultRef) {
+        events.add(stepName + " " + status);
+    }
+
+    @Override
+    public void recordStepInCurrentTransaction(UUID sagaId, String sagaName, String stepName, String resultRef) {
+        events.add(stepName + " " + SagaStepLog.Status.COMPLETED + " " + resultRef);
+    }
+}
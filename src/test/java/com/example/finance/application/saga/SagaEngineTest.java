@@ -0,0 +1,190 @@
+package com.example.finance.application.saga;
+
+import com.example.finance.infrastructure.metrics.ResourceMetrics;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.support.NoopTransactionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SagaEngineTest {
+
+    private static final String SAGA_NAME = "test-saga";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final RecordingSagaLog sagaLog = new RecordingSagaLog();
+    private final List<String> trace = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SagaEngine engine = new SagaEngine(executor, sagaLog,
+            new TransactionTemplate(new NoopTransactionManager()), new StageMetrics(registry),
+            new ResourceMetrics(registry, false), Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void stepsRunOnlyAfterTheirDependencies() throws Exception {
+        SagaDefinition<Integer> definition = SagaDefinition.builder(SAGA_NAME, Integer.class)
+                .step("a", context -> run("a", 1))
+                .step("b", context -> run("b", 2))
+                .step("c", List.of("a", "b"),
+                        context -> run("c", context.get("a", Integer.class) + context.get("b", Integer.class)))
+                .step("d", List.of("c"), context -> run("d", context.get("c", Integer.class) * 10))
+                .step("e", List.of("a"), context -> run("e", 0))
+                .result("d")
+                .build();
+
+        assertEquals(30, engine.execute(definition).get(5, TimeUnit.SECONDS));
+
+        assertBefore("end a", "start c");
+        assertBefore("end b", "start c");
+        assertBefore("end c", "start d");
+        assertBefore("end a", "start e");
+        assertEquals(10, trace.size());
+        assertEquals("COMPLETED", sagaLog.events.get(sagaLog.events.size() - 1));
+    }
+
+    @Test
+    void independentBranchesRunInParallel() throws Exception {
+        // 두 단계가 동시에 실행되지 않으면 barrier 에서 기다리다가 실패한다.
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        SagaDefinition<String> definition = SagaDefinition.builder(SAGA_NAME, String.class)
+                .step("left", context -> await(barrier, "left"))
+                .step("right", context -> await(barrier, "right"))
+                .step("join", List.of("left", "right"),
+                        context -> context.get("left", String.class) + "+" + context.get("right", String.class))
+                .build();
+
+        assertEquals("left+right", engine.execute(definition).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void midDagFailureCompensatesCompletedStepsInReverseCompletionOrder() {
+        CountDownLatch reserved = new CountDownLatch(1);
+        SagaDefinition<Integer> definition = SagaDefinition.builder(SAGA_NAME, Integer.class)
+                .step("validate", List.of(), context -> run("validate", 1), (context, value) -> compensate("validate"))
+                .recoverableStep("create", List.of("validate"), context -> run("create", 42),
+                        (context, id) -> compensate("create:" + id), String::valueOf)
+                .step("reserve", List.of("create"), context -> {
+                    run("reserve", 7);
+                    reserved.countDown();
+                    return 7;
+                }, (context, value) -> compensate("reserve"))
+                .step("charge", List.of("create"), context -> {
+                    awaitLatch(reserved);
+                    throw new IllegalStateException("card declined");
+                }, (context, value) -> compensate("charge"))
+                .step("notify", List.of("reserve", "charge"), context -> run("notify", 0))
+                .result("notify")
+                .build();
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> engine.execute(definition).get(5, TimeUnit.SECONDS));
+
+        SagaExecutionException cause = assertInstanceOf(SagaExecutionException.class, failure.getCause());
+        assertInstanceOf(IllegalStateException.class, cause.getCause());
+        assertFalse(trace.contains("start notify"));
+        assertEquals(List.of("compensate reserve", "compensate create:42", "compensate validate"),
+                trace.stream().filter(entry -> entry.startsWith("compensate")).toList());
+        assertEquals(List.of("start " + SAGA_NAME, "validate COMPLETED", "create COMPLETED 42", "reserve COMPLETED",
+                "COMPENSATING", "reserve COMPENSATED", "create COMPENSATED", "validate COMPENSATED", "COMPENSATED"),
+                sagaLog.events);
+    }
+
+    @Test
+    void timedOutStepIsCompensatedOnceItFinishes() {
+        SagaDefinition<Integer> definition = SagaDefinition.builder(SAGA_NAME, Integer.class)
+                .step("create", List.of(), context -> run("create", 1), (context, value) -> compensate("create"))
+                .step("slow", List.of("create"), context -> {
+                    sleep(300);
+                    return run("slow", 2);
+                }, (context, value) -> compensate("slow"), Duration.ofMillis(50))
+                .build();
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> engine.execute(definition).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(SagaExecutionException.class, failure.getCause());
+        assertEquals(List.of("compensate slow", "compensate create"),
+                trace.stream().filter(entry -> entry.startsWith("compensate")).toList());
+    }
+
+    @Test
+    void failedCompensationLeavesSagaCompensating() {
+        SagaDefinition<Integer> definition = SagaDefinition.builder(SAGA_NAME, Integer.class)
+                .step("create", List.of(), context -> run("create", 1), (context, value) -> compensate("create"))
+                .step("reserve", List.of("create"), context -> run("reserve", 2), (context, value) -> {
+                    throw new IllegalStateException("budget service unavailable");
+                })
+                .step("charge", List.of("reserve"), context -> {
+                    throw new IllegalStateException("card declined");
+                })
+                .build();
+
+        assertThrows(ExecutionException.class, () -> engine.execute(definition).get(5, TimeUnit.SECONDS));
+
+        assertTrue(trace.contains("compensate create"));
+        assertTrue(sagaLog.events.contains("COMPENSATING"));
+        assertFalse(sagaLog.events.contains("COMPENSATED"));
+    }
+
+    private int run(String step, int value) {
+        trace.add("start " + step);
+        trace.add("end " + step);
+        return value;
+    }
+
+    private void compensate(String step) {
+        trace.add("compensate " + step);
+    }
+
+    private void assertBefore(String first, String second) {
+        int firstIndex = trace.indexOf(first);
+        int secondIndex = trace.indexOf(second);
+        assertTrue(firstIndex >= 0 && firstIndex < secondIndex, first + " before " + second + ": " + trace);
+    }
+
+    private static String await(CyclicBarrier barrier, String value) {
+        try {
+            barrier.await(2, TimeUnit.SECONDS);
+            return value;
+        } catch (Exception e) {
+            throw new IllegalStateException("Branches did not run in parallel", e);
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
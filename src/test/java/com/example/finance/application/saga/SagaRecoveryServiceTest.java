@@ -0,0 +1,189 @@
+package com.example.finance.application.saga;
+
+import com.example.finance.infrastructure.saga.SagaInstance;
+import com.example.finance.infrastructure.saga.SagaInstanceRepository;
+import com.example.finance.infrastructure.saga.SagaStepLog;
+import com.example.finance.infrastructure.saga.SagaStepLogRepository;
+import com.example.finance.infrastructure.sharding.ReplicaProperties;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SagaRecoveryServiceTest {
+
+    private static final String SAGA_NAME = "transaction-saga";
+
+    private final SagaInstanceRepository instanceRepository = mock(SagaInstanceRepository.class);
+    private final SagaStepLogRepository stepRepository = mock(SagaStepLogRepository.class);
+    private final RecordingSagaLog sagaLog = new RecordingSagaLog();
+    private final RecordingHandler handler = new RecordingHandler();
+    private final ShardRouter shardRouter = new ShardRouter(
+            new ShardingProperties(true, List.of("shard0", "shard1"), null, null, null), null);
+    private final ReplicaRouter replicaRouter = new ReplicaRouter(
+            new ReplicaProperties(false, null, null, null, null, null, null, null), shardRouter);
+    private SagaRecoveryService recoveryService;
+
+    @BeforeEach
+    void setUp() {
+        when(instanceRepository.findByStatusInAndCreatedAtBefore(any(), any())).thenReturn(List.of());
+        when(stepRepository.findOrphanSagas(any())).thenReturn(List.of());
+        recoveryService = new SagaRecoveryService(instanceRepository, stepRepository, sagaLog, List.of(handler),
+                shardRouter, replicaRouter, Runnable::run);
+    }
+
+    @Test
+    void resumesRunningSagaWhenHandlerCanFinishIt() {
+        UUID sagaId = unfinished(SagaInstance.Status.RUNNING,
+                step("validateUser", SagaStepLog.Status.COMPLETED, null),
+                step("createTransaction", SagaStepLog.Status.COMPLETED, "42"));
+        handler.resumable = true;
+
+        recoveryService.recoverUnfinishedSagas();
+
+        assertEquals(List.of(sagaId + " [validateUser, createTransaction]"), handler.resumed);
+        assertTrue(handler.compensated.isEmpty());
+        assertEquals(List.of("COMPLETED"), sagaLog.events);
+    }
+
+    @Test
+    void compensatesRunningSagaInReverseOrderWhenItCannotResume() {
+        unfinished(SagaInstance.Status.RUNNING,
+                step("validateUser", SagaStepLog.Status.COMPLETED, null),
+                step("createTransaction", SagaStepLog.Status.COMPLETED, "42"),
+                step("reserveBudget", SagaStepLog.Status.COMPLETED, "7"));
+
+        recoveryService.recoverUnfinishedSagas();
+
+        assertEquals(List.of("reserveBudget:7", "createTransaction:42"), handler.compensated);
+        assertEquals(List.of("COMPENSATING", "reserveBudget COMPENSATED", "createTransaction COMPENSATED",
+                "COMPENSATED"), sagaLog.events);
+    }
+
+    @Test
+    void compensatingSagaReplaysOnlyStepsNotCompensatedYet() {
+        unfinished(SagaInstance.Status.COMPENSATING,
+                step("createTransaction", SagaStepLog.Status.COMPLETED, "42"),
+                step("reserveBudget", SagaStepLog.Status.COMPLETED, "7"),
+                step("reserveBudget", SagaStepLog.Status.COMPENSATED, "7"));
+        handler.resumable = true;
+
+        recoveryService.recoverUnfinishedSagas();
+
+        assertTrue(handler.resumed.isEmpty());
+        assertEquals(List.of("createTransaction:42"), handler.compensated);
+        assertEquals(List.of("COMPENSATING", "createTransaction COMPENSATED", "COMPENSATED"), sagaLog.events);
+    }
+
+    @Test
+    void failedCompensationLeavesSagaCompensatingForNextBoot() {
+        unfinished(SagaInstance.Status.RUNNING,
+                step("createTransaction", SagaStepLog.Status.COMPLETED, "42"),
+                step("reserveBudget", SagaStepLog.Status.COMPLETED, "7"));
+        handler.failing.add("reserveBudget");
+
+        recoveryService.recoverUnfinishedSagas();
+
+        assertEquals(List.of("createTransaction:42"), handler.compensated);
+        assertEquals(List.of("COMPENSATING", "createTransaction COMPENSATED"), sagaLog.events);
+    }
+
+    @Test
+    void orphanStepsAreRegisteredAndCompensatedOnTheirShard() {
+        UUID sagaId = UUID.randomUUID();
+        when(stepRepository.findOrphanSagas(any())).thenAnswer(invocation -> ShardRouter.currentShard() == 1
+                ? List.<Object[]>of(new Object[]{sagaId, SAGA_NAME})
+                : List.of());
+        when(stepRepository.findBySagaIdOrderByIdAsc(sagaId)).thenReturn(
+                List.of(step("createTransaction", SagaStepLog.Status.COMPLETED, "42")));
+
+        recoveryService.recoverUnfinishedSagas();
+
+        assertEquals(List.of(sagaId + " [createTransaction]"), handler.resumed);
+        assertEquals(List.of("createTransaction:42"), handler.compensated);
+        assertEquals(List.of(1), handler.shards);
+        assertEquals(List.of("register " + SAGA_NAME, "COMPENSATING", "createTransaction COMPENSATED",
+                "COMPENSATED"), sagaLog.events);
+    }
+
+    @Test
+    void sagaWithoutHandlerIsLeftAlone() {
+        UUID sagaId = UUID.randomUUID();
+        when(instanceRepository.findByStatusInAndCreatedAtBefore(any(), any())).thenReturn(List.of(
+                SagaInstance.builder().id(sagaId).sagaName("unknown-saga").status(SagaInstance.Status.RUNNING).build()));
+
+        recoveryService.recoverUnfinishedSagas();
+
+        assertTrue(handler.resumed.isEmpty());
+        assertTrue(sagaLog.events.isEmpty());
+    }
+
+    /**
+     * 0번 샤드에만 남아 있는 끝나지 않은 사가
+     */
+    private UUID unfinished(SagaInstance.Status status, SagaStepLog... steps) {
+        UUID sagaId = UUID.randomUUID();
+        SagaInstance instance = SagaInstance.builder()
+                .id(sagaId)
+                .sagaName(SAGA_NAME)
+                .status(status)
+                .createdAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+        when(instanceRepository.findByStatusInAndCreatedAtBefore(any(), any())).thenAnswer(invocation ->
+                ShardRouter.currentShard() == 0 ? List.of(instance) : List.of());
+        when(stepRepository.findBySagaIdOrderByIdAsc(sagaId)).thenReturn(List.of(steps));
+        return sagaId;
+    }
+
+    private static SagaStepLog step(String name, SagaStepLog.Status status, String resultRef) {
+        return SagaStepLog.builder()
+                .stepName(name)
+                .sagaName(SAGA_NAME)
+                .status(status)
+                .resultRef(resultRef)
+                .build();
+    }
+
+    static class RecordingHandler implements SagaRecoveryHandler {
+
+        final List<String> resumed = new ArrayList<>();
+        final List<String> compensated = new ArrayList<>();
+        final List<Integer> shards = new ArrayList<>();
+        final Set<String> failing = new HashSet<>();
+        boolean resumable;
+
+        @Override
+        public boolean supports(String sagaName) {
+            return SAGA_NAME.equals(sagaName);
+        }
+
+        @Override
+        public boolean resume(UUID sagaId, List<SagaStepLog> completedSteps) {
+            resumed.add(sagaId + " " + completedSteps.stream().map(SagaStepLog::getStepName).toList());
+            return resumable;
+        }
+
+        @Override
+        public void compensate(SagaStepLog step) {
+            if (failing.contains(step.getStepName())) {
+                throw new IllegalStateException("cannot compensate " + step.getStepName());
+            }
+            compensated.add(step.getStepName() + ":" + step.getResultRef());
+            shards.add(ShardRouter.currentShard());
+        }
+    }
+}
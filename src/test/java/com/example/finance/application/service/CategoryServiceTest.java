@@ -0,0 +1,173 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.repository.CategoryRepository;
+import com.example.finance.domain.repository.TransactionRepository;
+import com.example.finance.infrastructure.sharding.ReplicaProperties;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *  H2 에서 실제 구간 UPDATE 로 카테고리를 옮기고, 트리 모양과 구간이 모두 맞는지 확인한다.
+ */
+@DataJpaTest
+class CategoryServiceTest {
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CategoryService categoryService;
+    private final Map<String, Long> ids = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ShardRouter shardRouter = new ShardRouter(new ShardingProperties(false, List.of(), null, null, null),
+                new TransactionTemplate(transactionManager));
+        categoryService = new CategoryService(categoryRepository, transactionRepository, shardRouter,
+                new ReplicaRouter(new ReplicaProperties(false, null, null, null, null, null, null, null), shardRouter));
+
+        create("food", null);
+        create("groceries", "food");
+        create("dining", "food");
+        create("transport", null);
+        create("taxi", "transport");
+        create("leisure", null);
+        create("movies", "leisure");
+    }
+
+    @Test
+    void createBuildsNestedIntervals() {
+        assertEquals(List.of("food", "-groceries", "-dining", "transport", "-taxi", "leisure", "-movies"), outline());
+        assertValidTree();
+    }
+
+    @Test
+    void moveForwardUnderLaterParent() {
+        categoryService.moveCategory(ids.get("groceries"), ids.get("leisure"));
+
+        assertEquals(List.of("food", "-dining", "transport", "-taxi", "leisure", "-movies", "-groceries"), outline());
+        assertValidTree();
+    }
+
+    @Test
+    void moveBackwardUnderEarlierParent() {
+        categoryService.moveCategory(ids.get("taxi"), ids.get("food"));
+
+        assertEquals(List.of("food", "-groceries", "-dining", "-taxi", "transport", "leisure", "-movies"), outline());
+        assertValidTree();
+    }
+
+    @Test
+    void moveSubtreeKeepsChildren() {
+        categoryService.moveCategory(ids.get("food"), ids.get("movies"));
+
+        assertEquals(List.of("transport", "-taxi", "leisure", "-movies", "--food", "---groceries", "---dining"),
+                outline());
+        assertValidTree();
+
+        categoryService.moveCategory(ids.get("leisure"), ids.get("transport"));
+
+        assertEquals(List.of("transport", "-taxi", "-leisure", "--movies", "---food", "----groceries", "----dining"),
+                outline());
+        assertValidTree();
+    }
+
+    @Test
+    void moveToRootAppendsAfterLastRoot() {
+        categoryService.moveCategory(ids.get("groceries"), null);
+
+        assertEquals(List.of("food", "-dining", "transport", "-taxi", "leisure", "-movies", "groceries"), outline());
+        assertValidTree();
+
+        categoryService.moveCategory(ids.get("food"), null);
+
+        assertEquals(List.of("transport", "-taxi", "leisure", "-movies", "groceries", "food", "-dining"), outline());
+        assertValidTree();
+    }
+
+    @Test
+    void moveUnderOwnSubtreeIsRejected() {
+        List<String> before = outline();
+
+        assertThrows(InvalidCategoryMoveException.class,
+                () -> categoryService.moveCategory(ids.get("food"), ids.get("groceries")));
+        assertThrows(InvalidCategoryMoveException.class,
+                () -> categoryService.moveCategory(ids.get("food"), ids.get("food")));
+
+        assertEquals(before, outline());
+        assertValidTree();
+    }
+
+    @Test
+    void subtreeFollowsMovedCategory() {
+        categoryService.moveCategory(ids.get("transport"), ids.get("dining"));
+
+        List<String> subtree = categoryService.getSubtree(ids.get("food")).orElseThrow().stream()
+                .map(Category::getName)
+                .toList();
+        assertEquals(List.of("food", "groceries", "dining", "transport", "taxi"), subtree);
+    }
+
+    private void create(String name, String parent) {
+        ids.put(name, categoryService.createCategory(name, name, parent == null ? null : ids.get(parent)).getId());
+    }
+
+    /**
+     * 트리 순서의 이름. 깊이만큼 '-' 를 붙인다.
+     */
+    private List<String> outline() {
+        List<String> outline = new ArrayList<>();
+        for (Category category : categoryService.getCategories()) {
+            outline.add("-".repeat(category.getDepth()) + category.getName());
+        }
+        return outline;
+    }
+
+    /**
+     * 번호가 1..2n 을 한 번씩 쓰고, 각 구간이 부모 구간 안에 있으며 깊이가 부모보다 하나 깊은지 확인한다.
+     */
+    private void assertValidTree() {
+        List<Category> categories = categoryService.getCategories();
+        Map<Long, Category> byId = new HashMap<>();
+        boolean[] used = new boolean[2 * categories.size() + 1];
+        for (Category category : categories) {
+            byId.put(category.getId(), category);
+            assertTrue(category.getLft() < category.getRgt(), category.getName());
+            for (int number : new int[]{category.getLft(), category.getRgt()}) {
+                assertTrue(number >= 1 && number < used.length && !used[number], category.getName() + " " + number);
+                used[number] = true;
+            }
+        }
+        for (Category category : categories) {
+            if (category.getParentId() == null) {
+                assertEquals(0, category.getDepth(), category.getName());
+                continue;
+            }
+            Category parent = byId.get(category.getParentId());
+            assertTrue(parent.getLft() < category.getLft() && category.getRgt() < parent.getRgt(), category.getName());
+            assertEquals(parent.getDepth() + 1, category.getDepth(), category.getName());
+        }
+    }
+}
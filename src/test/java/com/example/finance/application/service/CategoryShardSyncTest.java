@@ -0,0 +1,125 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.repository.CategoryRepository;
+import com.example.finance.domain.repository.TransactionRepository;
+import com.example.finance.infrastructure.sharding.ReplicaProperties;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import com.example.finance.support.NoopTransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ *  0번 샤드를 기준으로 다른 샤드의 카테고리 트리를 맞추는지 확인한다. 샤드별 트리는 현재 샤드에 따라 다르게 답하는 mock 으로 흉내 낸다.
+ */
+class CategoryShardSyncTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final ShardRouter shardRouter = new ShardRouter(
+            new ShardingProperties(true, List.of("shard0", "shard1", "shard2"), null, null, null),
+            new TransactionTemplate(new NoopTransactionManager()));
+    private final CategoryService categoryService = new CategoryService(categoryRepository,
+            mock(TransactionRepository.class), shardRouter,
+            new ReplicaRouter(new ReplicaProperties(false, null, null, null, null, null, null, null), shardRouter));
+    private final List<String> writes = new ArrayList<>();
+
+    private Map<Integer, List<Category>> trees;
+
+    @BeforeEach
+    void setUp() {
+        when(categoryRepository.findAllByOrderByLftAsc()).thenAnswer(invocation -> tree());
+        when(categoryRepository.findAll()).thenAnswer(invocation -> tree());
+        when(categoryRepository.updatePosition(anyLong(), any(), anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            writes.add(ShardRouter.currentShard() + " update " + invocation.getArgument(0) + " "
+                    + invocation.getArgument(2) + "-" + invocation.getArgument(3));
+            return 1;
+        });
+        when(categoryRepository.insertCopy(anyLong(), anyString(), any(), any(), anyInt(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    writes.add(ShardRouter.currentShard() + " insert " + invocation.getArgument(0) + " "
+                            + invocation.getArgument(4) + "-" + invocation.getArgument(5));
+                    return 1;
+                });
+    }
+
+    @Test
+    void reconcileCopiesTreeOnlyToDriftedShards() {
+        List<Category> expected = List.of(category(1, "food", null, 1, 4, 0), category(2, "groceries", 1L, 2, 3, 1),
+                category(3, "leisure", null, 5, 6, 0));
+        trees = Map.of(
+                0, expected,
+                1, List.of(category(1, "food", null, 1, 4, 0), category(2, "groceries", 1L, 2, 3, 1),
+                        category(3, "leisure", null, 5, 6, 0)),
+                // groceries 를 넣던 중에 실패해서 구간만 벌어진 샤드
+                2, List.of(category(1, "food", null, 1, 4, 0), category(3, "leisure", null, 5, 6, 0)));
+
+        categoryService.reconcileShards();
+
+        assertEquals(List.of("2 update 1 1-4", "2 insert 2 2-3", "2 update 3 5-6"), writes);
+    }
+
+    @Test
+    void reconcileDoesNothingWhenShardsAgree() {
+        List<Category> tree = List.of(category(1, "food", null, 1, 2, 0));
+        trees = Map.of(0, tree, 1, tree, 2, tree);
+
+        categoryService.reconcileShards();
+
+        assertTrue(writes.isEmpty());
+    }
+
+    @Test
+    void failedWriteOnOtherShardCopiesTreeFromShardZero() {
+        trees = Map.of(
+                0, List.of(category(1, "food", null, 1, 2, 0), category(2, "leisure", null, 3, 4, 0)),
+                1, List.of(category(1, "food", null, 1, 2, 0)),
+                2, List.of(category(1, "food", null, 1, 2, 0)));
+        when(categoryRepository.findMaxRgt()).thenAnswer(invocation -> {
+            if (ShardRouter.currentShard() == 1) {
+                throw new IllegalStateException("shard 1 is down");
+            }
+            return 2;
+        });
+        when(categoryRepository.save(any())).thenAnswer(invocation -> {
+            Category category = invocation.getArgument(0);
+            category.setId(2L);
+            return category;
+        });
+
+        Category created = categoryService.createCategory("leisure", "Leisure", null);
+
+        assertEquals(2L, created.getId());
+        assertEquals(List.of("1 update 1 1-2", "1 insert 2 3-4", "2 insert 2 3-4"), writes);
+    }
+
+    private List<Category> tree() {
+        return trees.get(ShardRouter.currentShard());
+    }
+
+    private static Category category(long id, String name, Long parentId, int lft, int rgt, int depth) {
+        return Category.builder()
+                .id(id)
+                .name(name)
+                .parentId(parentId)
+                .lft(lft)
+                .rgt(rgt)
+                .depth(depth)
+                .build();
+    }
+}
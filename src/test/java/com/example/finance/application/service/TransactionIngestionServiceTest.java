@@ -0,0 +1,183 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.User;
+import com.example.finance.domain.repository.CategoryRepository;
+import com.example.finance.domain.repository.UserRepository;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import com.example.finance.support.NoopTransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionIngestionServiceTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("10.00");
+
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final TransactionIngestionService ingestionService = new TransactionIngestionService(transactionService,
+            userRepository, categoryRepository,
+            new ShardRouter(new ShardingProperties(false, List.of(), null, null, null),
+                    new TransactionTemplate(new NoopTransactionManager())),
+            true, 256, Duration.ofMillis(5), 10_000);
+    private final AtomicInteger groups = new AtomicInteger();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            groups.incrementAndGet();
+            return List.of(User.builder().id(1L).build());
+        });
+        when(categoryRepository.findAllById(any())).thenReturn(List.of(Category.builder().id(2L).build()));
+        when(transactionService.createTransaction(any(User.class), any(Category.class), any(), any(), any(), any()))
+                .thenAnswer(invocation -> Transaction.builder().id((long) ids.incrementAndGet()).build());
+        ingestionService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ingestionService.stop();
+    }
+
+    @Test
+    void concurrentRequestsAreCommittedInGroups() throws Exception {
+        List<CompletableFuture<Transaction>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(submit(1L));
+        }
+
+        for (CompletableFuture<Transaction> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(100, ids.get());
+        assertTrue(groups.get() < 100, groups.get() + " groups");
+    }
+
+    @Test
+    void invalidRequestFailsAlone() throws Exception {
+        CompletableFuture<Transaction> valid = submit(1L);
+        CompletableFuture<Transaction> unknownUser = submit(99L);
+
+        valid.get(5, TimeUnit.SECONDS);
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> unknownUser.get(5, TimeUnit.SECONDS));
+        assertTrue(failure.getCause().getMessage().contains("99"));
+    }
+
+    @Test
+    void submitAfterStopIsRejected() throws Exception {
+        ingestionService.stop();
+
+        assertStopped(submit(1L));
+    }
+
+    @Test
+    void stopFinishesCurrentGroupAndFailsQueuedRequests() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            committing.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return List.of(User.builder().id(1L).build());
+        });
+        CompletableFuture<Transaction> inFlight = submit(1L);
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<Transaction>> queued = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            queued.add(submit(1L));
+        }
+
+        Thread stopper = new Thread(() -> {
+            try {
+                ingestionService.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopper.start();
+        // 종료가 시작되어 새 요청이 거절될 때까지 보낸다. 그 전에 들어간 요청은 대기열에 남는다.
+        CompletableFuture<Transaction> probe;
+        while (!(probe = submit(1L)).isDone()) {
+            queued.add(probe);
+            Thread.onSpinWait();
+        }
+        assertStopped(probe);
+        release.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(1L, inFlight.get(5, TimeUnit.SECONDS).getId());
+        for (CompletableFuture<Transaction> request : queued) {
+            assertStopped(request);
+        }
+    }
+
+    @Test
+    void everyFutureCompletesWhenStopRacesWithSubmit() throws Exception {
+        List<List<CompletableFuture<Transaction>>> submitted = new ArrayList<>();
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            List<CompletableFuture<Transaction>> results = new ArrayList<>();
+            Thread submitter = new Thread(() -> {
+                CompletableFuture<Transaction> result;
+                do {
+                    result = submit(1L);
+                    results.add(result);
+                } while (!result.isCompletedExceptionally()
+                        || !(result.exceptionNow() instanceof IngestionStoppedException));
+            });
+            submitted.add(results);
+            submitters.add(submitter);
+            submitter.start();
+        }
+        Thread.sleep(20);
+        ingestionService.stop();
+        for (Thread submitter : submitters) {
+            submitter.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        // 커밋되었거나, 대기열이 가득 찼거나, 종료로 거절되었을 뿐 완료되지 않은 요청은 없다.
+        for (List<CompletableFuture<Transaction>> results : submitted) {
+            for (CompletableFuture<Transaction> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IngestionStoppedException
+                            || e.getCause() instanceof IngestionQueueFullException, e.getCause().toString());
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<Transaction> submit(Long userId) {
+        return ingestionService.submit(userId, 2L, AMOUNT, "KRW", "lunch", Transaction.TransactionType.EXPENSE);
+    }
+
+    private static void assertStopped(CompletableFuture<Transaction> result) throws Exception {
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IngestionStoppedException.class, failure.getCause());
+    }
+}
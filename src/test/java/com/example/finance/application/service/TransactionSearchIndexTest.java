@@ -0,0 +1,278 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.event.TransactionCreatedEvent;
+import com.example.finance.domain.event.TransactionDeletedEvent;
+import com.example.finance.domain.event.TransactionUpdatedEvent;
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.TransactionIndexRow;
+import com.example.finance.domain.model.User;
+import com.example.finance.domain.repository.TransactionRepository;
+import com.example.finance.infrastructure.archive.ArchivedTransaction;
+import com.example.finance.infrastructure.archive.TransactionsArchivedEvent;
+import com.example.finance.infrastructure.sharding.ReplicaProperties;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionSearchIndexTest {
+
+    private static final int SHARDS = 3;
+    private static final LocalDateTime MARCH = LocalDateTime.of(2025, 3, 15, 12, 0);
+    private static final TransactionSearchCriteria ALL =
+            new TransactionSearchCriteria(null, null, null, null, null, null, null);
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private ShardRouter shardRouter;
+    private TransactionSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        shardRouter = new ShardRouter(
+                new ShardingProperties(true, List.of("shard0", "shard1", "shard2"), null, null, null), null);
+        ReplicaRouter replicaRouter = new ReplicaRouter(
+                new ReplicaProperties(false, null, null, null, null, null, null, null), shardRouter);
+        index = new TransactionSearchIndex(transactionRepository, shardRouter, replicaRouter);
+    }
+
+    @Test
+    void mapsIdsToShardOrdinalsAndBack() {
+        index.load();
+        for (long id = 1; id <= 30; id++) {
+            index.apply(created(transaction(id, 0L, 10L, 1L, Transaction.TransactionType.EXPENSE, MARCH, "5.00")));
+        }
+
+        for (int shard = 0; shard < SHARDS; shard++) {
+            for (long id : search(shard, ALL)) {
+                assertEquals(shard, shardRouter.shardOfTransaction(id));
+            }
+            assertEquals(10, search(shard, ALL).size());
+        }
+        assertEquals(List.of(2L, 5L, 8L), search(1, ALL).subList(0, 3));
+    }
+
+    @Test
+    void loadsRowsAndAppliesEventsBufferedDuringLoad() {
+        when(transactionRepository.findIndexRowsAfter(eq(0L), any())).thenReturn(List.of(
+                new TransactionIndexRow(1L, 10L, 1L, Transaction.TransactionType.EXPENSE, MARCH,
+                        new BigDecimal("5.00"), 0L),
+                new TransactionIndexRow(4L, 10L, 2L, Transaction.TransactionType.INCOME, MARCH,
+                        new BigDecimal("50.00"), 3L)));
+        index.apply(created(transaction(7L, 0L, 11L, 1L, Transaction.TransactionType.EXPENSE, MARCH, "1.00")));
+
+        index.load();
+
+        assertEquals(List.of(1L, 4L, 7L), search(0, ALL));
+        assertEquals(List.of(1L, 7L), search(0, byCategory(1L)));
+    }
+
+    @Test
+    void updateBeforeCreateKeepsNewerValues() {
+        index.load();
+        Transaction original = transaction(1L, 0L, 10L, 1L, Transaction.TransactionType.EXPENSE, MARCH, "5.00");
+        Transaction moved = transaction(1L, 1L, 10L, 2L, Transaction.TransactionType.INCOME, MARCH, "5.00");
+
+        index.apply(updated(moved, original));
+        index.apply(created(original));
+
+        assertEquals(List.of(), search(0, byCategory(1L)));
+        assertEquals(List.of(1L), search(0, byCategory(2L)));
+        assertEquals(List.of(1L), search(0, byType(Transaction.TransactionType.INCOME)));
+    }
+
+    @Test
+    void duplicateEventsAreIgnored() {
+        index.load();
+        Transaction original = transaction(1L, 0L, 10L, 1L, Transaction.TransactionType.EXPENSE, MARCH, "5.00");
+        Transaction moved = transaction(1L, 1L, 10L, 2L, Transaction.TransactionType.EXPENSE, MARCH, "5.00");
+
+        index.apply(created(original));
+        index.apply(updated(moved, original));
+        index.apply(created(original));
+        index.apply(updated(moved, original));
+
+        assertEquals(List.of(1L), search(0, ALL));
+        assertEquals(List.of(), search(0, byCategory(1L)));
+        assertEquals(List.of(1L), search(0, byCategory(2L)));
+    }
+
+    @Test
+    void lateCreateAndUpdateAfterDeleteDoNotResurrect() {
+        index.load();
+        Transaction original = transaction(1L, 0L, 10L, 1L, Transaction.TransactionType.EXPENSE, MARCH, "5.00");
+        Transaction changed = transaction(1L, 1L, 10L, 2L, Transaction.TransactionType.EXPENSE, MARCH, "5.00");
+
+        index.apply(new TransactionDeletedEvent(changed));
+        index.apply(created(original));
+        index.apply(updated(changed, original));
+
+        assertEquals(List.of(), search(0, ALL));
+        assertEquals(List.of(), search(0, byCategory(2L)));
+    }
+
+    @Test
+    void updateWithoutDateOrAmountKeepsIndexedValues() {
+        index.load();
+        Transaction original = transaction(1L, 0L, 10L, 1L, Transaction.TransactionType.EXPENSE, MARCH, "500.00");
+        Transaction changed = transaction(1L, 1L, 10L, 2L, Transaction.TransactionType.EXPENSE, null, null);
+
+        index.apply(created(original));
+        index.apply(updated(changed, original));
+
+        TransactionSearchCriteria marchOver100 = new TransactionSearchCriteria(null, null, Set.of(2L),
+                YearMonth.of(2025, 3), YearMonth.of(2025, 3), new BigDecimal("100"), null);
+        assertEquals(List.of(1L), search(0, marchOver100));
+    }
+
+    @Test
+    void archivedTransactionsAreEvictedUnlessUpdatedSince() {
+        index.load();
+        Transaction first = transaction(1L, 0L, 10L, 1L, Transaction.TransactionType.EXPENSE, MARCH, "5.00");
+        Transaction second = transaction(4L, 0L, 10L, 1L, Transaction.TransactionType.EXPENSE, MARCH, "5.00");
+        Transaction secondChanged = transaction(4L, 1L, 10L, 1L, Transaction.TransactionType.EXPENSE, MARCH, "6.00");
+        index.apply(created(first));
+        index.apply(created(second));
+        index.apply(updated(secondChanged, second));
+
+        index.onArchived(new TransactionsArchivedEvent(0, List.of(archived(first), archived(second))));
+        index.apply(created(first));
+
+        assertEquals(List.of(4L), search(0, ALL));
+    }
+
+    @Test
+    void searchMatchesBruteForceFilter() {
+        index.load();
+        SplittableRandom random = new SplittableRandom(11);
+        Map<Long, Transaction> transactions = new HashMap<>();
+        for (long id = 1; id <= 3_000; id++) {
+            Transaction transaction = transaction(id, 0L, 10L + random.nextInt(20), 1L + random.nextInt(8),
+                    random.nextBoolean() ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE,
+                    MARCH.minusMonths(random.nextInt(12)),
+                    BigDecimal.valueOf(random.nextInt(1_000_000), 2).toPlainString());
+            transactions.put(id, transaction);
+            index.apply(created(transaction));
+        }
+        // 일부는 지우고 일부는 다른 카테고리로 옮긴다.
+        for (long id = 1; id <= 3_000; id += 7) {
+            Transaction transaction = transactions.remove(id);
+            index.apply(new TransactionDeletedEvent(transaction));
+        }
+        for (long id = 2; id <= 3_000; id += 11) {
+            Transaction before = transactions.get(id);
+            if (before == null) {
+                continue;
+            }
+            Transaction after = transaction(id, 1L, before.getUser().getId(), 1L + random.nextInt(8),
+                    before.getType(), before.getTransactionDate(), before.getBaseAmount().toPlainString());
+            transactions.put(id, after);
+            index.apply(updated(after, before));
+        }
+
+        for (int round = 0; round < 300; round++) {
+            TransactionSearchCriteria criteria = randomCriteria(random);
+            for (int shard = 0; shard < SHARDS; shard++) {
+                List<Long> expected = new ArrayList<>();
+                for (long id = shard + 1; id <= 3_000; id += SHARDS) {
+                    Transaction transaction = transactions.get(id);
+                    if (transaction != null && criteria.matches(transaction)) {
+                        expected.add(id);
+                    }
+                }
+
+                List<Long> candidates = search(shard, criteria);
+                assertTrue(candidates.containsAll(expected), criteria.toString());
+                assertEquals(expected, candidates.stream()
+                        .filter(id -> criteria.matches(transactions.get(id)))
+                        .toList(), criteria.toString());
+                if (criteria.minAmount() == null && criteria.maxAmount() == null) {
+                    // 금액 외의 조건은 색인만으로 정확하다.
+                    assertEquals(expected, candidates, criteria.toString());
+                }
+            }
+        }
+    }
+
+    private static TransactionSearchCriteria randomCriteria(SplittableRandom random) {
+        Long userId = random.nextInt(3) == 0 ? 10L + random.nextInt(20) : null;
+        Set<Transaction.TransactionType> types = EnumSet.noneOf(Transaction.TransactionType.class);
+        if (random.nextInt(3) == 0) {
+            types.add(random.nextBoolean() ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE);
+        }
+        Set<Long> categoryIds = new HashSet<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+            categoryIds.add(1L + random.nextInt(10));
+        }
+        YearMonth from = random.nextInt(3) == 0 ? YearMonth.from(MARCH).minusMonths(random.nextInt(12)) : null;
+        YearMonth to = random.nextInt(3) == 0 ? YearMonth.from(MARCH).minusMonths(random.nextInt(12)) : null;
+        BigDecimal minAmount = random.nextInt(3) == 0 ? BigDecimal.valueOf(random.nextInt(1_000_000), 2) : null;
+        BigDecimal maxAmount = random.nextInt(3) == 0 ? BigDecimal.valueOf(random.nextInt(1_000_000), 2) : null;
+        return new TransactionSearchCriteria(userId, types, categoryIds, from, to, minAmount, maxAmount);
+    }
+
+    private List<Long> search(int shard, TransactionSearchCriteria criteria) {
+        List<Long> ids = new ArrayList<>();
+        PrimitiveIterator.OfLong candidates = index.candidates(shard, criteria);
+        candidates.forEachRemaining((long id) -> ids.add(id));
+        return ids;
+    }
+
+    private static TransactionSearchCriteria byCategory(Long categoryId) {
+        return new TransactionSearchCriteria(null, null, Set.of(categoryId), null, null, null, null);
+    }
+
+    private static TransactionSearchCriteria byType(Transaction.TransactionType type) {
+        return new TransactionSearchCriteria(null, Set.of(type), null, null, null, null, null);
+    }
+
+    private static Transaction transaction(Long id, Long version, Long userId, Long categoryId,
+                                           Transaction.TransactionType type, LocalDateTime date, String baseAmount) {
+        return Transaction.builder()
+                .id(id)
+                .version(version)
+                .user(User.builder().id(userId).build())
+                .category(Category.builder().id(categoryId).build())
+                .type(type)
+                .transactionDate(date)
+                .amount(baseAmount == null ? null : new BigDecimal(baseAmount))
+                .baseAmount(baseAmount == null ? null : new BigDecimal(baseAmount))
+                .build();
+    }
+
+    private static TransactionCreatedEvent created(Transaction transaction) {
+        return new TransactionCreatedEvent(transaction);
+    }
+
+    private static TransactionUpdatedEvent updated(Transaction after, Transaction before) {
+        return new TransactionUpdatedEvent(after, Set.of(TransactionUpdatedEvent.CATEGORY),
+                before.getCategory().getId(), before.getAmount(), before.getBaseAmount(), before.getType());
+    }
+
+    private static ArchivedTransaction archived(Transaction transaction) {
+        return new ArchivedTransaction(transaction.getId(), transaction.getUser().getId(),
+                transaction.getCategory().getId(), transaction.getAmount(), "KRW", transaction.getBaseAmount(),
+                "", transaction.getType(), transaction.getTransactionDate(), MARCH, null, transaction.getVersion());
+    }
+}
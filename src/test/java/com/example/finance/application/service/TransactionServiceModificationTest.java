@@ -0,0 +1,212 @@
+package com.example.finance.application.service;
+
+import com.example.finance.domain.event.DomainEvent;
+import com.example.finance.domain.event.TransactionUpdatedEvent;
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.User;
+import com.example.finance.domain.repository.CategoryRepository;
+import com.example.finance.domain.repository.TransactionRepository;
+import com.example.finance.domain.repository.UserRepository;
+import com.example.finance.infrastructure.archive.ArchiveCatalog;
+import com.example.finance.infrastructure.archive.ArchivedTransaction;
+import com.example.finance.infrastructure.fx.ExchangeRates;
+import com.example.finance.infrastructure.metrics.StageMetrics;
+import com.example.finance.infrastructure.outbox.OutboxService;
+import com.example.finance.infrastructure.saga.SagaLog;
+import com.example.finance.infrastructure.sharding.ReplicaProperties;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import com.example.finance.support.NoopTransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionServiceModificationTest {
+
+    private static final long ID = 7L;
+    private static final LocalDateTime DATE = LocalDateTime.of(2025, 3, 14, 9, 0);
+
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final ArchiveCatalog archiveCatalog = mock(ArchiveCatalog.class);
+    private final ExchangeRates exchangeRates = mock(ExchangeRates.class);
+    private final TransactionService transactionService;
+
+    private Transaction stored;
+
+    TransactionServiceModificationTest() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new NoopTransactionManager());
+        ShardRouter shardRouter = new ShardRouter(new ShardingProperties(false, List.of(), null, null, null),
+                transactionTemplate);
+        ReplicaRouter replicaRouter = new ReplicaRouter(
+                new ReplicaProperties(false, null, null, null, null, null, null, null), shardRouter);
+        transactionService = new TransactionService(outboxService, transactionRepository, mock(UserRepository.class),
+                categoryRepository, mock(SagaLog.class), shardRouter, replicaRouter, archiveCatalog, exchangeRates,
+                mock(StageMetrics.class), Runnable::run);
+    }
+
+    @BeforeEach
+    void setUp() {
+        stored = Transaction.builder()
+                .id(ID)
+                .user(User.builder().id(1L).build())
+                .category(Category.builder().id(2L).build())
+                .amount(new BigDecimal("10.00"))
+                .currency("USD")
+                .baseAmount(new BigDecimal("13000"))
+                .description("lunch")
+                .type(Transaction.TransactionType.EXPENSE)
+                .transactionDate(DATE)
+                .version(3L)
+                .build();
+        when(transactionRepository.findDetailById(ID)).thenReturn(Optional.of(stored));
+    }
+
+    @Test
+    void staleVersionIsRejectedWithoutWriting() {
+        TransactionVersionMismatchException e = assertThrows(TransactionVersionMismatchException.class,
+                () -> transactionService.updateTransaction(ID, null, new BigDecimal("20.00"), null, null, 2L));
+
+        assertEquals("Transaction 7 is at version 3, expected 2", e.getMessage());
+        verify(transactionRepository, never()).saveAndFlush(any());
+        verify(outboxService, never()).storedEvent(any());
+
+        assertThrows(TransactionVersionMismatchException.class,
+                () -> transactionService.deleteTransaction(ID, -1L));
+        verify(transactionRepository, never()).delete(any());
+        verify(outboxService, never()).storedEvent(any());
+    }
+
+    @Test
+    void concurrentUpdateSurfacesOptimisticLockFailure() {
+        // 버전 확인을 통과한 뒤 다른 요청이 먼저 커밋하면 flush 시점에 낙관적 락 예외가 난다.
+        when(transactionRepository.saveAndFlush(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Transaction.class, ID));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> transactionService.updateTransaction(ID, null, null, "dinner", null, 3L));
+
+        verify(outboxService, never()).storedEvent(any());
+    }
+
+    @Test
+    void archivedTransactionCannotBeModified() {
+        when(transactionRepository.findDetailById(ID)).thenReturn(Optional.empty());
+        when(archiveCatalog.findById(anyInt(), anyLong())).thenReturn(Optional.of(new ArchivedTransaction(ID, 1L, 2L,
+                new BigDecimal("10.00"), "USD", new BigDecimal("13000"), "lunch", Transaction.TransactionType.EXPENSE,
+                DATE, DATE, DATE, 3L)));
+
+        assertThrows(ArchivedTransactionModificationException.class,
+                () -> transactionService.updateTransaction(ID, null, new BigDecimal("20.00"), null, null, null));
+        assertThrows(ArchivedTransactionModificationException.class,
+                () -> transactionService.deleteTransaction(ID, null));
+
+        verify(outboxService, never()).storedEvent(any());
+    }
+
+    @Test
+    void missingTransactionIsNotFound() {
+        when(transactionRepository.findDetailById(ID)).thenReturn(Optional.empty());
+        when(archiveCatalog.findById(anyInt(), anyLong())).thenReturn(Optional.empty());
+
+        assertTrue(transactionService.updateTransaction(ID, null, new BigDecimal("20.00"), null, null, 3L).isEmpty());
+        assertFalse(transactionService.deleteTransaction(ID, 3L));
+    }
+
+    @Test
+    void updatedEventCarriesOldAndNewValues() {
+        when(categoryRepository.findById(5L)).thenReturn(Optional.of(Category.builder().id(5L).build()));
+        when(exchangeRates.toBase(new BigDecimal("25.00"), "USD", LocalDate.of(2025, 3, 14)))
+                .thenReturn(new BigDecimal("32500"));
+        savesWithNextVersion();
+
+        Transaction updated = transactionService.updateTransaction(ID, 5L, new BigDecimal("25.00"), null,
+                Transaction.TransactionType.INCOME, 3L).orElseThrow();
+
+        assertEquals(4L, updated.getVersion());
+        ArgumentCaptor<DomainEvent> captor = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(outboxService).storedEvent(captor.capture());
+        TransactionUpdatedEvent event = assertInstanceOf(TransactionUpdatedEvent.class, captor.getValue());
+
+        assertEquals(ID, event.getTransactionId());
+        assertEquals(1L, event.getUserId());
+        assertEquals(4L, event.getVersion());
+        assertEquals(Set.of(TransactionUpdatedEvent.CATEGORY, TransactionUpdatedEvent.AMOUNT,
+                TransactionUpdatedEvent.TYPE), event.getChangedFields());
+        assertEquals(2L, event.getOldCategoryId());
+        assertEquals(5L, event.getNewCategoryId());
+        assertEquals(new BigDecimal("10.00"), event.getOldAmount());
+        assertEquals(new BigDecimal("25.00"), event.getNewAmount());
+        assertEquals(new BigDecimal("13000"), event.getOldBaseAmount());
+        assertEquals(new BigDecimal("32500"), event.getNewBaseAmount());
+        assertEquals(Transaction.TransactionType.EXPENSE, event.getOldType());
+        assertEquals(Transaction.TransactionType.INCOME, event.getNewType());
+        assertEquals(DATE, event.getTransactionDate());
+        // 설명은 바뀌지 않았으므로 담지 않는다.
+        assertNull(event.getDescription());
+    }
+
+    @Test
+    void unchangedFieldsKeepOldValuesInEvent() {
+        savesWithNextVersion();
+        transactionService.updateTransaction(ID, 2L, new BigDecimal("10.0"), "dinner",
+                Transaction.TransactionType.EXPENSE, null);
+
+        ArgumentCaptor<DomainEvent> captor = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(outboxService).storedEvent(captor.capture());
+        TransactionUpdatedEvent event = (TransactionUpdatedEvent) captor.getValue();
+
+        assertEquals(Set.of(TransactionUpdatedEvent.DESCRIPTION), event.getChangedFields());
+        assertEquals("dinner", event.getDescription());
+        assertEquals(event.getOldAmount(), event.getNewAmount());
+        assertEquals(event.getOldBaseAmount(), event.getNewBaseAmount());
+        assertEquals(event.getOldCategoryId(), event.getNewCategoryId());
+        assertEquals(event.getOldType(), event.getNewType());
+        verify(exchangeRates, never()).toBase(any(), any(), any());
+    }
+
+    @Test
+    void noOpUpdateWritesNothing() {
+        Transaction result = transactionService.updateTransaction(ID, 2L, new BigDecimal("10.000"), "lunch",
+                Transaction.TransactionType.EXPENSE, 3L).orElseThrow();
+
+        assertEquals(3L, result.getVersion());
+        verify(transactionRepository, never()).saveAndFlush(any());
+        verify(outboxService, never()).storedEvent(any());
+    }
+
+    private void savesWithNextVersion() {
+        when(transactionRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            transaction.setVersion(transaction.getVersion() + 1);
+            return transaction;
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.finance.infrastructure.archive;
+
+import com.example.finance.domain.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchiveSegmentTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2023, 3);
+    private static final Comparator<ArchivedTransaction> FILE_ORDER =
+            Comparator.comparingLong(ArchivedTransaction::userId).thenComparingLong(ArchivedTransaction::id);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripKeepsEveryFieldAcrossNegativeDeltas() throws IOException {
+        LocalDateTime base = LocalDateTime.of(2023, 3, 15, 10, 30, 0, 123_456_000);
+        List<ArchivedTransaction> rows = List.of(
+                // 사용자가 바뀌면 id 와 날짜가 뒤로 간다.
+                row(900, 1, base, "-12.50", "KRW", "-12.50", base.plusHours(1)),
+                row(901, 1, base.minusDays(10), "3000.00", "USD", "4012345.67", null),
+                row(5, 2, base.minusDays(14), "0.01", null, "0.01", base.minusDays(14).minusSeconds(1)),
+                row(7, 2, base.plusDays(16), "99999999.99", "JPY", "123.45", base.plusDays(16)),
+                row(3, 3, LocalDateTime.of(1969, 12, 31, 23, 59, 59), "1.00", "", "1.00", null));
+
+        ArchiveSegment segment = writeAndOpen(rows, 2);
+
+        assertEquals(5, segment.rowCount());
+        List<ArchivedTransaction> expected = new ArrayList<>(rows.stream().sorted(FILE_ORDER).toList());
+        // 빈 통화 코드는 null 로 읽힌다.
+        expected.set(4, row(3, 3, LocalDateTime.of(1969, 12, 31, 23, 59, 59), "1.00", null, "1.00", null));
+        assertEquals(expected, segment.readAll());
+    }
+
+    @Test
+    void emptySegmentHasNoGroups() throws IOException {
+        ArchiveSegment segment = writeAndOpen(List.of(), 4);
+
+        assertEquals(0, segment.rowCount());
+        assertTrue(segment.readAll().isEmpty());
+        assertEquals(Optional.empty(), segment.findById(1));
+        assertTrue(segment.findByUser(1).isEmpty());
+    }
+
+    @Test
+    void lookupsFindRowsAtGroupBoundaries() throws IOException {
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        LocalDateTime base = LocalDateTime.of(2023, 3, 1, 0, 0);
+        long id = 100;
+        // 사용자 2 는 첫 묶음 끝에서 시작해서 세 번째 묶음까지 이어진다. (묶음 크기 3)
+        for (long userId : new long[]{1, 1, 2, 2, 2, 2, 2, 3, 4, 4}) {
+            rows.add(row(id, userId, base.plusHours(id), "10.00", "KRW", "10.00", null));
+            id -= 7;
+        }
+
+        ArchiveSegment segment = writeAndOpen(rows, 3);
+
+        for (ArchivedTransaction row : rows) {
+            assertEquals(Optional.of(row), segment.findById(row.id()));
+        }
+        for (long userId = 0; userId <= 5; userId++) {
+            long user = userId;
+            assertEquals(rows.stream().filter(row -> row.userId() == user).sorted(FILE_ORDER).toList(),
+                    segment.findByUser(userId), "user " + userId);
+        }
+        // 묶음의 id 범위 안에 있지만 없는 id
+        assertEquals(Optional.empty(), segment.findById(99));
+        assertEquals(Optional.empty(), segment.findById(101));
+    }
+
+    @Test
+    void rewriteReplacesFileWithoutLeavingTemporaryFile() throws IOException {
+        Path path = directory.resolve("shard-0").resolve("transactions-202303.ftxa");
+        LocalDateTime date = LocalDateTime.of(2023, 3, 1, 0, 0);
+        ArchiveSegment.write(path, List.of(row(1, 1, date, "1.00", "KRW", "1.00", null)), 16);
+        ArchiveSegment previous = ArchiveSegment.open(0, MONTH, path);
+
+        ArchiveSegment.write(path, List.of(row(1, 1, date, "1.00", "KRW", "1.00", null),
+                row(2, 1, date, "2.00", "KRW", "2.00", null)), 16);
+
+        assertEquals(2, ArchiveSegment.open(0, MONTH, path).rowCount());
+        // 이미 열려 있던 쪽은 기존 매핑을 계속 읽는다.
+        assertEquals(1, previous.readAll().size());
+        assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".tmp")));
+    }
+
+    @Test
+    void openRejectsFilesThatAreNotSegments() throws IOException {
+        Path path = directory.resolve("transactions-202303.ftxa");
+        Files.write(path, new byte[64]);
+
+        assertThrows(IOException.class, () -> ArchiveSegment.open(0, MONTH, path));
+    }
+
+    private ArchiveSegment writeAndOpen(List<ArchivedTransaction> rows, int rowGroupSize) throws IOException {
+        Path path = directory.resolve("shard-0").resolve("transactions-202303.ftxa");
+        ArchiveSegment.write(path, rows, rowGroupSize);
+        return ArchiveSegment.open(0, MONTH, path);
+    }
+
+    static ArchivedTransaction row(long id, long userId, LocalDateTime date, String amount, String currency,
+                                   String baseAmount, LocalDateTime updatedAt) {
+        BigDecimal value = new BigDecimal(amount);
+        return new ArchivedTransaction(id, userId, id % 5, value, currency, new BigDecimal(baseAmount),
+                "tx-" + id, value.signum() < 0 ? Transaction.TransactionType.EXPENSE : Transaction.TransactionType.INCOME,
+                date, date.plusSeconds(id % 60), updatedAt, id % 3);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.finance.infrastructure.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ColumnCodecTest {
+
+    @Test
+    void longsRoundTripIncludingNegativeAndExtremeValues() {
+        long[] values = {0, 1, -1, 63, -64, 64, -65, 1L << 35, -(1L << 35),
+                Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        ColumnCodec.Encoder encoder = new ColumnCodec.Encoder();
+        for (long value : values) {
+            encoder.putLong(value);
+        }
+
+        ColumnCodec.Decoder decoder = new ColumnCodec.Decoder(encoder.toByteArray());
+        for (long value : values) {
+            assertEquals(value, decoder.getLong());
+        }
+    }
+
+    @Test
+    void smallNegativeDeltasStayOneByte() {
+        for (long value : new long[]{-1, -64, 63}) {
+            ColumnCodec.Encoder encoder = new ColumnCodec.Encoder();
+            encoder.putLong(value);
+            assertEquals(1, encoder.toByteArray().length, String.valueOf(value));
+        }
+        ColumnCodec.Encoder encoder = new ColumnCodec.Encoder();
+        encoder.putLong(-65);
+        assertEquals(2, encoder.toByteArray().length);
+    }
+
+    @Test
+    void stringsRoundTripAndCanBeSkipped() {
+        String longText = "x".repeat(5000);
+        ColumnCodec.Encoder encoder = new ColumnCodec.Encoder();
+        encoder.putString("");
+        encoder.putString("점심 식사");
+        encoder.putString(longText);
+        encoder.putByte((byte) 1);
+
+        ColumnCodec.Decoder decoder = new ColumnCodec.Decoder(encoder.toByteArray());
+        assertEquals("", decoder.getString());
+        decoder.skipString();
+        assertEquals(longText, decoder.getString());
+        assertEquals(1, decoder.getByte());
+    }
+
+    @Test
+    void deflateRoundTripsEmptyAndLargeColumns() {
+        byte[] large = "0123456789".repeat(10_000).getBytes(StandardCharsets.US_ASCII);
+        for (byte[] raw : new byte[][]{new byte[0], large}) {
+            byte[] compressed = ColumnCodec.deflate(raw);
+            assertArrayEquals(raw, ColumnCodec.inflate(ByteBuffer.wrap(compressed), raw.length));
+        }
+    }
+
+    @Test
+    void inflateRejectsWrongLengthAndGarbage() {
+        byte[] compressed = ColumnCodec.deflate(new byte[]{1, 2, 3});
+
+        assertThrows(IllegalStateException.class, () -> ColumnCodec.inflate(ByteBuffer.wrap(compressed), 4));
+        assertThrows(IllegalStateException.class,
+                () -> ColumnCodec.inflate(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}), 3));
+    }
+
+    @Test
+    void microsRoundTripBeforeAndAfterEpoch() {
+        for (LocalDateTime time : new LocalDateTime[]{
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000),
+                LocalDateTime.of(1970, 1, 1, 0, 0),
+                LocalDateTime.of(1950, 6, 15, 12, 0, 0, 1_000),
+                LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_456_000)}) {
+            assertEquals(time, ColumnCodec.fromMicros(ColumnCodec.toMicros(time)));
+        }
+        assertEquals(-1, ColumnCodec.toMicros(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.finance.infrastructure.archive;
+
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import com.example.finance.support.NoopTransactionManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.example.finance.infrastructure.archive.ArchiveSegmentTest.row;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *  파일을 바꿔 끼운 뒤 행을 지우기 전에 멈춘 경우, 재시작 후 다음 실행이 기존 파일과 남은 행을 중복 없이 합치는지 확인한다.
+ */
+class TransactionArchiverTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2020, 1);
+    private static final LocalDateTime DATE = MONTH.atDay(10).atStartOfDay();
+
+    @TempDir
+    Path directory;
+
+    private final FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate();
+    private final ShardRouter shardRouter = new ShardRouter(new ShardingProperties(false, List.of(), null, null, null),
+            new TransactionTemplate(new NoopTransactionManager()));
+    private final List<Object> events = new ArrayList<>();
+
+    @Test
+    void crashBetweenInstallAndDeleteIsMergedOnNextRun() throws IOException {
+        jdbcTemplate.rows.addAll(List.of(row(1, 1, DATE, "1.00", "KRW", "1.00", null),
+                row(2, 1, DATE, "2.00", "KRW", "2.00", null),
+                row(3, 2, DATE, "3.00", "KRW", "3.00", null)));
+        jdbcTemplate.failDeletes = true;
+
+        archiver(catalog()).compact();
+
+        // 파일은 바뀌었지만 행은 그대로 남아 있다.
+        assertEquals(3, jdbcTemplate.rows.size());
+        assertTrue(events.isEmpty());
+
+        // 재시작 전에 남은 행 하나가 수정되고, 같은 달에 행 하나가 더 들어왔다.
+        ArchivedTransaction updated = new ArchivedTransaction(2, 1, 2, new BigDecimal("20.00"), "KRW",
+                new BigDecimal("20.00"), "tx-2", jdbcTemplate.rows.get(1).type(),
+                DATE, DATE.plusSeconds(2), DATE.plusDays(1), 3);
+        jdbcTemplate.rows.set(1, updated);
+        jdbcTemplate.rows.add(row(4, 2, DATE.plusDays(5), "4.00", "KRW", "4.00", null));
+        jdbcTemplate.failDeletes = false;
+
+        ArchiveCatalog restarted = catalog();
+        restarted.loadSegments();
+        assertEquals(3, restarted.findAll(0).size());
+        archiver(restarted).compact();
+
+        List<ArchivedTransaction> archived = restarted.findAll(0).stream()
+                .sorted(Comparator.comparingLong(ArchivedTransaction::id))
+                .toList();
+        assertEquals(List.of(1L, 2L, 3L, 4L), archived.stream().map(ArchivedTransaction::id).toList());
+        assertEquals(updated, archived.get(1));
+        assertTrue(jdbcTemplate.rows.isEmpty());
+        assertEquals(1, events.size());
+        assertEquals(4, ((TransactionsArchivedEvent) events.get(0)).transactions().size());
+    }
+
+    @Test
+    void rowUpdatedAfterReadStaysInTable() throws IOException {
+        jdbcTemplate.rows.add(row(1, 1, DATE, "1.00", "KRW", "1.00", null));
+        // 읽은 뒤 DELETE 전에 버전이 올라간 것처럼 지우지 못하게 한다.
+        jdbcTemplate.staleIds.add(1L);
+
+        ArchiveCatalog catalog = catalog();
+        archiver(catalog).compact();
+
+        assertEquals(1, jdbcTemplate.rows.size());
+        assertEquals(1, catalog.findAll(0).size());
+    }
+
+    private ArchiveCatalog catalog() {
+        return new ArchiveCatalog(properties());
+    }
+
+    private TransactionArchiver archiver(ArchiveCatalog catalog) {
+        return new TransactionArchiver(jdbcTemplate, shardRouter, catalog, events::add, properties());
+    }
+
+    private ArchiveProperties properties() {
+        return new ArchiveProperties(true, directory, 1, 2, null);
+    }
+
+    /**
+     * transactions 테이블을 목록으로 흉내 낸다.
+     */
+    private static class FakeJdbcTemplate extends JdbcTemplate {
+        final List<ArchivedTransaction> rows = new ArrayList<>();
+        final List<Long> staleIds = new ArrayList<>();
+        boolean failDeletes;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            return (T) rows.stream().map(ArchivedTransaction::transactionDate).min(Comparator.naturalOrder())
+                    .orElse(null);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            LocalDateTime from = (LocalDateTime) args[0];
+            LocalDateTime to = (LocalDateTime) args[1];
+            return (List<T>) rows.stream()
+                    .filter(row -> !row.transactionDate().isBefore(from) && row.transactionDate().isBefore(to))
+                    .toList();
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (failDeletes) {
+                throw new DataAccessResourceFailureException("connection lost");
+            }
+            int[] counts = new int[batchArgs.size()];
+            for (int i = 0; i < batchArgs.size(); i++) {
+                long id = (long) batchArgs.get(i)[0];
+                long version = (long) batchArgs.get(i)[1];
+                if (!staleIds.contains(id)
+                        && rows.removeIf(row -> row.id() == id && row.version() == version)) {
+                    counts[i] = 1;
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.finance.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void reusesValueUntilTtlExpires() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofSeconds(10), 100, clock::get);
+
+        assertEquals(1, cache.get("a", this::load, value -> true).join());
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(1, cache.get("a", this::load, value -> true).join());
+        clock.addAndGet(1);
+        assertEquals(2, cache.get("a", this::load, value -> true).join());
+    }
+
+    @Test
+    void failedAndUncacheableResultsAreNotKept() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofSeconds(10), 100, clock::get);
+
+        CompletableFuture<Integer> failed = cache.get("a",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("boom")), value -> true);
+        assertTrue(failed.isCompletedExceptionally());
+        assertThrows(IllegalStateException.class, () -> cache.get("a", () -> {
+            throw new IllegalStateException("boom");
+        }, value -> true));
+        assertEquals(1, cache.get("a", this::load, value -> false).join());
+        assertEquals(2, cache.get("a", this::load, value -> true).join());
+        assertEquals(2, cache.get("a", this::load, value -> true).join());
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofSeconds(10), 100, clock::get);
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+
+        CompletableFuture<Integer> first = cache.get("a", () -> {
+            loads.incrementAndGet();
+            return pending;
+        }, value -> true);
+        CompletableFuture<Integer> second = cache.get("a", this::load, value -> true);
+        pending.complete(42);
+
+        assertEquals(42, first.join());
+        assertEquals(42, second.join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void differentTagIsRejected() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(Duration.ofSeconds(10), 100, clock::get);
+        cache.get("a", "x", this::load, value -> true, IllegalStateException::new);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> cache.get("a", "y", this::load, value -> true, IllegalArgumentException::new));
+        assertEquals(1, cache.get("a", "x", this::load, value -> true, IllegalStateException::new).join());
+    }
+
+    @Test
+    void evictsOldestCompletedEntriesOverLimit() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(Duration.ofHours(1), 10, clock::get);
+        for (int key = 0; key < 1_000; key++) {
+            cache.get(key, this::load, value -> true);
+            assertTrue(cache.size() <= 10, "size " + cache.size());
+        }
+
+        int before = loads.get();
+        cache.get(999, this::load, value -> true);
+        assertEquals(before, loads.get());
+        cache.get(0, this::load, value -> true);
+        assertEquals(before + 1, loads.get());
+    }
+
+    @Test
+    void keepsInFlightEntriesOverLimit() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(Duration.ofHours(1), 2, clock::get);
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        cache.get(0, () -> pending, value -> true);
+
+        for (int key = 1; key < 100; key++) {
+            cache.get(key, this::load, value -> true);
+        }
+        CompletableFuture<Integer> joined = cache.get(0, this::load, value -> true);
+        pending.complete(7);
+
+        assertEquals(7, joined.join());
+        assertTrue(cache.size() <= 3, "size " + cache.size());
+    }
+
+    @Test
+    void rejectsNewKeysWhenFullInsteadOfEvicting() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(Duration.ofHours(1), 10,
+                IllegalStateException::new, clock::get);
+        for (int key = 0; key < 10; key++) {
+            cache.get(key, this::load, value -> true);
+        }
+
+        assertThrows(IllegalStateException.class, () -> cache.get(10, this::load, value -> true));
+        assertEquals(10, loads.get());
+        assertEquals(10, cache.size());
+        assertEquals(1, cache.get(0, this::load, value -> true).join());
+        assertEquals(10, loads.get());
+    }
+
+    @Test
+    void expiredEntriesMakeRoomWhenFull() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(Duration.ofHours(1), 10,
+                IllegalStateException::new, clock::get);
+        for (int key = 0; key < 10; key++) {
+            cache.get(key, this::load, value -> true);
+            clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        }
+        // 처음 두 키만 TTL 이 지났다.
+        clock.addAndGet(Duration.ofMinutes(51).toNanos() + 1);
+
+        assertEquals(11, cache.get(10, this::load, value -> true).join());
+        assertEquals(12, cache.get(11, this::load, value -> true).join());
+        assertThrows(IllegalStateException.class, () -> cache.get(12, this::load, value -> true));
+        assertEquals(3, cache.get(2, this::load, value -> true).join());
+    }
+
+    @Test
+    void expiredEntriesAreDroppedWithoutFullScan() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(Duration.ofSeconds(1), 1_000, clock::get);
+        for (int key = 0; key < 100; key++) {
+            cache.get(key, this::load, value -> true);
+        }
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        for (int key = 100; key < 120; key++) {
+            cache.get(key, this::load, value -> true);
+        }
+
+        assertEquals(20, cache.size());
+    }
+
+    private CompletableFuture<Integer> load() {
+        return CompletableFuture.completedFuture(loads.incrementAndGet());
+    }
+}
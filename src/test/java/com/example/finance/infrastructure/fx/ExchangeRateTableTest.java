@@ -0,0 +1,98 @@
+package com.example.finance.infrastructure.fx;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExchangeRateTableTest {
+
+    private static final String RATES = """
+            # version=2025-07-01
+            # 주석과 빈 줄은 건너뛴다.
+            date,currency,rate
+
+            2025-01-01,USD,1470.00
+            2024-01-01,USD,1300.00
+            2025-07-01, usd ,1380.50
+            2024-01-01,JPY,9.20
+            """;
+
+    @Test
+    void parsesVersionAndCurrencies() throws IOException {
+        ExchangeRateTable table = parse(RATES);
+
+        assertEquals("2025-07-01", table.version());
+        assertEquals("KRW", table.baseCurrency());
+        assertEquals(List.of("JPY", "KRW", "USD"), table.currencies());
+    }
+
+    @Test
+    void rateChangesExactlyOnStartDate() throws IOException {
+        ExchangeRateTable table = parse(RATES);
+
+        assertEquals(Optional.empty(), table.rate("USD", LocalDate.of(2023, 12, 31)));
+        assertEquals(rate("1300.00"), table.rate("USD", LocalDate.of(2024, 1, 1)));
+        assertEquals(rate("1300.00"), table.rate("USD", LocalDate.of(2024, 12, 31)));
+        assertEquals(rate("1470.00"), table.rate("USD", LocalDate.of(2025, 1, 1)));
+        assertEquals(rate("1470.00"), table.rate("USD", LocalDate.of(2025, 6, 30)));
+        assertEquals(rate("1380.50"), table.rate("USD", LocalDate.of(2025, 7, 1)));
+    }
+
+    @Test
+    void lastRateAppliesToEveryLaterDate() throws IOException {
+        ExchangeRateTable table = parse(RATES);
+
+        assertEquals(rate("1380.50"), table.rate("USD", LocalDate.of(2100, 1, 1)));
+        assertEquals(rate("1380.50"), table.rate("USD", LocalDate.ofEpochDay(Integer.MAX_VALUE + 20_000L)));
+        assertEquals(rate("1380.50"), table.rate("USD", LocalDate.MAX));
+        assertEquals(Optional.empty(), table.rate("USD", LocalDate.MIN));
+        assertEquals(rate("9.20"), table.rate("JPY", LocalDate.MAX));
+    }
+
+    @Test
+    void unsupportedCurrencyHasNoRate() throws IOException {
+        ExchangeRateTable table = parse(RATES);
+
+        assertEquals(Optional.empty(), table.rate("EUR", LocalDate.of(2025, 1, 1)));
+        // 조회하는 쪽이 대문자로 맞춘다.
+        assertEquals(Optional.empty(), table.rate("usd", LocalDate.of(2025, 1, 1)));
+        assertEquals(rate("1"), table.rate("KRW", LocalDate.MIN));
+    }
+
+    @Test
+    void laterRowForSameDateReplacesEarlierOne() throws IOException {
+        ExchangeRateTable table = parse("""
+                # version=1
+                2025-01-01,USD,1470.00
+                2025-01-01,USD,1475.00
+                """);
+
+        assertEquals(rate("1475.00"), table.rate("USD", LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    void rejectsMalformedFiles() {
+        assertThrows(IOException.class, () -> parse("2025-01-01,USD,1470.00\n"));
+        assertThrows(IOException.class, () -> parse("# version=1\n2025-01-01,USD\n"));
+        assertThrows(IOException.class, () -> parse("# version=1\n2025-13-01,USD,1470.00\n"));
+        assertThrows(IOException.class, () -> parse("# version=1\n2025-01-01,USD,abc\n"));
+        assertThrows(IOException.class, () -> parse("# version=1\n2025-01-01,USD,0\n"));
+        assertThrows(IOException.class, () -> parse("# version=1\n2025-01-01,USD,-1.5\n"));
+    }
+
+    private static ExchangeRateTable parse(String csv) throws IOException {
+        return ExchangeRateTable.parse(new StringReader(csv), "KRW");
+    }
+
+    private static Optional<BigDecimal> rate(String value) {
+        return Optional.of(new BigDecimal(value));
+    }
+}
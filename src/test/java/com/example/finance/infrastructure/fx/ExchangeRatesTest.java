@@ -0,0 +1,130 @@
+package com.example.finance.infrastructure.fx;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ *  임시 파일을 환율표 위치로 두고 버전이 바뀔 때만 교체하는지 확인한다.
+ */
+class ExchangeRatesTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void bundledRatesLoad() {
+        ExchangeRates rates = new ExchangeRates(new DefaultResourceLoader(), new ExchangeRateProperties(null, null, null));
+        rates.load();
+
+        assertEquals("KRW", rates.baseCurrency());
+        assertEquals(new BigDecimal("1450.00"), rates.toBase(BigDecimal.ONE, "USD", LocalDate.of(2026, 1, 1)));
+    }
+
+    @Test
+    void convertsWithRateOfTransactionDate() throws IOException {
+        ExchangeRates rates = load("""
+                # version=1
+                2025-01-01,USD,1470.00
+                2025-07-01,USD,1380.00
+                """);
+
+        assertEquals(new BigDecimal("14700.00"), rates.toBase(BigDecimal.TEN, "usd", LocalDate.of(2025, 6, 30)));
+        assertEquals(new BigDecimal("13800.00"), rates.toBase(BigDecimal.TEN, " USD ", LocalDate.of(2025, 7, 1)));
+        assertEquals(new BigDecimal("1234.57"), rates.toBase(new BigDecimal("1234.567"), null, LocalDate.MIN));
+        assertEquals(new BigDecimal("1234.57"), rates.toBase(new BigDecimal("1234.567"), "krw", LocalDate.MIN));
+    }
+
+    @Test
+    void unsupportedCurrencyOrEarlyDateIsRejected() throws IOException {
+        ExchangeRates rates = load("""
+                # version=1
+                2025-01-01,USD,1470.00
+                """);
+
+        assertThrows(UnsupportedCurrencyException.class,
+                () -> rates.toBase(BigDecimal.ONE, "EUR", LocalDate.of(2025, 1, 1)));
+        assertThrows(UnsupportedCurrencyException.class,
+                () -> rates.toBase(BigDecimal.ONE, "USD", LocalDate.of(2024, 12, 31)));
+    }
+
+    @Test
+    void reloadSwapsTableOnlyWhenVersionChanges() throws IOException {
+        ExchangeRates rates = load("""
+                # version=1
+                2025-01-01,USD,1470.00
+                """);
+        LocalDate date = LocalDate.of(2025, 1, 1);
+
+        // 버전이 같으면 내용이 바뀌어도 그대로 둔다.
+        write("""
+                # version=1
+                2025-01-01,USD,1500.00
+                """);
+        rates.reload();
+        assertEquals(new BigDecimal("1470.00"), rates.toBase(BigDecimal.ONE, "USD", date));
+
+        write("""
+                # version=2
+                2025-01-01,USD,1500.00
+                2025-01-01,EUR,1600.00
+                """);
+        rates.reload();
+        assertEquals("2", rates.version());
+        assertEquals(new BigDecimal("1500.00"), rates.toBase(BigDecimal.ONE, "USD", date));
+        assertEquals(new BigDecimal("1600.00"), rates.toBase(BigDecimal.ONE, "EUR", date));
+    }
+
+    @Test
+    void failedReloadKeepsPreviousTable() throws IOException {
+        ExchangeRates rates = load("""
+                # version=1
+                2025-01-01,USD,1470.00
+                """);
+
+        write("""
+                # version=2
+                2025-01-01,USD
+                """);
+        rates.reload();
+        assertEquals("1", rates.version());
+
+        Files.delete(directory.resolve("rates.csv"));
+        rates.reload();
+        assertEquals("1", rates.version());
+        assertEquals(new BigDecimal("1470.00"), rates.toBase(BigDecimal.ONE, "USD", LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    void unreadableRatesFailStartup() throws IOException {
+        write("2025-01-01,USD,1470.00\n");
+        ExchangeRates rates = new ExchangeRates(new DefaultResourceLoader(), properties());
+
+        assertThrows(UncheckedIOException.class, rates::load);
+    }
+
+    private ExchangeRates load(String csv) throws IOException {
+        write(csv);
+        ExchangeRates rates = new ExchangeRates(new DefaultResourceLoader(), properties());
+        rates.load();
+        return rates;
+    }
+
+    private void write(String csv) throws IOException {
+        Files.writeString(directory.resolve("rates.csv"), csv);
+    }
+
+    private ExchangeRateProperties properties() {
+        return new ExchangeRateProperties("krw", directory.resolve("rates.csv").toUri().toString(), null);
+    }
+}
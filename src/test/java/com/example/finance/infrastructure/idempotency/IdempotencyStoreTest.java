@@ -0,0 +1,124 @@
+package com.example.finance.infrastructure.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(Duration.ofHours(24), 100);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void concurrentRequestsWithSameKeyRunOnce() throws Exception {
+        int callers = 8;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                responses.add(executor.submit(() -> store.execute("key", "create:1", () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return "created";
+                }, response -> true)));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            for (Future<String> response : responses) {
+                assertEquals("created", response.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void retryReplaysStoredResponse() {
+        assertEquals("1", store.execute("key", "create:1", this::run, response -> true));
+        assertEquals("1", store.execute("key", "create:1", this::run, response -> true));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void sameKeyWithDifferentRequestIsRejected() {
+        store.execute("key", "create:1", this::run, response -> true);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> store.execute("key", "create:2", this::run, response -> true));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failuresAreNotStored() {
+        assertThrows(IllegalStateException.class, () -> store.execute("key", "create:1", () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }, response -> true));
+
+        assertEquals("2", store.execute("key", "create:1", this::run, response -> true));
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void uncacheableResponsesAreNotStored() {
+        store.execute("key", "create:1", this::run, response -> false);
+
+        assertEquals("2", store.execute("key", "create:1", this::run, response -> true));
+    }
+
+    @Test
+    void fullStoreRejectsNewKeysAndKeepsStoredOnes() {
+        for (int i = 0; i < 100; i++) {
+            store.execute("key-" + i, "create", this::run, response -> true);
+        }
+
+        assertThrows(IdempotencyStoreFullException.class,
+                () -> store.execute("key-100", "create", this::run, response -> true));
+        assertEquals(100, executions.get());
+        // 가장 오래된 키도 TTL 안이면 다시 실행하지 않고 저장된 응답을 돌려준다.
+        assertEquals("1", store.execute("key-0", "create", this::run, response -> true));
+        assertEquals("100", store.execute("key-99", "create", this::run, response -> true));
+        assertEquals(100, executions.get());
+    }
+
+    @Test
+    void failedRequestsDoNotFillStore() {
+        for (int i = 0; i < 1_000; i++) {
+            int attempt = i;
+            assertThrows(IllegalStateException.class, () -> store.execute("failed-" + attempt, "create", () -> {
+                throw new IllegalStateException("boom");
+            }, response -> true));
+        }
+
+        assertEquals("1", store.execute("key", "create", this::run, response -> true));
+    }
+
+    private String run() {
+        return String.valueOf(executions.incrementAndGet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
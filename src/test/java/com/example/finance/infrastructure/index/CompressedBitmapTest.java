@@ -0,0 +1,224 @@
+package com.example.finance.infrastructure.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedBitmapTest {
+
+    // 컨테이너 하나에 배열로 담을 수 있는 최대 개수
+    private static final int ARRAY_LIMIT = 4096;
+
+    @Test
+    void addAndRemoveAcrossContainerKeys() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+
+        assertTrue(bitmap.add(0));
+        assertTrue(bitmap.add(0xffff));
+        assertTrue(bitmap.add(0x10000));
+        assertTrue(bitmap.add(Integer.MAX_VALUE));
+        assertFalse(bitmap.add(0x10000));
+
+        assertEquals(4, bitmap.cardinality());
+        assertArrayEquals(new int[]{0, 0xffff, 0x10000, Integer.MAX_VALUE}, toArray(bitmap));
+
+        assertTrue(bitmap.remove(0xffff));
+        assertFalse(bitmap.remove(0xffff));
+        assertFalse(bitmap.remove(-1));
+        assertFalse(bitmap.contains(0xffff));
+        assertArrayEquals(new int[]{0, 0x10000, Integer.MAX_VALUE}, toArray(bitmap));
+    }
+
+    @Test
+    void removingLastValueDropsContainer() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(5);
+        bitmap.add(0x20005);
+
+        bitmap.remove(5);
+        bitmap.remove(0x20005);
+
+        assertTrue(bitmap.isEmpty());
+        assertFalse(bitmap.iterator().hasNext());
+    }
+
+    @Test
+    void rejectsNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> new CompressedBitmap().add(-1));
+        assertFalse(new CompressedBitmap().contains(-1));
+    }
+
+    @Test
+    void convertsBetweenArrayAndBitmapContainersAtLimit() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value = 0; value < ARRAY_LIMIT; value++) {
+            bitmap.add(value * 2);
+        }
+        assertTrue(bitmap.add(ARRAY_LIMIT * 2));
+        assertEquals(ARRAY_LIMIT + 1, bitmap.cardinality());
+        assertTrue(bitmap.contains(ARRAY_LIMIT * 2));
+        assertFalse(bitmap.contains(1));
+
+        assertTrue(bitmap.remove(0));
+        assertEquals(ARRAY_LIMIT, bitmap.cardinality());
+        assertFalse(bitmap.contains(0));
+        assertTrue(bitmap.contains(2));
+
+        assertTrue(bitmap.add(0));
+        assertTrue(bitmap.remove(ARRAY_LIMIT * 2));
+        assertEquals(ARRAY_LIMIT, bitmap.cardinality());
+        assertEquals(ARRAY_LIMIT, toArray(bitmap).length);
+    }
+
+    @Test
+    void andOfArrayAndBitmapContainers() {
+        CompressedBitmap dense = range(0, 20_000);
+        CompressedBitmap sparse = new CompressedBitmap();
+        sparse.add(3);
+        sparse.add(19_999);
+        sparse.add(20_000);
+        sparse.add(0x10003);
+
+        assertArrayEquals(new int[]{3, 19_999}, toArray(CompressedBitmap.and(dense, sparse)));
+        assertArrayEquals(new int[]{3, 19_999}, toArray(CompressedBitmap.and(sparse, dense)));
+    }
+
+    @Test
+    void andOfTwoBitmapContainersShrinksToArray() {
+        CompressedBitmap left = range(0, 10_000);
+        CompressedBitmap right = range(9_000, 20_000);
+
+        CompressedBitmap result = CompressedBitmap.and(left, right);
+
+        assertEquals(1_000, result.cardinality());
+        assertArrayEquals(toArray(range(9_000, 10_000)), toArray(result));
+    }
+
+    @Test
+    void andWithoutCommonKeysIsEmpty() {
+        CompressedBitmap result = CompressedBitmap.and(range(0, 10), range(0x10000, 0x10010));
+
+        assertTrue(result.isEmpty());
+        assertTrue(CompressedBitmap.and(new CompressedBitmap(), range(0, 10)).isEmpty());
+    }
+
+    @Test
+    void orOfArraysOverLimitBecomesBitmap() {
+        CompressedBitmap evens = new CompressedBitmap();
+        CompressedBitmap odds = new CompressedBitmap();
+        for (int value = 0; value < 6_000; value += 2) {
+            evens.add(value);
+            odds.add(value + 1);
+        }
+
+        CompressedBitmap result = CompressedBitmap.or(evens, odds);
+
+        assertEquals(6_000, result.cardinality());
+        assertArrayEquals(toArray(range(0, 6_000)), toArray(result));
+    }
+
+    @Test
+    void orKeepsOperandsUnchanged() {
+        CompressedBitmap left = range(0, 5_000);
+        CompressedBitmap right = range(0x10000, 0x10005);
+
+        CompressedBitmap result = CompressedBitmap.or(left, right);
+        result.add(7_000);
+        result.remove(0x10000);
+
+        assertEquals(5_000, left.cardinality());
+        assertFalse(left.contains(7_000));
+        assertTrue(right.contains(0x10000));
+        assertEquals(5_005, result.cardinality());
+    }
+
+    @Test
+    void copyIsIndependent() {
+        CompressedBitmap original = range(0, 5_000);
+        CompressedBitmap copy = original.copy();
+
+        copy.remove(10);
+        original.add(9_999);
+
+        assertTrue(original.contains(10));
+        assertFalse(copy.contains(9_999));
+    }
+
+    @Test
+    void iteratorCrossesBitmapContainerEnd() {
+        CompressedBitmap bitmap = CompressedBitmap.or(range(0, 5_000), range(0xfff0, 0x10010));
+
+        PrimitiveIterator.OfInt iterator = bitmap.iterator();
+        int expected = 0;
+        while (iterator.hasNext()) {
+            int value = iterator.nextInt();
+            if (expected == 5_000) {
+                expected = 0xfff0;
+            }
+            assertEquals(expected++, value);
+        }
+        assertEquals(0x10010, expected);
+    }
+
+    @Test
+    void matchesTreeSetUnderRandomOperations() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int round = 0; round < 20; round++) {
+            // 구간 폭을 바꿔 가며 배열, 비트맵 컨테이너가 섞이도록 한다.
+            int bound = 1 << (12 + round % 8);
+            CompressedBitmap left = new CompressedBitmap();
+            CompressedBitmap right = new CompressedBitmap();
+            TreeSet<Integer> leftSet = new TreeSet<>();
+            TreeSet<Integer> rightSet = new TreeSet<>();
+            for (int i = 0; i < 20_000; i++) {
+                int value = random.nextInt(bound);
+                if (random.nextInt(4) == 0) {
+                    assertEquals(leftSet.remove(value), left.remove(value));
+                } else {
+                    assertEquals(leftSet.add(value), left.add(value));
+                }
+                int other = random.nextInt(bound);
+                assertEquals(rightSet.add(other), right.add(other));
+            }
+
+            TreeSet<Integer> and = new TreeSet<>(leftSet);
+            and.retainAll(rightSet);
+            TreeSet<Integer> or = new TreeSet<>(leftSet);
+            or.addAll(rightSet);
+
+            assertArrayEquals(toArray(leftSet), toArray(left));
+            assertArrayEquals(toArray(and), toArray(CompressedBitmap.and(left, right)));
+            assertArrayEquals(toArray(or), toArray(CompressedBitmap.or(left, right)));
+            assertEquals(and.size(), CompressedBitmap.and(left, right).cardinality());
+            assertEquals(or.size(), CompressedBitmap.or(left, right).cardinality());
+        }
+    }
+
+    private static CompressedBitmap range(int from, int to) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value = from; value < to; value++) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    private static int[] toArray(CompressedBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        bitmap.iterator().forEachRemaining((int value) -> values.add(value));
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] toArray(TreeSet<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.finance.infrastructure.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ *  미터 대신 record 호출을 records 에 남기는 ResourceMetrics. 사용량은 실제 스레드 값으로 잰다.
+ */
+class RecordingResourceMetrics extends ResourceMetrics {
+
+    final List<Recorded> records = new CopyOnWriteArrayList<>();
+
+    RecordingResourceMetrics(boolean enabled) {
+        super(new SimpleMeterRegistry(), enabled);
+    }
+
+    @Override
+    public void record(String kind, String name, String endpoint, Usage usage) {
+        if (usage != null) {
+            records.add(new Recorded(kind, name, endpoint, usage));
+        }
+    }
+
+    List<Recorded> of(String kind) {
+        return records.stream().filter(recorded -> recorded.kind().equals(kind)).toList();
+    }
+
+    record Recorded(String kind, String name, String endpoint, Usage usage) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.finance.infrastructure.metrics;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ResourceAccountingFilterTest {
+
+    private static final int MB = 1024 * 1024;
+    private static final String ENDPOINT = "TransactionController.createTransaction";
+
+    // 할당이 최적화로 사라지지 않도록 결과를 남겨 둔다.
+    private static volatile byte[] sink;
+
+    private final RecordingResourceMetrics metrics = new RecordingResourceMetrics(true);
+    private final ResourceAccountingFilter filter = new ResourceAccountingFilter(metrics);
+    private final ResourceTaskDecorator decorator = new ResourceTaskDecorator("sagaExecutor", metrics);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(metrics.isEnabled(), "thread allocation measurement is not supported");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void synchronousRequestIsRecordedOnce() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/transactions"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    handledBy(ENDPOINT);
+                    sink = new byte[MB];
+                });
+
+        List<RecordingResourceMetrics.Recorded> requests = metrics.of(ResourceMetrics.REQUEST);
+        assertEquals(1, requests.size());
+        assertEquals(ENDPOINT, requests.get(0).name());
+        assertEquals(ENDPOINT, requests.get(0).endpoint());
+        assertTrue(requests.get(0).usage().allocatedBytes() >= MB);
+        assertNull(ResourceScope.current());
+    }
+
+    @Test
+    void asyncRequestIsRecordedAfterLastDispatchWithExecutorWork() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // 컨트롤러가 실행기에 작업을 넘기고 CompletableFuture 를 반환한 경우
+        filter.doFilter(request, response, (req, res) -> {
+            handledBy(ENDPOINT);
+            sink = new byte[MB];
+            CompletableFuture.runAsync(decorator.decorate(() -> sink = new byte[MB]), executor).join();
+            req.startAsync();
+        });
+
+        assertTrue(metrics.of(ResourceMetrics.REQUEST).isEmpty());
+        assertNull(ResourceScope.current());
+
+        // 결과를 직렬화하는 async dispatch
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, (req, res) -> sink = new byte[MB]);
+
+        List<RecordingResourceMetrics.Recorded> requests = metrics.of(ResourceMetrics.REQUEST);
+        assertEquals(1, requests.size());
+        assertEquals(ENDPOINT, requests.get(0).endpoint());
+        RecordingResourceMetrics.Recorded task = metrics.of(ResourceMetrics.TASK).get(0);
+        assertEquals(ENDPOINT, task.endpoint());
+        // 두 dispatch 와 실행기 작업이 모두 요청 합계에 들어간다.
+        assertTrue(requests.get(0).usage().allocatedBytes() >= task.usage().allocatedBytes() + 2L * MB);
+    }
+
+    @Test
+    void taskFinishingAfterResponseIsRecordedOnlyAsTask() throws Exception {
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[1];
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/transactions/saga"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    handledBy(ENDPOINT);
+                    pending[0] = CompletableFuture.runAsync(decorator.decorate(() -> {
+                        release.join();
+                        sink = new byte[8 * MB];
+                    }), executor);
+                });
+
+        List<RecordingResourceMetrics.Recorded> requests = metrics.of(ResourceMetrics.REQUEST);
+        assertEquals(1, requests.size());
+
+        release.complete(null);
+        pending[0].join();
+
+        // 이미 기록된 요청 값은 바뀌지 않고, 작업은 같은 엔드포인트의 task 로만 남는다.
+        assertEquals(1, metrics.of(ResourceMetrics.REQUEST).size());
+        RecordingResourceMetrics.Recorded task = metrics.of(ResourceMetrics.TASK).get(0);
+        assertEquals(ENDPOINT, task.endpoint());
+        assertTrue(task.usage().allocatedBytes() >= 8L * MB);
+        assertTrue(requests.get(0).usage().allocatedBytes() < task.usage().allocatedBytes());
+    }
+
+    @Test
+    void unmappedRequestIsRecordedAsUnmapped() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/missing"), new MockHttpServletResponse(),
+                (request, response) -> sink = new byte[16]);
+
+        assertEquals(ResourceScope.UNMAPPED, metrics.of(ResourceMetrics.REQUEST).get(0).endpoint());
+    }
+
+    @Test
+    void disabledMetricsSkipAccounting() throws Exception {
+        ResourceAccountingFilter disabled = new ResourceAccountingFilter(new RecordingResourceMetrics(false));
+        boolean[] called = new boolean[1];
+        FilterChain chain = (request, response) -> {
+            called[0] = true;
+            assertNull(ResourceScope.current());
+        };
+
+        disabled.doFilter(new MockHttpServletRequest("GET", "/api/transactions"), new MockHttpServletResponse(), chain);
+
+        assertTrue(called[0]);
+    }
+
+    /**
+     * ResourceAccountingInterceptor 가 핸들러 이름을 붙이는 것과 같다.
+     */
+    private static void handledBy(String endpoint) {
+        ResourceScope.current().nameEndpoint(endpoint);
+    }
+}
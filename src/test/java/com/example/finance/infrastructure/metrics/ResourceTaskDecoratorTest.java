@@ -0,0 +1,132 @@
+package com.example.finance.infrastructure.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ResourceTaskDecoratorTest {
+
+    private static final int MB = 1024 * 1024;
+    private static final String ENDPOINT = "TransactionController.createTransactionWithSaga";
+
+    // 할당이 최적화로 사라지지 않도록 결과를 남겨 둔다.
+    private static volatile byte[] sink;
+
+    private final RecordingResourceMetrics metrics = new RecordingResourceMetrics(true);
+    private final ResourceTaskDecorator decorator = new ResourceTaskDecorator("sagaExecutor", metrics);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(metrics.isEnabled(), "thread allocation measurement is not supported");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void taskRunsInSubmittersScopeOnExecutorThread() {
+        ResourceScope scope = scope();
+        AtomicReference<ResourceScope> seen = new AtomicReference<>();
+        AtomicReference<String> endpoint = new AtomicReference<>();
+        Runnable task = submittedFrom(scope, () -> {
+            seen.set(ResourceScope.current());
+            endpoint.set(ResourceScope.currentEndpoint());
+        });
+
+        CompletableFuture.runAsync(task, executor).join();
+
+        assertSame(scope, seen.get());
+        assertEquals(ENDPOINT, endpoint.get());
+        // 실행기 스레드에는 요청의 scope 가 남지 않는다.
+        assertNull(CompletableFuture.supplyAsync(ResourceScope::current, executor).join());
+    }
+
+    @Test
+    void restoresScopeOfThreadRunningTheTask() {
+        ResourceScope other = new ResourceScope();
+        Runnable task = submittedFrom(scope(), () -> sink = new byte[16]);
+
+        ResourceScope.run(other, () -> {
+            task.run();
+            assertSame(other, ResourceScope.current());
+        });
+        assertNull(ResourceScope.current());
+    }
+
+    @Test
+    void taskUsageIsRecordedUnderEndpointAndAddedToRequestTotal() {
+        ResourceScope scope = scope();
+        Runnable task = submittedFrom(scope, () -> sink = new byte[MB]);
+
+        CompletableFuture.runAsync(task, executor).join();
+
+        List<RecordingResourceMetrics.Recorded> tasks = metrics.of(ResourceMetrics.TASK);
+        assertEquals(1, tasks.size());
+        RecordingResourceMetrics.Recorded recorded = tasks.get(0);
+        assertEquals("sagaExecutor", recorded.name());
+        assertEquals(ENDPOINT, recorded.endpoint());
+        assertTrue(recorded.usage().allocatedBytes() >= MB);
+        assertEquals(recorded.usage(), scope.total());
+    }
+
+    @Test
+    void failedTaskIsStillRecorded() {
+        ResourceScope scope = scope();
+        Runnable task = submittedFrom(scope, () -> {
+            sink = new byte[MB];
+            throw new IllegalStateException("step failed");
+        });
+
+        assertThrows(IllegalStateException.class, task::run);
+
+        assertEquals(1, metrics.of(ResourceMetrics.TASK).size());
+        assertTrue(scope.total().allocatedBytes() >= MB);
+        assertNull(ResourceScope.current());
+    }
+
+    @Test
+    void taskOutsideRequestIsRecordedAsNone() {
+        CompletableFuture.runAsync(decorator.decorate(() -> sink = new byte[MB]), executor).join();
+
+        RecordingResourceMetrics.Recorded recorded = metrics.of(ResourceMetrics.TASK).get(0);
+        assertEquals(ResourceScope.NONE, recorded.endpoint());
+    }
+
+    @Test
+    void disabledMetricsLeaveTaskUndecorated() {
+        Runnable task = () -> sink = new byte[16];
+
+        assertSame(task, new ResourceTaskDecorator("sagaExecutor", new RecordingResourceMetrics(false)).decorate(task));
+    }
+
+    private static ResourceScope scope() {
+        ResourceScope scope = new ResourceScope();
+        scope.nameEndpoint(ENDPOINT);
+        return scope;
+    }
+
+    /**
+     * 요청 스레드에서 scope 가 설정된 상태로 제출한 것처럼 감싼다.
+     */
+    private Runnable submittedFrom(ResourceScope scope, Runnable runnable) {
+        AtomicReference<Runnable> decorated = new AtomicReference<>();
+        ResourceScope.run(scope, () -> decorated.set(decorator.decorate(runnable)));
+        return decorated.get();
+    }
+}
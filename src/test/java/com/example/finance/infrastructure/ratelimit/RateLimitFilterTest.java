@@ -0,0 +1,117 @@
+package com.example.finance.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    // 사용자: 100초에 1개, 최대 2개 / 클라이언트: 10초에 1개, 최대 3개
+    private final RateLimitFilter filter = new RateLimitFilter(new RateLimitProperties(true,
+            new RateLimitProperties.Limit(0.01, 2), new RateLimitProperties.Limit(0.1, 3), 1024, 4));
+
+    @Test
+    void allowedRequestPassesWithHeadersOfTighterBucket() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(post("10.0.0.1", "7"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        // 클라이언트는 2개, 사용자는 1개가 남아서 사용자 쪽 헤더가 붙는다.
+        assertEquals("2", response.getHeader("X-RateLimit-Limit"));
+        assertEquals("1", response.getHeader("X-RateLimit-Remaining"));
+        assertEquals("100", response.getHeader("X-RateLimit-Reset"));
+        assertNull(response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void userLimitRejectsWithRetryAfter() throws Exception {
+        send(post("10.0.0.1", "7"));
+        send(post("10.0.0.2", "7"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(post("10.0.0.3", "7"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(429, response.getStatus());
+        assertEquals("user", response.getHeader("X-RateLimit-Scope"));
+        assertEquals("2", response.getHeader("X-RateLimit-Limit"));
+        assertEquals("0", response.getHeader("X-RateLimit-Remaining"));
+        assertEquals("200", response.getHeader("X-RateLimit-Reset"));
+        assertEquals("100", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void clientLimitRejectsBeforeConsumingUserTokens() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            send(post("10.0.0.1", String.valueOf(i)));
+        }
+
+        MockHttpServletResponse rejected = send(post("10.0.0.1", "7"));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("client", rejected.getHeader("X-RateLimit-Scope"));
+        assertEquals("3", rejected.getHeader("X-RateLimit-Limit"));
+        assertEquals("0", rejected.getHeader("X-RateLimit-Remaining"));
+        assertEquals("30", rejected.getHeader("X-RateLimit-Reset"));
+        assertEquals("10", rejected.getHeader("Retry-After"));
+
+        // 거절된 요청은 사용자 7 의 토큰을 쓰지 않았다.
+        MockHttpServletResponse other = send(post("10.0.0.2", "7"));
+        assertEquals(200, other.getStatus());
+        assertEquals("1", other.getHeader("X-RateLimit-Remaining"));
+    }
+
+    @Test
+    void rotatingHeadersDoesNotBypassClientLimit() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = post("10.0.0.1", String.valueOf(i));
+            request.addHeader("X-Client-Id", "client-" + i);
+            assertEquals(200, send(request).getStatus());
+        }
+
+        // 새 X-Client-Id 와 새 userId 로 보내도 같은 주소의 버킷을 쓴다.
+        MockHttpServletRequest rotated = post("10.0.0.1", "99");
+        rotated.addHeader("X-Client-Id", "client-99");
+        MockHttpServletResponse response = send(rotated);
+        assertEquals(429, response.getStatus());
+        assertEquals("client", response.getHeader("X-RateLimit-Scope"));
+
+        assertEquals(200, send(post("10.0.0.2", "99")).getStatus());
+    }
+
+    @Test
+    void otherRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/transactions");
+            MockHttpServletResponse response = send(get);
+            assertEquals(200, response.getStatus());
+            assertNull(response.getHeader("X-RateLimit-Limit"));
+
+            MockHttpServletRequest user = new MockHttpServletRequest("POST", "/api/users");
+            assertNull(send(user).getHeader("X-RateLimit-Limit"));
+        }
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String remoteAddr, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions");
+        request.setRemoteAddr(remoteAddr);
+        if (userId != null) {
+            request.setParameter("userId", userId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.finance.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTableTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // 초당 10개, 최대 3개
+    private final TokenBucketTable table = new TokenBucketTable(10, 3, 1024, 4);
+    private final long start = System.nanoTime();
+
+    @Test
+    void burstIsExhaustedThenRejected() {
+        assertRemaining(2, table.tryAcquire(1, start));
+        assertRemaining(1, table.tryAcquire(1, start));
+        assertRemaining(0, table.tryAcquire(1, start));
+
+        TokenBucketTable.Decision rejected = table.tryAcquire(1, start);
+        assertFalse(rejected.allowed());
+        assertEquals(3, rejected.limit());
+        assertEquals(0, rejected.remaining());
+        assertEquals(INTERVAL, rejected.retryAfterNanos());
+        assertEquals(3 * INTERVAL, rejected.resetNanos());
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsumeToken() {
+        for (int i = 0; i < 3; i++) {
+            table.tryAcquire(1, start);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertFalse(table.tryAcquire(1, start).allowed());
+        }
+
+        assertTrue(table.tryAcquire(1, start + INTERVAL).allowed());
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            table.tryAcquire(1, start);
+        }
+
+        assertFalse(table.tryAcquire(1, start + INTERVAL - 1).allowed());
+        assertRemaining(0, table.tryAcquire(1, start + INTERVAL));
+        assertFalse(table.tryAcquire(1, start + INTERVAL).allowed());
+
+        // 가득 찬 뒤에는 더 쌓이지 않는다.
+        long full = start + 10 * INTERVAL;
+        assertRemaining(2, table.tryAcquire(1, full));
+        assertRemaining(1, table.tryAcquire(1, full));
+        assertRemaining(0, table.tryAcquire(1, full));
+        assertFalse(table.tryAcquire(1, full).allowed());
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            table.tryAcquire(1, start);
+        }
+
+        assertFalse(table.tryAcquire(1, start).allowed());
+        assertRemaining(2, table.tryAcquire(2, start));
+    }
+
+    @Test
+    void fullProbeWindowEvictsBucketThatRefillsFirst() {
+        // 구간 하나에 8 칸뿐이라 모든 키가 같은 probe 범위를 쓴다.
+        TokenBucketTable small = new TokenBucketTable(10, 2, 8, 1);
+        long now = System.nanoTime();
+        for (long key = 0; key < 8; key++) {
+            assertRemaining(1, small.tryAcquire(key, now + key));
+        }
+
+        // 9번째 키는 가장 먼저 가득 찰 key 0 의 칸을 가져간다.
+        assertRemaining(1, small.tryAcquire(8, now + 8));
+        // key 1 은 그대로 남아 있어서 마지막 토큰을 쓰고 거절된다.
+        assertRemaining(0, small.tryAcquire(1, now + 9));
+        assertFalse(small.tryAcquire(1, now + 9).allowed());
+        // 밀려난 key 0 은 가득 찬 버킷으로 다시 시작한다.
+        assertRemaining(1, small.tryAcquire(0, now + 10));
+    }
+
+    @Test
+    void idleKeyFreesItsSlotWithoutEviction() {
+        TokenBucketTable small = new TokenBucketTable(10, 2, 8, 1);
+        long now = System.nanoTime();
+        for (long key = 0; key < 8; key++) {
+            small.tryAcquire(key, now);
+        }
+
+        // 모든 버킷이 가득 찬 뒤에는 새 키가 빈 칸을 쓰고, 기존 키도 가득 찬 버킷으로 보인다.
+        long later = now + 2 * INTERVAL;
+        assertRemaining(1, small.tryAcquire(100, later));
+        for (long key = 0; key < 7; key++) {
+            assertRemaining(1, small.tryAcquire(key, later));
+        }
+    }
+
+    @Test
+    void invalidLimitsAreRejected() {
+        assertThrowsIllegalArgument(() -> new TokenBucketTable(0, 1, 8, 1));
+        assertThrowsIllegalArgument(() -> new TokenBucketTable(1, 0, 8, 1));
+    }
+
+    private static void assertRemaining(int remaining, TokenBucketTable.Decision decision) {
+        assertTrue(decision.allowed(), "expected allowed: " + decision);
+        assertEquals(remaining, decision.remaining(), decision.toString());
+    }
+
+    private static void assertThrowsIllegalArgument(Runnable action) {
+        try {
+            action.run();
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        throw new AssertionError("expected IllegalArgumentException");
+    }
+}
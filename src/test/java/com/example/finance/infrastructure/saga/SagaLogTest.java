@@ -0,0 +1,155 @@
+package com.example.finance.infrastructure.saga;
+
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import com.example.finance.support.NoopTransactionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SagaLogTest {
+
+    private static final String SAGA_NAME = "transaction-saga";
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final SagaLog sagaLog = new SagaLog(jdbcTemplate, new TransactionTemplate(new NoopTransactionManager()),
+            new ShardRouter(new ShardingProperties(false, List.of(), null, null, null), null),
+            256, Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(200));
+
+    @Test
+    void batchIsWrittenInOneTransaction() {
+        UUID sagaId = sagaLog.start(SAGA_NAME);
+        sagaLog.recordStep(sagaId, SAGA_NAME, "validateUser", SagaStepLog.Status.COMPLETED, null);
+        CompletableFuture<Void> completed = sagaLog.updateStatus(sagaId, SagaInstance.Status.COMPLETED);
+
+        sagaLog.write(sagaLog.drain(), 0);
+
+        assertTrue(completed.isDone());
+        assertFalse(completed.isCompletedExceptionally());
+        assertEquals(List.of("INSERT saga_instances " + sagaId, "INSERT saga_steps " + sagaId,
+                "UPDATE saga_instances " + sagaId), jdbcTemplate.written);
+        assertEquals(0, sagaLog.retryingCount());
+    }
+
+    @Test
+    void failedBatchIsRetriedWithBackoffInsteadOfDropped() {
+        UUID sagaId = sagaLog.start(SAGA_NAME);
+        CompletableFuture<Void> compensating = sagaLog.updateStatus(sagaId, SagaInstance.Status.COMPENSATING);
+        jdbcTemplate.down = true;
+
+        sagaLog.write(sagaLog.drain(), 0);
+        assertTrue(compensating.isCompletedExceptionally());
+        assertEquals(2, sagaLog.retryingCount());
+
+        // 다음 재시도 전에는 다시 쓰지 않는다.
+        sagaLog.write(List.of(), 49);
+        assertEquals(2, sagaLog.retryingCount());
+        sagaLog.write(List.of(), 50);
+        assertEquals(2, sagaLog.retryingCount());
+        // 두 번째 실패 후에는 두 배를 기다린다.
+        jdbcTemplate.down = false;
+        sagaLog.write(List.of(), 149);
+        assertEquals(2, sagaLog.retryingCount());
+        assertTrue(jdbcTemplate.written.isEmpty());
+
+        sagaLog.write(List.of(), 150);
+        assertEquals(0, sagaLog.retryingCount());
+        assertEquals(List.of("INSERT saga_instances " + sagaId, "UPDATE saga_instances " + sagaId),
+                jdbcTemplate.written);
+    }
+
+    @Test
+    void newRecordsOfRetryingSagaWaitBehindFailedOnes() {
+        UUID sagaId = sagaLog.start(SAGA_NAME);
+        jdbcTemplate.down = true;
+        sagaLog.write(sagaLog.drain(), 0);
+        jdbcTemplate.down = false;
+
+        sagaLog.recordStep(sagaId, SAGA_NAME, "validateUser", SagaStepLog.Status.COMPLETED, null);
+        sagaLog.updateStatus(sagaId, SagaInstance.Status.COMPLETED);
+        sagaLog.write(sagaLog.drain(), 10);
+        assertTrue(jdbcTemplate.written.isEmpty());
+        assertEquals(3, sagaLog.retryingCount());
+
+        sagaLog.write(List.of(), 50);
+        assertEquals(List.of("INSERT saga_instances " + sagaId, "INSERT saga_steps " + sagaId,
+                "UPDATE saga_instances " + sagaId), jdbcTemplate.written);
+    }
+
+    @Test
+    void failingSagaDoesNotHoldBackOtherSagas() {
+        UUID poisoned = sagaLog.start(SAGA_NAME);
+        UUID healthy = sagaLog.start(SAGA_NAME);
+        jdbcTemplate.failing.add(poisoned);
+
+        sagaLog.write(sagaLog.drain(), 0);
+        assertEquals(List.of("INSERT saga_instances " + healthy), jdbcTemplate.written);
+        assertEquals(1, sagaLog.retryingCount());
+
+        CompletableFuture<Void> healthyDone = sagaLog.updateStatus(healthy, SagaInstance.Status.COMPLETED);
+        sagaLog.updateStatus(poisoned, SagaInstance.Status.COMPLETED);
+        sagaLog.write(sagaLog.drain(), 10);
+        assertTrue(healthyDone.isDone());
+        assertFalse(healthyDone.isCompletedExceptionally());
+        assertEquals(2, sagaLog.retryingCount());
+
+        jdbcTemplate.failing.clear();
+        sagaLog.write(List.of(), 50);
+        assertEquals(0, sagaLog.retryingCount());
+        assertEquals(List.of("INSERT saga_instances " + healthy, "UPDATE saga_instances " + healthy,
+                "INSERT saga_instances " + poisoned, "UPDATE saga_instances " + poisoned), jdbcTemplate.written);
+    }
+
+    @Test
+    void stopWritesRecordsStillWaitingForRetry() throws InterruptedException {
+        UUID sagaId = sagaLog.start(SAGA_NAME);
+        jdbcTemplate.down = true;
+        sagaLog.write(sagaLog.drain(), 0);
+        jdbcTemplate.down = false;
+
+        sagaLog.stop();
+
+        assertEquals(List.of("INSERT saga_instances " + sagaId), jdbcTemplate.written);
+    }
+
+    /**
+     * 성공한 batchUpdate 의 문장만 written 에 남긴다. down 이거나 failing 사가가 포함된 배치는 실패한다.
+     */
+    static class RecordingJdbcTemplate extends JdbcTemplate {
+
+        final List<String> written = new ArrayList<>();
+        final Set<UUID> failing = new HashSet<>();
+        volatile boolean down;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (down) {
+                throw new DataAccessResourceFailureException("database is down");
+            }
+            List<String> statements = new ArrayList<>();
+            for (Object[] args : batchArgs) {
+                UUID sagaId = (UUID) (sql.startsWith("UPDATE") ? args[2] : args[0]);
+                if (failing.contains(sagaId)) {
+                    throw new DataAccessResourceFailureException("cannot write saga " + sagaId);
+                }
+                String table = sql.contains("saga_steps") ? "saga_steps" : "saga_instances";
+                statements.add(sql.substring(0, 6) + " " + table + " " + sagaId);
+            }
+            written.addAll(statements);
+            return new int[batchArgs.size()];
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.finance.infrastructure.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+    @Test
+    void expiresExactlyAtLevelBoundaries() {
+        for (int level = 1; level <= 3; level++) {
+            long boundary = 1L << (6 * level);
+            TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+            for (long deadline : new long[]{boundary - 1, boundary, boundary + 1, 2 * boundary}) {
+                wheel.schedule(deadline, deadline);
+            }
+
+            assertExpiresOnItsTick(wheel, 0, List.of(boundary - 1, boundary, boundary + 1, 2 * boundary));
+        }
+    }
+
+    @Test
+    void crossesEveryLevelBoundaryFromJustBeforeIt() {
+        for (int level = 1; level <= 5; level++) {
+            long boundary = 3L << (6 * level);
+            TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+            // 비어 있는 휠은 틱을 건너뛰므로 경계 바로 앞까지 바로 간다.
+            assertTrue(wheel.advanceTo(boundary - 3).isEmpty());
+            for (long deadline : new long[]{boundary - 1, boundary, boundary + 1, boundary + 64}) {
+                wheel.schedule(deadline, deadline);
+            }
+
+            assertExpiresOnItsTick(wheel, boundary - 3, List.of(boundary - 1, boundary, boundary + 1, boundary + 64));
+        }
+    }
+
+    @Test
+    void cancelAfterCascadeRemovesTimer() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        long deadline = (1L << 12) + 5;
+        TimingWheel.Timer<String> cancelled = wheel.schedule("cancelled", deadline);
+        wheel.schedule("kept", deadline);
+
+        // 레벨 2 칸의 구간이 시작되면 두 항목 모두 레벨 0 으로 내려온다.
+        assertTrue(wheel.advanceTo(1L << 12).isEmpty());
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertEquals(1, wheel.size());
+
+        assertEquals(List.of("kept"), wheel.advanceTo(deadline));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelAfterExpiryReturnsFalse() {
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        TimingWheel.Timer<String> timer = wheel.schedule("done", 10);
+
+        assertEquals(List.of("done"), wheel.advanceTo(10));
+        assertFalse(wheel.cancel(timer));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void overdueTimersExpireOnNextAdvanceInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 1000);
+        wheel.advanceTo(2000);
+
+        wheel.schedule("late", 1900);
+        wheel.schedule("later", 1500);
+        wheel.schedule("now", 2000);
+        wheel.schedule("future", 2005);
+
+        assertEquals(List.of("later", "late", "now"), wheel.advanceTo(2000));
+        assertEquals(1, wheel.size());
+        assertTrue(wheel.advanceTo(2009).isEmpty());
+        assertEquals(List.of("future"), wheel.advanceTo(2010));
+    }
+
+    @Test
+    void deadlinesAreRoundedUpToTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 0);
+        wheel.schedule("rounded", 15);
+
+        assertTrue(wheel.advanceTo(19).isEmpty());
+        assertEquals(List.of("rounded"), wheel.advanceTo(20));
+    }
+
+    @Test
+    void expiresInDeadlineOrderAndNeverEarly() {
+        SplittableRandom random = new SplittableRandom(7);
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            long deadline = random.nextLong(1L << 19);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        List<Long> expired = new ArrayList<>();
+        long now = 0;
+        while (wheel.size() > 0) {
+            now += random.nextLong(1, 5000);
+            for (long deadline : wheel.advanceTo(now)) {
+                assertTrue(deadline <= now, deadline + " expired early at " + now);
+                expired.add(deadline);
+            }
+        }
+
+        deadlines.sort(Comparator.naturalOrder());
+        assertEquals(deadlines, expired);
+    }
+
+    /**
+     * 한 틱씩 진행하면서 각 항목이 자기 만료 틱에 정확히 나오는지 확인한다.
+     */
+    private static void assertExpiresOnItsTick(TimingWheel<Long> wheel, long from, List<Long> deadlines) {
+        List<Long> expected = new ArrayList<>(deadlines);
+        for (long now = from + 1; !expected.isEmpty(); now++) {
+            List<Long> expired = wheel.advanceTo(now);
+            if (expected.get(0) == now) {
+                assertEquals(List.of(expected.remove(0)), expired, "at tick " + now);
+            } else {
+                assertTrue(expired.isEmpty(), "unexpected " + expired + " at tick " + now);
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+}
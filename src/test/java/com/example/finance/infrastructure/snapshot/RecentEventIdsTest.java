@@ -0,0 +1,70 @@
+package com.example.finance.infrastructure.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentEventIdsTest {
+
+    private final RecentEventIds ids = new RecentEventIds();
+
+    @Test
+    void secondAddOfSameIdIsRejected() {
+        UUID eventId = UUID.randomUUID();
+
+        assertTrue(ids.add(eventId));
+        assertFalse(ids.add(eventId));
+        assertTrue(ids.add(null));
+        assertTrue(ids.add(null));
+        assertEquals(1, ids.size());
+    }
+
+    @Test
+    void idsAreRememberedForTwoGenerations() {
+        UUID older = UUID.randomUUID();
+        UUID newer = UUID.randomUUID();
+        ids.add(older);
+        ids.rotate();
+        ids.add(newer);
+
+        assertFalse(ids.add(older));
+        assertFalse(ids.add(newer));
+
+        ids.rotate();
+        assertTrue(ids.add(older), "dropped after two rotations");
+        assertFalse(ids.add(newer));
+    }
+
+    @Test
+    void bothGenerationsSurviveRoundTrip() throws IOException {
+        UUID older = UUID.randomUUID();
+        UUID newer = UUID.randomUUID();
+        ids.add(older);
+        ids.rotate();
+        ids.add(newer);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ids.writeTo(out);
+        }
+        RecentEventIds restored = new RecentEventIds();
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(2, restored.size());
+        assertFalse(restored.add(older));
+        assertFalse(restored.add(newer));
+        // 읽은 id 는 모두 이전 세대라서 한 번 더 밀면 잊는다.
+        restored.rotate();
+        assertTrue(restored.add(older));
+        assertTrue(restored.add(newer));
+    }
+}
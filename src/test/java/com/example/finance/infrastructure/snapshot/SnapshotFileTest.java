@@ -0,0 +1,103 @@
+package com.example.finance.infrastructure.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotFileTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-03-01T10:15:30.123Z");
+    private static final Instant WATERMARK_AT = Instant.parse("2024-03-01T10:14:30.456Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripKeepsHeaderAndSections() throws IOException {
+        Path path = directory.resolve("snapshot").resolve("state.snap");
+        byte[] large = new byte[100_000];
+        Arrays.fill(large, (byte) 7);
+        Map<String, byte[]> sections = new LinkedHashMap<>();
+        sections.put("budget-alerts.v1", "totals".getBytes(StandardCharsets.UTF_8));
+        sections.put("빈 구역", new byte[0]);
+        sections.put("large", large);
+
+        SnapshotFile.write(path, CREATED_AT, WATERMARK_AT, Map.of(2, 30L, 0, 10L, 1, 0L), sections);
+        SnapshotFile snapshot = SnapshotFile.read(path);
+
+        assertEquals(CREATED_AT, snapshot.createdAt());
+        assertEquals(WATERMARK_AT, snapshot.watermarkAt());
+        assertEquals(Map.of(0, 10L, 1, 0L, 2, 30L), snapshot.watermarks());
+        for (Map.Entry<String, byte[]> section : sections.entrySet()) {
+            assertArrayEquals(section.getValue(), readSection(snapshot, section.getKey()), section.getKey());
+        }
+        assertEquals(Optional.empty(), snapshot.section("missing"));
+        assertFalse(Files.exists(path.resolveSibling("state.snap.tmp")));
+    }
+
+    @Test
+    void sectionCanBeReadMoreThanOnce() throws IOException {
+        Path path = directory.resolve("state.snap");
+        SnapshotFile.write(path, CREATED_AT, WATERMARK_AT, Map.of(0, 1L), Map.of("a", new byte[]{1, 2, 3}));
+        SnapshotFile snapshot = SnapshotFile.read(path);
+
+        assertArrayEquals(new byte[]{1, 2, 3}, readSection(snapshot, "a"));
+        assertArrayEquals(new byte[]{1, 2, 3}, readSection(snapshot, "a"));
+    }
+
+    @Test
+    void corruptedByteIsRejected() throws IOException {
+        Path path = directory.resolve("state.snap");
+        SnapshotFile.write(path, CREATED_AT, WATERMARK_AT, Map.of(0, 1L), Map.of("a", "content".getBytes(StandardCharsets.UTF_8)));
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> SnapshotFile.read(path));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path path = directory.resolve("state.snap");
+        SnapshotFile.write(path, CREATED_AT, WATERMARK_AT, Map.of(0, 1L), Map.of("a", new byte[64]));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 20));
+
+        assertThrows(IOException.class, () -> SnapshotFile.read(path));
+        Files.write(path, new byte[8]);
+        assertThrows(IOException.class, () -> SnapshotFile.read(path));
+    }
+
+    @Test
+    void rewriteReplacesPreviousSnapshot() throws IOException {
+        Path path = directory.resolve("state.snap");
+        SnapshotFile.write(path, CREATED_AT, WATERMARK_AT, Map.of(0, 1L), Map.of("a", new byte[]{1}));
+        SnapshotFile.write(path, CREATED_AT.plusSeconds(60), WATERMARK_AT.plusSeconds(60), Map.of(0, 5L),
+                Map.of("a", new byte[]{2}));
+
+        SnapshotFile snapshot = SnapshotFile.read(path);
+        assertEquals(Map.of(0, 5L), snapshot.watermarks());
+        assertArrayEquals(new byte[]{2}, readSection(snapshot, "a"));
+    }
+
+    private static byte[] readSection(SnapshotFile snapshot, String name) throws IOException {
+        try (InputStream in = snapshot.section(name).orElseThrow()) {
+            return in.readAllBytes();
+        }
+    }
+}
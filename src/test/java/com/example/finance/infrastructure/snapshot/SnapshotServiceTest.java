@@ -0,0 +1,290 @@
+package com.example.finance.infrastructure.snapshot;
+
+import com.example.finance.domain.event.DomainEvent;
+import com.example.finance.infrastructure.outbox.OutboxEvent;
+import com.example.finance.infrastructure.outbox.OutboxEventRepository;
+import com.example.finance.infrastructure.sharding.ReplicaProperties;
+import com.example.finance.infrastructure.sharding.ReplicaRouter;
+import com.example.finance.infrastructure.sharding.ShardRouter;
+import com.example.finance.infrastructure.sharding.ShardingProperties;
+import com.example.finance.support.NoopTransactionManager;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ *  스냅샷에서 되살리고 그 뒤의 아웃박스 이벤트를 다시 반영한 상태가 모든 이벤트로 처음부터 다시 만든 상태와 같은지 확인한다.
+ *  아웃박스는 커밋된 행만 보이는 목록으로 흉내 낸다.
+ */
+class SnapshotServiceTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final ShardRouter shardRouter = new ShardRouter(new ShardingProperties(false, List.of(), null, null, null),
+            new TransactionTemplate(new NoopTransactionManager()));
+    private final ReplicaRouter replicaRouter = new ReplicaRouter(
+            new ReplicaProperties(false, null, null, null, null, null, null, null), shardRouter);
+    private final List<OutboxEvent> committed = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        when(outboxEventRepository.findMaxProcessedId()).thenAnswer(invocation -> committed.stream()
+                .filter(OutboxEvent::isProcessed).map(OutboxEvent::getId).max(Comparator.naturalOrder())
+                .orElse(null));
+        when(outboxEventRepository.findByIdGreaterThanAndProcessedTrueAndEventTypeInOrderByIdAsc(
+                anyLong(), any(), any())).thenAnswer(invocation -> processed(
+                (long) invocation.getArgument(0) + 1, Long.MAX_VALUE, LocalDateTime.MIN,
+                invocation.getArgument(1), invocation.getArgument(2)));
+        when(outboxEventRepository.findByIdBetweenAndProcessedTrueAndProcessedAtGreaterThanEqualAndEventTypeInOrderByIdAsc(
+                anyLong(), anyLong(), any(), any(), any())).thenAnswer(invocation -> processed(
+                invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2),
+                invocation.getArgument(3), invocation.getArgument(4)));
+    }
+
+    @Test
+    void restoreWithReplayMatchesFullRebuild() throws IOException {
+        SpendingTotals live = new SpendingTotals();
+        SnapshotService service = service(live);
+        LocalDateTime earlier = LocalDateTime.now().minusMinutes(1);
+        for (long id = 1; id <= 5; id++) {
+            deliver(live, id, id % 3, 100 * id, earlier);
+        }
+        // id 6 의 트랜잭션은 아직 커밋되지 않아서 보이지 않는다.
+        deliver(live, 7, 1, 700, earlier);
+
+        service.write();
+        deliver(live, 8, 2, 800, LocalDateTime.now());
+        service.write();
+        deliver(live, 10, 0, 1000, LocalDateTime.now());
+        // 이 스냅샷의 watermark 는 8 이고, 6 은 그 뒤에 커밋되어 처리된다.
+        service.write();
+        deliver(live, 6, 2, 600, LocalDateTime.now());
+        deliver(live, 11, 1, 1100, LocalDateTime.now());
+
+        SpendingTotals restored = new SpendingTotals();
+        SnapshotService restarted = service(restored);
+        restarted.load();
+
+        assertTrue(restarted.restore(restored));
+        assertEquals(rebuild(), restored.totals);
+        assertEquals(live.totals, restored.totals);
+    }
+
+    @Test
+    void restoredStateKeepsDedupingLaterDeliveries() throws IOException {
+        SpendingTotals live = new SpendingTotals();
+        SnapshotService service = service(live);
+        deliver(live, 1, 1, 100, LocalDateTime.now());
+        service.write();
+        SpentEvent redelivered = deliver(live, 2, 1, 200, LocalDateTime.now());
+        service.write();
+
+        SpendingTotals restored = new SpendingTotals();
+        SnapshotService restarted = service(restored);
+        restarted.load();
+        assertTrue(restarted.restore(restored));
+        // 최소 한 번 전달이라 스냅샷에 들어간 이벤트가 다시 올 수 있다.
+        restored.replay(redelivered);
+
+        assertEquals(rebuild(), restored.totals);
+    }
+
+    @Test
+    void stuckEventDoesNotHoldBackWatermark() throws IOException {
+        SpendingTotals live = new SpendingTotals();
+        SnapshotService service = service(live);
+        LocalDateTime earlier = LocalDateTime.now().minusMinutes(1);
+        // 역직렬화에 실패하는 행. 릴레이가 처리하지 못해서 계속 남는다.
+        commit(1, new SpentEvent(1, 999), false, null);
+        for (long id = 2; id <= 4; id++) {
+            deliver(live, id, id % 2, 100 * id, earlier);
+        }
+
+        service.write();
+        deliver(live, 5, 1, 500, earlier);
+        service.write();
+        deliver(live, 6, 0, 600, earlier);
+        service.write();
+        deliver(live, 7, 1, 700, earlier);
+        // 2..5 는 RecentEventIds 에서 밀려났으므로 다시 반영하면 두 번 더해진다.
+        service.write();
+        deliver(live, 8, 0, 800, LocalDateTime.now());
+
+        SpendingTotals restored = new SpendingTotals();
+        SnapshotService restarted = service(restored);
+        restarted.load();
+
+        assertTrue(restarted.restore(restored));
+        assertEquals(rebuild(), restored.totals);
+        assertEquals(live.totals, restored.totals);
+    }
+
+    @Test
+    void missingSnapshotFallsBackToRebuild() {
+        SpendingTotals participant = new SpendingTotals();
+        SnapshotService service = service(participant);
+        service.load();
+
+        assertFalse(service.restore(participant));
+    }
+
+    private SnapshotService service(SpendingTotals participant) {
+        return new SnapshotService(new SnapshotProperties(true, directory.resolve("state.snap"), null, null, 2),
+                outboxEventRepository, shardRouter, replicaRouter, objectMapper,
+                new StaticListableBeanFactory(Map.of("spendingTotals", participant))
+                        .getBeanProvider(SnapshotParticipant.class));
+    }
+
+    /**
+     * 이벤트를 아웃박스에 커밋하고 릴레이가 처리해서 참여자가 반영한 상태로 만든다.
+     */
+    private SpentEvent deliver(SpendingTotals participant, long id, long userId, long amount,
+                               LocalDateTime processedAt) throws IOException {
+        SpentEvent event = new SpentEvent(userId, amount);
+        commit(id, event, true, processedAt);
+        participant.replay(event);
+        return event;
+    }
+
+    private void commit(long id, SpentEvent event, boolean processed, LocalDateTime processedAt)
+            throws IOException {
+        committed.add(OutboxEvent.builder()
+                .id(id)
+                .eventId(event.getEventId())
+                .eventType(SpentEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(LocalDateTime.now())
+                .processed(processed)
+                .processedAt(processedAt)
+                .build());
+    }
+
+    /**
+     * DB 의 처리된 이벤트로 처음부터 다시 계산한 합계
+     */
+    private Map<Long, Long> rebuild() throws IOException {
+        Map<Long, Long> totals = new TreeMap<>();
+        for (OutboxEvent row : committed.stream().filter(OutboxEvent::isProcessed).toList()) {
+            SpentEvent event = objectMapper.readValue(row.getPayload(), SpentEvent.class);
+            totals.merge(event.getUserId(), event.getAmount(), Long::sum);
+        }
+        return totals;
+    }
+
+    private List<OutboxEvent> processed(long fromId, long toId, LocalDateTime processedSince,
+                                        Collection<String> eventTypes, Limit limit) {
+        return committed.stream()
+                .filter(event -> event.isProcessed() && event.getId() >= fromId && event.getId() <= toId)
+                .filter(event -> !event.getProcessedAt().isBefore(processedSince))
+                .filter(event -> eventTypes.contains(event.getEventType()))
+                .sorted(Comparator.comparing(OutboxEvent::getId))
+                .limit(limit.max())
+                .toList();
+    }
+
+    public static class SpentEvent extends DomainEvent {
+        private long userId;
+        private long amount;
+
+        public SpentEvent() {
+        }
+
+        SpentEvent(long userId, long amount) {
+            this.userId = userId;
+            this.amount = amount;
+            initialize();
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+    }
+
+    /**
+     * 사용자별 지출 합계. BudgetAlertEngine 과 같이 반영한 이벤트 id 를 기억해서 중복을 거른다.
+     */
+    private static class SpendingTotals implements SnapshotParticipant {
+        private Map<Long, Long> totals = new TreeMap<>();
+        private RecentEventIds recentEvents = new RecentEventIds();
+
+        @Override
+        public String snapshotName() {
+            return "spending-totals.v1";
+        }
+
+        @Override
+        public Set<Class<? extends DomainEvent>> replayedEvents() {
+            return Set.of(SpentEvent.class);
+        }
+
+        @Override
+        public boolean readyForSnapshot() {
+            return true;
+        }
+
+        @Override
+        public synchronized void writeSnapshot(DataOutputStream out) throws IOException {
+            out.writeInt(totals.size());
+            for (Map.Entry<Long, Long> total : totals.entrySet()) {
+                out.writeLong(total.getKey());
+                out.writeLong(total.getValue());
+            }
+            recentEvents.writeTo(out);
+            recentEvents.rotate();
+        }
+
+        @Override
+        public synchronized void readSnapshot(DataInputStream in) throws IOException {
+            Map<Long, Long> restored = new TreeMap<>();
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                restored.put(in.readLong(), in.readLong());
+            }
+            RecentEventIds events = new RecentEventIds();
+            events.readFrom(in);
+            totals = restored;
+            recentEvents = events;
+        }
+
+        @Override
+        public synchronized void replay(DomainEvent event) {
+            if (recentEvents.add(event.getEventId())) {
+                SpentEvent spent = (SpentEvent) event;
+                totals.merge(spent.getUserId(), spent.getAmount(), Long::sum);
+            }
+        }
+    }
+}
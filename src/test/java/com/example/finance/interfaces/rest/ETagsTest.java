@@ -0,0 +1,49 @@
+package com.example.finance.interfaces.rest;
+
+import com.example.finance.domain.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTest {
+
+    @Test
+    void versionIsReadFromStrongTag() {
+        String etag = ETags.of(Transaction.builder().id(5L).version(3L).build());
+
+        assertEquals("\"5-3\"", etag);
+        assertEquals(3L, ETags.versionOf(etag));
+        assertEquals(3L, ETags.versionOf("  \"5-3\" "));
+    }
+
+    @Test
+    void missingOrAnyIfMatchHasNoExpectedVersion() {
+        assertNull(ETags.versionOf(null));
+        assertNull(ETags.versionOf("*"));
+    }
+
+    @Test
+    void weakIfMatchNeverMatches() {
+        // If-Match 는 strong 비교라서 weak 태그는 같은 값이어도 일치하지 않아야 한다.
+        assertEquals(-1L, ETags.versionOf("W/\"5-3\""));
+    }
+
+    @Test
+    void unparseableIfMatchNeverMatches() {
+        assertEquals(-1L, ETags.versionOf("5-3"));
+        assertEquals(-1L, ETags.versionOf("\"5-x\""));
+        assertEquals(-1L, ETags.versionOf("\""));
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        assertTrue(ETags.matches("W/\"5-3\"", "\"5-3\""));
+        assertTrue(ETags.matches("\"1-1\", \"5-3\"", "\"5-3\""));
+        assertTrue(ETags.matches("*", "\"5-3\""));
+        assertFalse(ETags.matches("\"5-2\"", "\"5-3\""));
+        assertFalse(ETags.matches(null, "\"5-3\""));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.finance.interfaces.rest;
+
+import com.example.finance.application.service.ArchivedTransactionModificationException;
+import com.example.finance.application.service.SagaOrchestrationService;
+import com.example.finance.application.service.TransactionIngestionService;
+import com.example.finance.application.service.TransactionQueryService;
+import com.example.finance.application.service.TransactionService;
+import com.example.finance.application.service.TransactionVersionMismatchException;
+import com.example.finance.domain.model.Category;
+import com.example.finance.domain.model.Transaction;
+import com.example.finance.domain.model.User;
+import com.example.finance.infrastructure.idempotency.IdempotencyStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TransactionControllerTest {
+
+    private final TransactionService transactionService = mock(TransactionService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TransactionController(transactionService,
+            mock(SagaOrchestrationService.class), mock(TransactionQueryService.class),
+            mock(TransactionIngestionService.class), mock(IdempotencyStore.class))).build();
+
+    @Test
+    void matchingIfMatchUpdatesAndReturnsNewETag() throws Exception {
+        when(transactionService.updateTransaction(eq(7L), isNull(), eq(new BigDecimal("20.00")), isNull(), isNull(),
+                eq(3L))).thenReturn(Optional.of(transaction(4L)));
+
+        mockMvc.perform(patch("/api/transactions/7").param("amount", "20.00").header(HttpHeaders.IF_MATCH, "\"7-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7-4\""));
+    }
+
+    @Test
+    void staleIfMatchIsPreconditionFailed() throws Exception {
+        when(transactionService.updateTransaction(eq(7L), any(), any(), any(), any(), eq(2L)))
+                .thenThrow(new TransactionVersionMismatchException(7L, 2L, 3L));
+        when(transactionService.deleteTransaction(7L, 2L))
+                .thenThrow(new TransactionVersionMismatchException(7L, 2L, 3L));
+
+        mockMvc.perform(patch("/api/transactions/7").param("amount", "20.00").header(HttpHeaders.IF_MATCH, "\"7-2\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/transactions/7").header(HttpHeaders.IF_MATCH, "\"7-2\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void weakIfMatchIsPreconditionFailed() throws Exception {
+        // weak 태그는 어떤 버전과도 일치하지 않는 -1 로 넘어간다.
+        when(transactionService.updateTransaction(eq(7L), any(), any(), any(), any(), eq(-1L)))
+                .thenThrow(new TransactionVersionMismatchException(7L, -1L, 3L));
+
+        mockMvc.perform(patch("/api/transactions/7").param("amount", "20.00").header(HttpHeaders.IF_MATCH, "W/\"7-3\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void concurrentUpdateIsConflict() throws Exception {
+        when(transactionService.updateTransaction(eq(7L), any(), any(), any(), any(), eq(3L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Transaction.class, 7L));
+
+        mockMvc.perform(patch("/api/transactions/7").param("amount", "20.00").header(HttpHeaders.IF_MATCH, "\"7-3\""))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void archivedTransactionIsConflict() throws Exception {
+        when(transactionService.updateTransaction(eq(7L), any(), any(), any(), any(), any()))
+                .thenThrow(new ArchivedTransactionModificationException(7L));
+        when(transactionService.deleteTransaction(eq(7L), any()))
+                .thenThrow(new ArchivedTransactionModificationException(7L));
+
+        mockMvc.perform(patch("/api/transactions/7").param("amount", "20.00"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(delete("/api/transactions/7"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void missingTransactionIsNotFound() throws Exception {
+        when(transactionService.updateTransaction(eq(8L), any(), any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(patch("/api/transactions/8").param("amount", "20.00"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/transactions/8"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static Transaction transaction(long version) {
+        return Transaction.builder()
+                .id(7L)
+                .user(User.builder().id(1L).build())
+                .category(Category.builder().id(2L).build())
+                .amount(new BigDecimal("20.00"))
+                .type(Transaction.TransactionType.EXPENSE)
+                .version(version)
+                .build();
+    }
+}